@@ -368,7 +368,7 @@ public class Config {
 		if( val != null ) val = val.trim();
 		val = replaceEnvVar( val );
 		if( val != null && val.isEmpty() ) val = null;
-		moduleUsedProps.put( prop, val );
+		getModuleUsedProps().put( prop, val );
 		return val;
 	}
 	public static String getString( final BioModule module, final String property ) {
@@ -395,7 +395,7 @@ public class Config {
 	 */
 	public static Map<String, String> getUsedProps() {
 		getString( null, Constants.PIPELINE_DEFAULT_PROPS );
-		allUsedProps.putAll( moduleUsedProps );
+		addModuleUsedProps();
 		return new HashMap<>( allUsedProps );
 	}
 
@@ -748,7 +748,7 @@ public class Config {
 			Log.info(Config.class, "Overwriting [" + name + "=" + origProp + "] to set config property [" + name + "=" + val + "]");
 		else  Log.info( Config.class, "Set config property [ " + name + " ] = " + val );
 		
-		moduleUsedProps.put( name, val );
+		getModuleUsedProps().put( name, val );
 		props.setProperty( name, val );
 	}
 	/**
@@ -944,7 +944,7 @@ public class Config {
 	private static void addEnvVarToMap(String key, String value) throws ConfigNotFoundException {
 		if( value != null && !value.trim().isEmpty() ) {
 			envVarMap.put( key, value );
-			moduleUsedProps.put( key, value );
+			getModuleUsedProps().put( key, value );
 		}
 	}
 	
@@ -981,7 +981,7 @@ public class Config {
 		}
 		if( props != null && props.getProperty( bashVar ) != null ) {
 			bashVal = props.getProperty( bashVar );
-			moduleUsedProps.put( bashVar, bashVal );
+			getModuleUsedProps().put( bashVar, bashVal );
 
 		}
 		return bashVal;
@@ -1051,26 +1051,57 @@ public class Config {
 		return property.startsWith( Constants.INTERNAL_PREFIX );
 	}
 	
+	private static void addModuleUsedProps() {
+		synchronized( moduleUsedProps ) {
+			for( final Map<String, String> usedProps: moduleUsedProps.values() )
+				synchronized( usedProps ) {
+					allUsedProps.putAll( usedProps );
+				}
+		}
+	}
+
+	/**
+	 * Get the properties used by the module executed by the current thread, or by the pipeline if no module is
+	 * running.
+	 */
+	private static Map<String, String> getModuleUsedProps() {
+		return getModuleUsedProps( Pipeline.exeModule() );
+	}
+
+	private static Map<String, String> getModuleUsedProps( final BioModule module ) {
+		synchronized( moduleUsedProps ) {
+			return moduleUsedProps.computeIfAbsent( module == null ? NO_MODULE: module.getID(),
+				k -> Collections.synchronizedMap( new HashMap<>() ) );
+		}
+	}
+
 	/**
 	 * Dump all of the properties stored for the current module into the allUsedProps set,
 	 * and clear out the module-used-props to start with a clean slate.
+	 * Used properties are kept for each module, so modules running at the same time do not clear each other's.
 	 */
 	public static void resetUsedProps() {
-		allUsedProps.putAll( moduleUsedProps );
-		moduleUsedProps.clear();
+		final Map<String, String> usedProps = getModuleUsedProps();
+		synchronized( usedProps ) {
+			allUsedProps.putAll( usedProps );
+			usedProps.clear();
+		}
 	}
 	
 	public static void saveModuleProps( BioModule module ) throws IOException {
+		final Map<String, String> usedProps = getModuleUsedProps( module );
 		File modConfig = new File(module.getLogDir(), ModuleUtil.displayName( module ) + USED_PROPS_SUFFIX);
 		BufferedWriter writer = new BufferedWriter( new FileWriter( modConfig ) );
 		try {
 			writer.write( "# Properties used during the execution of module: " + ModuleUtil.displaySignature( module ) + Constants.RETURN);
 			List<String> names = new ArrayList<>();
-			names.addAll( moduleUsedProps.keySet() );
+			synchronized( usedProps ) {
+				names.addAll( usedProps.keySet() );
+			}
 			Collections.sort(names);
 			for( final String key: names )
-				if (moduleUsedProps.get( key ) != null) {
-					writer.write( key + "=" + moduleUsedProps.get( key ) + Constants.RETURN );
+				if (usedProps.get( key ) != null) {
+					writer.write( key + "=" + usedProps.get( key ) + Constants.RETURN );
 				}
 		}finally {
 			writer.close();
@@ -1078,7 +1109,7 @@ public class Config {
 	}
 	
 	public static void showUnusedProps() throws FileNotFoundException, IOException {
-		allUsedProps.putAll( moduleUsedProps );
+		addModuleUsedProps();
 		Properties props = new Properties();
 		Log.info(Config.class, "Path to configFile: " + configFile.getAbsolutePath());
 		props.load( new FileInputStream( configFile) );
@@ -1162,12 +1193,14 @@ public class Config {
 	
 	public static final String BLJ_PROJ_VAR = "BLJ_PROJ";
 	
-	private static final Map<String, String> envVarMap = new HashMap<>();
+	private static final Map<String, String> envVarMap = Collections.synchronizedMap( new HashMap<>() );
 	private static File configFile = null;
 	static Properties props = null;
 	private static Properties unmodifiedInputProps = new Properties();
-	private static final Map<String, String> allUsedProps = new HashMap<>();
-	private static final Map<String, String> moduleUsedProps = new HashMap<>();
+	private static final Map<String, String> allUsedProps = Collections.synchronizedMap( new HashMap<>() );
+	private static final Map<Integer, Map<String, String>> moduleUsedProps =
+		Collections.synchronizedMap( new HashMap<>() );
+	private static final Integer NO_MODULE = -1;
 	private static final String USED_PROPS_SUFFIX = "_used.properties";
 	private static final String UNUSED_PROPS_FILE = "unused.properties";
 	
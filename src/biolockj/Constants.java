@@ -77,6 +77,8 @@ public class Constants {
 		Properties.registerProp( PIPELINE_DEFAULT_PROPS, Properties.FILE_PATH_LIST, PIPELINE_DEFAULT_PROPS_DESC );
 		Properties.registerProp( PIPELINE_ENV, Properties.STRING_TYPE, "Environment in which a pipeline is run. Options: " + PIPELINE_ENV_CLUSTER + ", " + PIPELINE_ENV_AWS + ", " + PIPELINE_ENV_LOCAL );
 		Properties.registerProp( PIPELINE_ENV_VARS, Properties.LIST_TYPE, PIPELINE_ENV_VARS_DESC );
+		Properties.registerProp( PIPELINE_FUSE_SEQ_MODULES, Properties.BOOLEAN_TYPE, PIPELINE_FUSE_SEQ_MODULES_DESC );
+		Properties.registerProp( PIPELINE_MODULE_SLOTS, Properties.INTEGER_TYPE, PIPELINE_MODULE_SLOTS_DESC );
 		Properties.registerProp( PIPELINE_USE_EVARS, Properties.BOOLEAN_TYPE, PIPELINE_USE_EVARS_DESC );
 		Properties.registerProp( PIPELINE_PRIVS, Properties.STRING_TYPE, PIPELINE_PRIVS_DESC );
 		Properties.registerProp( DOWNLOAD_DIR, Properties.FILE_PATH, DOWNLOAD_DIR_DESC );
@@ -651,6 +653,20 @@ public class Constants {
 	public static final String PIPELINE_ENV_VARS = "pipeline.envVars";
 	public static final String PIPELINE_ENV_VARS_DESC = "list of variables that should be passed into the runtime environment for all modules.";
 
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #PIPELINE_FUSE_SEQ_MODULES}<br>
+	 * {@value #PIPELINE_FUSE_SEQ_MODULES_DESC}
+	 */
+	public static final String PIPELINE_FUSE_SEQ_MODULES = "pipeline.fuseSeqModules";
+	private static final String PIPELINE_FUSE_SEQ_MODULES_DESC = "Options: Y/N. If Y, consecutive sequence modules that process each read on its own are run as a single pass over the reads; only the last module of each chain saves sequence files.";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #PIPELINE_MODULE_SLOTS}<br>
+	 * {@value #PIPELINE_MODULE_SLOTS_DESC}
+	 */
+	public static final String PIPELINE_MODULE_SLOTS = "pipeline.moduleSlots";
+	private static final String PIPELINE_MODULE_SLOTS_DESC = "max number of modules to run at the same time. Modules only run ahead of earlier modules if their input module is complete; if undefined, modules run one at a time in order.";
+
 	/**
 	 * {@link biolockj.Config} List property: {@value #PIPELINE_USE_EVARS}<br>
 	 * {@value #PIPELINE_USE_EVARS_DESC}
@@ -13,6 +13,11 @@ package biolockj;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.log4j.Appender;
+import org.apache.log4j.AsyncAppender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import biolockj.exception.ConfigFormatException;
@@ -30,11 +35,23 @@ import biolockj.util.*;
  * <li>{@link biolockj.Log#out(Class)}.{@link #out(Class)}.warn( logMessage )
  * <li>{@link biolockj.Log#out(Class)}.{@link #out(Class)}.error( logMessage, exception )
  * </ul>
+ * Debug messages built in a loop should use {@link #debug(Class, Supplier)}, so the message is only built if it will
+ * be written. Once the log file is initialized, log4j appenders are written by a background thread, see
+ * {@link #ASYNC_BUFFER_SIZE}.
  */
 public class Log {
 
 	private Log() {}
 
+	/**
+	 * Start buffering the log messages generated by the current thread, instead of writing them to the log file as
+	 * they occur. Used by BioModules that process files in parallel so the messages for each file can be written as
+	 * a single block, see {@link #releaseThreadMsgs()} and {@link #logMsgs(List)}.
+	 */
+	public static void bufferThreadMsgs() {
+		threadMsgs.set( new ArrayList<>() );
+	}
+
 	/**
 	 * Print log level DEBUG message.<br>
 	 * Do not print {@link biolockj.util.MetaUtil} debug since these will always print since the Logger isn't
@@ -50,11 +67,9 @@ public class Log {
 			return;
 		}
 
-		if( isInitialized() && !getAlwaysDebugClasses().contains( loggingClass.getName() ) && !debugClasses().isEmpty() ) {
-			boolean isDebugClass = false;
-			for( final String val: debugClasses() )
-				if( loggingClass.getName().contains( val ) ) isDebugClass = true;
-			if( !isDebugClass ) {
+		if( logFile != null ) {
+			if( !doDebug() ) return;
+			if( !isDebugClass( loggingClass ) ) {
 				if( !gaveDebugWarning ) {
 					gaveDebugWarning = true;
 					warn( loggingClass, "DEBUG DISABLED for " + loggingClass.getName() + " because Config property [ " +
@@ -67,15 +82,29 @@ public class Log {
 		}
 
 		if( logFile == null ) logMesseges.add( new String[] { DEBUG, msg } );
-		else out( loggingClass ).debug( msg );
+		else if( !bufferThreadMsg( DEBUG, loggingClass, msg ) ) out( loggingClass ).debug( msg );
+	}
+
+	/**
+	 * Print log level DEBUG message built by the supplier. The message is only built if
+	 * {@link #isDebugEnabled(Class)} is TRUE for the logging class.
+	 * 
+	 * @param loggingClass Logging class
+	 * @param msg Message supplier
+	 */
+	public static void debug( final Class<?> loggingClass, final Supplier<String> msg ) {
+		if( isDebugEnabled( loggingClass ) ) debug( loggingClass, msg.get() );
 	}
 
 	/**
-	 * Return TRUE if {@value Constants#LOG_LEVEL_PROPERTY} = DEBUG.
+	 * Return TRUE if {@value Constants#LOG_LEVEL_PROPERTY} = DEBUG.<br>
+	 * The level is read from {@link biolockj.Config} until the log file is initialized, and cached after that.
 	 * 
 	 * @return TRUE if DEBUG
 	 */
 	public static boolean doDebug() {
+		final Boolean level = debugLevel;
+		if( level != null ) return level;
 		return Config.getString( null, Constants.LOG_LEVEL_PROPERTY ).toUpperCase().equals( DEBUG );
 	}
 
@@ -113,10 +142,25 @@ public class Log {
 			return;
 		}
 		if( logFile == null ) logMesseges.add( new String[] { ERROR, msg } );
+		else if( bufferThreadMsg( ERROR, myClass,
+			exception == null ? msg: msg + Constants.RETURN + ExceptionUtils.getStackTrace( exception ) ) ) return;
 		else if( exception != null ) out( myClass ).error( msg, exception );
 		else out( myClass ).error( msg );
 	}
 
+	/**
+	 * Check if a DEBUG message from the logging class would be written. Messages generated before the log file is
+	 * initialized are always kept, since the log level is not yet known.
+	 * 
+	 * @param loggingClass Logging class
+	 * @return TRUE if DEBUG messages from the logging class are written
+	 */
+	public static boolean isDebugEnabled( final Class<?> loggingClass ) {
+		if( !enableLogs ) return false;
+		if( RuntimeParamUtil.logToSystemOut() || logFile == null ) return true;
+		return doDebug() && isDebugClass( loggingClass );
+	}
+
 	/**
 	 * Returns the log file.
 	 *
@@ -148,7 +192,7 @@ public class Log {
 			return;
 		}
 		if( logFile == null ) logMesseges.add( new String[] { INFO, msg } );
-		else out( myClass ).info( msg );
+		else if( !bufferThreadMsg( INFO, myClass, msg ) ) out( myClass ).info( msg );
 	}
 
 	/**
@@ -167,13 +211,19 @@ public class Log {
 	 * @throws Exception if unable to create the log file or print {@link biolockj.Config} properties
 	 */
 	public static void initialize( final String name ) throws Exception {
-		logFile = new File( Config.pipelinePath(), name + Constants.LOG_EXT);
-		logFile.createNewFile();
-		System.setProperty( LOG_FILE, logFile.getAbsolutePath() );
-		System.setProperty( Constants.LOG_LEVEL_PROPERTY, validateLogLevel() );
-		System.setProperty( LOG_APPEND, String.valueOf( logFile.isFile() ) );
+		final File file = new File( Config.pipelinePath(), name + Constants.LOG_EXT);
+		file.createNewFile();
+		final String logLevel = validateLogLevel();
+		System.setProperty( LOG_FILE, file.getAbsolutePath() );
+		System.setProperty( Constants.LOG_LEVEL_PROPERTY, logLevel );
+		System.setProperty( LOG_APPEND, String.valueOf( file.isFile() ) );
 		System.setProperty( LOG_FORMAT,
 			BioLockJUtil.isDirectMode() && !Config.isOnCluster() ? DIRECT_FORMAT: DEFAULT_FORMAT );
+		debugLevel = logLevel.equals( DEBUG );
+		debugClasses = null;
+		debugClassCache.clear();
+		logFile = file;
+		startAsyncAppender();
 
 		if (RuntimeParamUtil.doRestart()) {
 			Log.info( Log.class, Constants.LOG_SPACER );
@@ -203,6 +253,21 @@ public class Log {
 		}
 	}
 
+	/**
+	 * Write log messages previously buffered by {@link #bufferThreadMsgs()}, in the order they were generated.
+	 * 
+	 * @param msgs Buffered messages {level, logging class name, message}
+	 */
+	public static void logMsgs( final List<String[]> msgs ) {
+		for( final String[] m: msgs ) {
+			final Logger logger = out( m[ 1 ] );
+			if( m[ 0 ].equals( DEBUG ) ) logger.debug( m[ 2 ] );
+			else if( m[ 0 ].equals( INFO ) ) logger.info( m[ 2 ] );
+			else if( m[ 0 ].equals( WARN ) ) logger.warn( m[ 2 ] );
+			else logger.error( m[ 2 ] );
+		}
+	}
+
 	/**
 	 * Check status of boolean toggle variable used to enable/disable log messages.
 	 * 
@@ -220,9 +285,19 @@ public class Log {
 	 * @return Logger for callingClass
 	 */
 	public static Logger out( final Class<?> callingClass ) {
-		if( loggers.get( callingClass.getName() ) == null )
-			loggers.put( callingClass.getName(), LoggerFactory.getLogger( callingClass ) );
-		return loggers.get( callingClass.getName() );
+		return out( callingClass.getName() );
+	}
+
+	/**
+	 * Stop buffering log messages for the current thread and return the messages buffered since the last call to
+	 * {@link #bufferThreadMsgs()}.
+	 * 
+	 * @return Buffered messages {level, logging class name, message}
+	 */
+	public static List<String[]> releaseThreadMsgs() {
+		final List<String[]> msgs = threadMsgs.get();
+		threadMsgs.remove();
+		return msgs == null ? new ArrayList<>(): msgs;
 	}
 
 	/**
@@ -238,7 +313,7 @@ public class Log {
 			return;
 		}
 		if( logFile == null ) logMesseges.add( new String[] { WARN, msg } );
-		else out( myClass ).warn( msg );
+		else if( !bufferThreadMsg( WARN, myClass, msg ) ) out( myClass ).warn( msg );
 	}
 
 	/**
@@ -340,8 +415,50 @@ public class Log {
 		return alwaysDebugClasses;
 	}
 
-	private static boolean isInitialized() {
-		return logFile != null && logFile.isFile();
+	private static boolean bufferThreadMsg( final String level, final Class<?> loggingClass, final String msg ) {
+		final List<String[]> msgs = threadMsgs.get();
+		if( msgs == null ) return false;
+		msgs.add( new String[] { level, loggingClass.getName(), msg } );
+		return true;
+	}
+
+	private static boolean isDebugClass( final Class<?> loggingClass ) {
+		return debugClassCache.computeIfAbsent( loggingClass.getName(), name -> {
+			if( debugClasses().isEmpty() || getAlwaysDebugClasses().contains( name ) ) return true;
+			for( final String val: debugClasses() )
+				if( name.contains( val ) ) return true;
+			return false;
+		} );
+	}
+
+	private static Logger out( final String className ) {
+		return loggers.computeIfAbsent( className, LoggerFactory::getLogger );
+	}
+
+	/**
+	 * Move the appenders configured in log4j.properties behind a single {@link org.apache.log4j.AsyncAppender}, so
+	 * logging threads only add the event to a bounded buffer and a background thread does the I/O. The buffer blocks
+	 * when full, so no messages are dropped, and is flushed by a shutdown hook when the JVM exits.
+	 */
+	private static synchronized void startAsyncAppender() {
+		out( Log.class );
+		final org.apache.log4j.Logger root = org.apache.log4j.Logger.getRootLogger();
+		if( root.getAppender( ASYNC_APPENDER ) != null ) return;
+		final List<Appender> appenders = new ArrayList<>();
+		for( final Enumeration<?> it = root.getAllAppenders(); it.hasMoreElements(); )
+			appenders.add( (Appender) it.nextElement() );
+		if( appenders.isEmpty() ) return;
+
+		final AsyncAppender async = new AsyncAppender();
+		async.setName( ASYNC_APPENDER );
+		async.setBufferSize( ASYNC_BUFFER_SIZE );
+		async.setBlocking( true );
+		for( final Appender appender: appenders ) {
+			async.addAppender( appender );
+			root.removeAppender( appender );
+		}
+		root.addAppender( async );
+		Runtime.getRuntime().addShutdownHook( new Thread( async::close, ASYNC_APPENDER ) );
 	}
 
 	/**
@@ -395,11 +512,20 @@ public class Log {
 	 * <i>log4j.appender.file.layout.ConversionPattern=${LOG_FORMAT}</i>
 	 */
 	protected static final String LOG_FORMAT = "LOG_FORMAT";
+
+	/**
+	 * Number of log events held in memory while waiting to be written: {@value #ASYNC_BUFFER_SIZE}
+	 */
+	protected static final int ASYNC_BUFFER_SIZE = 8192;
+	private static final String ASYNC_APPENDER = "async";
+	private static final Map<String, Boolean> debugClassCache = new ConcurrentHashMap<>();
+	private static volatile Boolean debugLevel = null;
 	private static Set<String> debugClasses = null;
 	private static Set<String> alwaysDebugClasses = null;
 	private static boolean enableLogs = true;
 	private static boolean gaveDebugWarning = false;
-	private static File logFile = null;
-	private static Map<String, Logger> loggers = new HashMap<>();
+	private static volatile File logFile = null;
+	private static final Map<String, Logger> loggers = new ConcurrentHashMap<>();
 	private static final List<String[]> logMesseges = new ArrayList<>();
+	private static final ThreadLocal<List<String[]>> threadMsgs = new ThreadLocal<>();
 }
@@ -13,9 +13,9 @@ package biolockj;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.filefilter.WildcardFileFilter;
@@ -41,33 +41,19 @@ public class Pipeline {
 	 * @throws Exception if runtime errors occur
 	 */
 	public static void executeModule() throws Exception {
-		ModuleUtil.markStarted( exeModule() );
-		Config.resetUsedProps();
-		refreshRCacheIfNeeded();
-		exeModule().executeTask();
-		final boolean isJava = exeModule() instanceof JavaModule;
-		final boolean hasScripts = ModuleUtil.hasScripts( exeModule() );
-		final boolean detachJava = Config.getBoolean( exeModule(), Constants.DETACH_JAVA_MODULES );
-		final boolean runDetached = isJava && hasScripts && detachJava;
-
-		if( runDetached ) MasterConfigUtil.saveMasterConfig();
-		if( hasScripts && !DockerUtil.inAwsEnv() ) Processor.runModuleMainScript( (ScriptModule) exeModule() );
-		if( hasScripts ) waitForModuleScripts();
-		Thread.sleep( Config.getPositiveInteger( exeModule(), Constants.SCRIPT_DELAY_FOR_FILE_UPDATES ) * 1000 );
-		exeModule().cleanUp();
-		ValidationUtil.validateModule( exeModule() );
-		if( !runDetached ) SummaryUtil.reportSuccess( exeModule() );
-		Config.saveModuleProps( exeModule() );
-		ModuleUtil.markComplete( exeModule() );
+		startModule();
+		final boolean runDetached = runModuleTask();
+		finishModule( runDetached );
 	}
 
 	/**
-	 * Return the BioModule currently being executed
+	 * Return the BioModule currently being executed by this thread. Threads started by a module must call
+	 * {@link #setThreadModule(BioModule)} to run as the module.
 	 * 
-	 * @return Current BioModule
+	 * @return Current BioModule, or null if this thread is not running a module
 	 */
 	public static BioModule exeModule() {
-		return currentModule;
+		return threadModule.get();
 	}
 
 	/**
@@ -110,6 +96,7 @@ public class Pipeline {
 	 */
 	public static void runDirectModule( final Integer id ) throws Exception {
 		final JavaModule module = (JavaModule) Pipeline.getModules().get( id );
+		setExeModule( module );
 		try {
 			Log.info( Pipeline.class,
 				"Start Direct BioModule Execution for [ ID #" + id + " ] ---> " + module.getClass().getSimpleName() );
@@ -142,7 +129,8 @@ public class Pipeline {
 			SummaryUtil.reportSuccess( null );
 		} catch( final Exception ex ) {
 			try {
-				PipelineUtil.markStatus( currentModule, Constants.BLJ_FAILED );
+				final BioModule failedModule = exeModule();
+				if( failedModule != null ) PipelineUtil.markStatus( failedModule, Constants.BLJ_FAILED );
 				Log.error( Pipeline.class, "Pipeline failed! " + ex.getMessage(), ex );
 				pipelineException = ex;
 				SummaryUtil.reportFailure( ex );
@@ -180,7 +168,9 @@ public class Pipeline {
 	 * Before/after a module is executed, set persistent module status by creating status indicator files. Incomplete
 	 * modules have an empty file {@value Constants#BLJ_STARTED} in the module directory.<br>
 	 * Complete modules have an empty file {@value Constants#BLJ_COMPLETE} in the module directory.<br>
-	 * {@link biolockj.module.BioModule}s are run in the order listed in the {@link biolockj.Config} file.<br>
+	 * {@link biolockj.module.BioModule}s are run in the order listed in the {@link biolockj.Config} file, unless
+	 * {@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_MODULE_SLOTS} &gt; 1, in which case
+	 * {@link #executeModulesConcurrently(int)} may run independent modules at the same time.<br>
 	 * <p>
 	 * Execution steps:
 	 * <ol>
@@ -192,6 +182,11 @@ public class Pipeline {
 	 * @throws Exception if script errors occur
 	 */
 	protected static void executeModules() throws Exception {
+		final Integer slots = Config.getPositiveInteger( null, Constants.PIPELINE_MODULE_SLOTS );
+		if( slots != null && slots > 1 && !BioLockJUtil.isDirectMode() ) {
+			executeModulesConcurrently( slots );
+			return;
+		}
 		for( final BioModule module: Pipeline.getModules() ) {
 			setExeModule( module );
 			if( !ModuleUtil.isComplete( module ) ) executeModule();
@@ -200,6 +195,92 @@ public class Pipeline {
 		}
 	}
 
+	/**
+	 * Execute incomplete modules on up to slots threads. Each module still waits for every earlier module, unless it
+	 * {@link biolockj.module.BioModule#checksInputModuleType()}: such modules start once their input module (found
+	 * with {@link biolockj.module.BioModule#isValidInputModule(BioModule)}) and every earlier module that
+	 * {@link biolockj.module.BioModule#mayUpdateMetadata()} are complete. Modules that may update metadata always
+	 * wait for every earlier module.<br>
+	 * Module status files are written as in serial execution, so restarts skip completed modules. Module setup and
+	 * clean up steps, which update shared pipeline state, run one module at a time. If a module fails, no new modules
+	 * start and the 1st error is thrown once running modules finish; the failed module is set as the module of the
+	 * calling thread, so {@link #runPipeline()} marks it failed. If no module is running and no pending module is
+	 * ready, an error lists the pending modules and the modules they wait for.
+	 *
+	 * @param slots Max number of modules to run at once
+	 * @throws Exception if any module fails, or if pending modules can never start
+	 */
+	protected static void executeModulesConcurrently( final int slots ) throws Exception {
+		executeModulesConcurrently( slots, Pipeline::runScheduledModule );
+	}
+
+	/**
+	 * Schedule the incomplete modules as described in {@link #executeModulesConcurrently(int)}, running each module
+	 * with the runner.
+	 *
+	 * @param slots Max number of modules to run at once
+	 * @param runner Runs a module on a scheduler thread and returns its Exception, or null if successful
+	 * @throws Exception if any module fails, or if pending modules can never start
+	 */
+	static void executeModulesConcurrently( final int slots, final Function<BioModule, Exception> runner )
+		throws Exception {
+		Log.info( Pipeline.class, "Run up to " + slots + " independent modules at once" );
+		setExeModule( null );
+		final List<BioModule> pending = new ArrayList<>();
+		for( final BioModule module: getModules() )
+			if( !ModuleUtil.isComplete( module ) ) pending.add( module );
+			else Log.debug( Pipeline.class,
+				"Skipping succssfully completed BioLockJ Module: " + module.getClass().getName() );
+
+		final ExecutorService pool = Executors.newFixedThreadPool( slots );
+		final CompletionService<Exception> completion = new ExecutorCompletionService<>( pool );
+		final Map<Future<Exception>, BioModule> running = new HashMap<>();
+		BioModule failedModule = null;
+		Exception failure = null;
+		try {
+			while( !pending.isEmpty() || !running.isEmpty() ) {
+				if( failure == null ) for( final Iterator<BioModule> it = pending.iterator(); it.hasNext() && running.size() < slots; ) {
+					final BioModule module = it.next();
+					if( !isReady( module ) ) continue;
+					it.remove();
+					Log.info( Pipeline.class, "Start module: " + ModuleUtil.displaySignature( module ) );
+					running.put( completion.submit( () -> runner.apply( module ) ), module );
+				}
+				if( running.isEmpty() ) break;
+
+				final Future<Exception> done = completion.take();
+				final BioModule module = running.remove( done );
+				final Exception ex = done.get();
+				if( ex != null && failure == null ) {
+					failure = ex;
+					failedModule = module;
+					if( !running.isEmpty() ) Log.warn( Pipeline.class, "Module failed: " +
+						ModuleUtil.displaySignature( module ) + " - wait for running modules to finish" );
+				} else if( ex != null ) Log.error( Pipeline.class,
+					"Module also failed: " + ModuleUtil.displaySignature( module ) + " --> " + ex.getMessage(), ex );
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		if( failure != null ) {
+			setExeModule( failedModule );
+			throw failure;
+		}
+
+		if( !pending.isEmpty() ) {
+			setExeModule( pending.get( 0 ) );
+			final StringBuilder msg = new StringBuilder( "Pipeline stopped with " + pending.size() +
+				" modules that cannot start:" );
+			for( final BioModule module: pending ) {
+				msg.append( Constants.RETURN + ModuleUtil.displaySignature( module ) + " waits for:" );
+				for( final BioModule prev: getUnmetDependencies( module ) )
+					msg.append( " " + ModuleUtil.displaySignature( prev ) );
+			}
+			throw new Exception( msg.toString() );
+		}
+	}
+
 	/**
 	 * Initialization occurs by calling {@link biolockj.module.BioModule} methods on configured modules<br>
 	 * <ol>
@@ -278,7 +359,9 @@ public class Pipeline {
 	 * begins.<br>
 	 * If successful, an empty file with {@value Constants#SCRIPT_SUCCESS} appended to the script name is created.<br>
 	 * Upon failure, an empty file with {@value Constants#SCRIPT_FAILURES} appended to the script name is created.<br>
-	 * Script status is polled each minute, determining status by counting indicator files.<br>
+	 * Script status is checked whenever an indicator file is created (if the file system reports it) and otherwise
+	 * polled at least once per minute, determining status by counting indicator files. Scripts found successful are
+	 * not checked again.<br>
 	 * {@link biolockj.Log} outputs the # of started, failed, and successful scripts (if any change).<br>
 	 * {@link biolockj.Log} repeats the previous message every 10 minutes if no status change is detected.<br>
 	 *
@@ -296,6 +379,11 @@ public class Pipeline {
 		int numFailed = 0;
 
 		for( final File f: scriptFiles ) {
+			if( completedScripts.get().contains( f.getName() ) ) {
+				numStarted++;
+				numSuccess++;
+				continue;
+			}
 			final File testStarted = new File( f.getAbsolutePath() + "_" + Constants.SCRIPT_STARTED );
 			final File testSuccess = new File( f.getAbsolutePath() + "_" + Constants.SCRIPT_SUCCESS );
 			final File testFailure = new File( f.getAbsolutePath() + "_" + Constants.SCRIPT_FAILURES );
@@ -309,7 +397,10 @@ public class Pipeline {
 				testFailure.createNewFile();
 			}
 			numStarted = numStarted + ( testStarted.isFile() ? 1: 0 );
-			numSuccess = numSuccess + ( testSuccess.isFile() ? 1: 0 );
+			if( testSuccess.isFile() ) {
+				completedScripts.get().add( f.getName() );
+				numSuccess++;
+			}
 			numFailed = numFailed + ( testFailure.isFile() ? 1: 0 );
 		}
 
@@ -317,11 +408,14 @@ public class Pipeline {
 			numSuccess + "; Failed=" + numFailed + "; Running=" + ( numStarted - numSuccess - numFailed ) +
 			"; Queued=" + ( numScripts - numStarted );
 
-		if( !statusMsg.equals( logMsg ) ) {
-			statusMsg = logMsg;
-			pollCount = 0;
+		if( !statusMsg.get().equals( logMsg ) ) {
+			statusMsg.set( logMsg );
+			pollCount.set( 0 );
 			Log.info( Pipeline.class, logMsg );
-		} else if( ++pollCount % 10 == 0 ) Log.info( Pipeline.class, logMsg );
+		} else {
+			pollCount.set( pollCount.get() + 1 );
+			if( pollCount.get() % 10 == 0 ) Log.info( Pipeline.class, logMsg );
+		}
 
 		if( numFailed > 0 | mainFailed.exists() ) {
 			String scriptMsgs = BioLockJUtil.getCollectionAsString( module.getScriptErrors() );
@@ -350,7 +444,22 @@ public class Pipeline {
 		}
 	}
 
-	private static IOFileFilter getWorkerScriptFilter( final ScriptModule module ) {
+	/**
+	 * Clean up, validate, and mark the module complete.
+	 */
+	private static void finishModule( final boolean runDetached ) throws Exception {
+		Thread.sleep( Config.getPositiveInteger( exeModule(), Constants.SCRIPT_DELAY_FOR_FILE_UPDATES ) * 1000 );
+		synchronized( MODULE_STATE_LOCK ) {
+			exeModule().cleanUp();
+			ValidationUtil.validateModule( exeModule() );
+			BatchPlanner.saveHistory( exeModule() );
+			if( !runDetached ) SummaryUtil.reportSuccess( exeModule() );
+			Config.saveModuleProps( exeModule() );
+			ModuleUtil.markComplete( exeModule() );
+		}
+	}
+
+	private static IOFileFilter getWorkerScriptFilter( final ScriptModule module ) {
 		return new WildcardFileFilter("*" + Constants.SH_EXT );
 	}
 
@@ -386,13 +495,41 @@ public class Pipeline {
 		return null;
 	}
 
+	/**
+	 * A module is ready if every earlier module is complete. Modules that
+	 * {@link biolockj.module.BioModule#checksInputModuleType()} only wait for their input module and for earlier
+	 * modules that {@link biolockj.module.BioModule#mayUpdateMetadata()}, unless they may update metadata
+	 * themselves.
+	 */
+	private static boolean isReady( final BioModule module ) {
+		return getUnmetDependencies( module ).isEmpty();
+	}
+
+	/**
+	 * Get the incomplete earlier modules the module must wait for, as described in {@link #isReady(BioModule)}.
+	 */
+	private static List<BioModule> getUnmetDependencies( final BioModule module ) {
+		final boolean checksType = module.checksInputModuleType() && !module.mayUpdateMetadata();
+		final List<BioModule> unmet = new ArrayList<>();
+		boolean foundInput = false;
+		for( BioModule prev = ModuleUtil.getPreviousModule( module ); prev != null; prev = ModuleUtil.getPreviousModule( prev ) ) {
+			if( ModuleUtil.isComplete( prev ) ) {
+				if( !foundInput && module.isValidInputModule( prev ) ) foundInput = true;
+				continue;
+			}
+			if( !checksType || prev.mayUpdateMetadata() || !foundInput && module.isValidInputModule( prev ) )
+				unmet.add( prev );
+		}
+		return unmet;
+	}
+
 	private static void info( final String msg ) {
 		if( !BioLockJUtil.isDirectMode() ) Log.info( Pipeline.class, msg );
 	}
 
 	private static void logScriptTimeOutMsg( final ScriptModule module ) throws Exception {
 		final String prompt = "------> ";
-		Log.info( Pipeline.class, prompt + "Java program wakes every 60 seconds to check execution progress" );
+		Log.info( Pipeline.class, prompt + "Java program checks execution progress when indicator files are created, and at least every 60 seconds" );
 		Log.info( Pipeline.class, prompt + "Status determined by existance of indicator files in " +
 			module.getScriptDir().getAbsolutePath() );
 		Log.info( Pipeline.class, prompt + "Indicator files end with: \"_" + Constants.SCRIPT_STARTED + "\", \"_" +
@@ -407,41 +544,113 @@ public class Pipeline {
 		else Log.info( Pipeline.class, prompt + "Running scripts will NEVER TIME OUT." );
 	}
 
+	/**
+	 * Execute the module on a scheduler thread.
+	 *
+	 * @return Exception thrown by the module, or null if successful
+	 */
+	private static Exception runScheduledModule( final BioModule module ) {
+		setExeModule( module );
+		try {
+			executeModule();
+			Log.info( Pipeline.class, "Module complete: " + ModuleUtil.displaySignature( module ) );
+			return null;
+		} catch( final Exception ex ) {
+			Log.error( Pipeline.class, "Module failed: " + ModuleUtil.displaySignature( module ) + " --> " + ex.getMessage(), ex );
+			return ex;
+		}
+	}
+
+	/**
+	 * Run the module task and wait for its scripts, if any.<br>
+	 * Modules in a fused chain of {@link biolockj.module.StreamingSeqModule}s run the chain with
+	 * {@link biolockj.util.FusedSeqUtil#runChain(BioModule)} instead, in this application instance.
+	 *
+	 * @return TRUE if the Java module runs detached
+	 */
+	private static boolean runModuleTask() throws Exception {
+		if( FusedSeqUtil.isFused( exeModule() ) ) {
+			FusedSeqUtil.runChain( exeModule() );
+			return false;
+		}
+		exeModule().executeTask();
+		final boolean isJava = exeModule() instanceof JavaModule;
+		final boolean hasScripts = ModuleUtil.hasScripts( exeModule() );
+		final boolean detachJava = Config.getBoolean( exeModule(), Constants.DETACH_JAVA_MODULES );
+		final boolean runDetached = isJava && hasScripts && detachJava;
+
+		if( runDetached ) synchronized( MODULE_STATE_LOCK ) {
+			MasterConfigUtil.saveMasterConfig();
+		}
+		if( hasScripts && !DockerUtil.inAwsEnv() ) Processor.runModuleMainScript( (ScriptModule) exeModule() );
+		if( hasScripts ) waitForModuleScripts();
+		return runDetached;
+	}
+
 	private static void setExeModule( final BioModule module ) {
-		currentModule = module;
+		threadModule.set( module );
+	}
+
+	/**
+	 * Set the module executed by the current thread, so threads started by a module (such as the file tasks of
+	 * {@link biolockj.module.JavaModuleImpl}) read the Config of that module.
+	 * 
+	 * @param module BioModule, or null once the thread is done with the module
+	 */
+	public static void setThreadModule( final BioModule module ) {
+		if( module == null ) threadModule.remove();
+		else threadModule.set( module );
 	}
 
 	/**
-	 * This method calls executes script module scripts and monitors them until complete or timing out after
-	 * {@value #POLL_TIME} seconds.
+	 * Mark the module started and reset module scoped state.
+	 */
+	private static void startModule() throws Exception {
+		synchronized( MODULE_STATE_LOCK ) {
+			ModuleUtil.markStarted( exeModule() );
+			Config.resetUsedProps();
+			refreshRCacheIfNeeded();
+		}
+	}
+
+	/**
+	 * This method monitors module scripts until complete or timing out after
+	 * {@link biolockj.module.ScriptModule#getTimeout()} minutes.<br>
+	 * A {@link biolockj.util.ScriptWatcher} wakes the pipeline as soon as an indicator file is created in the script
+	 * directory. Status is also polled after 2 seconds, then every 10 seconds after the 1st minute, and every minute
+	 * after 5 minutes, in case the file system does not report changes made by other hosts.
 	 *
 	 * @throws Exception if errors occur
 	 */
 	private static void waitForModuleScripts() throws Exception {
 		final ScriptModule module = (ScriptModule) exeModule();
 		logScriptTimeOutMsg( module );
-		long startTime = (new Date()).getTime();
-		long millisWaiting;
-		long delayMillis;
-		boolean finished = false;
-		while( !finished ) {
-			finished = poll( module );
-			if( !finished ) {
-				millisWaiting = (new Date()).getTime() - startTime;
+		completedScripts.get().clear();
+		final long startTime = System.currentTimeMillis();
+		final ScriptWatcher watcher = ScriptWatcher.watch( module.getScriptDir() );
+		try {
+			while( !poll( module ) ) {
+				final long millisWaiting = System.currentTimeMillis() - startTime;
 				if( module.getTimeout() != null && module.getTimeout() > 0 
 								&& millisWaiting >= BioLockJUtil.minutesToMillis(module.getTimeout() ))
 					throw new Exception( module.getClass().getName() + " timed out after " + BioLockJUtil.millisToMinutes( millisWaiting ) + " minutes." );
+				final long delayMillis;
 				if ( BioLockJUtil.millisToMinutes(millisWaiting) < 1 ) { delayMillis = 2 * 1000;
 				}else if ( BioLockJUtil.millisToMinutes(millisWaiting) < 5 ) { delayMillis = 10 * 1000;
 				}else {delayMillis = BioLockJUtil.minutesToMillis(1);}
-				Thread.sleep( delayMillis );
+				if( watcher == null ) Thread.sleep( delayMillis );
+				else watcher.await( delayMillis );
 			}
+		} finally {
+			if( watcher != null ) watcher.close();
 		}
 	}
 
 	private static List<BioModule> bioModules = null;
-	private static BioModule currentModule = null;
+	private static final ThreadLocal<Set<String>> completedScripts = ThreadLocal.withInitial( HashSet::new );
 	private static Exception pipelineException = null;
-	private static int pollCount = 0;
-	private static String statusMsg = "";
+	private static final ThreadLocal<Integer> pollCount = ThreadLocal.withInitial( () -> 0 );
+	private static final ThreadLocal<String> statusMsg = ThreadLocal.withInitial( () -> "" );
+	private static final ThreadLocal<BioModule> threadModule = new ThreadLocal<>();
+	private static final Object MODULE_STATE_LOCK = new Object();
 }
@@ -27,6 +27,7 @@ import biolockj.util.BashScriptBuilder;
 import biolockj.util.BioLockJUtil;
 import biolockj.util.DemuxUtil;
 import biolockj.util.DockerUtil;
+import biolockj.util.GzipUtil;
 import biolockj.util.MetaUtil;
 import biolockj.util.NextflowUtil;
 import biolockj.util.RMetaUtil;
@@ -262,6 +263,7 @@ public class Properties extends java.util.Properties {
 		RMetaUtil.registerProps();
 		ValidationUtil.registerProps();
 		DemuxUtil.registerProps();
+		GzipUtil.registerProps();
 		
 		//These aws* properties are only used in the bash layer, there is no java class that owns these.
 		addToPropMaps( "aws.ec2InstanceID", STRING_TYPE, "ID of an existing ec2 instance to use as the head node" );//TODO: bash property descriptions
@@ -231,6 +231,29 @@ public interface BioModule {
 	 */
 	public String getDockerImageTag();
 	
+	/**
+	 * Check if {@link #isValidInputModule(BioModule)} depends only on the class of the previous module, and not on its
+	 * output files. If so, the input module can be found before earlier modules have run, so pipelines with
+	 * {@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_MODULE_SLOTS} &gt; 1 may start this module as soon as
+	 * its input module is complete. Modules that {@link #mayUpdateMetadata()} still wait for every earlier module.
+	 * 
+	 * @return TRUE if isValidInputModule only checks the module class
+	 */
+	default public boolean checksInputModuleType() {
+		return false;
+	}
+
+	/**
+	 * Check if this module may save a new metadata file to its output directory. Such modules wait for every earlier
+	 * module, and modules that run ahead of earlier modules (see {@link #checksInputModuleType()}) still wait for
+	 * every earlier module that may update metadata.
+	 * 
+	 * @return TRUE unless the module never creates a new metadata file
+	 */
+	default public boolean mayUpdateMetadata() {
+		return true;
+	}
+
 	/**
 	 * Changes to a module class should be accompanied by a increment in version.
 	 * The is a string and open form, but using the major.minor.patch semantic versioning is recommended.
@@ -14,13 +14,10 @@ package biolockj.module;
 import java.io.File;
 import java.util.*;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.comparator.SizeFileComparator;
 import org.apache.commons.io.filefilter.HiddenFileFilter;
 import biolockj.*;
 import biolockj.Properties;
 import biolockj.api.API_Exception;
-import biolockj.exception.ConfigFormatException;
-import biolockj.exception.ConfigNotFoundException;
 import biolockj.exception.PipelineFormationException;
 import biolockj.util.*;
 
@@ -350,24 +347,19 @@ public abstract class BioModuleImpl implements BioModule, Comparable<BioModule>
 			Log.info( getClass(), "Input File [" + i + "]: " + this.inputFiles.get( i ).getAbsolutePath() );
 	}
 
+	/**
+	 * Order the seqFiles with {@link biolockj.util.BatchPlanner} so each worker script gets about the same predicted
+	 * runtime.
+	 */
 	private void sortCachedInputFilesForEvenBatchSize() {
 		try {
-			final Map<Integer, List<File>> map = new HashMap<>();
-			final int numWorkers = ModuleUtil.getNumWorkers( this );
-			final List<File> sortedList = new SizeFileComparator().sort( new ArrayList<>( this.inputFiles ) );
-			for( int i = 0; i < sortedList.size(); i++ ) {
-				final List<File> files =
-					map.get( i % numWorkers ) == null ? new ArrayList<>(): map.get( i % numWorkers );
-				files.add( sortedList.get( i ) );
-				map.put( i % numWorkers, files );
-			}
+			final List<File> plannedList = BatchPlanner.plan( this, new ArrayList<>( this.inputFiles ) );
 			this.inputFiles.clear();
-			for( final Integer batchNum: map.keySet() )
-				this.inputFiles.addAll( map.get( batchNum ) );
+			this.inputFiles.addAll( plannedList );
 			Log.info( getClass(),
-				"List seqFiles sorted for equal batch sizes " + BioLockJUtil.printLongFormList( this.inputFiles ) );
-		} catch( ConfigFormatException | ConfigNotFoundException ex ) {
-			Log.error( getClass(), "Failed sort by size, return alphabetical list instead", ex );
+				"List seqFiles sorted for equal batch runtimes " + BioLockJUtil.printLongFormList( this.inputFiles ) );
+		} catch( final Exception ex ) {
+			Log.error( getClass(), "Failed to plan worker batches, return alphabetical list instead", ex );
 		}
 	}
 
@@ -14,6 +14,8 @@ package biolockj.module;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.HiddenFileFilter;
 import biolockj.*;
@@ -127,6 +129,51 @@ public abstract class JavaModuleImpl extends ScriptModuleImpl implements JavaMod
 		}
 	}
 
+	/**
+	 * Run the task on each of the files, in parallel, using a work-stealing pool of up to
+	 * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} threads.<br>
+	 * Log messages generated while processing each file are buffered and written as a single block, in file order, so
+	 * the log reads the same as if the files had been processed serially. If a task fails, no new tasks are started and
+	 * the exception thrown for the 1st failed file (in file order) is rethrown.<br>
+	 * Tasks run concurrently, so any state shared between files must be thread-safe.
+	 *
+	 * @param files Files to process
+	 * @param task Task run on each file
+	 * @throws Exception if the task fails for any file
+	 */
+	protected void processFiles( final List<File> files, final FileTask task ) throws Exception {
+		final int numThreads =
+			Math.min( files.size(), Config.requirePositiveInteger( this, Constants.SCRIPT_NUM_THREADS ) );
+		if( numThreads < 2 ) {
+			for( final File file: files )
+				task.process( file );
+			return;
+		}
+
+		Log.info( getClass(), "Process " + files.size() + " files on " + numThreads + " threads" );
+		final AtomicBoolean failed = new AtomicBoolean( false );
+		final List<Future<FileTaskResult>> results = new ArrayList<>();
+		final ForkJoinPool pool = new ForkJoinPool( numThreads );
+		try {
+			for( final File file: files )
+				results.add( pool.submit( () -> runFileTask( this, file, task, failed ) ) );
+
+			for( final Future<FileTaskResult> future: results ) {
+				final FileTaskResult result;
+				try {
+					result = future.get();
+				} catch( final ExecutionException ex ) {
+					if( ex.getCause() instanceof Error ) throw (Error) ex.getCause();
+					throw ex;
+				}
+				Log.logMsgs( result.msgs );
+				if( result.error != null ) throw result.error;
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
 	/**
 	 * Get the java command to launch a module directly.  
 	 * The java command will be a repeat of the command originally used to launch the program, 
@@ -155,6 +202,43 @@ public abstract class JavaModuleImpl extends ScriptModuleImpl implements JavaMod
 		return DockerUtil.getVersionAsTag();
 	}
 
+	private static FileTaskResult runFileTask( final BioModule module, final File file, final FileTask task,
+		final AtomicBoolean failed ) {
+		final FileTaskResult result = new FileTaskResult();
+		if( failed.get() ) return result;
+		Pipeline.setThreadModule( module );
+		Log.bufferThreadMsgs();
+		try {
+			task.process( file );
+		} catch( final Exception ex ) {
+			failed.set( true );
+			result.error = ex;
+		} finally {
+			result.msgs = Log.releaseThreadMsgs();
+			Pipeline.setThreadModule( null );
+		}
+		return result;
+	}
+
+	/**
+	 * Task run on a single file by {@link JavaModuleImpl#processFiles(List, FileTask)}.
+	 */
+	protected interface FileTask {
+
+		/**
+		 * Process the file.
+		 * 
+		 * @param file Input file
+		 * @throws Exception if errors occur processing the file
+		 */
+		public void process( File file ) throws Exception;
+	}
+
+	private static final class FileTaskResult {
+		private Exception error = null;
+		private List<String[]> msgs = new ArrayList<>();
+	}
+
 	/**
 	 * Docker environment variable holding the Docker program switches: {@value #BLJ_OPTIONS}
 	 */
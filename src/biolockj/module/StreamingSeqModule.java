@@ -0,0 +1,74 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.module;
+
+import java.io.File;
+import biolockj.util.SeqRecord;
+
+/**
+ * Classes that implement this interface are {@link biolockj.module.SeqModule}s that can process each read on its own,
+ * without looking at any other read.<br>
+ * If {@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_FUSE_SEQ_MODULES}={@value biolockj.Constants#TRUE},
+ * consecutive StreamingSeqModules are run by {@link biolockj.util.FusedSeqUtil} as a chain of read filters over a single
+ * pass of each input file, and only the last module in the chain saves sequence files.
+ */
+public interface StreamingSeqModule extends SeqModule {
+
+	/**
+	 * Open the read filter used to process the reads of the sequence file. Filters for different files may run at the
+	 * same time, so any state shared between files must be thread-safe.
+	 *
+	 * @param seqFile Input file of the 1st module in the chain
+	 * @return Read filter
+	 * @throws Exception if unable to open the filter
+	 */
+	public ReadFilter getReadFilter( File seqFile ) throws Exception;
+
+	/**
+	 * Check if the module processes each read on its own with the current {@link biolockj.Config}. Modules that must
+	 * compare reads across files, such as paired reads, cannot be run in a chain.
+	 *
+	 * @return TRUE if the module can run in a chain
+	 * @throws Exception if unable to read the Config
+	 */
+	public boolean isRecordLocal() throws Exception;
+
+	/**
+	 * Save the module output that depends on every file, such as reports and metadata columns, once every file has
+	 * been streamed.
+	 *
+	 * @throws Exception if unable to save the output
+	 */
+	public void streamComplete() throws Exception;
+
+	/**
+	 * Filter applied to each read of a single sequence file.
+	 */
+	public interface ReadFilter {
+
+		/**
+		 * Save the statistics collected for the file once every read has been filtered.
+		 *
+		 * @throws Exception if unable to save the statistics
+		 */
+		public void close() throws Exception;
+
+		/**
+		 * Process the read.
+		 *
+		 * @param read Sequence read, which may be modified in place
+		 * @return Read to pass to the next module, or null to drop the read
+		 * @throws Exception if unable to process the read
+		 */
+		public SeqRecord filter( SeqRecord read ) throws Exception;
+	}
+}
@@ -80,9 +80,7 @@ public class Humann2Classifier extends ClassifierModuleImpl implements ApiModule
 
 	@Override
 	public List<List<String>> buildScriptForPairedReads( final List<File> files ) throws Exception {
-		final List<File> sortedFiles = new ArrayList<>( getPairedReads().keySet() );
-		Collections.sort( sortedFiles );
-		return buildScript( sortedFiles );
+		return buildScript( new ArrayList<>( getPairedReads().keySet() ) );
 	}
 
 	/**
@@ -1,8 +1,6 @@
 package biolockj.module.diversity;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import biolockj.Log;
 import biolockj.api.ApiModule;
@@ -25,14 +23,9 @@ public class ShannonDiversity extends TransformTaxaTables implements ApiModule
 		Log.debug(this.getClass(), "Doing shannon diversity for for [" + inputData.getLevel() + "] level.");
 		List<String> sampleNames = inputData.listSamples();
 		
-		TaxaLevelTable newData = new TaxaLevelTable(inputData.getLevel());
-		for(String name : sampleNames)
-		{
-			Double val = getShannonEntropy(inputData, name);
-			HashMap<String, Double> cell = new HashMap<>();
-			cell.put( SHANNON_COLUMN, val );
-			newData.put(name, cell);
-		}
+		TaxaLevelTable newData = new TaxaLevelTable( inputData.getLevel(), sampleNames, filterTaxa( inputData ) );
+		for(int s = 0; s < sampleNames.size(); s++)
+			newData.setValue( s, 0, getShannonEntropy( inputData, inputData.getSampleIndex( sampleNames.get( s ) ) ) );
 		Log.debug(this.getClass(), "Finished ShannonDiversity calculation for [" + inputData.getLevel() + "] level.");
 		return newData;
 	}
@@ -43,29 +36,16 @@ public class ShannonDiversity extends TransformTaxaTables implements ApiModule
 		return list;
 	};
 	
-	private double getShannonEntropy(TaxaLevelTable table, String sample) throws Exception
+	private double getShannonEntropy(TaxaLevelTable table, int sample)
 	{
-		double sum = 0;
-
-		Collection<Double> innerList = table.get( sample ).values();
-
-		for (Double d : innerList)
-			sum += d;
-
-		List<Double> newList = new ArrayList<Double>();
-
-		for (Double d : innerList)
-			newList.add(d / sum);
-
-		sum = 0;
-		for (Double d : newList)
-			if (d > 0)
-			{
-				sum += d * Math.log(d);
-
-			}
-
-		return -sum;
+		final double sum = table.rowSum( sample );
+		double entropy = 0;
+		for (int t = 0; t < table.getNumTaxa(); t++)
+		{
+			final double d = table.getValue( sample, t ) / sum;
+			if (d > 0) entropy += d * Math.log(d);
+		}
+		return -entropy;
 	}
 
 	@Override
@@ -85,6 +65,11 @@ public class ShannonDiversity extends TransformTaxaTables implements ApiModule
 		return "1.0.0";
 	}
 
+	@Override
+	public boolean checksInputModuleType() {
+		return true;
+	}
+
 	@Override
 	public boolean isValidInputModule( final BioModule module ) {
 		return module instanceof BuildTaxaTables;
@@ -13,6 +13,7 @@ package biolockj.module.implicit;
 
 import java.io.*;
 import java.util.*;
+import org.apache.commons.io.FileUtils;
 import biolockj.*;
 import biolockj.Properties;
 import biolockj.api.API_Exception;
@@ -165,271 +166,283 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule, ApiModul
 	/**
 	 * Module execution summary:<br>
 	 * <ol>
-	 * <li>Execute {@link #breakUpFiles()} to split the multiplex file into smaller size for processing
-	 * <li>Execute {@link #getValidHeaders()} to obtain list of valid headers matched to sample ID with the metadata
-	 * file and also verifies matching forward and reverse read headers if demuliplexing paired reads.
-	 * <li>Execute {@link #demultiplex(Map)} to demultiplex the data into a separate file (or pair of files) for each
-	 * sample
+	 * <li>Execute {@link #detectDemuxStrategy()} to set the barcode strategy from a bounded sample of reads
+	 * <li>If unpaired, execute {@link #demultiplexUnpaired()} to route every read to its sample in a single pass
+	 * <li>If paired, execute {@link #demultiplexPairsInLockstep()} to route each forward/reverse pair in a single
+	 * pass; if the reads are not in matching order, fall back to {@link #demultiplexPairsByFingerprint()}
 	 * </ol>
 	 * <p>
+	 * Reads are never held in memory beyond the bounded per-sample write buffers of a
+	 * {@link biolockj.util.OutputBufferPool}.
+	 * <p>
 	 * If paired reads are combined in a single file the read direction must be identified in the sequence header using
 	 * key strings {@value biolockj.util.SeqUtil#ILLUMINA_FW_READ_IND}
 	 * {@value biolockj.util.SeqUtil#ILLUMINA_RV_READ_IND}
 	 */
 	@Override
 	public void runModule() throws Exception {
-		breakUpFiles();
-		demultiplex( getValidHeaders() );
+		detectDemuxStrategy();
+		DemuxUtil.resetSampleIdLookup();
+		this.fwSuffix = getFileSuffix( true );
+		this.rvSuffix = getFileSuffix( false );
+
+		if( !SeqUtil.hasPairedReads() ) demultiplexUnpaired();
+		else if( !demultiplexPairsInLockstep() ) demultiplexPairsByFingerprint();
+
+		printCounts();
 	}
 
 	/**
-	 * Some multiplexed files can be very large. This method breaks each input file into smaller files, each
-	 * {@value #NUM_LINES_TEMP_FILE} lines in size to avoid memory issues while processing.
+	 * Read the first {@value #NUM_TEST_READS} reads of the 1st non-empty input file to count barcodes found in the
+	 * headers and sequences, then set the demultiplexer strategy and reverse compliment Config properties (if
+	 * undefined). Only a bounded prefix is read so this step is independent of the multiplexed file size.
 	 *
 	 * @throws Exception if unexpected errors occur at runtime
 	 */
-	protected void breakUpFiles() throws Exception {
-		final boolean useBarcodes = DemuxUtil.hasValidBarcodes();
-		File testFile = null;
+	protected void detectDemuxStrategy() throws Exception {
+		if( !DemuxUtil.hasValidBarcodes() ) return;
+		final List<String> barcodes =
+			MetaUtil.getFieldValues( Config.requireString( this, MetaUtil.META_BARCODE_COLUMN ), true );
+		final List<String> revCompBarcodes = new ArrayList<>();
+		for( final String code: barcodes )
+			revCompBarcodes.add( SeqUtil.reverseComplement( code ) );
+
 		for( final File file: getInputFiles() ) {
-			Log.info( getClass(),
-				"Break multiplexed file [ " + file.getAbsolutePath() + " ] into files with a max #lines = [ " +
-					NUM_LINES_TEMP_FILE + " ] to avoid memory issues while processing." );
-			Log.info( getClass(), "Found #lines/read = " + SeqUtil.getNumLinesPerRead() );
 			long numReads = 0L;
 			long headerFwBarcodes = 0L;
 			long headerRvBarcodes = 0L;
 			long seqFwBarcodes = 0L;
 			long seqRvBarcodes = 0L;
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
+			final SeqRecordReader reader = new SeqRecordReader( file );
 			try {
-				final List<String> seqLines = new ArrayList<>();
-				final List<String> read = new ArrayList<>();
-				int i = 0;
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					read.add( line );
-
-					if( useBarcodes ) {
-						if( testFile == null && read.size() == 1 ) {
-							numReads++;
-							final int testBarcodes = hasBarcode( line );
-							if( testBarcodes == 1 ) headerFwBarcodes++;
-							else if( testBarcodes == 2 ) headerRvBarcodes++;
-						}
-
-						if( testFile == null && read.size() == 2 ) {
-							final int testBarcodes = hasBarcode( line );
-							if( testBarcodes == 1 ) seqFwBarcodes++;
-							else if( testBarcodes == 2 ) seqRvBarcodes++;
-						}
-					}
-
-					if( read.size() == SeqUtil.getNumLinesPerRead() ) {
-						seqLines.addAll( read );
-						read.clear();
-					}
-
-					if( seqLines.size() >= NUM_LINES_TEMP_FILE ) {
-						writeSample( seqLines, getSplitFileName( file.getName(), i++ ) );
-						seqLines.clear();
-					}
+				for( SeqRecord read = reader.next(); read != null && numReads < NUM_TEST_READS; read = reader.next() ) {
+					numReads++;
+					final int headerBarcodes = hasBarcode( read.getHeader(), barcodes, revCompBarcodes );
+					if( headerBarcodes == 1 ) headerFwBarcodes++;
+					else if( headerBarcodes == 2 ) headerRvBarcodes++;
+
+					final int seqBarcodes = hasBarcode( read.getLine( SeqRecord.SEQ ), barcodes, revCompBarcodes );
+					if( seqBarcodes == 1 ) seqFwBarcodes++;
+					else if( seqBarcodes == 2 ) seqRvBarcodes++;
 				}
-
-				if( !seqLines.isEmpty() ) writeSample( seqLines, getSplitFileName( file.getName(), i++ ) );
 			} finally {
-				if( reader != null ) reader.close();
+				reader.close();
 			}
 
-			Log.info( getClass(), "Done splitting file: " + file.getAbsolutePath() );
-
-			if( testFile == null && numReads > 0 ) {
-				testFile = file;
-				buildSummaryAndSetConfig( testFile, numReads, headerFwBarcodes, seqFwBarcodes, headerRvBarcodes,
+			if( numReads > 0 ) {
+				buildSummaryAndSetConfig( file, numReads, headerFwBarcodes, seqFwBarcodes, headerRvBarcodes,
 					seqRvBarcodes );
+				return;
 			}
 		}
-
-		Log.info( getClass(), "Number of temp files created: " + getSplitDir().listFiles().length );
 	}
 
 	/**
-	 * Demultiplex the file into separate small temp files, with {@value #NUM_LINES_TEMP_FILE} lines each for
-	 * processing. If paired reads, generate separate forward and reverse files for each sample output file named by
-	 * sample ID.
+	 * Route paired reads that could not be matched in lockstep. Every forward read header is stored as a 64-bit
+	 * fingerprint (see {@link biolockj.util.SeqUtil#getHeaderFingerprint(String)}) with the index of its sample (or -1
+	 * without a valid barcode or Sample ID) in primitive arrays, and marked once the matching reverse read is found. A
+	 * second pass then routes each read by fingerprint. This requires 12 bytes per forward read instead of a full
+	 * header String.<br>
+	 * Duplicate forward fingerprints are rejected: a collision between 2 forward read headers (or a repeated header)
+	 * fails the module instead of routing the mate of one read with the other.
 	 *
-	 * @param validHeaders Set of valid headers
-	 * @throws Exception if error occurs reading the multiplexed file
+	 * @throws SequnceFormatException if 2 forward reads have the same header fingerprint
+	 * @throws Exception if errors occur reading the multiplexed files
 	 */
-	protected void demultiplex( final Map<String, Set<String>> validHeaders ) throws Exception {
-		printCounts( validHeaders );
-		// int count = 0;
-		// int loopCount = 0;
-		boolean doPrint = true;
-
-		for( final File file: getSplitDir().listFiles() ) {
-			Log.info( getClass(), "Demultiplexing file " + file.getAbsolutePath() );
-			final List<String> seqLines = new ArrayList<>();
-			final Map<String, List<String>> output = new HashMap<>();
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
+	protected void demultiplexPairsByFingerprint() throws Exception {
+		Log.info( getClass(), "Paired reads are not in matching order, demultiplex by header fingerprint" );
+		resetCounts();
+		final List<String> sampleIds = new ArrayList<>();
+		final Map<String, Integer> sampleIndex = new HashMap<>();
+		long[] fingerprints = new long[ INIT_INDEX_SIZE ];
+		int[] samples = new int[ INIT_INDEX_SIZE ];
+		int size = 0;
+
+		for( final File file: getInputFiles() ) {
+			if( !isCombined() && !SeqUtil.isForwardRead( file.getName() ) ) continue;
+			final SeqRecordReader reader = new SeqRecordReader( file );
 			try {
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					seqLines.add( line );
-					if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-						final String header = SeqUtil.getHeader( seqLines.get( 0 ) );
-						final String sampleId = getSampleId( header, validHeaders );
-
-						String otu = null;
-
-						if( sampleId == null ) otu = getNoMatchFileName( file.getName(), seqLines.get( 0 ) );
-						else {
-							otu = getOutputFileName( sampleId, file.getName(), seqLines.get( 0 ) );
-							incrementCounts( file.getName(), seqLines.get( 0 ) );
-
-							if( doPrint ) {
-								doPrint = false;
-								Log.info( getClass(), "EXAMPLE Demultiplexed Sample ID: " + sampleId );
-								Log.info( getClass(), "EXAMPLE Demultiplexed sequence file: " + otu );
-							}
-						}
-
-						if( !output.keySet().contains( otu ) ) output.put( otu, new ArrayList<>() );
-
-						output.get( otu ).addAll( seqLines );
-						seqLines.clear();
+				for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+					final String header = read.getHeader();
+					if( !isForwardRead( file.getName(), header ) ) continue;
+					this.numTotalFwReads++;
+					final String sampleId = DemuxUtil.getSampleId( read );
+					Integer index = sampleId == null ? Integer.valueOf( NO_SAMPLE ): sampleIndex.get( sampleId );
+					if( index == null ) {
+						index = sampleIds.size();
+						sampleIds.add( sampleId );
+						sampleIndex.put( sampleId, index );
+					}
+					if( size == fingerprints.length ) {
+						fingerprints = Arrays.copyOf( fingerprints, size * 2 );
+						samples = Arrays.copyOf( samples, size * 2 );
 					}
+					fingerprints[ size ] = SeqUtil.getHeaderFingerprint( SeqUtil.getHeader( header ) );
+					samples[ size++ ] = index;
 				}
+			} finally {
+				reader.close();
+			}
+		}
 
-				for( final String outName: output.keySet() ) {
-					Log.debug( getClass(), outName + " adding # lines = " + output.get( outName ).size() );
-					writeSample( output.get( outName ), outName );
+		sortByFingerprint( fingerprints, samples, 0, size - 1 );
+		for( int i = 1; i < size; i++ )
+			if( fingerprints[ i ] == fingerprints[ i - 1 ] )
+				throw new SequnceFormatException( "Duplicate forward read header fingerprint found" );
+		Log.info( getClass(), "Indexed " + size + " forward read header fingerprints" );
+
+		final BitSet hasMate = new BitSet( size );
+		for( final File file: getInputFiles() ) {
+			if( !isCombined() && SeqUtil.isForwardRead( file.getName() ) ) continue;
+			final SeqRecordReader reader = new SeqRecordReader( file );
+			try {
+				for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+					final String header = read.getHeader();
+					if( isForwardRead( file.getName(), header ) ) continue;
+					this.numTotalRvReads++;
+					final int i = Arrays.binarySearch( fingerprints, 0, size,
+						SeqUtil.getHeaderFingerprint( SeqUtil.getHeader( header ) ) );
+					if( i >= 0 ) hasMate.set( i );
 				}
 			} finally {
-				if( reader != null ) reader.close();
+				reader.close();
+			}
+		}
+
+		final OutputBufferPool pool = new OutputBufferPool();
+		try {
+			for( final File file: getInputFiles() ) {
+				Log.info( getClass(), "Demultiplexing file " + file.getAbsolutePath() );
+				final SeqRecordReader reader = new SeqRecordReader( file );
+				try {
+					for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+						final String header = read.getHeader();
+						final boolean isFw = isForwardRead( file.getName(), header );
+						final int i = Arrays.binarySearch( fingerprints, 0, size,
+							SeqUtil.getHeaderFingerprint( SeqUtil.getHeader( header ) ) );
+						final String sampleId = i >= 0 && hasMate.get( i ) && samples[ i ] != NO_SAMPLE ?
+							sampleIds.get( samples[ i ] ): null;
+						writeRead( pool, read, sampleId, isFw );
+					}
+				} finally {
+					reader.close();
+				}
 			}
+		} finally {
+			pool.close();
 		}
 	}
 
 	/**
-	 * Get valid forward read headers that belong to reads with a valid barcode or sample identifier.
+	 * Route paired reads in a single pass, reading each forward read together with its reverse read: from each pair of
+	 * files read in parallel, or from consecutive records of each combined file. The Sample ID is found from the
+	 * forward read and both reads are written to the sample output files shared by every pair.<br>
+	 * If the input files cannot all be paired, or a forward and reverse read header do not match, the partial output
+	 * is deleted and this method returns FALSE so the caller can fall back to {@link #demultiplexPairsByFingerprint()}.
 	 *
-	 * @return Map sampleID to list of valid headers
-	 * @throws Exception if error occur
+	 * @return TRUE if all reads were demultiplexed
+	 * @throws Exception if errors occur reading the multiplexed files
 	 */
-	protected Map<String, Set<String>> getValidFwHeaders() throws Exception {
-		final Map<String, Set<String>> validHeaders = new HashMap<>();
-		final boolean isPaird = SeqUtil.hasPairedReads();
-		final boolean isCombined = isPaird && getInputFiles().size() == 1;
-
-		Log.info( getClass(), "Get FW Headers from temp files " +
-			( isCombined ? "created from multiplexed file with both forward and reverse reads": "" ) );
-
-		// check forward reads only
-		for( final File file: getSplitDir().listFiles() ) {
-			// skip files ending with _R2 suffix since contain only reverse reads
-			if( !isCombined && !SeqUtil.isForwardRead( file.getName() ) ) continue;
-
-			Log.info( getClass(), "Processing split file for FW headers: " + file.getAbsolutePath() );
+	protected boolean demultiplexPairsInLockstep() throws Exception {
+		final Map<File, File> pairs = new LinkedHashMap<>();
+		if( isCombined() ) for( final File file: getInputFiles() )
+			pairs.put( file, file );
+		else try {
+			pairs.putAll( SeqUtil.getPairedReads( getInputFiles() ) );
+		} catch( final Exception ex ) {
+			Log.warn( getClass(), "Unable to pair multiplexed files: " + ex.getMessage() );
+			return false;
+		}
+		if( pairs.isEmpty() || !isCombined() && 2 * pairs.size() != getInputFiles().size() ) return false;
 
-			final List<String> seqLines = new ArrayList<>();
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
-			try {
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					seqLines.add( line );
-					if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-						// if not combined must be a file of only forward reads due to continue above
-						if( !isCombined || seqLines.get( 0 ).contains( SeqUtil.ILLUMINA_FW_READ_IND ) ) {
-							this.numTotalFwReads++;
-							final String sampleId = DemuxUtil.getSampleId( seqLines );
-							if( sampleId != null ) {
-								if( validHeaders.get( sampleId ) == null )
-									validHeaders.put( sampleId, new HashSet<>() );
-								final String header = SeqUtil.getHeader( seqLines.get( 0 ) );
-								validHeaders.get( sampleId ).add( header );
-							}
-						}
-
-						seqLines.clear();
-					}
-				}
-			} finally {
-				if( reader != null ) reader.close();
+		final OutputBufferPool pool = new OutputBufferPool();
+		boolean inLockstep = true;
+		try {
+			for( final File fwFile: pairs.keySet() ) {
+				inLockstep = demultiplexPairInLockstep( pool, fwFile, pairs.get( fwFile ) );
+				if( !inLockstep ) break;
 			}
-
+		} finally {
+			pool.close();
 		}
 
-		String msg = " # valid reads = ";
-		if( SeqUtil.hasPairedReads() ) msg = " # valid fw read headers = ";
+		if( !inLockstep ) for( final String path: pool.getPaths() )
+			FileUtils.deleteQuietly( new File( path ) );
 
-		for( final String sampleId: validHeaders.keySet() )
-			Log.debug( getClass(), sampleId + msg + validHeaders.get( sampleId ).size() );
-
-		return validHeaders;
+		return inLockstep;
 	}
 
 	/**
-	 * This method obtains all valid headers for the forward reads, and returns only headers that also have a matching
-	 * reverse read
+	 * Route the reads of 1 forward/reverse pair of files (the same file if combined) in lockstep.
 	 *
-	 * @return Map of valid headers for each sample ID
-	 * @throws Exception if unable to obtain headers
+	 * @return TRUE if all reads of the pair were demultiplexed
 	 */
-	protected Map<String, Set<String>> getValidHeaders() throws Exception {
-		final Map<String, Set<String>> validFwHeaders = getValidFwHeaders();
-		if( !SeqUtil.hasPairedReads() ) {
-			Log.info( getClass(), "Demultiplexing unpaired reads...# " + validFwHeaders.size() );
-			return validFwHeaders;
-		}
-
-		final Map<String, Set<String>> validHeaders = new HashMap<>();
-		final boolean isCombined = getInputFiles().size() == 1;
+	private boolean demultiplexPairInLockstep( final OutputBufferPool pool, final File fwFile, final File rvFile )
+		throws Exception {
+		Log.info( getClass(), "Demultiplex paired reads in a single pass: " + fwFile.getAbsolutePath() +
+			( isCombined() ? "": " + " + rvFile.getAbsolutePath() ) );
 
-		// check reverse reads only
-		for( final File file: getSplitDir().listFiles() ) {
-			// skip files ending with _R1 suffix since contain only forward reads
-			if( !isCombined && SeqUtil.isForwardRead( file.getName() ) ) continue;
+		final SeqRecordReader fwReader = new SeqRecordReader( fwFile );
+		final SeqRecordReader rvReader = isCombined() ? fwReader: new SeqRecordReader( rvFile );
+		boolean inLockstep = true;
+		try {
+			for( SeqRecord fwRead = fwReader.next(); inLockstep && fwRead != null; fwRead = fwReader.next() ) {
+				// Both reads may share 1 reader (and 1 record view), so the forward read is written before the
+				// reverse read is read - any output is discarded if the reads turn out not to be in lockstep
+				final String fwHeader = fwRead.getHeader();
+				inLockstep = isForwardRead( fwFile.getName(), fwHeader );
+				if( !inLockstep ) break;
+				final String sampleId = DemuxUtil.getSampleId( fwRead );
+				writeRead( pool, fwRead, sampleId, true );
+
+				final SeqRecord rvRead = rvReader.next();
+				inLockstep = rvRead != null && !isForwardRead( rvFile.getName(), rvRead.getHeader() ) &&
+					SeqUtil.getHeader( fwHeader ).equals( SeqUtil.getHeader( rvRead.getHeader() ) );
+				if( inLockstep ) {
+					this.numTotalFwReads++;
+					this.numTotalRvReads++;
+					writeRead( pool, rvRead, sampleId, false );
+				}
+			}
 
-			Log.info( getClass(), "Processing split file for RV headers: " + file.getAbsolutePath() );
+			if( inLockstep && !isCombined() && rvReader.next() != null ) inLockstep = false;
+		} finally {
+			fwReader.close();
+			if( rvReader != fwReader ) rvReader.close();
+		}
+		return inLockstep;
+	}
 
-			final List<String> seqLines = new ArrayList<>();
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
-			try {
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					seqLines.add( line );
-					if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-						// if not combined must be a file of only reverse reads due to continue above
-						if( !isForwardRead( file.getName(), seqLines.get( 0 ) ) ) {
-							final String header = SeqUtil.getHeader( seqLines.get( 0 ) );
-							this.numTotalRvReads++;
-
-							for( final String sampleId: validFwHeaders.keySet() )
-								if( validFwHeaders.get( sampleId ).contains( header ) ) {
-									if( validHeaders.get( sampleId ) == null )
-										validHeaders.put( sampleId, new HashSet<>() );
-
-									validHeaders.get( sampleId ).add( header );
-									break;
-								}
-						}
-
-						seqLines.clear();
+	/**
+	 * Route each read of the unpaired multiplexed file(s) to its sample output file in a single pass.
+	 *
+	 * @throws Exception if errors occur reading the multiplexed file
+	 */
+	protected void demultiplexUnpaired() throws Exception {
+		final OutputBufferPool pool = new OutputBufferPool();
+		try {
+			for( final File file: getInputFiles() ) {
+				Log.info( getClass(), "Demultiplexing file " + file.getAbsolutePath() );
+				final SeqRecordReader reader = new SeqRecordReader( file );
+				try {
+					for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+						this.numTotalFwReads++;
+						writeRead( pool, read, DemuxUtil.getSampleId( read ), true );
 					}
+				} finally {
+					reader.close();
 				}
-			} finally {
-				reader.close();
 			}
+		} finally {
+			pool.close();
 		}
-
-		for( final String sampleId: validHeaders.keySet() )
-			Log.info( getClass(), sampleId + " # valid headers = " + validHeaders.get( sampleId ).size() );
-
-		return validHeaders;
 	}
 
 	private void buildSummaryAndSetConfig( final File file, final long numReads, final long headerFwBarcodes,
 		final long seqFwBarcodes, final long headerRvBarcodes, final long seqRvBarcodes ) throws Exception {
 		this.summary += "Compre #BC (BarCode) vs. #rcBC (Reverse Compliment BC) in Headers vs. Sequences" + RETURN;
 		this.summary += "Test Sequence File: " + file.getAbsolutePath() + RETURN;
-		this.summary += "# Total Reads:              " + numReads + RETURN;
+		this.summary += "# Test Reads:               " + numReads + RETURN;
 		this.summary += "#BC Headers:          " + headerFwBarcodes + RETURN;
 		this.summary += "#rcBC Headers: " + headerRvBarcodes + RETURN;
 		this.summary += "#BC Sequences: " + seqFwBarcodes + RETURN;
@@ -508,56 +521,31 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule, ApiModul
 		return val;
 	}
 
-	private String getFileSuffix( final String name, final String header ) throws Exception {
+	private String getFileSuffix( final boolean isFw ) throws Exception {
 		String suffix = "";
 		if( SeqUtil.hasPairedReads() )
-			suffix = isForwardRead( name, header ) ? Config.requireString( this, Constants.INPUT_FORWARD_READ_SUFFIX ):
+			suffix = isFw ? Config.requireString( this, Constants.INPUT_FORWARD_READ_SUFFIX ):
 				Config.requireString( this, Constants.INPUT_REVERSE_READ_SUFFIX );
 
 		return suffix + "." + ( SeqUtil.isFastA() ? Constants.FASTA: Constants.FASTQ );
 	}
 
-	private String getNoMatchFileName( final String fileName, final String header ) throws Exception {
-		return getTempDir().getAbsolutePath() + File.separator + "NO_MATCH" + getFileSuffix( fileName, header );
-
-	}
-
-	private String getOutputFileName( final String sampleId, final String fileName, final String header )
-		throws Exception {
-		return getOutputDir().getAbsolutePath() + File.separator + sampleId + getFileSuffix( fileName, header );
-	}
-
-	private File getSplitDir() {
-		return ModuleUtil.requireSubDir( this, getTempDir().getName() + File.separator + "split" );
-	}
-
-	private String getSplitFileName( final String fileName, final int i ) throws Exception {
-		String suffix = "";
-		if( getInputFiles().size() > 1 ) suffix = SeqUtil.getReadDirectionSuffix( fileName );
-
-		suffix += "." + ( SeqUtil.isFastA() ? Constants.FASTA: Constants.FASTQ );
-
-		return getSplitDir().getAbsolutePath() + File.separator + "split_" + i + suffix;
+	private String getNoMatchFileName( final boolean isFw ) {
+		return getTempDir().getAbsolutePath() + File.separator + "NO_MATCH" + ( isFw ? this.fwSuffix: this.rvSuffix );
 	}
 
-	private int hasBarcode( final String line ) throws Exception {
-		for( final String code: MetaUtil.getFieldValues( Config.requireString( this, MetaUtil.META_BARCODE_COLUMN ),
-			true ) )
-			if( line.contains( code ) ) return 1;
-			else if( line.contains( SeqUtil.reverseComplement( code ) ) ) return 2;
-		return 0;
+	private String getOutputFileName( final String sampleId, final boolean isFw ) {
+		return getOutputDir().getAbsolutePath() + File.separator + sampleId + ( isFw ? this.fwSuffix: this.rvSuffix );
 	}
 
-	private void incrementCounts( final String name, final String header ) throws Exception {
-		if( isForwardRead( name, header ) ) this.numValidFwReads++;
-		else this.numValidRvReads++;
+	private boolean isCombined() {
+		return SeqUtil.hasPairedReads() && getInputFiles().size() == 1;
 	}
 
 	private boolean isForwardRead( final String name, final String header ) throws Exception {
 		if( !SeqUtil.hasPairedReads() ) return true;
 
-		final boolean isCombined = getInputFiles().size() == 1;
-		if( isCombined ) if( header.contains( SeqUtil.ILLUMINA_FW_READ_IND ) ) return true;
+		if( isCombined() ) if( header.contains( SeqUtil.ILLUMINA_FW_READ_IND ) ) return true;
 		else if( header.contains( SeqUtil.ILLUMINA_RV_READ_IND ) ) return false;
 		else throw new Exception(
 			"Sequence header in " + name + " does not indicate forward[" + SeqUtil.ILLUMINA_FW_READ_IND +
@@ -566,14 +554,18 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule, ApiModul
 		return SeqUtil.isForwardRead( name );
 	}
 
-	private void printCounts( final Map<String, Set<String>> validHeaders ) {
-		long size = 0L;
-		for( final String sampleId: validHeaders.keySet() )
-			size += validHeaders.get( sampleId ).size();
-
+	private void printCounts() {
 		Log.info( getClass(), "Total fw reads = " + this.numTotalFwReads );
 		Log.info( getClass(), "Total rv reads = " + this.numTotalRvReads );
-		Log.info( getClass(), "Number valid reads = " + size );
+		Log.info( getClass(), "Number valid reads = " + ( this.numValidFwReads + this.numValidRvReads ) );
+	}
+
+	private void resetCounts() {
+		this.numTotalFwReads = 0L;
+		this.numTotalRvReads = 0L;
+		this.numValidFwReads = 0L;
+		this.numValidRvReads = 0L;
+		this.doPrint = true;
 	}
 
 	private boolean strategyConfigSet() {
@@ -595,33 +587,89 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule, ApiModul
 		return seqBarcodes > headerBarcodes;
 	}
 
-	private static String getSampleId( final String header, final Map<String, Set<String>> validHeaders ) {
-		for( final String sampleId: validHeaders.keySet() )
-			if( validHeaders.get( sampleId ).contains( header ) ) return sampleId;
-		return null;
+	private void writeRead( final OutputBufferPool pool, final SeqRecord read, final String sampleId,
+		final boolean isFw ) throws IOException {
+		if( sampleId == null ) {
+			pool.writeRead( getNoMatchFileName( isFw ), read );
+			return;
+		}
+
+		final String path = getOutputFileName( sampleId, isFw );
+		if( isFw ) this.numValidFwReads++;
+		else this.numValidRvReads++;
+
+		if( this.doPrint ) {
+			this.doPrint = false;
+			Log.info( getClass(), "EXAMPLE Demultiplexed Sample ID: " + sampleId );
+			Log.info( getClass(), "EXAMPLE Demultiplexed sequence file: " + path );
+		}
+
+		pool.writeRead( path, read );
 	}
 
-	private static void writeSample( final List<String> lines, final String fileName ) throws Exception {
-		final File outFile = new File( fileName );
-		final boolean exists = outFile.isFile();
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( outFile, exists ) );
-		for( final String line: lines )
-			writer.write( line + RETURN );
-		writer.close();
+	private static int hasBarcode( final String line, final List<String> barcodes,
+		final List<String> revCompBarcodes ) {
+		for( int i = 0; i < barcodes.size(); i++ )
+			if( line.contains( barcodes.get( i ) ) ) return 1;
+			else if( line.contains( revCompBarcodes.get( i ) ) ) return 2;
+		return 0;
 	}
 
+	private static void sortByFingerprint( final long[] keys, final int[] vals, final int lo, final int hi ) {
+		int left = lo;
+		int right = hi;
+		while( left < right ) {
+			final long pivot = keys[ left + ( right - left ) / 2 ];
+			int i = left;
+			int j = right;
+			while( i <= j ) {
+				while( keys[ i ] < pivot )
+					i++;
+				while( keys[ j ] > pivot )
+					j--;
+				if( i <= j ) {
+					final long key = keys[ i ];
+					keys[ i ] = keys[ j ];
+					keys[ j ] = key;
+					final int val = vals[ i ];
+					vals[ i ] = vals[ j ];
+					vals[ j ] = val;
+					i++;
+					j--;
+				}
+			}
+
+			// recurse into the smaller partition to bound the stack depth
+			if( j - left < right - i ) {
+				sortByFingerprint( keys, vals, left, j );
+				left = i;
+			} else {
+				sortByFingerprint( keys, vals, i, right );
+				right = j;
+			}
+		}
+	}
+
+	private boolean doPrint = true;
+	private String fwSuffix = null;
+
 	private long numTotalFwReads = 0L;
 	private long numTotalRvReads = 0L;
 
 	private long numValidFwReads = 0L;
 	private long numValidRvReads = 0L;
+	private String rvSuffix = null;
 
 	private String summary = "";
 
 	/**
-	 * Module splits multiplexed file into smaller files with this number of lines: {@value #NUM_LINES_TEMP_FILE}
+	 * Module reads this number of reads from the 1st multiplexed file to detect the barcode strategy:
+	 * {@value #NUM_TEST_READS}
 	 */
-	protected static final int NUM_LINES_TEMP_FILE = 2000000;
+	protected static final int NUM_TEST_READS = 1000000;
+
+	private static final int INIT_INDEX_SIZE = 1024 * 1024;
+	private static final int NO_SAMPLE = -1;
 
 	@Override
 	public String getDescription() {
@@ -13,6 +13,7 @@ package biolockj.module.implicit;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.io.FileUtils;
 import biolockj.Log;
 import biolockj.exception.SequnceFormatException;
@@ -71,12 +72,15 @@ public class RegisterNumReads extends JavaModuleImpl implements SeqModule, ReadC
 		final List<File> files = getInputFiles();
 		Log.info( getClass(), "Counting # reads/sample for " + files.size() + " files" );
 
+		final List<File> fwReads = new ArrayList<>();
 		for( final File f: files )
-			if( SeqUtil.isForwardRead( f.getName() ) ) {
-				final long count = SeqUtil.countNumReads( f );
-				Log.debug( getClass(), "Num Reads for :[" + SeqUtil.getSampleId( f ) + "] = " + count );
-				this.readsPerSample.put( SeqUtil.getSampleId( f ), Long.toString( count ) );
-			}
+			if( SeqUtil.isForwardRead( f.getName() ) ) fwReads.add( f );
+
+		processFiles( fwReads, f -> {
+			final long count = SeqUtil.countNumReads( f );
+			Log.debug( getClass(), "Num Reads for :[" + SeqUtil.getSampleId( f ) + "] = " + count );
+			this.readsPerSample.put( SeqUtil.getSampleId( f ), Long.toString( count ) );
+		} );
 
 		MetaUtil.addColumn( getNumReadFieldName(), this.readsPerSample, getOutputDir(), true );
 	}
@@ -126,7 +130,7 @@ public class RegisterNumReads extends JavaModuleImpl implements SeqModule, ReadC
 		}
 	}
 
-	private Map<String, String> readsPerSample = new HashMap<>();
+	private Map<String, String> readsPerSample = new ConcurrentHashMap<>();
 
 	private Set<String> sampleIds = new HashSet<>();
 	/**
@@ -13,6 +13,8 @@ package biolockj.module.implicit.parser;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import biolockj.*;
 import biolockj.module.BioModule;
 import biolockj.module.JavaModuleImpl;
@@ -22,7 +24,10 @@ import biolockj.util.*;
 
 /**
  * Parser {@link biolockj.module.BioModule}s read {@link biolockj.module.classifier.ClassifierModule} output to build
- * standardized OTU count tables. This class provides the default abstract implementation.
+ * standardized OTU count tables. This class provides the default abstract implementation.<br>
+ * Parsers that read 1 file per sample should use {@link #parseSampleFiles(List, biolockj.module.JavaModuleImpl.FileTask)}
+ * so each {@link biolockj.node.ParsedSample} is written to its OTU count file, and released, as soon as its files are
+ * parsed. Memory use then depends on the number of files parsed at the same time, not the number of samples.
  */
 public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserModule {
 
@@ -33,39 +38,24 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 		addGeneralProperty( Constants.REPORT_UNCLASSIFIED_TAXA );
 	}
 	
+	/**
+	 * Add the node to the {@link biolockj.node.ParsedSample} for its sample ID, creating the sample if needed.<br>
+	 * Safe to call from multiple threads, so {@link #parseSamples()} can parse input files with
+	 * {@link #processFiles(List, biolockj.module.JavaModuleImpl.FileTask)}.
+	 */
 	@Override
 	public void addOtuNode( final OtuNode node ) throws Exception {
-		if( isValid( node ) ) {
-			final ParsedSample sample = getParsedSample( node.getSampleId() );
-			if( sample == null ) addParsedSample( new ParsedSample( node ) );
-			else sample.addNode( node );
-		}
+		if( isValid( node ) ) addOtuCount( node.getSampleId(), node.getOtuName(), node.getCount() );
 	}
 
+	/**
+	 * Build the OTU count files for the {@link biolockj.node.ParsedSample}s not already written by
+	 * {@link #flushParsedSample(String)}.
+	 */
 	@Override
 	public void buildOtuCountFiles() throws Exception {
-		for( final ParsedSample sample: getParsedSamples() ) {
-			final TreeMap<String, Long> otuCounts = sample.getOtuCounts();
-			if( otuCounts != null ) {
-				final File outputFile = OtuUtil.getOtuCountFile( getOutputDir(), sample.getSampleId(), null );
-				Log.info( getClass(), "Build output sample: " + sample.getSampleId() + " | #OTUs=" + otuCounts.size() +
-					"--> " + outputFile.getAbsolutePath() );
-				final BufferedWriter writer = new BufferedWriter( new FileWriter( outputFile ) );
-				try {
-					final long numOtus =
-						otuCounts.isEmpty() ? 0L: otuCounts.values().stream().mapToLong( Long::longValue ).sum();
-					getUniqueOtus().addAll( otuCounts.keySet() );
-					for( final String otu: otuCounts.keySet() )
-						writer.write( otu + TAB_DELIM + otuCounts.get( otu ) + RETURN );
-					getHitsPerSample().put( sample.getSampleId(), String.valueOf( numOtus ) );
-
-				} finally {
-					writer.close();
-				}
-			} else Log.error( getClass(),
-				"buildOtuCountFiles should not encounter empty sample files where sample.getOtuCounts() == null!  Found null for: " +
-					sample.getSampleId() );
-		}
+		for( final ParsedSample sample: getParsedSamples() )
+			buildOtuCountFile( sample );
 	}
 
 	/**
@@ -79,9 +69,7 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 
 	@Override
 	public ParsedSample getParsedSample( final String sampleId ) {
-		for( final ParsedSample sample: getParsedSamples() )
-			if( sample.getSampleId().equals( sampleId ) ) return sample;
-		return null;
+		return this.parsedSampleMap.get( sampleId );
 	}
 
 	/**
@@ -112,25 +100,66 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 	public void runModule() throws Exception {
 		getSampleIds().addAll( MetaUtil.getSampleIds() );
 		parseSamples();
-		if( getParsedSamples().isEmpty() ) throw new Exception( "Parser failed to produce output!" );
-		Log.debug( getClass(), "# Samples parsed: " + getParsedSamples().size() );
+		if( this.numParsedSamples.get() == 0 ) throw new Exception( "Parser failed to produce output!" );
+		Log.debug( getClass(), "# Samples parsed: " + this.numParsedSamples.get() );
 		buildOtuCountFiles();
 
 		if( Config.getBoolean( this, Constants.REPORT_NUM_HITS ) )
 			MetaUtil.addColumn( NUM_OTUS, getHitsPerSample(), getOutputDir(), true );
 	}
 
+	/**
+	 * Add the OTU count to the {@link biolockj.node.ParsedSample} for the sample ID, creating the sample if needed.
+	 * Parsers that have already validated the OTU call this method directly, instead of building an
+	 * {@link biolockj.node.OtuNode} for each line.
+	 * 
+	 * @param sampleId Sample ID
+	 * @param otu OTU name
+	 * @param count OTU count
+	 * @throws Exception if unable to add the OTU count
+	 */
+	protected void addOtuCount( final String sampleId, final String otu, final long count ) throws Exception {
+		ParsedSample sample = getParsedSample( sampleId );
+		if( sample == null ) synchronized( this ) {
+			sample = getParsedSample( sampleId );
+			if( sample == null ) {
+				sample = new ParsedSample( sampleId );
+				addParsedSample( sample );
+			}
+		}
+		synchronized( sample ) {
+			sample.addOtu( otu, count );
+		}
+	}
+
 	/**
 	 * Add {@link biolockj.node.ParsedSample} to parser cache
 	 * 
 	 * @param parsedSample ParsedSample
 	 * @throws Exception if method is used to add a duplicate sample
 	 */
-	protected void addParsedSample( final ParsedSample parsedSample ) throws Exception {
-		for( final ParsedSample sample: getParsedSamples() )
-			if( sample.getSampleId().equals( parsedSample.getSampleId() ) )
-				throw new Exception( "Attempt to add duplicate sample! " + sample.getSampleId() );
+	protected synchronized void addParsedSample( final ParsedSample parsedSample ) throws Exception {
+		if( getParsedSample( parsedSample.getSampleId() ) != null )
+			throw new Exception( "Attempt to add duplicate sample! " + parsedSample.getSampleId() );
+		this.parsedSampleMap.put( parsedSample.getSampleId(), parsedSample );
 		getParsedSamples().add( parsedSample );
+		this.numParsedSamples.incrementAndGet();
+	}
+
+	/**
+	 * Write the OTU count file for the {@link biolockj.node.ParsedSample} and remove it from the parser cache, so its
+	 * OTU counts can be garbage collected before the remaining samples are parsed.
+	 * 
+	 * @param sampleId Sample ID
+	 * @throws Exception if unable to write the OTU count file
+	 */
+	protected void flushParsedSample( final String sampleId ) throws Exception {
+		final ParsedSample sample;
+		synchronized( this ) {
+			sample = this.parsedSampleMap.remove( sampleId );
+			if( sample != null ) getParsedSamples().remove( sample );
+		}
+		if( sample != null ) buildOtuCountFile( sample );
 	}
 
 	/**
@@ -169,6 +198,17 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 		return this.uniqueOtus;
 	}
 
+	/**
+	 * Get the pooled copy of the OTU name, so OTUs parsed from many files share 1 String per OTU.
+	 * 
+	 * @param otu OTU name
+	 * @return Pooled OTU name
+	 */
+	protected String internOtu( final String otu ) {
+		final String pooled = this.otuPool.putIfAbsent( otu, otu );
+		return pooled == null ? otu: pooled;
+	}
+
 	/**
 	 * Some {@link biolockj.module.classifier.ClassifierModule}s can include taxonomy level identifiers without an OTU
 	 * name in the sample report files. This method verifies the node exists, has a valid sample ID, and that no empty
@@ -185,6 +225,27 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 		return isValid;
 	}
 
+	/**
+	 * Parse the files in parallel with {@link #processFiles(List, biolockj.module.JavaModuleImpl.FileTask)}. Each file
+	 * holds the OTUs of the sample returned by {@link biolockj.util.SeqUtil#getSampleId(File)}; once every file of a
+	 * sample is parsed, the sample is written by {@link #flushParsedSample(String)}.
+	 * 
+	 * @param files Classifier output files
+	 * @param task Parse 1 file
+	 * @throws Exception if any file fails to parse
+	 */
+	protected void parseSampleFiles( final List<File> files, final FileTask task ) throws Exception {
+		final Map<String, AtomicInteger> filesPerSample = new HashMap<>();
+		for( final File file: files )
+			filesPerSample.computeIfAbsent( SeqUtil.getSampleId( file ), id -> new AtomicInteger() ).incrementAndGet();
+
+		processFiles( files, file -> {
+			task.process( file );
+			final String sampleId = SeqUtil.getSampleId( file );
+			if( filesPerSample.get( sampleId ).decrementAndGet() == 0 ) flushParsedSample( sampleId );
+		} );
+	}
+
 	/**
 	 * Validate that no {@link biolockj.module.seq} modules run after this parser unless a new classifier branch is
 	 * started.
@@ -199,8 +260,33 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 					" must run before the ParserModule." );
 	}
 
+	private void buildOtuCountFile( final ParsedSample sample ) throws Exception {
+		final TreeMap<String, Long> otuCounts = sample.getOtuCounts();
+		if( otuCounts != null ) {
+			final File outputFile = OtuUtil.getOtuCountFile( getOutputDir(), sample.getSampleId(), null );
+			Log.info( getClass(), "Build output sample: " + sample.getSampleId() + " | #OTUs=" + otuCounts.size() +
+				"--> " + outputFile.getAbsolutePath() );
+			final BufferedWriter writer = new BufferedWriter( new FileWriter( outputFile ) );
+			try {
+				final long numOtus =
+					otuCounts.isEmpty() ? 0L: otuCounts.values().stream().mapToLong( Long::longValue ).sum();
+				getUniqueOtus().addAll( otuCounts.keySet() );
+				for( final String otu: otuCounts.keySet() )
+					writer.write( otu + TAB_DELIM + otuCounts.get( otu ) + RETURN );
+				getHitsPerSample().put( sample.getSampleId(), String.valueOf( numOtus ) );
+
+			} finally {
+				writer.close();
+			}
+		} else Log.error( getClass(),
+			"buildOtuCountFiles should not encounter empty sample files where sample.getOtuCounts() == null!  Found null for: " +
+				sample.getSampleId() );
+	}
+
 	private void freeMemory() {
 		this.hitsPerSample = null;
+		this.otuPool = null;
+		this.parsedSampleMap = null;
 		this.parsedSamples = null;
 		this.sampleIds = null;
 		this.uniqueOtus = null;
@@ -243,10 +329,13 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 		}
 	}
 
-	private Map<String, String> hitsPerSample = new HashMap<>();
+	private Map<String, String> hitsPerSample = new ConcurrentHashMap<>();
+	private final AtomicInteger numParsedSamples = new AtomicInteger();
+	private Map<String, String> otuPool = new ConcurrentHashMap<>();
+	private Map<String, ParsedSample> parsedSampleMap = new ConcurrentHashMap<>();
 	private TreeSet<ParsedSample> parsedSamples = new TreeSet<>();
 	private Set<String> sampleIds = new HashSet<>();
-	private Set<String> uniqueOtus = new HashSet<>();
+	private Set<String> uniqueOtus = ConcurrentHashMap.newKeySet();
 
 	/**
 	 * Metadata column name for column that holds number of OTU hits after any {@link biolockj.module.implicit.parser}
@@ -263,6 +263,11 @@ public class RdpHierParser extends JavaModuleImpl implements ApiModule {
 		return dir;
 	}
 
+	@Override
+	public boolean checksInputModuleType() {
+		return true;
+	}
+
 	@Override
 	public boolean isValidInputModule( BioModule module ) {
 		return RdpClassifier.class.isInstance( module );
@@ -50,7 +50,7 @@ public class RdpParser extends ParserModuleImpl implements ApiModule{
 	 */
 	@Override
 	public void parseSamples() throws Exception {
-		for( final File file: getInputFiles() ) {
+		parseSampleFiles( getInputFiles(), file -> {
 			final BufferedReader reader = BioLockJUtil.getFileReader( file );
 			Log.debug(this.getClass(), "Parsing file: " + file.getName());
 			String sampleId = SeqUtil.getSampleId( file );
@@ -67,7 +67,7 @@ public class RdpParser extends ParserModuleImpl implements ApiModule{
 			}finally {
 				if( reader != null ) reader.close();
 			}
-		}
+		} );
 	}
 
 	/**
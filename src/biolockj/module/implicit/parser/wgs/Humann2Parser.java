@@ -66,6 +66,11 @@ public class Humann2Parser extends ParserModuleImpl implements ApiModule {
 		return summary;
 	}
 
+	@Override
+	public boolean checksInputModuleType() {
+		return true;
+	}
+
 	@Override
 	public boolean isValidInputModule( final BioModule module ) {
 		return module instanceof Humann2Classifier;
@@ -50,6 +50,8 @@ public class Kraken2Parser extends KrakenParser {
 	 * yet created.
 	 * <li>Add the {@link biolockj.node.wgs.Kraken2Node#getCount()} (1) to {@link biolockj.node.ParsedSample} OTU count.
 	 * </ol>
+	 * Once every file of a sample is parsed, its unclassified taxa are added and the sample is written by
+	 * {@link #flushParsedSample(String)}, so only the samples being parsed are held in memory.
 	 * <p>
 	 * Sample Kraken report line (head 7A_reported.tsv) :<br>
 	 * FCC6MMAACXX:8:1101:1968:2100#GTATTCTC/1
@@ -57,16 +59,25 @@ public class Kraken2Parser extends KrakenParser {
 	 */
 	@Override
 	public void parseSamples() throws Exception {
-		for( final File file: getInputFiles() ) {
-			setReportUnclassifiedTaxa( false );
+		setReportUnclassifiedTaxa( true );
+		parseSampleFiles( getInputFiles(), file -> {
+			OtuNodeImpl.setReportUnclassifiedTaxa( false );
 			try {
 				parseSample( file );
 			} finally {
-				setReportUnclassifiedTaxa( true );
+				OtuNodeImpl.setReportUnclassifiedTaxa( null );
 			}
+		} );
+	}
 
-			addUnclassifiedTaxa( getParsedSample( SeqUtil.getSampleId( file ) ) );
-		}
+	/**
+	 * Add the unclassified taxa to the sample before it is written.
+	 */
+	@Override
+	protected void flushParsedSample( final String sampleId ) throws Exception {
+		final ParsedSample sample = getParsedSample( sampleId );
+		if( sample != null ) addUnclassifiedTaxa( sample );
+		super.flushParsedSample( sampleId );
 	}
 	
 
@@ -13,6 +13,8 @@ package biolockj.module.implicit.parser.wgs;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 import biolockj.*;
 import biolockj.api.ApiModule;
 import biolockj.module.implicit.parser.ParserModuleImpl;
@@ -32,15 +34,6 @@ public class KrakenParser extends ParserModuleImpl implements ApiModule {
 		addGeneralProperty( Constants.REPORT_UNCLASSIFIED_TAXA );
 	}
 
-	@Override
-	public void addOtuNode( final OtuNode node ) throws Exception {
-		if( isValid( node ) ) {
-			final ParsedSample sample = getParsedSample( node.getSampleId() );
-			if( sample == null ) addParsedSample( new ParsedSample( node ) );
-			else sample.addNode( node );
-		}
-	}
-
 	/**
 	 * Parse all {@link biolockj.module.classifier.wgs.KrakenClassifier} reports in the input directory.<br>
 	 * Cache the leaf counts Build an {@link biolockj.node.wgs.KrakenNode} for each line.<br>
@@ -57,42 +50,75 @@ public class KrakenParser extends ParserModuleImpl implements ApiModule {
 	 */
 	@Override
 	public void parseSamples() throws Exception {
-		for( final File file: getInputFiles() ) parseSample( file );
+		parseSampleFiles( getInputFiles(), file -> parseSample( file ) );
 	}
 
 	/**
-	 * Construct a new KrakenNode
+	 * Count the reads assigned to each OTU in the file.<br>
+	 * Kraken reports 1 line per read, and the OTU only depends on the taxonomy column, so a
+	 * {@link biolockj.node.wgs.KrakenNode} is built only for the 1st line with each taxonomy. Later lines with the same
+	 * taxonomy reuse its OTU name, and counts are summed in a local map before they are added to the
+	 * {@link biolockj.node.ParsedSample}.
 	 * 
 	 * @param file KrakenClassifier output file
 	 * @throws Exception if any errors occur
 	 */
 	protected void parseSample( final File file ) throws Exception {
+		final String sampleId = SeqUtil.getSampleId( file );
+		final boolean reportUnclassified = Config.getBoolean( this, Constants.REPORT_UNCLASSIFIED_TAXA );
+		final Map<String, String> taxonomyOtus = new HashMap<>();
+		final Map<String, long[]> otuCounts = new HashMap<>();
 		final BufferedReader reader = BioLockJUtil.getFileReader( file );
 		try {
 			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				final OtuNode node = new KrakenNode( SeqUtil.getSampleId( file ), line );
-				if( node.getTaxaMap() == null || node.getTaxaMap().get( TaxaUtil.topTaxaLevel() ) == null ) {
-					Log.debug( getClass(), "Skip OTU missing top taxa level: " + line );
-					continue;
-				}
-				if( Config.getBoolean( this, Constants.REPORT_UNCLASSIFIED_TAXA ) ) {
-					String taxa = null;
-					String parentLevel = null;
-					for( final String level: TaxaUtil.getTaxaLevelSpan() ) {
-						if( node.getTaxaMap().get( level ) == null )
-							node.getTaxaMap().put( level, TaxaUtil.getUnclassifiedTaxa( taxa, parentLevel ) );
-						else	 {
-							taxa = node.getTaxaMap().get( level );
-							parentLevel = level;
-						}
-					}
+				final int index = line.indexOf( TAB_DELIM );
+				final String taxonomy = index > 0 && line.indexOf( TAB_DELIM, index + 1 ) < 0 ?
+					line.substring( index + 1 ): null;
+				String otu = taxonomy == null ? null: taxonomyOtus.get( taxonomy );
+				if( otu == null ) {
+					otu = getOtuName( sampleId, line, reportUnclassified );
+					if( taxonomy != null ) taxonomyOtus.put( taxonomy, otu );
 				}
-
-				addOtuNode( node );
+				if( !otu.isEmpty() ) otuCounts.computeIfAbsent( otu, k -> new long[ 1 ] )[ 0 ]++;
 			}
 		} finally {
 			if( reader != null ) reader.close();
 		}
+
+		for( final Map.Entry<String, long[]> entry: otuCounts.entrySet() )
+			addOtuCount( sampleId, entry.getKey(), entry.getValue()[ 0 ] );
+	}
+
+	/**
+	 * Build the {@link biolockj.node.wgs.KrakenNode} for the line and get its OTU name.
+	 * 
+	 * @param sampleId Sample ID
+	 * @param line Kraken mpa-output line
+	 * @param reportUnclassified Fill missing levels with unclassified taxa
+	 * @return Pooled OTU name, or an empty String if the node is not valid
+	 * @throws Exception if the line is not formatted properly
+	 */
+	protected String getOtuName( final String sampleId, final String line, final boolean reportUnclassified )
+		throws Exception {
+		final OtuNode node = new KrakenNode( sampleId, line );
+		if( node.getTaxaMap() == null || node.getTaxaMap().get( TaxaUtil.topTaxaLevel() ) == null ) {
+			Log.debug( getClass(), "Skip OTU missing top taxa level: " + line );
+			return "";
+		}
+		if( reportUnclassified ) {
+			String taxa = null;
+			String parentLevel = null;
+			for( final String level: TaxaUtil.getTaxaLevelSpan() ) {
+				if( node.getTaxaMap().get( level ) == null )
+					node.getTaxaMap().put( level, TaxaUtil.getUnclassifiedTaxa( taxa, parentLevel ) );
+				else	 {
+					taxa = node.getTaxaMap().get( level );
+					parentLevel = level;
+				}
+			}
+		}
+
+		return isValid( node ) ? internOtu( node.getOtuName() ): "";
 	}
 
 	@Override
@@ -76,6 +76,11 @@ public class MergeQiimeOtuTables extends ScriptModuleImpl {
 		} else throw new Exception( "No " + Constants.OTU_TABLE_PREFIX + " files to merge" );
 	}
 
+	@Override
+	public boolean checksInputModuleType() {
+		return true;
+	}
+
 	@Override
 	public boolean isValidInputModule( final BioModule module ) {
 		return module instanceof QiimeClosedRefClassifier;
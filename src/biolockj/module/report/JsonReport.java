@@ -2,8 +2,10 @@ package biolockj.module.report;
 
 import java.io.*;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 import org.apache.commons.lang.math.NumberUtils;
 import biolockj.*;
+import biolockj.Properties;
 import biolockj.module.BioModule;
 import biolockj.module.JavaModuleImpl;
 import biolockj.module.classifier.ClassifierModule;
@@ -20,6 +22,15 @@ import biolockj.util.*;
  */
 public class JsonReport extends JavaModuleImpl {
 
+	/**
+	 * Module constructor
+	 */
+	public JsonReport() {
+		super();
+		addNewProperty( DO_GZIP, Properties.BOOLEAN_TYPE,
+			"If enabled, the JSON report is gzipped as it is written, to save space for large taxonomy trees" );
+	}
+
 	/**
 	 * Module prerequisite: {@link biolockj.module.report.otu.CompileOtuCounts}
 	 */
@@ -36,6 +47,16 @@ public class JsonReport extends JavaModuleImpl {
 		return super.getSummary() + this.summary;
 	}
 
+	@Override
+	public boolean checksInputModuleType() {
+		return true;
+	}
+
+	@Override
+	public boolean mayUpdateMetadata() {
+		return false;
+	}
+
 	@Override
 	public boolean isValidInputModule( final BioModule module ) {
 		return module instanceof CompileOtuCounts;
@@ -48,26 +69,27 @@ public class JsonReport extends JavaModuleImpl {
 	@Override
 	public void runModule() throws Exception {
 		final JsonNode root = new JsonNode( ROOT_NODE, 0L, null, null );
-		final LinkedHashMap<String, TreeSet<JsonNode>> jsonMap = buildJsonMap( root );
+		final Map<String, Map<String, JsonNode>> jsonMap = buildJsonMap( root );
 		root.addCount( this.totalTaxaCount );
 		if( hasStats() ) {
 			this.summary += "with summary statistics";
 			addStats( jsonMap );
 		}
 
-		writeJson( writeNodeAndChildren( root, false, jsonMap, 0 ) );
+		writeJson( root );
 		this.summary = "Report generated " + this.numberOfNodes + " nodes " + this.summary;
 	}
 
 	/**
-	 * Build JsonMap from the {@link biolockj.module.report.otu.CompileOtuCounts} output directory.
+	 * Build JsonMap from the {@link biolockj.module.report.otu.CompileOtuCounts} output directory. Each node is added
+	 * as a child of its parent node, so the tree can be written without searching the map.
 	 *
 	 * @param rootNode Root JsonNode is top of the hierarchy
-	 * @return Map(level, Set(JsonNode)) of nodes by level
+	 * @return Map(level, Map(taxa, JsonNode)) of nodes by level
 	 * @throws Exception if errors occur
 	 */
-	protected LinkedHashMap<String, TreeSet<JsonNode>> buildJsonMap( final JsonNode rootNode ) throws Exception {
-		final LinkedHashMap<String, TreeSet<JsonNode>> jsonMap = initJsonMap();
+	protected Map<String, Map<String, JsonNode>> buildJsonMap( final JsonNode rootNode ) throws Exception {
+		final Map<String, Map<String, JsonNode>> jsonMap = initJsonMap();
 		final Map<String, Long> otuCounts = OtuUtil.compileSampleOtuCounts( getInputFiles().get( 0 ) );
 		Log.info( getClass(), "Build JSON Nodes for " + otuCounts.size() + " unique OTUs..." );
 		for( final String otu: otuCounts.keySet() ) {
@@ -77,16 +99,18 @@ public class JsonReport extends JavaModuleImpl {
 			final Map<String, String> taxaMap = TaxaUtil.getTaxaByLevel( otu );
 			for( final String level: TaxaUtil.getTaxaLevels() ) {
 				final String taxa = taxaMap.get( level );
-				JsonNode jsonNode = getNode( jsonMap.get( level ), taxa );
+				if( taxa == null ) break;
 
+				final Map<String, JsonNode> levelNodes = jsonMap.get( level );
+				JsonNode jsonNode = levelNodes.get( taxa );
 				if( jsonNode == null ) {
 					jsonNode = new JsonNode( taxa, otuCount, parent, level );
+					levelNodes.put( taxa, jsonNode );
+					parent.addChild( jsonNode );
 					this.numberOfNodes++;
 				} else jsonNode.addCount( otuCount );
 
-				jsonMap.get( level ).add( jsonNode );
 				parent = jsonNode;
-				if( taxa == null ) break;
 			}
 
 			this.totalTaxaCount += otuCount;
@@ -98,32 +122,34 @@ public class JsonReport extends JavaModuleImpl {
 	/**
 	 * Add stats from {@link biolockj.module.report.r.R_CalculateStats} into all of the {@link biolockj.node.JsonNode}s.
 	 *
-	 * @param jsonMap LinkedHashMap(level,Set(JsonNode))
+	 * @param jsonMap Map(level, Map(taxa, JsonNode))
 	 * @param stats Stats file
 	 * @param level {@link biolockj.Config}.{@value biolockj.Constants#REPORT_TAXONOMY_LEVELS}
 	 * @param label Label to use in node statistics
-	 * @return LinkedHashMap(level,Set(JsonNode))
+	 * @return Map(level, Map(taxa, JsonNode))
 	 * @throws Exception if errors occur
 	 */
-	protected LinkedHashMap<String, TreeSet<JsonNode>> updateNodeStats(
-		final LinkedHashMap<String, TreeSet<JsonNode>> jsonMap, final File stats, final String level,
-		final String label ) throws Exception {
+	protected Map<String, Map<String, JsonNode>> updateNodeStats( final Map<String, Map<String, JsonNode>> jsonMap,
+		final File stats, final String level, final String label ) throws Exception {
 		Log.info( getClass(), "Adding " + label + " stats from: " + stats.getAbsolutePath() );
+		final Map<String, JsonNode> levelNodes = jsonMap.get( level );
 		final BufferedReader reader = BioLockJUtil.getFileReader( stats );
 		try {
-			final List<String> columnNames =
-				Arrays.asList( reader.readLine().replaceAll( "\"", "" ).split( TAB_DELIM ) );
+			final String[] columnNames = reader.readLine().replace( "\"", "" ).split( TAB_DELIM );
+			final String[] statNames = new String[ columnNames.length ];
+			for( int i = 0; i < columnNames.length; i++ )
+				statNames[ i ] = label + "_" + columnNames[ i ];
 
 			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				final StringTokenizer st = new StringTokenizer( line.replaceAll( "\"", "" ), TAB_DELIM );
+				final StringTokenizer st = new StringTokenizer( line.replace( "\"", "" ), TAB_DELIM );
 				final String otu = st.nextToken().trim();
 
 				int i = 0;
-				final JsonNode jsonNode = getJsonNode( otu, jsonMap.get( level ), level );
+				final JsonNode jsonNode = levelNodes == null ? null: levelNodes.get( otu );
 				if( jsonNode != null ) while( st.hasMoreTokens() ) {
 					final String token = st.nextToken();
 					if( NumberUtils.isNumber( token ) )
-						jsonNode.updateStats( label + "_" + columnNames.get( ++i ), Double.parseDouble( token ) );
+						jsonNode.updateStats( statNames[ ++i ], Double.parseDouble( token ) );
 				}
 				else Log.warn( getClass(),
 					"Missing Taxa " + level + ": " + otu + " from R_CalculateStats: " + stats.getAbsolutePath() );
@@ -136,48 +162,42 @@ public class JsonReport extends JavaModuleImpl {
 	}
 
 	/**
-	 * Build lines of text output for the Json Report file.
+	 * Write the node and its children to the Json Report file. Each node is written as soon as it is reached, indented
+	 * 1 tab per level.
 	 *
+	 * @param writer Json Report file writer
 	 * @param node JsonNode is the parent node
 	 * @param hasPeer boolean is true if node has peer nodes
-	 * @param jsonMap LinkedHashMap(level,Set(JsonNode)) all nodes by level
 	 * @param nodeLevel {@link biolockj.Config}.{@value biolockj.Constants#REPORT_TAXONOMY_LEVELS}
-	 * @return Json Report lines
 	 * @throws Exception if errors occur
 	 */
-	protected String writeNodeAndChildren( final JsonNode node, final boolean hasPeer,
-		final LinkedHashMap<String, TreeSet<JsonNode>> jsonMap, final int nodeLevel ) throws Exception {
-		final String logBase = Config.getString( this, Constants.REPORT_LOG_BASE );
-		final String prefix = logBase == null ? "": "log" + logBase;
-
+	protected void writeNodeAndChildren( final Writer writer, final JsonNode node, final boolean hasPeer,
+		final int nodeLevel ) throws Exception {
 		final String taxaLevel = nodeLevel == 0 ? ROOT_NODE: TaxaUtil.getTaxaLevels().get( nodeLevel - 1 );
-
-		final List<JsonNode> childNodes = getChildNodes( node, jsonMap, nodeLevel );
-
-		final StringBuffer sb = new StringBuffer();
-		sb.append( "{" + RETURN );
-		sb.append( "\"" + TAXA + "\": \"" + node.getTaxa() + "\"," + RETURN );
-		sb.append( "\"" + OTU_LEVEL + "\": \"" + taxaLevel + "\"," + RETURN );
-		sb.append( "\"" + NUM_SEQS + "\": " + node.getCount() +
+		final Set<JsonNode> childNodes = node.getChildren();
+		final String indent = getIndent( nodeLevel );
+		final String fieldIndent = indent + TAB_DELIM;
+
+		writer.write( indent + "{" + RETURN );
+		writer.write( fieldIndent + "\"" + TAXA + "\": \"" + escape( node.getTaxa() ) + "\"," + RETURN );
+		writer.write( fieldIndent + "\"" + OTU_LEVEL + "\": \"" + taxaLevel + "\"," + RETURN );
+		writer.write( fieldIndent + "\"" + NUM_SEQS + "\": " + node.getCount() +
 			( node.getStats().isEmpty() && childNodes.isEmpty() ? "": "," ) + RETURN );
 
-		if( !node.getStats().isEmpty() )
-			for( final Iterator<String> stats = node.getStats().keySet().iterator(); stats.hasNext(); ) {
+		for( final Iterator<String> stats = node.getStats().keySet().iterator(); stats.hasNext(); ) {
 			final String stat = stats.next();
-			final String name =
-				stat.startsWith( R_CalculateStats.getSuffix( null, false ) ) ? stat: prefix + "(" + stat + ")";
-			sb.append( "\"" + name + "\": " + node.getStats().get( stat ) );
-			sb.append( ( stats.hasNext() || !childNodes.isEmpty() ? ",": "" ) + RETURN );
-			}
+			final String name = stat.startsWith( getStatsSuffix() ) ? stat: getLogPrefix() + "(" + stat + ")";
+			writer.write( fieldIndent + "\"" + escape( name ) + "\": " + node.getStats().get( stat ) +
+				( stats.hasNext() || !childNodes.isEmpty() ? ",": "" ) + RETURN );
+		}
 
 		if( !childNodes.isEmpty() ) {
-			sb.append( "\"" + CHILDREN + "\": [" + RETURN );
+			writer.write( fieldIndent + "\"" + CHILDREN + "\": [" + RETURN );
 			for( final Iterator<JsonNode> children = childNodes.iterator(); children.hasNext(); )
-				sb.append( writeNodeAndChildren( children.next(), children.hasNext(), jsonMap, nodeLevel + 1 ) );
+				writeNodeAndChildren( writer, children.next(), children.hasNext(), nodeLevel + 1 );
 		}
 
-		sb.append( "}" + ( hasPeer ? ",": nodeLevel != 0 ? " ]": "" ) + RETURN );
-		return sb.toString();
+		writer.write( indent + "}" + ( hasPeer ? ",": nodeLevel != 0 ? " ]": "" ) + RETURN );
 	}
 
 	/**
@@ -188,7 +208,7 @@ public class JsonReport extends JavaModuleImpl {
 	 * @param jsonMap jsonMap (key=level)
 	 * @throws Exception if unable to parse report files
 	 */
-	private void addStats( final LinkedHashMap<String, TreeSet<JsonNode>> jsonMap ) throws Exception {
+	private void addStats( final Map<String, Map<String, JsonNode>> jsonMap ) throws Exception {
 		Log.info( getClass(), "Adding stats to JSON nodes..." );
 		for( final String level: TaxaUtil.getTaxaLevels() ) {
 			final Map<String, File> statReports = getAllStatReports( level );
@@ -249,30 +269,40 @@ public class JsonReport extends JavaModuleImpl {
 		return ModuleUtil.getModule( this, R_CalculateStats.class.getName(), false ) != null;
 	}
 
+	private String getIndent( final int nodeLevel ) {
+		while( this.indents.size() <= nodeLevel )
+			this.indents.add( this.indents.isEmpty() ? "": this.indents.get( this.indents.size() - 1 ) + TAB_DELIM );
+		return this.indents.get( nodeLevel );
+	}
+
+	private String getLogPrefix() {
+		if( this.logPrefix == null ) {
+			final String logBase = Config.getString( this, Constants.REPORT_LOG_BASE );
+			this.logPrefix = logBase == null ? "": "log" + logBase;
+		}
+		return this.logPrefix;
+	}
+
+	private String getStatsSuffix() throws Exception {
+		if( this.statsSuffix == null ) this.statsSuffix = R_CalculateStats.getSuffix( null, false );
+		return this.statsSuffix;
+	}
+
 	/**
-	 * This method formats the JSON code to indent code blocks surround by curly-braces "{ }"
+	 * Stream the JSON tree to the report file, gzipped if {@link biolockj.Config}.{@value #DO_GZIP} is enabled.
 	 *
-	 * @param code JSON syntax mark-up
+	 * @param root Root node
 	 * @throws Exception if errors occur
 	 */
-	private void writeJson( final String code ) throws Exception {
-		final BufferedWriter writer = new BufferedWriter(
-			new FileWriter( new File( getOutputDir().getAbsolutePath() + File.separator + JSON_SUMMARY ) ) );
+	private void writeJson( final JsonNode root ) throws Exception {
+		final boolean gzip = Config.getBoolean( this, DO_GZIP );
+		final File file = new File( getOutputDir().getAbsolutePath() + File.separator + JSON_SUMMARY +
+			( gzip ? Constants.GZIP_EXT: "" ) );
+		OutputStream out = new FileOutputStream( file );
+		if( gzip ) out = new GZIPOutputStream( out, BUFFER_SIZE );
+		final BufferedWriter writer = new BufferedWriter( new OutputStreamWriter( out ), BUFFER_SIZE );
 		try {
-			int indentCount = 0;
-			final StringTokenizer st = new StringTokenizer( code, RETURN );
-			while( st.hasMoreTokens() ) {
-				final String line = st.nextToken();
-				if( line.startsWith( "}" ) ) indentCount--;
-
-				int i = 0;
-				while( i++ < indentCount )
-					writer.write( TAB_DELIM );
-
-				writer.write( line + RETURN );
-
-				if( line.endsWith( "{" ) ) indentCount++;
-			}
+			writeNodeAndChildren( writer, root, false, 0 );
 		} finally {
 			writer.close();
 		}
@@ -290,45 +320,35 @@ public class JsonReport extends JavaModuleImpl {
 		return false;
 	}
 
-	private static List<JsonNode> getChildNodes( final JsonNode node,
-		final LinkedHashMap<String, TreeSet<JsonNode>> jsonMap, final int nodeLevel ) {
-		final List<JsonNode> childNodes = new ArrayList<>();
-		if( nodeLevel < TaxaUtil.getTaxaLevels().size() ) {
-			// getting all JsonNodes for the nodeLevel
-			final Set<JsonNode> jsonNodes = jsonMap.get( TaxaUtil.getTaxaLevels().get( nodeLevel ) );
-			if( jsonNodes != null ) for( final JsonNode innerNode: jsonNodes )
-				if( innerNode.getParent().equals( node ) ) childNodes.add( innerNode );
-		}
-		return childNodes;
+	private static String escape( final String val ) {
+		if( val == null || val.indexOf( '"' ) < 0 && val.indexOf( '\\' ) < 0 ) return val;
+		return val.replace( "\\", "\\\\" ).replace( "\"", "\\\"" );
 	}
 
 	private static String getInputFileSuffix() {
 		return CompileOtuCounts.SUMMARY + Constants.OTU_COUNT + TSV_EXT;
 	}
 
-	private static JsonNode getJsonNode( final String otu, final Set<JsonNode> jsonNodes, final String level ) {
-		if( jsonNodes != null ) for( final JsonNode jsonNode: jsonNodes )
-			if( jsonNode.getTaxa().equals( otu ) && jsonNode.getLevel().equals( level ) ) return jsonNode;
-		return null;
-	}
-
-	private static JsonNode getNode( final Set<JsonNode> nodes, final String taxa ) {
-		for( final JsonNode node: nodes )
-			if( node.getTaxa().equals( taxa ) ) return node;
-		return null;
-	}
-
-	private static LinkedHashMap<String, TreeSet<JsonNode>> initJsonMap() {
-		final LinkedHashMap<String, TreeSet<JsonNode>> jsonMap = new LinkedHashMap<>();
+	private static Map<String, Map<String, JsonNode>> initJsonMap() {
+		final Map<String, Map<String, JsonNode>> jsonMap = new LinkedHashMap<>();
 		for( final String level: TaxaUtil.getTaxaLevels() )
-			jsonMap.put( level, new TreeSet<JsonNode>() );
+			jsonMap.put( level, new HashMap<>() );
 		return jsonMap;
 	}
 
+	private final List<String> indents = new ArrayList<>();
+	private String logPrefix = null;
 	private int numberOfNodes = 1; // root always created
 
+	private String statsSuffix = null;
 	private String summary = "";
 	private long totalTaxaCount = 0;
+	/**
+	 * {@link biolockj.Config} boolean property: {@value #DO_GZIP}
+	 */
+	protected static final String DO_GZIP = "jsonReport.gzip";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
 	private static final String CHILDREN = "children";
 	private static final String JSON_SUMMARY = "otuSummary.json";
 	private static final String NUM_SEQS = "numSeqs";
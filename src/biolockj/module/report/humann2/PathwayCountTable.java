@@ -0,0 +1,213 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.module.report.humann2;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import biolockj.Constants;
+import biolockj.util.BioLockJUtil;
+import biolockj.util.MetaUtil;
+
+/**
+ * Column store of a HumanN2 count table, as output by {@link biolockj.module.implicit.parser.wgs.Humann2Parser}: 1 row
+ * per sample and 1 column per pathway (or gene family).<br>
+ * The file is read once and each pathway column is held as a primitive double array, so the filter modules in this
+ * package can scan a column without re-parsing cell Strings. Pathway names are interned in a pool shared by every
+ * table, so the abundance, coverage, and gene family tables share 1 copy of each name.
+ */
+final class PathwayCountTable {
+
+	/**
+	 * Read the count table.
+	 *
+	 * @param file HumanN2 count table
+	 * @throws IOException if unable to read the file
+	 * @throws NumberFormatException if a count is not numeric
+	 */
+	PathwayCountTable( final File file ) throws IOException {
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		try {
+			final String header = reader.readLine();
+			if( header == null ) throw new IOException( "Empty count table: " + file.getAbsolutePath() );
+			final List<String> names = split( header );
+			this.pathways = new String[ names.size() - 1 ];
+			for( int i = 1; i < names.size(); i++ )
+				this.pathways[ i - 1 ] = intern( names.get( i ) );
+
+			this.counts = new double[ this.pathways.length ][ INIT_ROWS ];
+			for( String line = reader.readLine(); line != null; line = reader.readLine() )
+				if( !line.isEmpty() ) addRow( file, line );
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Count the rows with a positive count in each column.
+	 *
+	 * @return Number of samples with a positive count, indexed by pathway column
+	 */
+	int[] countSamplesPerPathway() {
+		final int[] found = new int[ this.pathways.length ];
+		for( int col = 0; col < this.pathways.length; col++ ) {
+			final double[] vals = this.counts[ col ];
+			int n = 0;
+			for( int row = 0; row < this.numRows; row++ )
+				if( vals[ row ] > 0 ) n++;
+			found[ col ] = n;
+		}
+		return found;
+	}
+
+	/**
+	 * Count the columns with a positive count in each row.
+	 *
+	 * @return Number of pathways with a positive count, indexed by sample row
+	 */
+	int[] countPathwaysPerSample() {
+		final int[] found = new int[ this.numRows ];
+		for( int col = 0; col < this.pathways.length; col++ ) {
+			final double[] vals = this.counts[ col ];
+			for( int row = 0; row < this.numRows; row++ )
+				if( vals[ row ] > 0 ) found[ row ]++;
+		}
+		return found;
+	}
+
+	/**
+	 * Get the counts of the pathway column. The array is the table storage, so changes to it change the table; only
+	 * the 1st {@link #numSamples()} values are used.
+	 *
+	 * @param col Pathway column index
+	 * @return Counts indexed by sample row
+	 */
+	double[] getCounts( final int col ) {
+		return this.counts[ col ];
+	}
+
+	/**
+	 * Get the pathway name of the column.
+	 *
+	 * @param col Pathway column index
+	 * @return Pathway name
+	 */
+	String getPathway( final int col ) {
+		return this.pathways[ col ];
+	}
+
+	/**
+	 * Get the sample ID of the row.
+	 *
+	 * @param row Sample row index
+	 * @return Sample ID
+	 */
+	String getSampleId( final int row ) {
+		return this.sampleIds.get( row );
+	}
+
+	/**
+	 * Get the number of pathway columns.
+	 *
+	 * @return Number of pathways
+	 */
+	int numPathways() {
+		return this.pathways.length;
+	}
+
+	/**
+	 * Get the number of sample rows.
+	 *
+	 * @return Number of samples
+	 */
+	int numSamples() {
+		return this.numRows;
+	}
+
+	/**
+	 * Write the table as a tab delimited file, one row at a time. The 1st header cell is
+	 * {@link biolockj.util.MetaUtil#getID()}.
+	 *
+	 * @param file Output file
+	 * @param keepCols Pathway columns to write, or null to write all of them
+	 * @param keepRows Sample rows to write, or null to write all of them
+	 * @throws IOException if unable to write the file
+	 */
+	void write( final File file, final boolean[] keepCols, final boolean[] keepRows ) throws IOException {
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			writer.write( MetaUtil.getID() );
+			for( int col = 0; col < this.pathways.length; col++ )
+				if( keepCols == null || keepCols[ col ] ) writer.write( Constants.TAB_DELIM + this.pathways[ col ] );
+			writer.write( Constants.RETURN );
+
+			for( int row = 0; row < this.numRows; row++ ) {
+				if( keepRows != null && !keepRows[ row ] ) continue;
+				writer.write( this.sampleIds.get( row ) );
+				for( int col = 0; col < this.pathways.length; col++ )
+					if( keepCols == null || keepCols[ col ] )
+						writer.write( Constants.TAB_DELIM + Double.toString( this.counts[ col ][ row ] ) );
+				writer.write( Constants.RETURN );
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private void addRow( final File file, final String line ) throws IOException {
+		if( this.numRows == this.capacity ) {
+			this.capacity *= 2;
+			for( int col = 0; col < this.pathways.length; col++ )
+				this.counts[ col ] = Arrays.copyOf( this.counts[ col ], this.capacity );
+		}
+
+		int start = line.indexOf( Constants.TAB_DELIM );
+		this.sampleIds.add( start < 0 ? line: line.substring( 0, start ) );
+		int col = 0;
+		while( start >= 0 ) {
+			int end = line.indexOf( Constants.TAB_DELIM, start + 1 );
+			if( end < 0 ) end = line.length();
+			if( col == this.pathways.length ) break;
+			this.counts[ col++ ][ this.numRows ] = Double.parseDouble( line.substring( start + 1, end ) );
+			start = end < line.length() ? end: -1;
+		}
+
+		if( col != this.pathways.length || start >= 0 )
+			throw new IOException( "Row [ " + this.sampleIds.get( this.numRows ) + " ] in " + file.getAbsolutePath() +
+				" does not have 1 count for each of the " + this.pathways.length + " pathways in the header" );
+		this.numRows++;
+	}
+
+	private static String intern( final String value ) {
+		final String pooled = PATHWAY_POOL.putIfAbsent( value, value );
+		return pooled == null ? value: pooled;
+	}
+
+	private static List<String> split( final String line ) {
+		final List<String> cells = new ArrayList<>();
+		int start = 0;
+		for( int end = line.indexOf( Constants.TAB_DELIM ); end >= 0; end = line.indexOf( Constants.TAB_DELIM, start ) ) {
+			cells.add( line.substring( start, end ) );
+			start = end + 1;
+		}
+		cells.add( line.substring( start ) );
+		return cells;
+	}
+
+	private int capacity = INIT_ROWS;
+	private final double[][] counts;
+	private int numRows = 0;
+	private final String[] pathways;
+	private final List<String> sampleIds = new ArrayList<>();
+	private static final int INIT_ROWS = 16;
+	private static final Map<String, String> PATHWAY_POOL = new ConcurrentHashMap<>();
+}
@@ -100,103 +100,59 @@ public class RemoveLowPathwayCounts extends Humann2CountModule {
 	protected TreeMap<String, TreeSet<String>> removeLowPathwayCounts( final File file ) throws Exception {
 		Log.info( getClass(), "Inspecting for Low Pathway count: " + file.getAbsolutePath() );
 		final TreeMap<String, TreeSet<String>> lowCountPathways = new TreeMap<>();
-		final List<List<String>> table = BioLockJUtil.parseCountTable( file );
-		final List<List<String>> output = new ArrayList<>();
-		List<String> pathways = null;
-		final TreeSet<String> validPathways = new TreeSet<>();
-		final Set<String> foundSamplePathways = new TreeSet<>();
-		int totalPathwayCount = 0;
-		for( final List<String> record: table ) {
-			final String sampleId = record.get( 0 );
-
-			if( pathways == null ) {
-				output.add( record );
-				validPathways.addAll( record.subList( 1, record.size() ) );
-				pathways = record;
-				continue;
-			}
-
-			final TreeSet<String> validSamplePathways = new TreeSet<>();
-
-			final List<String> line = new ArrayList<>();
-			line.add( sampleId );
-			for( int i = 1; i < record.size(); i++ ) {
-				final Double count = Double.valueOf( record.get( i ) );
-				final String pathway = pathways.get( i - 1 );
-				if( count < getMinCount() ) {
-					line.add( "0.0" );
-					Log.debug( getClass(), sampleId + ": Remove Low Pathway count: " + pathway + "=" + count );
+		final PathwayCountTable table = new PathwayCountTable( file );
+		final int minCount = getMinCount();
+		final boolean debug = Log.isDebugEnabled( getClass() );
+		final int numSamples = table.numSamples();
+		final long[] totalPathwayCounts = new long[ numSamples ];
+		final int[] uniquePathwayCounts = new int[ numSamples ];
+		final boolean[] keepCols = new boolean[ table.numPathways() ];
+		final TreeSet<String> allRemovedPathways = new TreeSet<>();
+		for( int col = 0; col < table.numPathways(); col++ ) {
+			final double[] counts = table.getCounts( col );
+			final String pathway = table.getPathway( col );
+			for( int row = 0; row < numSamples; row++ )
+				if( counts[ row ] < minCount ) {
+					if( debug ) Log.debug( getClass(), table.getSampleId( row ) + ": Remove Low Pathway count: " +
+						pathway + "=" + counts[ row ] );
+					lowCountPathways.computeIfAbsent( table.getSampleId( row ), id -> new TreeSet<>() ).add( pathway );
+					counts[ row ] = 0.0;
 				} else {
-					validSamplePathways.add( pathway );
-					line.add( count.toString() );
-					totalPathwayCount += count;
-					validPathways.add( pathway );
+					keepCols[ col ] = true;
+					totalPathwayCounts[ row ] += counts[ row ];
+					uniquePathwayCounts[ row ]++;
 				}
-			}
-
-			output.add( line );
+			if( !keepCols[ col ] ) allRemovedPathways.add( pathway );
+		}
 
-			final TreeSet<String> badSamplePathways = new TreeSet<>( validPathways );
-			badSamplePathways.removeAll( validSamplePathways );
-			foundSamplePathways.addAll( validSamplePathways );
+		for( int row = 0; row < numSamples; row++ ) {
+			final String sampleId = table.getSampleId( row );
 			if( file.getName().contains( Constants.HN2_PATH_ABUND_SUM ) ) {
-				Log.info( getClass(), "Set totalPathwaysPerSample: " + sampleId + "=" + totalPathwayCount );
-				Log.info( getClass(), "Set uniquePathwaysPerSample: " + sampleId + "=" + foundSamplePathways.size() );
-				this.totalPathwaysPerSample.put( sampleId, String.valueOf( totalPathwayCount ) );
-				this.uniquePathwaysPerSample.put( sampleId, String.valueOf( foundSamplePathways.size() ) );
+				Log.info( getClass(), "Set totalPathwaysPerSample: " + sampleId + "=" + totalPathwayCounts[ row ] );
+				Log.info( getClass(), "Set uniquePathwaysPerSample: " + sampleId + "=" + uniquePathwayCounts[ row ] );
+				this.totalPathwaysPerSample.put( sampleId, String.valueOf( totalPathwayCounts[ row ] ) );
+				this.uniquePathwaysPerSample.put( sampleId, String.valueOf( uniquePathwayCounts[ row ] ) );
 			}
 
-			if( !badSamplePathways.isEmpty() ) {
-				lowCountPathways.put( sampleId, badSamplePathways );
+			final TreeSet<String> badSamplePathways = lowCountPathways.get( sampleId );
+			if( badSamplePathways != null ) {
 				Log.warn( getClass(), sampleId + ": Remove " + badSamplePathways.size() +
-					" Pathways with #counts below threshold: " + getMinCount() );
+					" Pathways with #counts below threshold: " + minCount );
 				Log.debug( getClass(), sampleId + ": Removed Pathways: " + badSamplePathways );
 			}
 		}
 
-		final TreeSet<String> allRemovedPathways = new TreeSet<>( validPathways );
-		allRemovedPathways.removeAll( foundSamplePathways );
 		if( !allRemovedPathways.isEmpty() ) {
 			Log.warn( getClass(),
-				"Remove " + allRemovedPathways.size() + " Pathways with #counts below threshold: " + getMinCount() );
+				"Remove " + allRemovedPathways.size() + " Pathways with #counts below threshold: " + minCount );
 			Log.debug( getClass(), "Removed Pathways: " + allRemovedPathways );
 		}
 
-		buildOutputTable( output, file, allRemovedPathways );
+		table.write( PathwayUtil.getPathwayCountFile( getOutputDir(), file, getMetaColName() ), keepCols, null );
 
 		return lowCountPathways;
 	}
 
-	private void buildOutputTable( final List<List<String>> data, final File file, final Set<String> badPathways )
-		throws Exception {
-		final File outTable = PathwayUtil.getPathwayCountFile( getOutputDir(), file, getMetaColName() );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( outTable ) );
-		try {
-			final Set<Integer> badIndex = new HashSet<>();
-			boolean firstRecord = true;
-			for( final List<String> record: data ) {
-				boolean newRecord = true;
-				if( firstRecord && !badPathways.isEmpty() ) for( final String pathway: record ) {
-					if( badPathways.contains( pathway ) ) badIndex.add( record.indexOf( pathway ) );
-					else writer.write( ( !newRecord ? TAB_DELIM: "" ) + pathway );
-					newRecord = false;
-				}
-				else if( !firstRecord ) for( int i = 0; i < record.size(); i++ ) {
-					if( !badIndex.contains( i ) ) writer.write( ( !newRecord ? TAB_DELIM: "" ) + record.get( i ) );
-					newRecord = false;
-				}
-				else for( final String pathway: record ) {
-					writer.write( ( !newRecord ? TAB_DELIM: "" ) + pathway );
-					newRecord = false;
-				}
-				firstRecord = false;
-				writer.write( RETURN );
-			}
-		} finally {
-			writer.close();
-		}
-	}
-
 	private void freeMemory() {
 		this.uniquePathwaysPerSample = null;
 		this.totalPathwaysPerSample = null;
@@ -55,50 +55,27 @@ public class CompileOtuCounts extends OtuCountModule {
 
 	@Override
 	public void runModule() throws Exception {
-		buildSummaryOtuCountFile( compileOtuCounts( getInputFiles() ) );
+		buildSummaryOtuCountFile( getInputFiles() );
 	}
 
 	/**
-	 * Build Summary OTU count file for all samples.
+	 * Build Summary OTU count file for all samples by a streaming merge of the individual sample OTU count files, so
+	 * only the current line of each file is held in memory.
 	 *
-	 * @param otuCounts OTU-count mapping
+	 * @param files Collection of OTU count files
 	 * @throws Exception if errors occur
 	 */
-	protected void buildSummaryOtuCountFile( final TreeMap<String, Long> otuCounts ) throws Exception {
+	protected void buildSummaryOtuCountFile( final Collection<File> files ) throws Exception {
 		final File otuCountFile = OtuUtil.getOtuCountFile( getOutputDir(), null, SUMMARY );
 		Log.info( getClass(),
-			"Build " + otuCountFile.getAbsolutePath() + " from " + otuCounts.size() + " unqiue OTU strings" );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( otuCountFile ) );
+			"Build " + otuCountFile.getAbsolutePath() + " from " + files.size() + " sample OTU count files" );
+		final OtuCountMerge merge = new OtuCountMerge( files, getTempDir() );
 		try {
-			for( final String otu: otuCounts.keySet() )
-				writer.write( otu + TAB_DELIM + otuCounts.get( otu ) + RETURN );
+			merge.write( otuCountFile );
+			this.uniqueOtuPerSample.putAll( merge.getSampleOtuCounts() );
 		} finally {
-			writer.close();
-		}
-	}
-
-	/**
-	 * Compile OTU counts from the individual sample OTU count files
-	 *
-	 * @param files Collection of OTU count files
-	 * @return TreeMap(OTU, count)
-	 * @throws Exception if errors occur
-	 */
-	protected TreeMap<String, Long> compileOtuCounts( final Collection<File> files ) throws Exception {
-		final TreeMap<String, Long> combinedOtuCounts = new TreeMap<>();
-		for( final File file: files ) {
-			final TreeMap<String, Long> otuCounts = OtuUtil.compileSampleOtuCounts( file );
-			this.uniqueOtuPerSample.put( OtuUtil.getSampleId( file ), new Integer( otuCounts.size() ).longValue() );
-			for( final String otu: otuCounts.keySet() ) {
-				final Long count = otuCounts.get( otu );
-
-				if( !combinedOtuCounts.keySet().contains( otu ) ) combinedOtuCounts.put( otu, 0L );
-
-				combinedOtuCounts.put( otu, combinedOtuCounts.get( otu ) + count );
-			}
-
+			merge.close();
 		}
-		return combinedOtuCounts;
 	}
 
 	/**
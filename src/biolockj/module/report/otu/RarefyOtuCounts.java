@@ -13,6 +13,7 @@ package biolockj.module.report.otu;
  */
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import biolockj.*;
 import biolockj.Properties;
 import biolockj.api.ApiModule;
@@ -79,8 +80,10 @@ public class RarefyOtuCounts extends OtuCountModule implements ApiModule {
 
 	/**
 	 * Apply the quantile Config to the number of OTUs per sample to calculate the maximum OTU count per sample. For
-	 * each sample rarefy the configured number of times and output a file with the average counts. Update the metadata
-	 * to add the new OTU_COUNT column with the new OTU count per sample.
+	 * each sample rarefy the configured number of times and output a file with the average counts. Samples are
+	 * rarefied in parallel. The mean and variance of each rarefied OTU count are saved to
+	 * {@value #RAREFY_STATS_FILE_SUFFIX}. Update the metadata to add the new OTU_COUNT column with the new OTU count per
+	 * sample.
 	 */
 	@Override
 	public void runModule() throws Exception {
@@ -91,12 +94,15 @@ public class RarefyOtuCounts extends OtuCountModule implements ApiModule {
 		final Long quantileNum = getNumOtusForQuantile( sampleOtuCounts );
 
 		Log.info( getClass(), "Rarefy " + sampleOtuCounts.size() + " to " + quantileNum );
-		for( final String sampleId: sampleOtuCounts.keySet() ) {
+		processFiles( getInputFiles(), f -> {
+			final String sampleId = OtuUtil.getSampleId( f );
 			Log.info( getClass(), "Rarefy " + sampleId );
 			final TreeMap<String, Long> data = rarefy( sampleId, sampleOtuCounts.get( sampleId ), quantileNum );
 			if( data != null )
 				generateOtuput( OtuUtil.getOtuCountFile( getOutputDir(), sampleId, getMetaColName() ), data );
-		}
+		} );
+
+		generateStats( new TreeMap<>( this.otuStats ) );
 
 		if( Config.getBoolean( this, Constants.REPORT_NUM_HITS ) ) MetaUtil
 			.addColumn( getMetaColName() + "_" + Constants.OTU_COUNT, this.hitsPerSample, getOutputDir(), true );
@@ -175,7 +181,9 @@ public class RarefyOtuCounts extends OtuCountModule implements ApiModule {
 	}
 
 	/**
-	 * Rarefy the data by taking the average value of {@value #NUM_ITERATIONS}
+	 * Rarefy the data by taking the average value of {@value #NUM_ITERATIONS}. Each iteration draws quantileNum OTU
+	 * hits without replacement directly from the OTU count vector, as a multivariate hypergeometric sample, so memory
+	 * and runtime scale with the number of OTUs rather than the number of hits.
 	 *
 	 * @param sampleId Sample ID
 	 * @param otuCounts OTU counts
@@ -185,99 +193,117 @@ public class RarefyOtuCounts extends OtuCountModule implements ApiModule {
 	 */
 	protected TreeMap<String, Long> rarefy( final String sampleId, final TreeMap<String, Long> otuCounts,
 		final long quantileNum ) throws Exception {
+		final String[] otus = otuCounts.keySet().toArray( new String[ otuCounts.size() ] );
+		final long[] counts = new long[ otus.length ];
+		long total = 0L;
+		for( int i = 0; i < otus.length; i++ ) {
+			counts[ i ] = otuCounts.get( otus[ i ] );
+			total += counts[ i ];
+		}
 
-		final TreeMap<String, Long> otuCount = new TreeMap<>();
-		final List<String> data = getData( sampleId, otuCounts );
-		if( Config.getBoolean( this, REMOVE_LOW_ABUNDANT_SAMPLES ) && data.size() < quantileNum ) {
+		if( Config.getBoolean( this, REMOVE_LOW_ABUNDANT_SAMPLES ) && total < quantileNum ) {
 			Log.info( getClass(), "REMOVE LOW ABUNDANT sample: " + sampleId );
 			return null;
 		}
 
-		for( int i = 0; i < Config.requirePositiveInteger( this, NUM_ITERATIONS ); i++ ) {
+		final int numIterations = Config.requirePositiveInteger( this, NUM_ITERATIONS );
+		final SplittableRandom random = getRandom( sampleId );
+		final long numDrawn = Math.min( total, quantileNum );
+		final long[] drawn = new long[ otus.length ];
+		final long[] sums = new long[ otus.length ];
+		final double[] sumSquares = new double[ otus.length ];
+		for( int i = 0; i < numIterations; i++ ) {
 			Log.debug( getClass(), sampleId + " iteration[ " + i + " ]" );
-			for( final String otu: getRandomQuantileOtus( data, quantileNum ) ) {
-				if( otuCount.get( otu ) == null ) otuCount.put( otu, 0L );
-
-				otuCount.put( otu, otuCount.get( otu ) + 1 );
+			HypergeometricSampler.sample( random, counts, total, numDrawn, drawn );
+			for( int j = 0; j < otus.length; j++ ) {
+				sums[ j ] += drawn[ j ];
+				sumSquares[ j ] += (double) drawn[ j ] * drawn[ j ];
 			}
 		}
 
 		long totalSampleOtuCount = 0L;
 		final TreeMap<String, Long> meanCountValues = new TreeMap<>();
-		int i = 0;
-		for( final String otu: otuCount.keySet() ) {
-			final long avg =
-				new Integer( Math.round( otuCount.get( otu ) / Config.requirePositiveInteger( this, NUM_ITERATIONS ) ) )
-					.longValue();
+		final TreeMap<String, double[]> stats = new TreeMap<>();
+		for( int j = 0; j < otus.length; j++ ) {
+			if( sums[ j ] == 0 ) continue;
+			final double mean = (double) sums[ j ] / numIterations;
+			final double var = numIterations < 2 ? 0.0:
+				Math.max( 0.0, ( sumSquares[ j ] - sums[ j ] * mean ) / ( numIterations - 1 ) );
+			stats.put( otus[ j ], new double[] { mean, var } );
+
+			final long avg = sums[ j ] / numIterations;
 			if( avg > 0 ) {
-				meanCountValues.put( otu, avg );
+				meanCountValues.put( otus[ j ], avg );
 				totalSampleOtuCount += avg;
 			}
-			Log.debug( getClass(), "Total Sample Otu Count[" + i++ + "] = " + totalSampleOtuCount );
 		}
+		Log.debug( getClass(), "Total Sample Otu Count = " + totalSampleOtuCount );
 
+		this.otuStats.put( sampleId, stats );
 		this.hitsPerSample.put( sampleId, String.valueOf( totalSampleOtuCount ) );
 		return meanCountValues;
 	}
 
-	private String getMetaColName() throws Exception {
-		return "postRareQ" + new Double( Config.requirePositiveDouble( this, QUANTILE ) * 100 ).intValue();
-	}
-
 	/**
-	 * Print the output file wit rarefied counts.
+	 * Print the mean and variance of every rarefied OTU count, for each sample, to {@value #RAREFY_STATS_FILE_SUFFIX}
 	 *
-	 * @param file Output file
-	 * @param otuCounts TreeMap(OTU, count)
+	 * @param stats TreeMap(SampleId, TreeMap(OTU, [mean, variance]))
 	 * @throws Exception if errors occur
 	 */
-	protected static void generateOtuput( final File file, final TreeMap<String, Long> otuCounts ) throws Exception {
+	protected void generateStats( final TreeMap<String, TreeMap<String, double[]>> stats ) throws Exception {
+		final File file = new File(
+			getOutputDir().getAbsolutePath() + File.separator + getMetaColName() + RAREFY_STATS_FILE_SUFFIX );
 		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
 		try {
-			for( final String otu: otuCounts.keySet() )
-				writer.write( otu + TAB_DELIM + otuCounts.get( otu ) + RETURN );
+			writer.write( MetaUtil.getID() + TAB_DELIM + "OTU" + TAB_DELIM + "Mean" + TAB_DELIM + "Variance" + RETURN );
+			for( final String sampleId: stats.keySet() )
+				for( final String otu: stats.get( sampleId ).keySet() ) {
+					final double[] vals = stats.get( sampleId ).get( otu );
+					writer.write( sampleId + TAB_DELIM + otu + TAB_DELIM + vals[ 0 ] + TAB_DELIM + vals[ 1 ] + RETURN );
+				}
 		} finally {
 			writer.close();
 		}
 	}
 
 	/**
-	 * Get OTU count data for the given sampleId.
+	 * Get the random number stream for the sample. If {@link biolockj.Config}.{@value biolockj.Constants#SET_SEED} is
+	 * defined, each sample gets its own stream derived from the seed and the sample ID, so results are reproducible
+	 * regardless of which thread rarefies the sample.
 	 *
 	 * @param sampleId Sample ID
-	 * @param otuCounts All OTU counts
-	 * @return List of OTUs for the given sampleId
+	 * @return Random number generator
 	 * @throws Exception if errors occur
 	 */
-	protected static List<String> getData( final String sampleId, final TreeMap<String, Long> otuCounts )
-		throws Exception {
-		final String metaField = MetaUtil.getField( sampleId, ParserModuleImpl.getOtuCountField() );
-		final Long val = Long.valueOf( metaField );
-		final List<String> otus = new ArrayList<>( val.intValue() );
-
-		for( final String otu: otuCounts.keySet() ) {
-			for( int i = 0; i < otuCounts.get( otu ); i++ )
-				otus.add( otu );
-			Collections.sort( otus );
-		}
+	protected SplittableRandom getRandom( final String sampleId ) throws Exception {
+		final Integer seed = Config.getPositiveInteger( this, Constants.SET_SEED );
+		if( seed == null ) return new SplittableRandom();
+		return new SplittableRandom( seed.longValue() * SEED_MULTIPLIER + sampleId.hashCode() );
+	}
 
-		return otus;
+	private String getMetaColName() throws Exception {
+		return "postRareQ" + new Double( Config.requirePositiveDouble( this, QUANTILE ) * 100 ).intValue();
 	}
 
 	/**
-	 * Select random OTUs based on the quantileNum from the list of OTUs in data.
+	 * Print the output file wit rarefied counts.
 	 *
-	 * @param data List( OTUs )
-	 * @param quantileNum Qunatile (range: 0.0 - 1.0)
-	 * @return List of randomly selected OTUs up to the given quantile
+	 * @param file Output file
+	 * @param otuCounts TreeMap(OTU, count)
+	 * @throws Exception if errors occur
 	 */
-	protected static List<String> getRandomQuantileOtus( final List<String> data, final Long quantileNum ) {
-		Collections.shuffle( data );
-		if( data.size() > quantileNum ) return data.subList( 0, quantileNum.intValue() );
-		return data;
+	protected static void generateOtuput( final File file, final TreeMap<String, Long> otuCounts ) throws Exception {
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			for( final String otu: otuCounts.keySet() )
+				writer.write( otu + TAB_DELIM + otuCounts.get( otu ) + RETURN );
+		} finally {
+			writer.close();
+		}
 	}
 
-	private Map<String, String> hitsPerSample = new HashMap<>();
+	private Map<String, String> hitsPerSample = new ConcurrentHashMap<>();
+	private final Map<String, TreeMap<String, double[]>> otuStats = new ConcurrentHashMap<>();
 	private final Set<String> sampleIds = new HashSet<>();
 
 	@Override
@@ -316,4 +342,11 @@ public class RarefyOtuCounts extends OtuCountModule implements ApiModule {
 	 */
 	protected static final String REMOVE_LOW_ABUNDANT_SAMPLES = "rarefyOtuCounts.rmLowSamples";
 
+	/**
+	 * File name suffix of the table of rarefied OTU count means and variances: {@value #RAREFY_STATS_FILE_SUFFIX}
+	 */
+	protected static final String RAREFY_STATS_FILE_SUFFIX = "_rarefyStats" + Constants.TSV_EXT;
+
+	private static final long SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
 }
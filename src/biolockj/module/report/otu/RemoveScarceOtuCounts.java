@@ -96,13 +96,14 @@ public class RemoveScarceOtuCounts extends OtuCountModule {
 	protected TreeMap<String, TreeSet<String>> findScarceTaxa(
 		final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts, final TreeSet<String> otus ) throws Exception {
 		final TreeMap<String, TreeSet<String>> scarceTaxa = new TreeMap<>();
+		final TaxaTree tree = new TaxaTree( otus );
 		for( final String level: TaxaUtil.getTaxaLevels() ) {
 			final TreeMap<String, TreeSet<String>> scarceLevelTaxa = new TreeMap<>();
-			final TreeSet<String> levelTaxa = TaxaUtil.findUniqueTaxa( otus, level );
+			final TreeSet<String> levelTaxa = tree.getTaxa( level );
 			Log.debug( getClass(), "Checking level: " + level + " with " + levelTaxa.size() + " taxa" );
+			final TreeMap<String, TreeMap<String, Long>> levelTaxaCounts =
+				TaxaUtil.getLevelTaxaCounts( tree, sampleOtuCounts, level );
 			for( final String taxa: levelTaxa ) {
-				final TreeMap<String, TreeMap<String, Long>> levelTaxaCounts =
-					TaxaUtil.getLevelTaxaCounts( sampleOtuCounts, level );
 				final TreeSet<String> samplesWithTaxa = new TreeSet<>();
 				for( final String sampleId: levelTaxaCounts.keySet() ) {
 					final TreeMap<String, Long> taxaCounts = levelTaxaCounts.get( sampleId );
@@ -249,6 +249,11 @@ public abstract class R_Module extends ScriptModuleImpl {
 		super.cleanUp();
 		grapRUsedProps();
 	}
+
+	@Override
+	public boolean mayUpdateMetadata() {
+		return false;
+	}
 	
 	protected void grapRUsedProps() throws Exception {
 		for (File log : getLogDir().listFiles()) {
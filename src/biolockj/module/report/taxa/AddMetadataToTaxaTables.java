@@ -177,7 +177,7 @@ public class AddMetadataToTaxaTables extends TaxaCountModule implements ApiModul
 	protected String getMergedLine( final String line ) throws Exception {
 		final StringBuffer sb = new StringBuffer();
 		final String sampleId = new StringTokenizer( line, TAB_DELIM ).nextToken();
-		if( sampleId.equals( MetaUtil.getID() ) || MetaUtil.getSampleIds().contains( sampleId ) ) {
+		if( sampleId.equals( MetaUtil.getID() ) || MetaUtil.hasSampleId( sampleId ) ) {
 			sb.append( BioLockJUtil.removeQuotes( line ) );
 			for( final String field: MetaUtil.getRecord( sampleId ) )
 				sb.append( TAB_DELIM ).append( BioLockJUtil.removeQuotes( field ) );
@@ -16,15 +16,15 @@ public class AddPseudoCount extends TransformTaxaTables implements ApiModule {
 		String level = inputData.getLevel();
 		Log.info( getClass(), "Adding 1 to each value in table for level: " + level );
 		
-		TaxaLevelTable newData = new TaxaLevelTable(level);
-		for (String sampleID : filteredSampleIDs) {
-			newData.newSampleRow( sampleID );
-			for ( String taxaID : filteredTaxaIDs ) {
-				Double rawValue = inputData.get( sampleID ).get( taxaID );
-				if (rawValue.intValue() - rawValue != 0) foundNonIntVals = true;
-				if (rawValue.intValue() == 0) found0s = true;
-				Double newValue = rawValue + 1 ;
-				newData.get( sampleID ).put( taxaID, newValue );
+		TaxaLevelTable newData = new TaxaLevelTable( level, filteredSampleIDs, filteredTaxaIDs );
+		final int[] samples = inputData.getSampleIndexes( filteredSampleIDs );
+		final int[] taxa = inputData.getTaxonIndexes( filteredTaxaIDs );
+		for (int s = 0; s < samples.length; s++) {
+			for (int t = 0; t < taxa.length; t++) {
+				final double rawValue = inputData.getValue( samples[ s ], taxa[ t ] );
+				if ((int) rawValue - rawValue != 0) foundNonIntVals = true;
+				if ((int) rawValue == 0) found0s = true;
+				newData.setValue( s, t, rawValue + 1 );
 			}
 		}
 		
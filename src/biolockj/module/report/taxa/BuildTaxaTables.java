@@ -13,6 +13,7 @@ package biolockj.module.report.taxa;
 
 import java.io.*;
 import java.util.*;
+import biolockj.Constants;
 import biolockj.Log;
 import biolockj.api.ApiModule;
 import biolockj.module.report.otu.OtuCountModule;
@@ -33,91 +34,112 @@ public class BuildTaxaTables extends OtuCountModule implements ApiModule {
 
 	@Override
 	public void runModule() throws Exception {
-		buildTaxonomyTables( OtuUtil.getSampleOtuCounts( getInputFiles() ) );
+		buildTaxonomyTables( getInputFiles() );
 	}
 
 	/**
-	 * Build taxonomy tables from the sampleTaxaCounts.
+	 * Build taxonomy tables from the sample OTU count files.<br>
+	 * The taxa found at each level, which are the table columns, are collected by a streaming merge of the OTU count
+	 * files. Each OTU count file is then read once more to write the sample row of every level table, so only 1 sample
+	 * is held in memory at a time.
 	 *
-	 * @param sampleOtuCounts TreeMap(SampleId, TreeMap(OTU, count)) OTU counts for every sample
+	 * @param files OTU count files
 	 * @throws Exception if errors occur
 	 */
-	protected void buildTaxonomyTables( final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts )
-		throws Exception {
+	protected void buildTaxonomyTables( final Collection<File> files ) throws Exception {
 		final String label = "OTUs";
 		final int pad = SummaryUtil.getPad( label ) + 4;
 
-		final TreeSet<String> otus = OtuUtil.findUniqueOtus( sampleOtuCounts );
-		Log.info( getClass(), "Write " + otus.size() + " unique OTUs for: " + sampleOtuCounts.size() + " samples" );
-		report( "OTU Count", sampleOtuCounts );
-		report( "Unique OTU", otus );
+		final TreeMap<String, File> sampleFiles = new TreeMap<>();
+		for( final File file: files ) {
+			if( !file.getName().contains( "_" + Constants.OTU_COUNT + "_" ) )
+				throw new Exception( "Module input files must contain sample OTU counts with \"_" + Constants.OTU_COUNT +
+					"_\" as part of the file name.  Found file: " + file.getAbsolutePath() );
+			sampleFiles.put( OtuUtil.getSampleId( file ), file );
+		}
+
+		final List<String> levels = TaxaUtil.getTaxaLevels();
+		final Map<String, TreeSet<String>> levelTaxa = new HashMap<>();
+		for( final String level: levels )
+			levelTaxa.put( level, new TreeSet<>() );
+
+		long numOtus = 0L;
+		long totalOtus = 0L;
+		final boolean debug = Log.isDebugEnabled( getClass() );
+		final OtuCountMerge merge = new OtuCountMerge( sampleFiles.values(), getTempDir() );
+		try {
+			while( merge.next() ) {
+				numOtus++;
+				if( debug ) Log.debug( getClass(), "REPORT [ Unique OTU ]:" + merge.getOtu() );
+				boolean topLevel = true;
+				for( final String level: levels ) {
+					final String taxa = TaxaUtil.getTaxaName( merge.getOtu(), level );
+					if( taxa != null ) {
+						levelTaxa.get( level ).add( taxa );
+						if( topLevel ) totalOtus += merge.getCount();
+					}
+					topLevel = false;
+				}
+			}
+		} finally {
+			merge.close();
+		}
+
+		Log.info( getClass(), "Write " + numOtus + " unique OTUs for: " + sampleFiles.size() + " samples" );
 		this.summary += BioLockJUtil.addTrailingSpaces( "# Samples:", pad ) +
-			BioLockJUtil.formatNumericOutput( new Integer( sampleOtuCounts.size() ).longValue(), false ) + RETURN;
-		long totalOtus = 0;
-		boolean topLevel = true;
-		for( final String level: TaxaUtil.getTaxaLevels() ) {
-			final TreeSet<String> levelTaxa = TaxaUtil.findUniqueTaxa( otus, level );
-			final TreeMap<String, TreeMap<String, Long>> levelTaxaCounts =
-				TaxaUtil.getLevelTaxaCounts( sampleOtuCounts, level );
-			final Map<String, Long> uniqueOtus = new HashMap<>();
-
-			uniqueOtus.put( level, new Integer( levelTaxa.size() ).longValue() );
-			report( "Taxonomy Counts @" + level, levelTaxaCounts );
-			final File table = TaxaUtil.getTaxonomyTableFile( getOutputDir(), level, null );
-			Log.info( getClass(), "Building: " + table.getAbsolutePath() );
-
-			final BufferedWriter writer = new BufferedWriter( new FileWriter( table ) );
-			try {
+			BioLockJUtil.formatNumericOutput( new Integer( sampleFiles.size() ).longValue(), false ) + RETURN;
+
+		final Map<String, BufferedWriter> writers = new HashMap<>();
+		try {
+			for( final String level: levels ) {
+				final File table = TaxaUtil.getTaxonomyTableFile( getOutputDir(), level, null );
+				Log.info( getClass(), "Building: " + table.getAbsolutePath() );
+				final BufferedWriter writer = new BufferedWriter( new FileWriter( table ) );
+				writers.put( level, writer );
 				writer.write( MetaUtil.getID() );
-				for( final String taxa: levelTaxa )
+				for( final String taxa: levelTaxa.get( level ) )
 					writer.write( TAB_DELIM + taxa );
 				writer.write( RETURN );
+			}
 
-				for( final String sampleId: sampleOtuCounts.keySet() ) {
-					final TreeMap<String, Long> taxaCounts = levelTaxaCounts.get( sampleId );
+			for( final String sampleId: sampleFiles.keySet() ) {
+				final TreeMap<String, Long> otuCounts = OtuUtil.compileSampleOtuCounts( sampleFiles.get( sampleId ) );
+				report( "OTU Count", sampleId, otuCounts );
+				final TaxaTree tree = new TaxaTree();
+				for( final String level: levels ) {
+					final TreeMap<String, Long> taxaCounts = tree.getLevelCounts( otuCounts, level );
+					report( "Taxonomy Counts @" + level, sampleId, taxaCounts );
 					if( taxaCounts.isEmpty() ) {
 						Log.warn( getClass(), "No " + level + " taxa found: " + sampleId );
 						continue;
 					}
-					writer.write( sampleId );
-
-					for( final String taxa: levelTaxa ) {
-						Long count = 0L;
-						if( taxaCounts.keySet().contains( taxa ) ) {
-							count = taxaCounts.get( taxa );
-							if( topLevel ) totalOtus += count;
-						}
 
-						writer.write( TAB_DELIM + count );
-						Log.debug( getClass(), sampleId + ":" + taxa + "=" + count );
+					final BufferedWriter writer = writers.get( level );
+					writer.write( sampleId );
+					for( final String taxa: levelTaxa.get( level ) ) {
+						final Long count = taxaCounts.get( taxa );
+						writer.write( TAB_DELIM + ( count == null ? 0L: count ) );
 					}
-
 					writer.write( RETURN );
 				}
-
-				this.summary += BioLockJUtil.addTrailingSpaces( "# Unique " + level + " OTUs:", pad ) +
-					BioLockJUtil.formatNumericOutput( uniqueOtus.get( level ), false ) + RETURN;
-			} finally {
-				writer.close();
 			}
-			topLevel = false;
+		} finally {
+			for( final BufferedWriter writer: writers.values() )
+				writer.close();
 		}
 
+		for( final String level: levels )
+			this.summary += BioLockJUtil.addTrailingSpaces( "# Unique " + level + " OTUs:", pad ) +
+				BioLockJUtil.formatNumericOutput( new Integer( levelTaxa.get( level ).size() ).longValue(), false ) +
+				RETURN;
+
 		this.summary += BioLockJUtil.addTrailingSpaces( "# Total OTUs:", pad ) +
 			BioLockJUtil.formatNumericOutput( totalOtus, false );
 	}
 
-	private void report( final String label, final Collection<String> col ) {
-		if( Log.doDebug() ) for( final String item: col )
-			Log.debug( getClass(), "REPORT [ " + label + " ]:" + item );
-	}
-
-	private void report( final String label, final TreeMap<String, TreeMap<String, Long>> map ) {
-		if( Log.doDebug() ) for( final String id: map.keySet() ) {
-			final TreeMap<String, Long> innerMap = map.get( id );
-			for( final String otu: innerMap.keySet() )
-				Log.debug( getClass(), "REPORT [ " + id + " " + label + " ]: " + otu + "=" + innerMap.get( otu ) );
-		}
+	private void report( final String label, final String sampleId, final Map<String, Long> counts ) {
+		if( Log.isDebugEnabled( getClass() ) ) for( final String otu: counts.keySet() )
+			Log.debug( getClass(), "REPORT [ " + sampleId + " " + label + " ]: " + otu + "=" + counts.get( otu ) );
 	}
 
 	private String summary = "";
@@ -72,26 +72,20 @@ public class LogTransformTaxaTables extends TransformTaxaTables implements ApiMo
 		List<String> filteredSampleIDs,
 		List<String> filteredTaxaIDs) throws Exception {
 		Log.debug( getClass(), "Log transforming table for level: " + inputData.getLevel() );
-		TaxaLevelTable newData = new TaxaLevelTable(inputData.getLevel());
-		for (String sampleID : filteredSampleIDs) {
-			newData.newSampleRow( sampleID );
-			for (String taxaID : filteredTaxaIDs) {
-				Double oldVal = inputData.get( sampleID ).get( taxaID );
-				Double newVal = logTransform(oldVal);
-				newData.get( sampleID ).put(taxaID, newVal);
+		TaxaLevelTable newData = new TaxaLevelTable( inputData.getLevel(), filteredSampleIDs, filteredTaxaIDs );
+		final int[] samples = inputData.getSampleIndexes( filteredSampleIDs );
+		final int[] taxa = inputData.getTaxonIndexes( filteredTaxaIDs );
+		for (int s = 0; s < samples.length; s++) {
+			for (int t = 0; t < taxa.length; t++) {
+				final double oldVal = inputData.getValue( samples[ s ], taxa[ t ] );
+				newData.setValue( s, t, logTransform( oldVal ) );
 			}
 		}
 		return(newData);
 	}
 	
-	private Double logTransform(Double val) {
-		Double res = null;
-		if( getLogBase().equalsIgnoreCase( LOG_E ) ) {
-			res = new Double( Math.log( val ) );
-		} else if( getLogBase().equalsIgnoreCase( LOG_10 ) ) {
-			res = new Double( Math.log10( val ) );
-		} 
-		return res;
+	private double logTransform(final double val) {
+		return getLogBase().equalsIgnoreCase( LOG_E ) ? Math.log( val ): Math.log10( val );
 	}
 	
 	
@@ -2,7 +2,6 @@ package biolockj.module.report.taxa;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import biolockj.Config;
 import biolockj.Constants;
 import biolockj.Log;
@@ -20,7 +19,7 @@ import biolockj.util.TaxaUtil;
  */
 public class NormalizeByReadsPerMillion extends TransformTaxaTables implements ApiModule {
 	
-	private static final Double MILLION = new Double( 1000000 );
+	private static final double MILLION = 1000000.0;
 
 	@Override
 	protected TaxaLevelTable transform( TaxaLevelTable inputData, List<String> filteredSampleIDs,
@@ -31,18 +30,19 @@ public class NormalizeByReadsPerMillion extends TransformTaxaTables implements A
 		Log.info( getClass(), "Normalizing table for level: " + level );
 		summary += Constants.RETURN + "Normalization factor per sample (" + level + "): ";
 		
-		TaxaLevelTable newData = new TaxaLevelTable(level);
-		for (String sampleID : filteredSampleIDs) {
-			newData.newSampleRow( sampleID );
-			Double rowSum = inputData.get( sampleID ).values().stream().collect( Collectors.summingDouble( Double::valueOf ) );
+		TaxaLevelTable newData = new TaxaLevelTable( level, filteredSampleIDs, filteredTaxaIDs );
+		final int[] samples = inputData.getSampleIndexes( filteredSampleIDs );
+		final int[] taxa = inputData.getTaxonIndexes( filteredTaxaIDs );
+		for (int s = 0; s < samples.length; s++) {
+			final String sampleID = filteredSampleIDs.get( s );
+			double rowSum = inputData.rowSum( samples[ s ] );
 			Log.debug(getClass(), "rowSum [" + sampleID + "] = " + rowSum);
-			Double NormFactor = rowSum / MILLION;
+			double NormFactor = rowSum / MILLION;
 			summary += Constants.RETURN + sampleID + ": " + NormFactor;
-			for ( String taxaID : filteredTaxaIDs ) {
-				Double rawValue = inputData.get( sampleID ).get( taxaID );
-				if (rawValue.intValue() - rawValue != 0) foundNonIntVals = true;
-				Double newValue = rawValue / NormFactor ;
-				newData.get( sampleID ).put( taxaID, newValue );
+			for (int t = 0; t < taxa.length; t++) {
+				final double rawValue = inputData.getValue( samples[ s ], taxa[ t ] );
+				if ((int) rawValue - rawValue != 0) foundNonIntVals = true;
+				newData.setValue( s, t, rawValue / NormFactor );
 			}
 		}
 		
@@ -12,7 +12,6 @@
 package biolockj.module.report.taxa;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import biolockj.*;
 import biolockj.api.API_Exception;
 import biolockj.api.ApiModule;
@@ -63,14 +62,16 @@ public class NormalizeTaxaTables extends TransformTaxaTables implements ApiModul
 		String level = inputData.getLevel();
 		Log.info( getClass(), "Normalizing table for level: " + level );
 		
-		HashMap<String, Double> rowSums = new HashMap<>();
-		for (String sampleID : filteredSampleIDs) {
-			Log.debug( getClass(), "Adding values from sample: " + sampleID );
-			Double rowSum = inputData.get( sampleID ).values().stream().collect( Collectors.summingDouble( Double::valueOf ) );
-			rowSums.put(sampleID, rowSum);
-			Log.debug(getClass(), "rowSum = " + rowSum);
+		final int[] samples = inputData.getSampleIndexes( filteredSampleIDs );
+		final int[] taxa = inputData.getTaxonIndexes( filteredTaxaIDs );
+		final double[] rowSums = new double[ samples.length ];
+		double tableSum = 0.0;
+		for (int s = 0; s < samples.length; s++) {
+			Log.debug( getClass(), "Adding values from sample: " + filteredSampleIDs.get( s ) );
+			rowSums[ s ] = inputData.rowSum( samples[ s ] );
+			tableSum += rowSums[ s ];
+			Log.debug(getClass(), "rowSum = " + rowSums[ s ]);
 		}
-		Double tableSum = rowSums.values().stream().collect( Collectors.summingDouble( Double::valueOf ) );
 		Log.debug(getClass(), "tableSum = " + tableSum);
 		
 		Double averageSampleSum = tableSum / filteredSampleIDs.size(); 
@@ -83,14 +84,13 @@ public class NormalizeTaxaTables extends TransformTaxaTables implements ApiModul
 			throw new BioLockJException(msg);
 		}
 		
-		TaxaLevelTable newData = new TaxaLevelTable(level);
-		for (String sampleID : filteredSampleIDs) {
-			newData.newSampleRow(sampleID);
-			for ( String taxaID : filteredTaxaIDs ) {
-				Double RC = inputData.get( sampleID ).get( taxaID );
-				Double n = rowSums.get( sampleID );
-				Double newValue = ( RC / n.doubleValue() ) * averageSampleSum ;
-				newData.get( sampleID ).put( taxaID, newValue + 1 );
+		TaxaLevelTable newData = new TaxaLevelTable( level, filteredSampleIDs, filteredTaxaIDs );
+		for (int s = 0; s < samples.length; s++) {
+			final double n = rowSums[ s ];
+			for (int t = 0; t < taxa.length; t++) {
+				final double RC = inputData.getValue( samples[ s ], taxa[ t ] );
+				final double newValue = ( RC / n ) * averageSampleSum ;
+				newData.setValue( s, t, newValue + 1 );
 			}
 		}
 		
@@ -1,80 +1,438 @@
 package biolockj.module.report.taxa;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
-
-public class TaxaLevelTable extends HashMap<String, HashMap<String, Double>>{
-
-	private String level;
-	public String getLevel() { return level;}
-	public TaxaLevelTable(String level){
+import java.util.*;
+
+/**
+ * Table of values for one taxonomy level, with samples as rows and taxa as columns.<br>
+ * Sample and taxa names are each mapped once to an integer index, and each row is a dense primitive double array
+ * indexed by taxa, so a cell costs 8 bytes instead of a boxed Double in a per-sample hash map. Cells never assigned a
+ * value read as 0 and are tracked as empty until {@link #fillEmptyVals()} is called.<br>
+ * Transforms should use the index based methods ({@link #getValue(int, int)}, {@link #setValue(int, int, double)},
+ * {@link #rowSum(int)}, etc.). The table is also a Map(sampleID, Map(taxa, value)) view, backed by the same arrays, for
+ * code that reads or writes one cell at a time by name.
+ */
+public class TaxaLevelTable extends AbstractMap<String, Map<String, Double>> {
+
+	/**
+	 * Construct an empty table.
+	 *
+	 * @param level Taxonomy level
+	 */
+	public TaxaLevelTable( final String level ) {
 		this.level = level;
 	}
-	
-	public HashMap<String, Double> newSampleRow(String sampleID){
-		HashMap<String, Double> newRow = new HashMap<>();
-		this.put(sampleID, newRow);
-		return newRow ;
-	}
-	
-	public List<String> listTaxa (){
-		Set<String> bigSet = new TreeSet<>();
-		for (String sample : this.keySet() ) {
-			bigSet.addAll( this.get( sample ).keySet() );
+
+	/**
+	 * Construct a table with the given samples and taxa, in the given index order, with every cell set to 0.
+	 *
+	 * @param level Taxonomy level
+	 * @param sampleIDs Sample IDs
+	 * @param taxa Taxa names
+	 */
+	public TaxaLevelTable( final String level, final List<String> sampleIDs, final List<String> taxa ) {
+		this( level );
+		for( final String taxon: taxa )
+			addTaxon( taxon );
+		for( final String sampleID: sampleIDs ) {
+			final int s = addSample( sampleID );
+			this.rows.set( s, new double[ this.taxa.size() ] );
+			this.present.get( s ).set( 0, this.taxa.size() );
 		}
-		List<String> allTaxa = new ArrayList<>();
-		allTaxa.addAll( bigSet );
-		Collections.sort(allTaxa);
-		return allTaxa;
 	}
-	
-	public List<String> listSamples (){
-		final List<String> allSampleIDs = new ArrayList<>();
-		allSampleIDs.addAll( this.keySet() );
-		Collections.sort(allSampleIDs);
-		return allSampleIDs;
+
+	/**
+	 * Add the sample, if not already in the table.
+	 *
+	 * @param sampleID Sample ID
+	 * @return Sample index
+	 */
+	public int addSample( final String sampleID ) {
+		Integer s = this.sampleIndex.get( sampleID );
+		if( s == null ) {
+			s = this.samples.size();
+			this.sampleIndex.put( sampleID, s );
+			this.samples.add( sampleID );
+			this.rows.add( EMPTY_ROW );
+			this.present.add( new BitSet() );
+		}
+		return s;
+	}
+
+	/**
+	 * Add the taxa, if not already in the table.
+	 *
+	 * @param taxon Taxa name
+	 * @return Taxa index
+	 */
+	public int addTaxon( final String taxon ) {
+		Integer t = this.taxaIndex.get( taxon );
+		if( t == null ) {
+			t = this.taxa.size();
+			this.taxaIndex.put( taxon, t );
+			this.taxa.add( taxon );
+		}
+		return t;
+	}
+
+	/**
+	 * Add the value to the cell, adding the sample and taxa if needed.
+	 *
+	 * @param sample Sample ID
+	 * @param taxon Taxa name
+	 * @param value Value to add
+	 * @return New cell value
+	 */
+	public Double addValue( final String sample, final String taxon, final Double value ) {
+		final int s = addSample( sample );
+		final int t = addTaxon( taxon );
+		setValue( s, t, getValue( s, t ) + value );
+		return getValue( s, t );
+	}
+
+	/**
+	 * Sum the values in the column of the given taxa.
+	 *
+	 * @param taxonIndex Taxa index
+	 * @return Column sum
+	 */
+	public double columnSum( final int taxonIndex ) {
+		double sum = 0.0;
+		for( final double[] row: this.rows )
+			if( taxonIndex < row.length ) sum += row[ taxonIndex ];
+		return sum;
+	}
+
+	@Override
+	public boolean containsKey( final Object sampleID ) {
+		return this.sampleIndex.containsKey( sampleID );
+	}
+
+	/**
+	 * Count the cells in the row of the given sample with a value other than 0.
+	 *
+	 * @param sampleIndex Sample index
+	 * @return Number of non-zero values
+	 */
+	public int countNonZero( final int sampleIndex ) {
+		final double[] row = this.rows.get( sampleIndex );
+		int count = 0;
+		for( final double val: row )
+			if( Double.compare( val, 0.0 ) != 0 ) count++;
+		return count;
 	}
-	
-	public Double addValue(final String sample, final String taxon, final Double value) {
-		HashMap<String, Double> row = this.keySet().contains( sample ) ? this.get( sample ) : newSampleRow(sample);
-		Double oldValue = row.containsKey( taxon ) ? row.get( taxon ) : new Double(0);
-		row.put( taxon, Double.sum( oldValue, value ) );
-		return row.get( taxon );
+
+	@Override
+	public Set<Map.Entry<String, Map<String, Double>>> entrySet() {
+		return new AbstractSet<Map.Entry<String, Map<String, Double>>>() {
+			@Override
+			public Iterator<Map.Entry<String, Map<String, Double>>> iterator() {
+				return new Iterator<Map.Entry<String, Map<String, Double>>>() {
+					@Override
+					public boolean hasNext() {
+						return this.s < TaxaLevelTable.this.samples.size();
+					}
+
+					@Override
+					public Map.Entry<String, Map<String, Double>> next() {
+						if( !hasNext() ) throw new NoSuchElementException();
+						final int index = this.s++;
+						return new SimpleImmutableEntry<>( TaxaLevelTable.this.samples.get( index ), new Row( index ) );
+					}
+
+					private int s = 0;
+				};
+			}
+
+			@Override
+			public int size() {
+				return TaxaLevelTable.this.samples.size();
+			}
+		};
 	}
-	
+
 	/**
-	 * Replace all null values in the maps with 0.
-	 * @return the fraction of all values that were null;
+	 * Replace all empty values with 0.
+	 *
+	 * @return the fraction of all values that were empty
 	 */
 	public float fillEmptyVals() {
-		return fillEmptyVals( new Double(0) );
+		return fillEmptyVals( 0.0 );
 	}
+
 	/**
-	 * Replace all null values in the maps with the given value.
-	 * @param value new value to use in place of null
-	 * @return the fraction of all values that were null
+	 * Replace all empty values with the given value.
+	 *
+	 * @param value new value to use in place of empty values
+	 * @return the fraction of all values that were empty
 	 */
-	public float fillEmptyVals(Double value) {
-		long total = 0;
+	public float fillEmptyVals( final Double value ) {
+		final int numTaxa = this.taxa.size();
 		long replaced = 0;
-		List<String> allTaxa = listTaxa();
-		List<String> allSamples = listSamples();
-		for (String sample : allSamples ) {
-			HashMap<String, Double> row = this.get( sample );
-			long hadVals = row.size();
-			for (String taxon : allTaxa) {
-				if ( ! row.containsKey( taxon ) ) row.put(taxon, value); 
+		for( int s = 0; s < this.samples.size(); s++ ) {
+			final BitSet cells = this.present.get( s );
+			for( int t = cells.nextClearBit( 0 ); t < numTaxa; t = cells.nextClearBit( t + 1 ) ) {
+				setValue( s, t, value );
+				replaced++;
 			}
-			long numFilled = row.size() - hadVals;
-			total = total + row.size();
-			replaced = replaced + numFilled;
 		}
+		final long total = (long) this.samples.size() * numTaxa;
 		return (float) replaced / total;
 	}
-	
-	private static final long serialVersionUID = 3873959114273802005L;
+
+	@Override
+	public Map<String, Double> get( final Object sampleID ) {
+		final Integer s = this.sampleIndex.get( sampleID );
+		return s == null ? null: new Row( s );
+	}
+
+	/**
+	 * Get the taxonomy level.
+	 *
+	 * @return Taxonomy level
+	 */
+	public String getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Get the number of samples.
+	 *
+	 * @return Number of samples
+	 */
+	public int getNumSamples() {
+		return this.samples.size();
+	}
+
+	/**
+	 * Get the number of taxa.
+	 *
+	 * @return Number of taxa
+	 */
+	public int getNumTaxa() {
+		return this.taxa.size();
+	}
+
+	/**
+	 * Get the index of the sample.
+	 *
+	 * @param sampleID Sample ID
+	 * @return Sample index, or -1 if not in the table
+	 */
+	public int getSampleIndex( final String sampleID ) {
+		final Integer s = this.sampleIndex.get( sampleID );
+		return s == null ? -1: s;
+	}
+
+	/**
+	 * Get the index of each sample.
+	 *
+	 * @param sampleIDs Sample IDs
+	 * @return Sample indexes, -1 for samples not in the table
+	 */
+	public int[] getSampleIndexes( final List<String> sampleIDs ) {
+		final int[] indexes = new int[ sampleIDs.size() ];
+		for( int i = 0; i < indexes.length; i++ )
+			indexes[ i ] = getSampleIndex( sampleIDs.get( i ) );
+		return indexes;
+	}
+
+	/**
+	 * Get the index of the taxa.
+	 *
+	 * @param taxon Taxa name
+	 * @return Taxa index, or -1 if not in the table
+	 */
+	public int getTaxonIndex( final String taxon ) {
+		final Integer t = this.taxaIndex.get( taxon );
+		return t == null ? -1: t;
+	}
+
+	/**
+	 * Get the index of each taxa.
+	 *
+	 * @param taxa Taxa names
+	 * @return Taxa indexes, -1 for taxa not in the table
+	 */
+	public int[] getTaxonIndexes( final List<String> taxa ) {
+		final int[] indexes = new int[ taxa.size() ];
+		for( int i = 0; i < indexes.length; i++ )
+			indexes[ i ] = getTaxonIndex( taxa.get( i ) );
+		return indexes;
+	}
+
+	/**
+	 * Get the cell value.
+	 *
+	 * @param sampleIndex Sample index
+	 * @param taxonIndex Taxa index
+	 * @return Cell value, 0 if empty
+	 */
+	public double getValue( final int sampleIndex, final int taxonIndex ) {
+		final double[] row = this.rows.get( sampleIndex );
+		return taxonIndex < row.length ? row[ taxonIndex ]: 0.0;
+	}
+
+	/**
+	 * Check if the cell has been assigned a value.
+	 *
+	 * @param sampleIndex Sample index
+	 * @param taxonIndex Taxa index
+	 * @return TRUE if the cell is not empty
+	 */
+	public boolean hasValue( final int sampleIndex, final int taxonIndex ) {
+		return this.present.get( sampleIndex ).get( taxonIndex );
+	}
+
+	/**
+	 * Get all sample IDs in sorted order.
+	 *
+	 * @return Sample IDs
+	 */
+	public List<String> listSamples() {
+		final List<String> allSampleIDs = new ArrayList<>( this.samples );
+		Collections.sort( allSampleIDs );
+		return allSampleIDs;
+	}
+
+	/**
+	 * Get all taxa names in sorted order.
+	 *
+	 * @return Taxa names
+	 */
+	public List<String> listTaxa() {
+		final List<String> allTaxa = new ArrayList<>( this.taxa );
+		Collections.sort( allTaxa );
+		return allTaxa;
+	}
+
+	/**
+	 * Add a sample row, if not already in the table.
+	 *
+	 * @param sampleID Sample ID
+	 * @return Map view of the row
+	 */
+	public Map<String, Double> newSampleRow( final String sampleID ) {
+		return new Row( addSample( sampleID ) );
+	}
+
+	/**
+	 * Set the row of the sample to the values in the map, adding the sample and taxa if needed.
+	 */
+	@Override
+	public Map<String, Double> put( final String sampleID, final Map<String, Double> values ) {
+		final Map<String, Double> row = newSampleRow( sampleID );
+		row.putAll( values );
+		return null;
+	}
+
+	/**
+	 * Sum the values in the row of the given sample.
+	 *
+	 * @param sampleIndex Sample index
+	 * @return Row sum
+	 */
+	public double rowSum( final int sampleIndex ) {
+		double sum = 0.0;
+		for( final double val: this.rows.get( sampleIndex ) )
+			sum += val;
+		return sum;
+	}
+
+	/**
+	 * Set the cell value.
+	 *
+	 * @param sampleIndex Sample index
+	 * @param taxonIndex Taxa index
+	 * @param value Cell value
+	 */
+	public void setValue( final int sampleIndex, final int taxonIndex, final double value ) {
+		double[] row = this.rows.get( sampleIndex );
+		if( taxonIndex >= row.length ) {
+			row = Arrays.copyOf( row, Math.max( this.taxa.size(), taxonIndex + 1 ) );
+			this.rows.set( sampleIndex, row );
+		}
+		row[ taxonIndex ] = value;
+		this.present.get( sampleIndex ).set( taxonIndex );
+	}
+
+	@Override
+	public int size() {
+		return this.samples.size();
+	}
+
+	/**
+	 * Map(taxa, value) view of one row, containing the non-empty cells.
+	 */
+	private class Row extends AbstractMap<String, Double> {
+		private Row( final int sampleIndex ) {
+			this.s = sampleIndex;
+		}
+
+		@Override
+		public boolean containsKey( final Object taxon ) {
+			final Integer t = TaxaLevelTable.this.taxaIndex.get( taxon );
+			return t != null && hasValue( this.s, t );
+		}
+
+		@Override
+		public Set<Map.Entry<String, Double>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Double>>() {
+				@Override
+				public Iterator<Map.Entry<String, Double>> iterator() {
+					final BitSet cells = TaxaLevelTable.this.present.get( Row.this.s );
+					return new Iterator<Map.Entry<String, Double>>() {
+						@Override
+						public boolean hasNext() {
+							return this.t >= 0;
+						}
+
+						@Override
+						public Map.Entry<String, Double> next() {
+							if( !hasNext() ) throw new NoSuchElementException();
+							final int index = this.t;
+							this.t = cells.nextSetBit( index + 1 );
+							return new SimpleImmutableEntry<>( TaxaLevelTable.this.taxa.get( index ),
+								getValue( Row.this.s, index ) );
+						}
+
+						private int t = cells.nextSetBit( 0 );
+					};
+				}
+
+				@Override
+				public int size() {
+					return Row.this.size();
+				}
+			};
+		}
+
+		@Override
+		public Double get( final Object taxon ) {
+			final Integer t = TaxaLevelTable.this.taxaIndex.get( taxon );
+			return t == null || !hasValue( this.s, t ) ? null: getValue( this.s, t );
+		}
+
+		@Override
+		public Double put( final String taxon, final Double value ) {
+			final Double prev = get( taxon );
+			setValue( this.s, addTaxon( taxon ), value );
+			return prev;
+		}
+
+		@Override
+		public int size() {
+			return TaxaLevelTable.this.present.get( this.s ).cardinality();
+		}
+
+		private final int s;
+	}
+
+	private final String level;
+	private final List<BitSet> present = new ArrayList<>();
+	private final List<double[]> rows = new ArrayList<>();
+	private final Map<String, Integer> sampleIndex = new HashMap<>();
+	private final List<String> samples = new ArrayList<>();
+	private final List<String> taxa = new ArrayList<>();
+	private final Map<String, Integer> taxaIndex = new HashMap<>();
+	private static final double[] EMPTY_ROW = new double[ 0 ];
 }
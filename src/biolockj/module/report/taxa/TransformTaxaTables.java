@@ -13,7 +13,6 @@ package biolockj.module.report.taxa;
 
 import java.io.*;
 import java.util.*;
-import java.util.stream.Collectors;
 import biolockj.*;
 import biolockj.util.*;
 
@@ -63,12 +62,11 @@ public abstract class TransformTaxaTables extends TaxaCountModule {
 	 * @return
 	 */
 	protected List<String> filterSamples( TaxaLevelTable inputData ){
-		final Set<String> allSampleIDs = inputData.keySet();
+		final List<String> allSampleIDs = inputData.listSamples();
 		final Set<String> allZeroSamples = new TreeSet<>();
 		final List<String> filteredSampleIDs = new ArrayList<>();
 		for (String id : allSampleIDs) {
-			Long numNon0s = inputData.get( id ).values().stream().filter( d -> ! d.equals( Double.valueOf( 0 ) ) ).collect( Collectors.counting() );
-			if ( numNon0s.equals( Long.valueOf( 0 ) ) ) {
+			if ( inputData.countNonZero( inputData.getSampleIndex( id ) ) == 0 ) {
 				allZeroSamples.add( id );
 			}else {
 				filteredSampleIDs.add( id );
@@ -85,6 +83,11 @@ public abstract class TransformTaxaTables extends TaxaCountModule {
 		return( filteredSampleIDs );
 	}
 	
+	@Override
+	public boolean mayUpdateMetadata() {
+		return false;
+	}
+
 	protected List<String> filterTaxa( TaxaLevelTable inputData ){
 		return inputData.listTaxa();
 	};
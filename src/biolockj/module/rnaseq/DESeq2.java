@@ -92,6 +92,16 @@ public class DESeq2 extends ScriptModuleImpl implements ApiModule {
 	/**
 	 * DESeq should only take raw values. So don't include '|| module instanceof TransformTaxaTables' even though that input is the right format.
 	 */
+	@Override
+	public boolean checksInputModuleType() {
+		return true;
+	}
+
+	@Override
+	public boolean mayUpdateMetadata() {
+		return false;
+	}
+
 	@Override
 	public boolean isValidInputModule( BioModule module ) {
 		return module instanceof BuildTaxaTables;
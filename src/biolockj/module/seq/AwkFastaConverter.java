@@ -17,15 +17,15 @@ import biolockj.*;
 import biolockj.api.ApiModule;
 import biolockj.exception.SequnceFormatException;
 import biolockj.module.SeqModuleImpl;
-import biolockj.util.BioLockJUtil;
-import biolockj.util.SeqUtil;
+import biolockj.module.StreamingSeqModule;
+import biolockj.util.*;
 
 /**
  * This BioModule uses awk and gzip to convert input sequence files into a decompressed fasta file format.
  * 
  * @blj.web_desc Awk Fastq to Fasta Converter
  */
-public class AwkFastaConverter extends SeqModuleImpl implements ApiModule {
+public class AwkFastaConverter extends SeqModuleImpl implements ApiModule, StreamingSeqModule {
 	
 	public AwkFastaConverter(){
 		addGeneralProperty( Constants.EXE_GZIP );
@@ -82,6 +82,22 @@ public class AwkFastaConverter extends SeqModuleImpl implements ApiModule {
 		Config.setConfigProperty( Constants.INTERNAL_SEQ_HEADER_CHAR, SeqUtil.FASTA_HEADER_DEFAULT_DELIM );
 	}
 
+	/**
+	 * In a fused chain, each fastq read is converted with {@link biolockj.util.SeqRecord#toFastA()}.
+	 */
+	@Override
+	public ReadFilter getReadFilter( final File seqFile ) {
+		return new ReadFilter() {
+			@Override
+			public void close() {}
+
+			@Override
+			public SeqRecord filter( final SeqRecord read ) {
+				return read.toFastA();
+			}
+		};
+	}
+
 	@Override
 	public List<File> getSeqFiles( final Collection<File> files ) throws SequnceFormatException {
 		return SeqUtil.getSeqFiles( files );
@@ -116,6 +132,18 @@ public class AwkFastaConverter extends SeqModuleImpl implements ApiModule {
 		return lines;
 	}
 
+	/**
+	 * Multi-line (454) fasta reads cannot be parsed one read at a time, so they are only converted by the module
+	 * script.
+	 */
+	@Override
+	public boolean isRecordLocal() throws Exception {
+		return !Config.getBoolean( this, Constants.INTERNAL_IS_MULTI_LINE_SEQ );
+	}
+
+	@Override
+	public void streamComplete() {}
+
 	private String copyToOutputDir( final String source, final String target ) {
 		return "cp " + source + " " + getOutputDir().getAbsolutePath() + File.separator + target;
 	}
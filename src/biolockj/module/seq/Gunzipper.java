@@ -17,15 +17,15 @@ import java.util.List;
 import biolockj.*;
 import biolockj.api.ApiModule;
 import biolockj.module.SeqModuleImpl;
-import biolockj.util.BioLockJUtil;
-import biolockj.util.SeqUtil;
+import biolockj.module.StreamingSeqModule;
+import biolockj.util.*;
 
 /**
  * This BioModule uses gzip to decompress input sequence files.
  * 
  * @blj.web_desc Decompress .gz Files
  */
-public class Gunzipper extends SeqModuleImpl implements ApiModule {
+public class Gunzipper extends SeqModuleImpl implements ApiModule, StreamingSeqModule {
 
 	public Gunzipper() {
 		addGeneralProperty( Constants.EXE_GZIP );
@@ -49,17 +49,48 @@ public class Gunzipper extends SeqModuleImpl implements ApiModule {
 	}
 
 	/**
-	 * This method generates the bash function: {@value #FUNCTION_GUNZIP}.
+	 * This method generates the bash function: {@value #FUNCTION_GUNZIP}.<br>
+	 * If {@value #PIGZ} is installed, it is used with {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS}
+	 * threads so reading, decompressing, and writing each file run on separate threads.
 	 */
 	@Override
 	public List<String> getWorkerScriptFunctions() throws Exception {
 		final List<String> lines = super.getWorkerScriptFunctions();
 		lines.add( "function " + FUNCTION_GUNZIP + "() {" );
+		lines.add( "if [ -x \"$(command -v " + PIGZ + ")\" ]; then" );
+		lines.add( PIGZ + " -p " + Config.requirePositiveInteger( this, Constants.SCRIPT_NUM_THREADS ) + " -cd $1 > $2" );
+		lines.add( "else" );
 		lines.add( Config.getExe( this, Constants.EXE_GZIP ) + " -cd $1 > $2" );
+		lines.add( "fi" );
 		lines.add( "}" + RETURN );
 		return lines;
 	}
 
+	/**
+	 * Reads are decompressed by {@link biolockj.util.SeqRecordReader}, so in a fused chain each read is passed on as
+	 * is.
+	 */
+	@Override
+	public ReadFilter getReadFilter( final File seqFile ) {
+		return new ReadFilter() {
+			@Override
+			public void close() {}
+
+			@Override
+			public SeqRecord filter( final SeqRecord read ) {
+				return read;
+			}
+		};
+	}
+
+	@Override
+	public boolean isRecordLocal() {
+		return true;
+	}
+
+	@Override
+	public void streamComplete() {}
+
 	private String copyToOutputDir( final File file ) {
 		return "cp " + file.getAbsolutePath() + " " + getOutputDir().getAbsolutePath();
 	}
@@ -90,6 +121,11 @@ public class Gunzipper extends SeqModuleImpl implements ApiModule {
 	 */
 	protected static final String FUNCTION_GUNZIP = "openZip";
 
+	/**
+	 * Multithreaded gzip executable used if available: {@value #PIGZ}
+	 */
+	protected static final String PIGZ = "pigz";
+
 	@Override
 	public String getDescription() {
 		return "Decompress gzipped files.";
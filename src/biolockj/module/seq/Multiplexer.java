@@ -12,8 +12,11 @@
 package biolockj.module.seq;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import biolockj.*;
 import biolockj.Properties;
 import biolockj.api.ApiModule;
@@ -66,18 +69,20 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 	public String getSummary() throws Exception {
 		final StringBuffer sb = new StringBuffer();
 		try {
-			if( this.totalNumRvReads > 0 ) {
+			final long totalNumFwReads = this.fwMap.values().stream().mapToLong( Long::longValue ).sum();
+			final long totalNumRvReads = this.rvMap.values().stream().mapToLong( Long::longValue ).sum();
+			if( totalNumRvReads > 0 ) {
 				sb.append( "# Forward Read Files multiplexed = " + this.fwMap.keySet().size() + RETURN );
 				sb.append( "# Reverse Read Files multiplexed = " + this.rvMap.keySet().size() + RETURN );
-				sb.append( "# Total Forward Reads = " + this.totalNumFwReads + RETURN );
-				sb.append( "# Total Reverse Reads = " + this.totalNumRvReads + RETURN );
-			} else if( this.totalNumFwReads > 0 ) {
+				sb.append( "# Total Forward Reads = " + totalNumFwReads + RETURN );
+				sb.append( "# Total Reverse Reads = " + totalNumRvReads + RETURN );
+			} else if( totalNumFwReads > 0 ) {
 				sb.append( "# Samples multiplexed = " + this.fwMap.keySet().size() + RETURN );
-				sb.append( "# Total Reads = " + this.totalNumFwReads + RETURN );
+				sb.append( "# Total Reads = " + totalNumFwReads + RETURN );
 			} else sb.append( "Module incomplete - no output produced!" + RETURN );
 
-			if( this.rcCount > 0 )
-				sb.append( "# Reads saved with existing reverse compliment header barcode: " + this.rcCount + RETURN );
+			if( this.rcCount.get() > 0 ) sb.append(
+				"# Reads saved with existing reverse compliment header barcode: " + this.rcCount.get() + RETURN );
 
 		} catch( final Exception ex ) {
 			final String msg = "Unable to complete module summary: " + ex.getMessage();
@@ -107,32 +112,30 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 	// }
 
 	/**
-	 * Execute {@link #multiplex(File)} on each input file
+	 * Execute {@link #multiplex(File)} on each input file, in parallel, then append the multiplexed reads from each
+	 * file to the output file(s) in input file order. If {@link biolockj.Config}.{@value #DO_GZIP} is enabled, the
+	 * output is compressed block-parallel as it is written.
 	 */
 	@Override
 	public void runModule() throws Exception {
 		Log.info( getClass(), "Multiplexing file type = " + Config.requireString( this, Constants.INTERNAL_SEQ_TYPE ) );
 
-		for( final File f: getInputFiles() )
-			multiplex( f );
-
-		if( Config.getBoolean( this, DO_GZIP ) ) {
-			Log.warn( getClass(), "BioLockJ gzip data in: " + this.muxFiles );
-			compressData();
-			removeDecompressedFiles();
-		}
+		final List<File> files = getInputFiles();
+		processFiles( files, f -> multiplex( f ) );
+		mergeMuxFiles( files );
+		if( Config.getBoolean( this, DO_GZIP ) ) Log.info( getClass(), "BioLockJ gzip data in: " + this.muxFiles );
 	}
 
 	/**
 	 * Get the header for the sequence.
 	 *
 	 * @param file Sequence file in fasta or fastq format
-	 * @param seqLines Sequence lines for 1 read
+	 * @param seqHeader Header line of 1 read
 	 * @return the header row for the sequence
 	 * @throws Exception if errors occur while obtaining header
 	 */
-	protected String getHeader( final File file, final List<String> seqLines ) throws Exception {
-		final String header = seqLines.get( 0 ).trim();
+	protected String getHeader( final File file, final String seqHeader ) throws Exception {
+		final String header = seqHeader.trim();
 		final String headerChar = header.substring( 0, 1 );
 		final String sampleId = SeqUtil.getSampleId( file );
 		final long numReads = incrementNumReads( file );
@@ -145,42 +148,35 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 
 			if( header.contains( barcode ) ) return header;
 			else if( header.contains( rc ) ) {
-				this.rcCount++;
+				this.rcCount.incrementAndGet();
 				return header;
 			} else return header + " " + barcode;
 		} else return headerChar + sampleId + "_" + sampleId + "." + numReads + ":" + header.substring( 1 );
 	}
 
 	/**
-	 * Add file sequences to the multiplexed file. If barcode is defined in the metadata file and set in the Config
-	 * file, it will be added to the header (if not already in the header line). If no barcode value is configured, the
-	 * sample ID will be used in the sequence headers.
+	 * Add file sequences to the multiplexed file part for the sample in the module temp directory. If barcode is defined
+	 * in the metadata file and set in the Config file, it will be added to the header (if not already in the header
+	 * line). If no barcode value is configured, the sample ID will be used in the sequence headers.
 	 *
 	 * @param sample Sequence file in Fasta or Fastq format
 	 * @throws Exception if I/O errors occur creating multiplexed file
 	 */
 	protected void multiplex( final File sample ) throws Exception {
 		Log.info( getClass(), "Multiplexing file  = " + sample.getAbsolutePath() );
-		final File muxFile = new File( getMutliplexeFileName( sample ) );
-		final List<String> seqLines = new ArrayList<>();
-		BufferedReader reader = null;
-		BufferedWriter writer = null;
+		final File muxFile = getMuxPartFile( sample );
+		final SeqRecordReader reader = new SeqRecordReader( sample );
+		final OutputStream writer =
+			new BufferedOutputStream( new FileOutputStream( muxFile ), SeqRecordReader.BUFFER_SIZE );
 		try {
-			reader = BioLockJUtil.getFileReader( sample );
-			writer = new BufferedWriter( new FileWriter( muxFile, true ) );
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				seqLines.add( line );
-				if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) // full read
-				{
-					writer.write( getHeader( sample, seqLines ) + RETURN );
-					for( int i = 1; i < seqLines.size(); i++ )
-						writer.write( seqLines.get( i ) + RETURN );
-					seqLines.clear();
-				}
+			for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+				final String header = getHeader( sample, read.getHeader() ) + RETURN;
+				writer.write( header.getBytes( StandardCharsets.ISO_8859_1 ) );
+				read.writeLines( writer, SeqRecord.SEQ );
 			}
 		} finally {
-			if( writer != null ) writer.close();
-			if( reader != null ) reader.close();
+			writer.close();
+			reader.close();
 		}
 	}
 
@@ -206,34 +202,18 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 			"All other BioLockJ modules require demultiplexed data." );
 	}
 
-	private void compressData() throws Exception {
-		for( final String path: this.muxFiles ) {
-			FileInputStream fis = null;
-			FileOutputStream fos = null;
-			GZIPOutputStream gzipOS = null;
-			try {
-				fis = new FileInputStream( path );
-				fos = new FileOutputStream( path + Constants.GZIP_EXT );
-				gzipOS = new GZIPOutputStream( fos );
-				final byte[] buffer = new byte[ 1024 ];
-				int len;
-				while( ( len = fis.read( buffer ) ) != -1 )
-					gzipOS.write( buffer, 0, len );
-			} finally {
-				if( gzipOS != null ) gzipOS.close();
-				if( fos != null ) fos.close();
-				if( fis != null ) fis.close();
-			}
-		}
-	}
-
 	private String getMutliplexeFileName( final File file ) throws Exception {
 		final String path = getOutputDir().getAbsolutePath() + File.separator + Config.pipelineName() +
-			SeqUtil.getReadDirectionSuffix( file ) + "." + SeqUtil.getSeqType();
+			SeqUtil.getReadDirectionSuffix( file ) + "." + SeqUtil.getSeqType() +
+			( Config.getBoolean( this, DO_GZIP ) ? Constants.GZIP_EXT: "" );
 		this.muxFiles.add( path );
 		return path;
 	}
 
+	private File getMuxPartFile( final File file ) throws Exception {
+		return new File( getTempDir().getAbsolutePath() + File.separator + file.getName() + MUX_PART_EXT );
+	}
+
 	private long getNumReads( final File file ) {
 		Long numReads = null;
 		if( SeqUtil.hasPairedReads() && !SeqUtil.isForwardRead( file.getName() ) )
@@ -248,28 +228,38 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 		Long numReads = getNumReads( file );
 		numReads++;
 
-		if( SeqUtil.hasPairedReads() && !SeqUtil.isForwardRead( file.getName() ) ) {
+		if( SeqUtil.hasPairedReads() && !SeqUtil.isForwardRead( file.getName() ) )
 			this.rvMap.put( file.getName(), numReads );
-			this.totalNumRvReads++;
-		} else {
-			this.fwMap.put( file.getName(), numReads );
-			this.totalNumFwReads++;
-		}
+		else this.fwMap.put( file.getName(), numReads );
 
 		return numReads;
 	}
 
-	private void removeDecompressedFiles() {
-		for( final String path: this.muxFiles )
-			new File( path ).delete();
+	private void mergeMuxFiles( final List<File> files ) throws Exception {
+		final Map<String, OutputStream> outs = new LinkedHashMap<>();
+		try {
+			for( final File file: files ) {
+				final String path = getMutliplexeFileName( file );
+				OutputStream out = outs.get( path );
+				if( out == null ) {
+					out = BioLockJUtil.getFileOutputStream( new File( path ) );
+					outs.put( path, out );
+				}
+
+				final File part = getMuxPartFile( file );
+				Files.copy( part.toPath(), out );
+				part.delete();
+			}
+		} finally {
+			for( final OutputStream out: outs.values() )
+				out.close();
+		}
 	}
 
-	private final Map<String, Long> fwMap = new HashMap<>();
+	private final Map<String, Long> fwMap = new ConcurrentHashMap<>();
 	private final Set<String> muxFiles = new HashSet<>();
-	private int rcCount = 0;
-	private final Map<String, Long> rvMap = new HashMap<>();
-	private long totalNumFwReads = 0L;
-	private long totalNumRvReads = 0L;
+	private final AtomicInteger rcCount = new AtomicInteger( 0 );
+	private final Map<String, Long> rvMap = new ConcurrentHashMap<>();
 	/**
 	 * {@link biolockj.Config} boolean property: {@value #DO_GZIP}:
 	 */
@@ -285,5 +275,6 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 		return "Module developed by Mike Sioda" + System.lineSeparator() + "BioLockJ " + BioLockJUtil.getVersion();
 	}
 
+	private static final String MUX_PART_EXT = ".mux";
 	// private static final String FUNCTION_GZIP = "gZip";
 }
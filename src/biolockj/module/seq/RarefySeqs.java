@@ -13,7 +13,8 @@ package biolockj.module.seq;
 
 import java.io.*;
 import java.util.*;
-import java.util.stream.LongStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang.math.NumberUtils;
 import biolockj.*;
 import biolockj.Properties;
@@ -37,6 +38,7 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 		super();
 		addNewProperty( INPUT_RAREFYING_MAX, Properties.NUMERTIC_TYPE, "Randomly select this number of sequences to keep in each sample" );
 		addNewProperty( INPUT_RAREFYING_MIN, Properties.NUMERTIC_TYPE, "Discard samples with less than minimum number of sequences", "1" );
+		addNewProperty( INPUT_RAREFYING_RESERVOIR, Properties.BOOLEAN_TYPE, "If Y, sample reads in a single pass with a reservoir of " + INPUT_RAREFYING_MAX + " reads, so the number of reads per sample is not required" );
 		addGeneralProperty( Constants.DEFAULT_MOD_SEQ_MERGER );
 	}
 
@@ -70,15 +72,17 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 	}
 
 	/**
-	 * This method always requires a prerequisite module with a "number of reads" count such as:
-	 * {@link biolockj.module.implicit.RegisterNumReads}. If paired reads found, also return a 2nd module:
+	 * This method requires a prerequisite module with a "number of reads" count such as:
+	 * {@link biolockj.module.implicit.RegisterNumReads}, unless {@link biolockj.Config}.{@value #INPUT_RAREFYING_RESERVOIR}
+	 * is enabled. If paired reads found, also return a 2nd module:
 	 * {@link biolockj.module.seq.PearMergeReads}.
 	 */
 	@Override
 	public List<String> getPreRequisiteModules() throws Exception {
 		final List<String> preReqs = super.getPreRequisiteModules();
 		if( SeqUtil.hasPairedReads() ) preReqs.add( Config.getString( null, Constants.DEFAULT_MOD_SEQ_MERGER ) );
-		else if( SeqUtil.piplineHasSeqInput() && needsCountModule() ) preReqs.add( RegisterNumReads.class.getName() );
+		else if( SeqUtil.piplineHasSeqInput() && !useReservoir() && needsCountModule() )
+			preReqs.add( RegisterNumReads.class.getName() );
 
 		return preReqs;
 	}
@@ -106,7 +110,7 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 
 	/**
 	 * For each file with number reads outside of {@link biolockj.Config}.{@link #INPUT_RAREFYING_MIN} and
-	 * {@link biolockj.Config}.{@link #INPUT_RAREFYING_MAX} values, generate a new sequence file from a shuffled list of
+	 * {@link biolockj.Config}.{@link #INPUT_RAREFYING_MAX} values, generate a new sequence file from a random sample of
 	 * its sequences.
 	 */
 	@Override
@@ -114,100 +118,169 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 		Log.info( getClass(), "Base #Reads based on: " + RegisterNumReads.getNumReadFieldName() );
 		this.sampleIds.addAll( MetaUtil.getSampleIds() );
 		final List<File> files = getInputFiles();
-		for( int i = 0; i < files.size(); i++ ) {
-			final File f = files.get( i );
+		final AtomicInteger numDone = new AtomicInteger( 0 );
+		processFiles( files, f -> {
 			rarefy( f );
-			if( i % 25 == 0 || i + 1 == files.size() )
+			final int i = numDone.incrementAndGet();
+			if( i % 25 == 0 || i == files.size() )
 				Log.info( getClass(), "Done rarefying " + i + "/" + files.size() + " files." );
-		}
-
+		} );
 	}
 
 	/**
-	 * Build the rarefied file for the input file, keeping only the given indexes
+	 * Build the rarefied file for the input file in a single pass, keeping the reads selected by the sampler.
 	 *
 	 * @param input Sequence file
-	 * @param indexes List of indexes to keep
+	 * @param sampler Selects the indexes of the reads to keep, in ascending order
+	 * @param numKeep Number of reads selected by the sampler
 	 * @throws Exception if unable to build rarefied file
 	 */
-	protected void buildRarefiedFile( final File input, final List<Long> indexes ) throws Exception {
-		Log.info( getClass(), "Rarefy [#index=" + indexes.size() + "]: " + input.getAbsolutePath() );
-		Log.debug( getClass(), "indexes: " + BioLockJUtil.getCollectionAsString( indexes ) );
-		final String fileExt = "." + SeqUtil.getSeqType();
-		final String name =
-			getOutputDir().getAbsolutePath() + File.separator + SeqUtil.getSampleId( input ) + fileExt;
-		final File output = new File( name );
-		final BufferedReader reader = BioLockJUtil.getFileReader( input );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( output ) );
+	protected void buildRarefiedFile( final File input, final SequentialSampler sampler, final long numKeep )
+		throws Exception {
+		Log.info( getClass(), "Rarefy [#keep=" + numKeep + "]: " + input.getAbsolutePath() );
+		final File output = getOutputFile( input );
+		final SeqRecordReader reader = new SeqRecordReader( input );
+		final OutputStream writer =
+			new BufferedOutputStream( new FileOutputStream( output ), SeqRecordReader.BUFFER_SIZE );
 		Log.info( getClass(),
 			"Building file [#lines/read=" + SeqUtil.getNumLinesPerRead() + "]: " + output.getAbsolutePath() );
 
+		long numKept = 0L;
+		long next = sampler.next();
 		try {
-			long index = 0;
-			int i = 0;
-			final Set<Long> usedIndexes = new HashSet<>();
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				if( indexes.contains( index ) ) {
-					if( !usedIndexes.contains( index ) ) Log.debug( getClass(), "Add to usedIndexes: " + index );
-					usedIndexes.add( index );
-					writer.write( line + RETURN );
+			for( SeqRecord read = reader.next(); read != null && next >= 0; read = reader.next() )
+				if( read.getIndex() == next ) {
+					read.write( writer );
+					numKept++;
+					next = sampler.next();
 				}
+		} finally {
+			reader.close();
+			writer.close();
+		}
 
-				if( ++i % SeqUtil.getNumLinesPerRead() == 0 ) index++;
-			}
+		if( next >= 0 ) throw new Exception( "Error occurred rarefying: " + input.getAbsolutePath() +
+			" ---> selected " + numKept + " of " + numKeep + " reads before the end of the file" );
 
-			this.readsPerSample.put( SeqUtil.getSampleId( input ), Integer.toString( indexes.size() ) );
+		this.readsPerSample.put( SeqUtil.getSampleId( input ), Long.toString( numKept ) );
+	}
 
-			if( !usedIndexes.containsAll( indexes ) ) {
-				indexes.removeAll( usedIndexes );
-				throw new Exception(
-					"Error occurred rarefying indexes for: " + input.getAbsolutePath() + " ---> " + indexes );
+	/**
+	 * Build the rarefied file for the input file in a single pass with a {@link biolockj.util.ReservoirSampler}, which
+	 * does not need the number of reads in the file. The reservoir holds up to
+	 * {@link biolockj.Config}.{@value #INPUT_RAREFYING_MAX} reads in memory, which are written in their original order
+	 * once the whole file has been read.
+	 *
+	 * @param input Sequence file
+	 * @param max Max number of reads to keep, or null to keep every read
+	 * @param min Min number of reads required to keep the sample
+	 * @throws Exception if unable to build rarefied file
+	 */
+	protected void buildReservoirFile( final File input, final Integer max, final long min ) throws Exception {
+		Log.info( getClass(), "Rarefy [reservoir=" + max + "]: " + input.getAbsolutePath() );
+		final File output = getOutputFile( input );
+		final SeqRecordReader reader = new SeqRecordReader( input );
+		final List<byte[]> reads = new ArrayList<>();
+		final List<Long> indexes = new ArrayList<>();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		long numReads = 0L;
+		try {
+			if( max == null ) {
+				final OutputStream writer =
+					new BufferedOutputStream( new FileOutputStream( output ), SeqRecordReader.BUFFER_SIZE );
+				try {
+					for( SeqRecord read = reader.next(); read != null; read = reader.next() )
+						read.write( writer );
+				} finally {
+					writer.close();
+				}
+			} else {
+				final ReservoirSampler sampler = new ReservoirSampler( max, getRandomSeed() );
+				for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+					final int slot = sampler.offer();
+					if( slot < 0 ) continue;
+					bytes.reset();
+					read.write( bytes );
+					if( slot == reads.size() ) {
+						reads.add( bytes.toByteArray() );
+						indexes.add( read.getIndex() );
+					} else {
+						reads.set( slot, bytes.toByteArray() );
+						indexes.set( slot, read.getIndex() );
+					}
+				}
 			}
+			numReads = reader.getNumReads();
 		} finally {
 			reader.close();
-			writer.close();
 		}
+
+		if( numReads < min ) {
+			if( output.isFile() ) output.delete();
+			logRemovedSample( SeqUtil.getSampleId( input ), numReads );
+			return;
+		}
+
+		if( max != null ) {
+			final Integer[] order = new Integer[ reads.size() ];
+			for( int i = 0; i < order.length; i++ )
+				order[ i ] = i;
+			Arrays.sort( order, ( x, y ) -> indexes.get( x ).compareTo( indexes.get( y ) ) );
+
+			final OutputStream writer =
+				new BufferedOutputStream( new FileOutputStream( output ), SeqRecordReader.BUFFER_SIZE );
+			try {
+				for( final Integer i: order )
+					writer.write( reads.get( i ) );
+			} finally {
+				writer.close();
+			}
+		}
+
+		this.readsPerSample.put( SeqUtil.getSampleId( input ),
+			Long.toString( max == null ? numReads: reads.size() ) );
 	}
 
 	/**
 	 * Builds the rarefied file if too many seqs found, or adds files with too few samples to the list of bad samples.
+	 * Reads are selected with a {@link biolockj.util.SequentialSampler} based on the number of reads registered in the
+	 * metadata, or with {@link #buildReservoirFile(File, Integer, long)} if
+	 * {@link biolockj.Config}.{@value #INPUT_RAREFYING_RESERVOIR} is enabled or the number of reads is unknown.
 	 *
 	 * @param seqFile Sequence file to rarefy
 	 * @throws Exception if processing errors occur
 	 */
 	protected void rarefy( final File seqFile ) throws Exception {
 		final Integer maxConfig = Config.getNonNegativeInteger( this, INPUT_RAREFYING_MAX );
-		final Integer minConfig = Config.getNonNegativeInteger( this, INPUT_RAREFYING_MIN );
-		Long max = 0L;
-		Long min = minConfig.longValue();
+		final long min = Config.getNonNegativeInteger( this, INPUT_RAREFYING_MIN ).longValue();
 		final String sampleId = SeqUtil.getSampleId( seqFile );
-		final long numReads = getCount( sampleId, RegisterNumReads.getNumReadFieldName() );
-
-		if( maxConfig != null ) max = numReads < maxConfig.longValue() ? numReads: maxConfig.longValue();
+		final Long numReads = useReservoir() ? null: getCount( sampleId, RegisterNumReads.getNumReadFieldName() );
 
 		Log.debug( getClass(), "min = " + min );
-		Log.debug( getClass(), "max = " + max );
+		Log.debug( getClass(), "max = " + maxConfig );
 		Log.debug( getClass(), "numReads = " + numReads );
-		if( numReads >= min ) {
-			final long[] range = LongStream.rangeClosed( 0, numReads - 1 ).toArray();
-			Log.debug( getClass(), "range.length = " + range.length );
-			final List<Long> indexes = new ArrayList<>();
-			Collections.addAll( indexes, Arrays.stream( range ).boxed().toArray( Long[]::new ) );
-
-			Log.debug( getClass(), "Sample #indexes size #1 -->  [" + indexes.size() + "]" );
-
-			Collections.shuffle( indexes, getRandomSeed() );
-			indexes.subList( max.intValue(), indexes.size() ).clear();
-
-			Log.debug( getClass(), "Sample #indexes size  #2 -->  [" + indexes.size() + "]" );
+		if( numReads == null ) {
+			if( !useReservoir() ) Log.warn( getClass(), "Number of reads not found for sample [" + sampleId +
+				"] - rarefy with a single-pass reservoir: " + seqFile.getAbsolutePath() );
+			buildReservoirFile( seqFile, maxConfig, min );
+		} else if( numReads >= min ) {
+			final long max = maxConfig == null ? numReads: Math.min( numReads, maxConfig.longValue() );
+			buildRarefiedFile( seqFile, new SequentialSampler( numReads, max, getRandomSeed() ), max );
+		} else logRemovedSample( sampleId, numReads );
+	}
 
-			buildRarefiedFile( seqFile, indexes );
-		} else Log.info( getClass(),
+	private void logRemovedSample( final String sampleId, final long numReads ) throws Exception {
+		Log.info( getClass(),
 			"Remove sample [" + sampleId + "] - contains (" + numReads +
 				") reads, which is less than minimum # reads (" +
 				Config.getNonNegativeInteger( this, INPUT_RAREFYING_MIN ) + ")" );
 	}
 
+	private File getOutputFile( final File input ) throws Exception {
+		return new File( getOutputDir().getAbsolutePath() + File.separator + SeqUtil.getSampleId( input ) + "." +
+			SeqUtil.getSeqType() );
+	}
+
 	private String getMetaColName() throws Exception {
 		if( this.otuColName == null ) this.otuColName = MetaUtil.getSystemMetaCol( this, NUM_RAREFIED_READS );
 
@@ -220,6 +293,10 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 		return new Random();
 	}
 
+	private boolean useReservoir() throws Exception {
+		return Config.getBoolean( this, INPUT_RAREFYING_RESERVOIR );
+	}
+
 	private boolean needsCountModule() throws Exception {
 		for( final String module: Config.requireList( this, Constants.INTERNAL_BLJ_MODULE ) )
 			if( module.contentEquals( RegisterNumReads.class.getName() ) || module.equals( SeqFileValidator.class.getName() ) || module.equals( TrimPrimers.class.getName() ) )
@@ -239,7 +316,7 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 	}
 
 	private String otuColName = null;
-	private Map<String, String> readsPerSample = new HashMap<>();
+	private Map<String, String> readsPerSample = new ConcurrentHashMap<>();
 	private final Set<String> sampleIds = new HashSet<>();
 
 	/**
@@ -257,6 +334,12 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 	 */
 	protected static final String INPUT_RAREFYING_MIN = "rarefySeqs.min";
 
+	/**
+	 * {@link biolockj.Config} boolean property {@value #INPUT_RAREFYING_RESERVOIR} enables single-pass reservoir
+	 * sampling, which does not require the number of reads per sample
+	 */
+	protected static final String INPUT_RAREFYING_RESERVOIR = "rarefySeqs.reservoir";
+
 	@Override
 	public String getDescription() {
 		return "Randomly sub-sample sequences to reduce all samples to the configured maximum.";
@@ -12,7 +12,11 @@
 package biolockj.module.seq;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import biolockj.Config;
 import biolockj.Log;
 import biolockj.Properties;
@@ -21,7 +25,7 @@ import biolockj.exception.ConfigViolationException;
 import biolockj.exception.SequnceFormatException;
 import biolockj.module.ReadCounter;
 import biolockj.module.JavaModuleImpl;
-import biolockj.module.SeqModule;
+import biolockj.module.StreamingSeqModule;
 import biolockj.module.implicit.RegisterNumReads;
 import biolockj.util.*;
 
@@ -30,7 +34,7 @@ import biolockj.util.*;
  * 
  * @blj.web_desc Sequence File Validator
  */
-public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiModule, ReadCounter {
+public class SeqFileValidator extends JavaModuleImpl implements StreamingSeqModule, ApiModule, ReadCounter {
 	
 	public SeqFileValidator() {
 		super();
@@ -135,23 +139,61 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 
 	/**
 	 * Cache sampleIds to compare to validated sampleIds post-processing. Call {@link #validateFile(File, Integer)} for
-	 * each input file.<br>
+	 * each input file, in parallel.<br>
 	 * Call {@link #removeBadFiles()} to remove empty files (cases where all reads fail validation).<br>
 	 * Call {@link #verifyPairedSeqs()} if module input files are paired read files.<br>
+	 * Save the read quality statistics of each file to {@link #getQcStatsFile()}.<br>
 	 * Call {@link biolockj.util.MetaUtil#addColumn(String, Map, File, boolean)}
 	 */
 	@Override
 	public void runModule() throws Exception {
 		this.sampleIds.addAll( MetaUtil.getSampleIds() );
-		int count = 0;
-		for( final File file: getInputFiles() )
-			validateFile( file, count++ );
+		final List<File> files = getInputFiles();
+		final AtomicInteger fileCount = new AtomicInteger( 0 );
+		processFiles( files, file -> validateFile( file, fileCount.getAndIncrement() ) );
 
 		removeBadFiles();
 
 		if( SeqUtil.hasPairedReads() ) verifyPairedSeqs();
 
-		MetaUtil.addColumn( getMetaColName(), this.readsPerSample, getOutputDir(), true );
+		saveStats();
+	}
+
+	/**
+	 * In a fused chain, validate each read as in {@link #validateFile(File, Integer)}; invalid reads are dropped.
+	 */
+	@Override
+	public ReadFilter getReadFilter( final File seqFile ) throws Exception {
+		return new ReadValidator( seqFile, new File( getFileName( getOutputDir(), seqFile.getName() ) ) );
+	}
+
+	/**
+	 * Paired read files are compared to each other by {@link #verifyPairedSeqs()}, so they are only validated by
+	 * {@link #runModule()}.
+	 */
+	@Override
+	public boolean isRecordLocal() throws Exception {
+		return !SeqUtil.hasPairedReads();
+	}
+
+	/**
+	 * Save the read quality statistics and the number of valid reads per sample. No sequence files are saved by this
+	 * module in a fused chain, so {@link #removeBadFiles()} is not called.
+	 */
+	@Override
+	public void streamComplete() throws Exception {
+		this.sampleIds.addAll( MetaUtil.getSampleIds() );
+		saveStats();
+	}
+
+	/**
+	 * Get the read quality statistics file, with 1 row of {@link biolockj.util.SeqQualityStats} per validated file. The
+	 * file is saved in the module directory so it is not passed to the next module as a sequence file.
+	 *
+	 * @return Stats file
+	 */
+	public File getQcStatsFile() {
+		return new File( getModuleDir(), QC_STATS_FILE );
 	}
 
 	/**
@@ -178,98 +220,40 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 	 */
 	protected void validateFile( final File file, final Integer fileCount ) throws Exception {
 		Log.info( getClass(), "Validate File [" + fileCount + "]: " + file.getAbsolutePath() );
-		final Long[] stats = initStats();
-		long combinedReadLen = 0;
-		int seqNum = 0;
+		final boolean canLink = !SeqUtil.isGzipped( file.getName() );
+		long numUnchanged = 0;
 
-		final List<String> seqLines = new ArrayList<>();
-		final List<String> badLines = new ArrayList<>();
 		final File outputFile = new File( getFileName( getOutputDir(), file.getName() ) );
-		final BufferedReader reader = BioLockJUtil.getFileReader( file );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( outputFile ) );
+		final ReadValidator validator = new ReadValidator( file, outputFile );
+		OutputStream writer = null;
+		final SeqRecordReader reader = new SeqRecordReader( file );
 		try {
-			String line = null;
-
-			try {
-				line = SeqUtil.scanFirstLine( reader, file );
-			} catch( final Exception ex ) {
-				this.badFiles.add( outputFile );
-				Log.debug( getClass(), "Error scanning input file: " + ex.getMessage() );
-				return;
+			for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+				final boolean valid = validator.filter( read ) != null;
+				if( writer == null && ( !validator.unchanged || !canLink || reader.isNormalized() ) )
+					writer = openOutputFile( file, outputFile, numUnchanged );
+				if( writer != null ) {
+					if( valid ) read.write( writer );
+				} else numUnchanged++;
 			}
 
-			do {
-				seqLines.add( line.trim() );
-				if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-					seqNum++;
-					final int headerLen = seqLines.get( 0 ).length();
-					final int seqLen = seqLines.get( 1 ).length();
-					String headerChar = "";
-					if( headerLen == 0 ) Log.warn( getClass(), "Sequence #" + seqNum +
-						" has an empty header & seq len = " + seqLen + " in ---> " + file.getAbsolutePath() );
-					else headerChar = seqLines.get( 0 ).substring( 0, 1 );
-
-					if( !SeqUtil.getSeqHeaderChars().contains( headerChar ) ) {
-						stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
-						badLines.addAll( seqLines );
-						Log.warn( getClass(),
-							"Sequence #" + seqNum + " format invalid.  Must begin with a valid header char (" +
-								SeqUtil.getSeqHeaderChars() + ")  --> header line = " + seqLines.get( 0 ) );
-					} else if( seqLen < minReadLen() ) {
-						stats[ INDEX_NUM_READS_TOO_SHORT ]++;
-						badLines.addAll( seqLines );
-						Log.warn( getClass(),
-							"Sequence #" + seqNum + " format invalid.  Must have a minimum number of bases (" +
-								minReadLen() + ")  --> \n" + seqLines.get( 0 ) + "\n" + seqLines.get( 1 ) );
-					} else if( SeqUtil.isFastQ() && seqLen != seqLines.get( 3 ).length() ) {
-						stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
-						badLines.addAll( seqLines );
-						Log.warn( getClass(), "Sequence #" + seqNum + " fastq format invalid.  Must have equal " +
-							" number of bases and quality scores: " + seqLines.get( 0 ) );
-					} else {
-						stats[ INDEX_NUM_VALID_READS ]++;
-						setMaxSeq( SeqUtil.getSampleId( file ), seqLen );
-						final Integer seqMax = Config.getPositiveInteger( this, INPUT_SEQ_MAX );
-						if( seqMax != null && seqMax > 0 && seqLen > seqMax ) {
-							stats[ INDEX_NUM_TRIMMED_READS ]++;
-							seqLines.set( 1, seqLines.get( 1 ).substring( 0, seqMax ) );
-							if( SeqUtil.isFastQ() ) seqLines.set( 3, seqLines.get( 3 ).substring( 0, seqMax ) );
-						}
-
-						final long readLen = seqLines.get( 1 ).length();
-						combinedReadLen += readLen;
-
-						if( readLen > 0 && stats[ INDEX_MIN_READS ] == 0 || readLen < stats[ INDEX_MIN_READS ] )
-							stats[ INDEX_MIN_READS ] = readLen;
-						if( readLen > stats[ INDEX_MAX_READS ] ) stats[ INDEX_MAX_READS ] = readLen;
-
-						for( final String seqLine: seqLines )
-							writer.write( seqLine + RETURN );
-					}
-
-					seqLines.clear();
-				}
-
-				line = reader.readLine();
-			} while( line != null );
+			if( reader.getNumReads() > 0 && writer == null &&
+				( reader.isNormalized() || !linkInputFile( file, outputFile ) ) )
+				writer = openOutputFile( file, outputFile, numUnchanged );
 		} finally {
-			writer.close();
-			if( reader != null ) reader.close();
-		}
-		Log.info( BioLockJUtil.class, "Output file: " + outputFile.getAbsolutePath() );
-
-		if( stats[ INDEX_NUM_VALID_READS ] == 0 ) this.badFiles.add( file );
-
-		if( !this.badFiles.contains( file ) ) {
-			saveRemovedSeqsToFile( badLines, file );
-			populateSampleStats( stats, file, combinedReadLen );
+			if( writer != null ) writer.close();
+			validator.closeInvalidReadsFile();
+			reader.close();
 		}
+		if( reader.getNumReads() > 0 ) Log.info( BioLockJUtil.class, "Output file: " + outputFile.getAbsolutePath() );
+		validator.close();
 	}
 
 	/**
 	 * Verify equal number of forward and reverse read files.<br>
 	 * if {@value #REQUIRE_EUQL_NUM_PAIRS}={@value biolockj.Constants#TRUE}, verify forward and reverse read files have
-	 * an equal number of reads.
+	 * an equal number of reads.<br>
+	 * Call {@link #verifyPairedHeaders()} to find reads without a mate.
 	 *
 	 * @throws Exception if validations fail or errors occur
 	 */
@@ -301,9 +285,34 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 				if( !unequalNumReads.isEmpty() ) throw new ConfigViolationException( REQUIRE_EUQL_NUM_PAIRS,
 					"Paired reads require an equal number of reads: " + unequalNumReads );
 			}
+
+			verifyPairedHeaders();
 		}
 	}
 
+	/**
+	 * Verify each valid forward read has a mate with the same header in the valid reverse reads. Pairs are checked in
+	 * parallel by {@link biolockj.util.PairedReadIndex#countUnpairedReads(File, File, File)}, so memory use does not
+	 * depend on the number of reads. Samples with unpaired reads are logged and listed in the module summary.
+	 *
+	 * @throws Exception if unable to read the validated files
+	 */
+	protected void verifyPairedHeaders() throws Exception {
+		final Map<File, File> pairs = SeqUtil.getPairedReads( getInputFiles() );
+		processFiles( new ArrayList<>( pairs.keySet() ), fwRead -> {
+			final File fwFile = new File( getFileName( getOutputDir(), fwRead.getName() ) );
+			final File rvFile = new File( getFileName( getOutputDir(), pairs.get( fwRead ).getName() ) );
+			if( !fwFile.isFile() || !rvFile.isFile() ) return;
+			final long[] numUnpaired = PairedReadIndex.countUnpairedReads( fwFile, rvFile, getTempDir() );
+			if( numUnpaired[ 0 ] > 0 || numUnpaired[ 1 ] > 0 ) {
+				final String sampleId = SeqUtil.getSampleId( fwRead );
+				Log.warn( getClass(), sampleId + " has unpaired reads FW=" + numUnpaired[ 0 ] + "; RV=" +
+					numUnpaired[ 1 ] );
+				this.unpairedReads.put( sampleId, numUnpaired[ 0 ] + "/" + numUnpaired[ 1 ] );
+			}
+		} );
+	}
+
 	/**
 	 * Free up memory.
 	 */
@@ -314,6 +323,7 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 		this.readsPerSample = null;
 		this.sampleStats = null;
 		this.badFiles = null;
+		this.qcStats.clear();
 		this.sampleStats = null;
 	}
 
@@ -322,6 +332,12 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 		return this.otuColName;
 	}
 
+	private void saveStats() throws Exception {
+		SeqQualityStats.write( getQcStatsFile(), this.qcStats );
+		Log.info( getClass(), "Read quality stats saved to: " + getQcStatsFile().getAbsolutePath() );
+		MetaUtil.addColumn( getMetaColName(), this.readsPerSample, getOutputDir(), true );
+	}
+
 	private String getSeqLenRange() throws Exception {
 		final Integer max = Config.getPositiveInteger( this, INPUT_SEQ_MAX );
 		return "Valid SEQ Len Range --> min( " + minReadLen() + " ) - max( " + ( max == null ? "UNLIMITED": max ) +
@@ -369,6 +385,21 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 			}
 		}
 
+		final SeqQualityStats allStats = new SeqQualityStats();
+		for( final SeqQualityStats stats: this.qcStats.values() )
+			allStats.add( stats );
+		sb.append( BioLockJUtil.addTrailingSpaces( "Mean valid read GC %:", pad ) +
+			String.format( "%.2f", allStats.getGcPercent() ) + RETURN );
+		sb.append( BioLockJUtil.addTrailingSpaces( "Mean valid read N %:", pad ) +
+			String.format( "%.2f", allStats.getNPercent() ) + RETURN );
+		if( SeqUtil.isFastQ() ) sb.append( BioLockJUtil.addTrailingSpaces( "Mean valid read Q30 %:", pad ) +
+			String.format( "%.2f", allStats.getQ30Percent() ) + RETURN );
+		sb.append( BioLockJUtil.addTrailingSpaces( "Read quality stats:", pad ) +
+			getQcStatsFile().getAbsolutePath() + RETURN );
+
+		if( !this.unpairedReads.isEmpty() ) sb.append( BioLockJUtil.addTrailingSpaces( "Unpaired reads (FW/RV):", pad ) +
+			new TreeMap<>( this.unpairedReads ) + RETURN );
+
 		String summary = SummaryUtil.getCountSummary( this.readsPerSample, label, true ) + sb.toString();
 		this.sampleIds.removeAll( this.readsPerSample.keySet() );
 		if( !this.sampleIds.isEmpty() )
@@ -382,7 +413,7 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 		return seqMin;
 	}
 
-	private void populateSampleStats( final Long[] stats, final File file, final long combinedReadLen )
+	private synchronized void populateSampleStats( final Long[] stats, final File file, final long combinedReadLen )
 		throws Exception {
 
 		final String id = SeqUtil.getSampleId( file );
@@ -424,21 +455,69 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 		this.sampleStats.put( SeqUtil.getSampleId( file ), stats );
 	}
 
-	private void saveRemovedSeqsToFile( final Collection<String> badLines, final File file ) throws Exception {
-		if( !badLines.isEmpty() ) {
-			final File tempFile = new File( getFileName( getTempDir(), "INVALID_READS_" + file.getName() ) );
-			Log.warn( getClass(), "Extracting invalid reads to --> " + tempFile.getAbsolutePath() );
-			final BufferedWriter invalidWriter = new BufferedWriter( new FileWriter( tempFile ) );
+	/**
+	 * Link the output file to the unchanged input file instead of rewriting it: create a hard link, or a symbolic link
+	 * if the file system does not support hard links.
+	 *
+	 * @param file Input file
+	 * @param outputFile Output file
+	 * @return TRUE if linked
+	 */
+	private boolean linkInputFile( final File file, final File outputFile ) {
+		final Path link = outputFile.toPath();
+		final Path target = file.toPath().toAbsolutePath();
+		try {
+			Files.deleteIfExists( link );
+			try {
+				Files.createLink( link, target );
+			} catch( final IOException | UnsupportedOperationException ex ) {
+				Files.createSymbolicLink( link, target );
+			}
+			Log.info( getClass(), "No reads modified, link output file to input: " + file.getAbsolutePath() );
+			return true;
+		} catch( final IOException | UnsupportedOperationException ex ) {
+			Log.warn( getClass(), "Unable to link " + outputFile.getAbsolutePath() + " to " + file.getAbsolutePath() +
+				" - rewrite file: " + ex.getMessage() );
+			return false;
+		}
+	}
+
+	private OutputStream openInvalidReadsFile( final File file ) throws IOException {
+		final File tempFile = new File( getFileName( getTempDir(), "INVALID_READS_" + file.getName() ) );
+		Log.warn( getClass(), "Extracting invalid reads to --> " + tempFile.getAbsolutePath() );
+		return new BufferedOutputStream( new FileOutputStream( tempFile ), SeqRecordReader.BUFFER_SIZE );
+	}
+
+	/**
+	 * Open the output file, and copy the leading reads of the input file that passed validation unchanged.
+	 *
+	 * @param file Input file
+	 * @param outputFile Output file
+	 * @param numUnchanged Number of leading reads to copy
+	 * @return Output stream
+	 * @throws Exception if unable to read the input file or write the output file
+	 */
+	private OutputStream openOutputFile( final File file, final File outputFile, final long numUnchanged )
+		throws Exception {
+		Files.deleteIfExists( outputFile.toPath() );
+		final OutputStream writer =
+			new BufferedOutputStream( new FileOutputStream( outputFile ), SeqRecordReader.BUFFER_SIZE );
+		if( numUnchanged > 0 ) {
+			final SeqRecordReader reader = new SeqRecordReader( file );
 			try {
-				for( final String seqLine: badLines )
-					invalidWriter.write( seqLine + RETURN );
+				for( long i = 0; i < numUnchanged; i++ )
+					reader.next().write( writer );
+			} catch( final Exception ex ) {
+				writer.close();
+				throw ex;
 			} finally {
-				invalidWriter.close();
+				reader.close();
 			}
 		}
+		return writer;
 	}
 
-	private void setMaxSeq( final String sampleId, final long seqLen ) {
+	private synchronized void setMaxSeq( final String sampleId, final long seqLen ) {
 		final TreeSet<String> ids = new TreeSet<>();
 		ids.add( sampleId );
 		if( this.maxSeqFound.isEmpty() ) this.maxSeqFound.put( seqLen, ids );
@@ -460,6 +539,20 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 
 	}
 
+	private static boolean[] getHeaderChars( final boolean isFastQ ) {
+		final boolean[] headerChars = new boolean[ 256 ];
+		for( final String headerChar: SeqUtil.getSeqHeaderChars( isFastQ ) )
+			headerChars[ headerChar.charAt( 0 ) & 0xff ] = true;
+		return headerChars;
+	}
+
+	private static int getRecordLength( final SeqRecord read ) {
+		int len = 0;
+		for( int i = 0; i < read.getNumLines(); i++ )
+			len += read.getLength( i );
+		return len;
+	}
+
 	private static String getFileName( final File dir, final String name ) {
 		final String prefix = dir.getAbsolutePath() + File.separator;
 		if( SeqUtil.isGzipped( name ) ) return prefix + name.substring( 0, name.length() - 3 );
@@ -473,13 +566,128 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 		return stats;
 	}
 
-	private Set<File> badFiles = new HashSet<>();
+	/**
+	 * Validates the reads of 1 file and collects its statistics. Reads are checked against the header characters of
+	 * their own format, so fastq reads converted to fasta earlier in a fused chain are valid.
+	 */
+	private final class ReadValidator implements ReadFilter {
+
+		private ReadValidator( final File file, final File outputFile ) throws Exception {
+			this.file = file;
+			this.outputFile = outputFile;
+			this.seqMax = Config.getPositiveInteger( SeqFileValidator.this, INPUT_SEQ_MAX );
+			this.seqMin = minReadLen();
+		}
+
+		/**
+		 * Save the file statistics. Files without reads, or without valid reads, are added to the bad files.
+		 */
+		@Override
+		public void close() throws Exception {
+			closeInvalidReadsFile();
+			if( this.numReads == 0 ) {
+				SeqFileValidator.this.badFiles.add( this.outputFile );
+				Log.debug( SeqFileValidator.class, "Error scanning input file: no reads found in " + this.file.getAbsolutePath() );
+				return;
+			}
+
+			if( this.stats[ INDEX_NUM_VALID_READS ] == 0 ) SeqFileValidator.this.badFiles.add( this.file );
+			else setMaxSeq( SeqUtil.getSampleId( this.file ), this.maxSeqLen );
+
+			if( !SeqFileValidator.this.badFiles.contains( this.file ) ) {
+				populateSampleStats( this.stats, this.file, this.combinedReadLen );
+				SeqFileValidator.this.qcStats.put( this.file, this.qcStats );
+			}
+		}
+
+		/**
+		 * Trim and validate the read as described in {@link SeqFileValidator#validateFile(File, Integer)}.
+		 *
+		 * @return the read if valid, otherwise null
+		 */
+		@Override
+		public SeqRecord filter( final SeqRecord read ) throws Exception {
+			this.numReads++;
+			final int untrimmedLen = getRecordLength( read );
+			read.trim();
+			this.unchanged = untrimmedLen == getRecordLength( read );
+			final boolean isFastQ = read.getNumLines() > SeqRecord.QUAL;
+			final boolean[] headerChars = isFastQ ? FASTQ_HEADER_CHARS: FASTA_HEADER_CHARS;
+			final long seqNum = read.getIndex() + 1;
+			final int headerLen = read.getLength( SeqRecord.HEADER );
+			final int seqLen = read.getSeqLength();
+			if( headerLen == 0 ) Log.warn( SeqFileValidator.class, "Sequence #" + seqNum + " has an empty header & seq len = " +
+				seqLen + " in ---> " + this.file.getAbsolutePath() );
+
+			boolean valid = false;
+			if( headerLen == 0 || !headerChars[ read.getByte( SeqRecord.HEADER, 0 ) & 0xff ] ) {
+				this.stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
+				Log.warn( SeqFileValidator.class,
+					"Sequence #" + seqNum + " format invalid.  Must begin with a valid header char (" +
+						SeqUtil.getSeqHeaderChars( isFastQ ) + ")  --> header line = " + read.getHeader() );
+			} else if( seqLen < this.seqMin ) {
+				this.stats[ INDEX_NUM_READS_TOO_SHORT ]++;
+				Log.warn( SeqFileValidator.class, "Sequence #" + seqNum + " format invalid.  Must have a minimum number of bases (" +
+					this.seqMin + ")  --> \n" + read.getHeader() + "\n" + read.getLine( SeqRecord.SEQ ) );
+			} else if( isFastQ && seqLen != read.getLength( SeqRecord.QUAL ) ) {
+				this.stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
+				Log.warn( SeqFileValidator.class, "Sequence #" + seqNum + " fastq format invalid.  Must have equal " +
+					" number of bases and quality scores: " + read.getHeader() );
+			} else {
+				valid = true;
+				this.stats[ INDEX_NUM_VALID_READS ]++;
+				this.maxSeqLen = Math.max( this.maxSeqLen, seqLen );
+				if( this.seqMax != null && this.seqMax > 0 && seqLen > this.seqMax ) {
+					this.stats[ INDEX_NUM_TRIMMED_READS ]++;
+					read.subLine( SeqRecord.SEQ, 0, this.seqMax );
+					if( isFastQ ) read.subLine( SeqRecord.QUAL, 0, this.seqMax );
+					this.unchanged = false;
+				}
+
+				final long readLen = read.getSeqLength();
+				this.combinedReadLen += readLen;
+
+				if( readLen > 0 && this.stats[ INDEX_MIN_READS ] == 0 || readLen < this.stats[ INDEX_MIN_READS ] )
+					this.stats[ INDEX_MIN_READS ] = readLen;
+				if( readLen > this.stats[ INDEX_MAX_READS ] ) this.stats[ INDEX_MAX_READS ] = readLen;
+				this.qcStats.add( read );
+			}
+
+			if( !valid ) {
+				this.unchanged = false;
+				if( this.invalidWriter == null ) this.invalidWriter = openInvalidReadsFile( this.file );
+				read.write( this.invalidWriter );
+			}
+			return valid ? read: null;
+		}
+
+		private void closeInvalidReadsFile() throws IOException {
+			if( this.invalidWriter != null ) this.invalidWriter.close();
+			this.invalidWriter = null;
+		}
+
+		private long combinedReadLen = 0L;
+		private final File file;
+		private OutputStream invalidWriter = null;
+		private long maxSeqLen = 0L;
+		private long numReads = 0L;
+		private final File outputFile;
+		private final SeqQualityStats qcStats = new SeqQualityStats();
+		private final Integer seqMax;
+		private final int seqMin;
+		private final Long[] stats = initStats();
+		private boolean unchanged = true;
+	}
+
+	private Set<File> badFiles = ConcurrentHashMap.newKeySet();
 	private final Map<Long, TreeSet<String>> maxSeqFound = new HashMap<>();
 	private String otuColName = null;
-	private Map<String, String> readsPerSample = new HashMap<>();
-	private Map<String, String> rvReadsPerSample = new HashMap<>();
+	private Map<String, String> readsPerSample = new ConcurrentHashMap<>();
+	private Map<String, String> rvReadsPerSample = new ConcurrentHashMap<>();
 	private Set<String> sampleIds = new HashSet<>();
-	private Map<String, Long[]> sampleStats = new HashMap<>();
+	private Map<String, Long[]> sampleStats = new ConcurrentHashMap<>();
+	private final Map<File, SeqQualityStats> qcStats = new ConcurrentHashMap<>();
+	private final Map<String, String> unpairedReads = new ConcurrentHashMap<>();
 
 	@Override
 	public String getDescription() {
@@ -496,6 +704,11 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 	 */
 	public static final String NUM_VALID_READS = "Num_Valid_Reads";
 
+	/**
+	 * Name of the read quality statistics file saved in the module directory: {@value #QC_STATS_FILE}
+	 */
+	public static final String QC_STATS_FILE = "qcStats" + TSV_EXT;
+
 	/**
 	 * {@link biolockj.Config} Integer property {@value #INPUT_SEQ_MAX} defines the maximum number of bases per read
 	 */
@@ -512,6 +725,8 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 	 */
 	protected static final String REQUIRE_EUQL_NUM_PAIRS = "seqFileValidator.requireEqualNumPairs";
 
+	private static final boolean[] FASTA_HEADER_CHARS = getHeaderChars( false );
+	private static final boolean[] FASTQ_HEADER_CHARS = getHeaderChars( true );
 	private static final int INDEX_AVG_FW_READ_LEN = 6;
 	private static final int INDEX_AVG_RV_READ_LEN = 7;
 	private static final int INDEX_MAX_READS = 2;
@@ -14,28 +14,32 @@ package biolockj.module.seq;
 import java.io.*;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import biolockj.*;
 import biolockj.Properties;
 import biolockj.api.ApiModule;
 import biolockj.exception.*;
 import biolockj.module.ReadCounter;
 import biolockj.module.JavaModuleImpl;
-import biolockj.module.SeqModule;
+import biolockj.module.StreamingSeqModule;
 import biolockj.module.implicit.RegisterNumReads;
 import biolockj.util.*;
 
 /**
  * This BioModule removes sequence primers from demultiplexed files.<br>
- * The primers are defined using regular expressions in a separate file.
+ * The primers are defined using regular expressions in a separate file, and compiled once into a
+ * {@link biolockj.util.PrimerMatcher} that is run over the bytes of each read.
  * 
  * @blj.web_desc Trim Primers
  */
-public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule, ReadCounter {
+public class TrimPrimers extends JavaModuleImpl implements StreamingSeqModule, ApiModule, ReadCounter {
 	
 	public TrimPrimers() {
 		super();
 		addNewProperty( INPUT_TRIM_SEQ_FILE, Properties.FILE_PATH, "file path to file containing one primer sequence per line." );
 		addNewProperty( INPUT_REQUIRE_PRIMER, Properties.BOOLEAN_TYPE, "Options: Y/N. If Y, TrimPrimers will discard reads that do not include a primer sequence." );
+		addNewProperty( MAX_MISMATCHES, Properties.INTEGER_TYPE, "Max number of mismatched bases allowed when matching a primer to a read", "0" );
 	}
 
 	/**
@@ -53,6 +57,7 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 		super.checkDependencies();
 		if( DockerUtil.inDockerEnv() ) Config.requireString( this, INPUT_TRIM_SEQ_FILE );
 		else Config.requireExistingFile( this, INPUT_TRIM_SEQ_FILE );
+		Config.getNonNegativeInteger( this, MAX_MISMATCHES );
 	}
 
 	/**
@@ -94,9 +99,45 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 	@Override
 	public void runModule() throws Exception {
 		Log.info( getClass(), "Starting TrimPrimers Module" );
-		final File primerFile = getSeqPrimerFile();
-		BioLockJ.copyFileToPipelineRoot( primerFile );
+		BioLockJ.copyFileToPipelineRoot( getSeqPrimerFile() );
 		trimSeqs();
+		saveResults();
+	}
+
+	/**
+	 * In a fused chain, trim the primers from each read as in {@link #runModule()}.
+	 */
+	@Override
+	public ReadFilter getReadFilter( final File seqFile ) throws Exception {
+		return new PrimerTrimmer( seqFile, null, getMatcher() );
+	}
+
+	/**
+	 * Paired reads are only kept if both reads have a primer, so paired read files are only trimmed by
+	 * {@link #runModule()}.
+	 */
+	@Override
+	public boolean isRecordLocal() throws Exception {
+		return !SeqUtil.hasPairedReads();
+	}
+
+	@Override
+	public void streamComplete() throws Exception {
+		BioLockJ.copyFileToPipelineRoot( getSeqPrimerFile() );
+		saveResults();
+	}
+
+	/**
+	 * Print the missing primer reports, build the summary messages with metrics on best/worst and average files, and
+	 * add the number of trimmed reads per sample to the metadata.
+	 *
+	 * @throws Exception if unable to save the results
+	 */
+	protected void saveResults() throws Exception {
+		printReports( this.missingBothPrimers, "missingBothPrimers" );
+		printReports( this.missingFwPrimers, "missingFwPrimers" );
+		printReports( this.missingRvPrimers, "missingRvPrimers" );
+
 		Log.debug( getClass(), "numLinesPerRead = " + SeqUtil.getNumLinesPerRead() );
 		Log.debug( getClass(), "#samples in table numLinesWithPrimer = " + this.numLinesWithPrimer.size() );
 		Log.debug( getClass(), "#samples in table numLinesNoPrimer = " + this.numLinesNoPrimer.size() );
@@ -340,39 +381,26 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 			SeqUtil.getReadDirectionSuffix( file ) + "." + SeqUtil.getSeqType();
 	}
 
-	private Set<String> getValidHeaders( final File file, final Set<String> primers ) throws Exception {
-		final Set<String> validHeaders = new HashSet<>();
-		final BufferedReader reader = BioLockJUtil.getFileReader( file );
-		int lineCounter = 1;
-		String header = null;
-		try {
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				line = line.trim();
-				if( lineCounter % SeqUtil.getNumLinesPerRead() == 1 ) header = SeqUtil.getHeader( line );
-				else if( lineCounter % SeqUtil.getNumLinesPerRead() == 2 ) {
-					boolean foundHeader = false;
-					for( final String seq: primers ) {
-						final int seqLength = line.length();
-						line = line.replaceFirst( seq, "" );
-						if( seqLength != line.length() ) foundHeader = true;
-					}
-
-					if( foundHeader ) {
-						if( validHeaders.contains( header ) )
-							throw new Exception( "NON-FATAL Exception: Duplicate header: " + header );
-
-						validHeaders.add( header );
-					}
-				}
-				lineCounter++;
-			}
-
-			Log.info( getClass(), file.getName() + " # valid headers = " + validHeaders.size() );
+	private synchronized PrimerMatcher getMatcher() throws Exception {
+		if( this.matcher == null ) this.matcher = new PrimerMatcher( getPrimers(), getMaxMismatches() );
+		return this.matcher;
+	}
 
-		} finally {
-			reader.close();
-		}
+	private int getMaxMismatches() throws ConfigFormatException {
+		final Integer val = Config.getNonNegativeInteger( this, MAX_MISMATCHES );
+		return val == null ? 0: val;
+	}
 
+	private PairedReadIndex getValidHeaders( final File file, final PrimerMatcher matcher ) throws Exception {
+		final PairedReadIndex validHeaders = PairedReadIndex.build( file, read -> {
+			read.trim();
+			final byte[] buf = read.getBuffer();
+			final int start = read.getStart( SeqRecord.SEQ );
+			final int len = read.getSeqLength();
+			final int fwPrimerLength = matcher.findFwPrimer( buf, start, len );
+			return fwPrimerLength > 0 || matcher.findRvPrimer( buf, start + fwPrimerLength, len - fwPrimerLength ) > 0;
+		} );
+		Log.info( getClass(), file.getName() + " # valid headers = " + validHeaders.size() );
 		return validHeaders;
 	}
 
@@ -384,165 +412,87 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 		return this.validReadsPerSample;
 	}
 
-	private void printReports( final Map<String, Map<String, String>> missingPrimers, final String reportLabel )
-		throws Exception {
-		if( !missingPrimers.isEmpty() ) for( final String key: missingPrimers.keySet() ) {
-			final Map<String, String> map = missingPrimers.get( key );
-			Log.warn( getClass(), "TrimPrimers " + key + " # " + reportLabel + " = " + map.size() );
-
+	private void printReports( final Map<String, Long> missingPrimers, final String reportLabel ) throws Exception {
+		if( !missingPrimers.isEmpty() ) {
+			final File report = new File( getTempDir().getAbsolutePath() + File.separator + reportLabel + TXT_EXT );
 			BufferedWriter writer = null;
 			try {
-				writer = new BufferedWriter( new FileWriter(
-					new File( getTempDir().getAbsolutePath() + File.separator + key + "_" + reportLabel + TXT_EXT ) ) );
-				for( final String header: map.keySet() ) {
-					writer.write( header + RETURN );
-					writer.write( map.get( header ) + RETURN );
+				writer = new BufferedWriter( new FileWriter( report ) );
+				for( final String key: new TreeSet<>( missingPrimers.keySet() ) ) {
+					Log.warn( getClass(), "TrimPrimers " + key + " # " + reportLabel + " = " + missingPrimers.get( key ) );
+					writer.write( key + TAB_DELIM + missingPrimers.get( key ) + RETURN );
 				}
 			} catch( final Exception ex ) {
 				Log.error( getClass(), "Error occurred writng primer report" + ex.getMessage(), ex );
 			} finally {
 				if( writer != null ) writer.close();
 			}
-		}
-		else if( this.mergedReadTwoPrimers ) Log.warn( getClass(), "TrimPrimers # " + reportLabel + " = 0" );
-	}
-
-	private void processFile( final File file, final Set<String> primers ) throws Exception {
-		processFile( file, new HashSet<>(), primers );
+		} else if( this.mergedReadTwoPrimers ) Log.warn( getClass(), "TrimPrimers # " + reportLabel + " = 0" );
 	}
 
-	private void processFile( final File file, final Set<String> validHeaders, final Set<String> primers )
+	/**
+	 * Trim the primers from each read in the file.
+	 *
+	 * @param file Sequence file
+	 * @param validHeaders Headers of the paired reads with a primer in both files, or null if reads are not paired
+	 * @param matcher Compiled primers
+	 * @throws Exception if unable to process the file
+	 */
+	private void processFile( final File file, final PairedReadIndex validHeaders, final PrimerMatcher matcher )
 		throws Exception {
 		Log.info( getClass(), "Processing file = " + file.getAbsolutePath() );
-		this.seqs.add( file );
-
-		if( !SeqUtil.isForwardRead( file.getName() ) ) this.foundPaired = true;
-
+		final PrimerTrimmer trimmer = new PrimerTrimmer( file, validHeaders, matcher );
 		final File trimmedFile = new File( getTrimFilePath( file ) );
 		Log.info( getClass(), "Create trimmed file = " + trimmedFile.getAbsolutePath() );
 
-		final BufferedReader reader = BioLockJUtil.getFileReader( file );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( trimmedFile ) );
+		final SeqRecordReader reader = new SeqRecordReader( file );
+		final OutputStream writer =
+			new BufferedOutputStream( new FileOutputStream( trimmedFile ), SeqRecordReader.BUFFER_SIZE );
 		try {
-			int fwPrimerLength = 0;
-			int rvPrimerLength = 0;
-			final List<String> seqLines = new ArrayList<>();
-			boolean found = false;
-
-			String origSequence = "";
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				if( seqLines.size() == 1 ) {
-					origSequence = line;
-					found = false;
-					for( final String seq: primers )
-						if( line.replaceFirst( seq, "" ).length() != line.length() ) {
-							if( seq.startsWith( "^" ) ) {
-								if( fwPrimerLength != 0 ) throw new Exception(
-									"INVALID SEQ!  Read contains 2 forward primers!  " + origSequence );
-
-								fwPrimerLength = line.length() - line.replaceFirst( seq, "" ).length();
-							} else if( seq.endsWith( "$" ) ) {
-								if( rvPrimerLength != 0 ) throw new Exception(
-									"INVALID SEQ!  Read contains 2 reverse primers!  " + origSequence );
-
-								rvPrimerLength = line.length() - line.replaceFirst( seq, "" ).length();
-							} else throw new Exception(
-								"INVALID PRIMER!  Primers must start with \"^\" or end with \"$\"" );
-
-							line = line.replaceFirst( seq, "" );
-
-							if( this.mergedReadTwoPrimers && fwPrimerLength < 1 && rvPrimerLength < 1 ) {
-								// Log.warn( getClass(), "Read missing BOTH primers " + origSequence );
-								if( this.missingBothPrimers.get( file.getName() ) == null ) {
-									final Map<String, String> m = new HashMap<>();
-									m.put( seqLines.get( 0 ), origSequence );
-									this.missingBothPrimers.put( file.getName(), m );
-								} else this.missingBothPrimers.get( file.getName() ).put( seqLines.get( 0 ),
-									origSequence );
-							} else if( this.mergedReadTwoPrimers && fwPrimerLength < 1 ) {
-								Log.debug( getClass(), "Read missing forward primer " + origSequence );
-								if( this.missingFwPrimers.get( file.getName() ) == null ) {
-									final Map<String, String> m = new HashMap<>();
-									m.put( seqLines.get( 0 ), origSequence );
-									this.missingFwPrimers.put( file.getName(), m );
-								} else
-									this.missingFwPrimers.get( file.getName() ).put( seqLines.get( 0 ), origSequence );
-
-							} else if( this.mergedReadTwoPrimers && rvPrimerLength < 1 ) {
-								Log.debug( getClass(), "Read missing reverse primer " + origSequence );
-								if( this.missingRvPrimers.get( file.getName() ) == null ) {
-									final Map<String, String> m = new HashMap<>();
-									m.put( seqLines.get( 0 ), origSequence );
-									this.missingRvPrimers.put( file.getName(), m );
-								} else
-									this.missingRvPrimers.get( file.getName() ).put( seqLines.get( 0 ), origSequence );
-							} else found = true;
-						}
-
-					if( found ) {
-						final Long x = this.numLinesWithPrimer.get( file.getAbsolutePath() );
-						this.numLinesWithPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
-					} else {
-						final Long x = this.numLinesNoPrimer.get( file.getAbsolutePath() );
-						this.numLinesNoPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
-					}
-				} else if( seqLines.size() == 3 ) {
-					if( fwPrimerLength > 0 ) line = line.substring( fwPrimerLength );
-					if( rvPrimerLength > 0 ) line = line.substring( 0, line.length() - rvPrimerLength );
-				}
-
-				seqLines.add( line );
-
-				if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-					final boolean validRecord =
-						found && ( SeqUtil.hasPairedReads() ? validHeaders.contains( seqLines.get( 0 ) ): true );
-
-					if( !Config.getBoolean( this, INPUT_REQUIRE_PRIMER ) || validRecord ) {
-						final Long x = this.seqsWithPrimersTrimmed.get( file );
-						this.seqsWithPrimersTrimmed.put( file, x == null ? 1L: x + 1L );
-
-						for( int j = 0; j < SeqUtil.getNumLinesPerRead(); j++ )
-							writer.write( seqLines.get( j ) + RETURN );
-					}
-					fwPrimerLength = 0;
-					rvPrimerLength = 0;
-					seqLines.clear();
-				}
-			}
+			for( SeqRecord read = reader.next(); read != null; read = reader.next() )
+				if( trimmer.filter( read ) != null ) read.write( writer );
 		} catch( final Exception ex ) {
 			Log.error( getClass(), "Error removing primers from file = " + file.getAbsolutePath(), ex );
 		} finally {
 			reader.close();
 			writer.close();
 		}
+
+		trimmer.close();
 	}
 
+	/**
+	 * Trim the primers from every input file. Each task processes 1 file, or 1 file pair: the headers of the reads with
+	 * a primer are indexed from both files of the pair and intersected, then both files are trimmed and the index is
+	 * released, so only 1 index per running task is held in memory.
+	 *
+	 * @throws Exception if unable to trim the files
+	 */
 	private void trimSeqs() throws Exception {
-		final Set<String> primers = getPrimers();
+		final PrimerMatcher matcher = getMatcher();
 		final boolean hasPairedReads = SeqUtil.hasPairedReads();
 		final Map<File, File> pairedReads = hasPairedReads ? SeqUtil.getPairedReads( getInputFiles() ): null;
-		final List<File> files = getFwReads( pairedReads );
-		if( files == null ) throw new Exception( "Failed to obtain input sequence files" );
-		final int count = files.size();
-		int i = 0;
+		final List<File> fwReads = getFwReads( pairedReads );
+		if( fwReads == null ) throw new Exception( "Failed to obtain input sequence files" );
+		final int count = fwReads.size();
 		Log.info( getClass(), "Trimming primers from " + ( hasPairedReads ? 2 * count: count ) + " files..." );
-		for( final File file: files ) {
-			final Set<String> validReads = getValidHeaders( file, primers );
-			if( pairedReads != null ) {
-				validReads.retainAll( getValidHeaders( pairedReads.get( file ), primers ) );
-				processFile( file, validReads, primers );
-				processFile( pairedReads.get( file ), validReads );
-			} else processFile( file, primers );
-
-			if( ( i++ + 1 ) % 25 == 0 ) Log.info( getClass(),
-				"Done trimming " + i + "/" + count + ( hasPairedReads ? " file pairs": " files" ) );
-		}
 
-		Log.info( getClass(), "Done trimming " + i + "/" + count + ( hasPairedReads ? " file pairs": " files" ) );
+		final AtomicInteger numDone = new AtomicInteger( 0 );
+		processFiles( fwReads, file -> {
+			if( pairedReads == null ) processFile( file, null, matcher );
+			else {
+				final File rvRead = pairedReads.get( file );
+				final PairedReadIndex validHeaders = getValidHeaders( file, matcher );
+				validHeaders.retainAll( getValidHeaders( rvRead, matcher ) );
+				processFile( file, validHeaders, matcher );
+				processFile( rvRead, validHeaders, matcher );
+			}
+			final int i = numDone.incrementAndGet();
+			if( i % 25 == 0 ) Log.info( getClass(),
+				"Done trimming " + i + "/" + count + ( hasPairedReads ? " file pairs": " files" ) );
+		} );
 
-		printReports( this.missingBothPrimers, "missingBothPrimers" );
-		printReports( this.missingFwPrimers, "missingFwPrimers" );
-		printReports( this.missingRvPrimers, "missingRvPrimers" );
+		Log.info( getClass(), "Done trimming " + count + "/" + count + ( hasPairedReads ? " file pairs": " files" ) );
 	}
 
 	/**
@@ -557,17 +507,110 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 		return Config.requireExistingFile( this, INPUT_TRIM_SEQ_FILE );
 	}
 
+	/**
+	 * Trims the primers from the reads of 1 file and counts the reads with and without primers.
+	 */
+	private final class PrimerTrimmer implements ReadFilter {
+
+		private PrimerTrimmer( final File file, final PairedReadIndex validHeaders, final PrimerMatcher matcher )
+			throws Exception {
+			this.file = file;
+			this.validHeaders = validHeaders;
+			this.matcher = matcher;
+			this.requirePrimer = Config.getBoolean( TrimPrimers.this, INPUT_REQUIRE_PRIMER );
+			TrimPrimers.this.seqs.add( file );
+			if( !SeqUtil.isForwardRead( file.getName() ) ) TrimPrimers.this.foundPaired = true;
+		}
+
+		/**
+		 * Save the read counts of the file.
+		 */
+		@Override
+		public void close() {
+			if( this.numWithPrimer > 0 ) TrimPrimers.this.numLinesWithPrimer.put( this.file.getAbsolutePath(),
+				this.numWithPrimer );
+			if( this.numNoPrimer > 0 ) TrimPrimers.this.numLinesNoPrimer.put( this.file.getAbsolutePath(),
+				this.numNoPrimer );
+			if( this.numTrimmed > 0 ) TrimPrimers.this.seqsWithPrimersTrimmed.put( this.file, this.numTrimmed );
+			if( this.numMissingBoth > 0 ) TrimPrimers.this.missingBothPrimers.put( this.file.getName(),
+				this.numMissingBoth );
+			if( this.numMissingFw > 0 ) TrimPrimers.this.missingFwPrimers.put( this.file.getName(),
+				this.numMissingFw );
+			if( this.numMissingRv > 0 ) TrimPrimers.this.missingRvPrimers.put( this.file.getName(),
+				this.numMissingRv );
+		}
+
+		/**
+		 * Trim the primers from the read.
+		 *
+		 * @return the trimmed read, or null if {@value #INPUT_REQUIRE_PRIMER} is enabled and the read is missing a
+		 * required primer (or its paired read is)
+		 */
+		@Override
+		public SeqRecord filter( final SeqRecord read ) throws Exception {
+			final byte[] buf = read.getBuffer();
+			final int start = read.getStart( SeqRecord.SEQ );
+			final int seqLen = read.getSeqLength();
+			final int fwPrimerLength = this.matcher.findFwPrimer( buf, start, seqLen );
+			final int rvPrimerLength =
+				this.matcher.findRvPrimer( buf, start + fwPrimerLength, seqLen - fwPrimerLength );
+
+			boolean found = fwPrimerLength > 0 || rvPrimerLength > 0;
+			if( TrimPrimers.this.mergedReadTwoPrimers ) {
+				if( fwPrimerLength < 1 && rvPrimerLength < 1 ) this.numMissingBoth++;
+				else if( fwPrimerLength < 1 ) {
+					if( Log.isDebugEnabled( TrimPrimers.class ) )
+						Log.debug( TrimPrimers.class, "Read missing forward primer " + read.getLine( SeqRecord.SEQ ) );
+					this.numMissingFw++;
+				} else if( rvPrimerLength < 1 ) {
+					if( Log.isDebugEnabled( TrimPrimers.class ) )
+						Log.debug( TrimPrimers.class, "Read missing reverse primer " + read.getLine( SeqRecord.SEQ ) );
+					this.numMissingRv++;
+				}
+				found = fwPrimerLength > 0 && rvPrimerLength > 0;
+			}
+
+			if( found ) this.numWithPrimer++;
+			else this.numNoPrimer++;
+
+			read.subLine( SeqRecord.SEQ, fwPrimerLength, seqLen - rvPrimerLength );
+			if( read.getNumLines() > SeqRecord.QUAL ) read.subLine( SeqRecord.QUAL, fwPrimerLength,
+				read.getLength( SeqRecord.QUAL ) - rvPrimerLength );
+
+			final boolean validRecord =
+				found && ( this.validHeaders == null || this.validHeaders.contains( read.getHeader() ) );
+
+			if( !this.requirePrimer || validRecord ) {
+				this.numTrimmed++;
+				return read;
+			}
+			return null;
+		}
+
+		private final File file;
+		private final PrimerMatcher matcher;
+		private long numMissingBoth = 0L;
+		private long numMissingFw = 0L;
+		private long numMissingRv = 0L;
+		private long numNoPrimer = 0L;
+		private long numTrimmed = 0L;
+		private long numWithPrimer = 0L;
+		private final boolean requirePrimer;
+		private final PairedReadIndex validHeaders;
+	}
+
 	private final DecimalFormat df = new DecimalFormat( "##.##" );
-	private boolean foundPaired = false;
+	private volatile boolean foundPaired = false;
+	private PrimerMatcher matcher = null;
 	private boolean mergedReadTwoPrimers = false;
-	private final Map<String, Map<String, String>> missingBothPrimers = new HashMap<>();
-	private final Map<String, Map<String, String>> missingFwPrimers = new HashMap<>();
-	private final Map<String, Map<String, String>> missingRvPrimers = new HashMap<>();
-	private final Map<String, Long> numLinesNoPrimer = new HashMap<>();
-	private final Map<String, Long> numLinesWithPrimer = new HashMap<>();
+	private final Map<String, Long> missingBothPrimers = new ConcurrentHashMap<>();
+	private final Map<String, Long> missingFwPrimers = new ConcurrentHashMap<>();
+	private final Map<String, Long> missingRvPrimers = new ConcurrentHashMap<>();
+	private final Map<String, Long> numLinesNoPrimer = new ConcurrentHashMap<>();
+	private final Map<String, Long> numLinesWithPrimer = new ConcurrentHashMap<>();
 	private String otuColName = null;
-	private final Set<File> seqs = new HashSet<>();
-	private final Map<File, Long> seqsWithPrimersTrimmed = new HashMap<>();
+	private final Set<File> seqs = ConcurrentHashMap.newKeySet();
+	private final Map<File, Long> seqsWithPrimersTrimmed = new ConcurrentHashMap<>();
 	private final Map<String, String> validReadsPerSample = new HashMap<>();
 
 	/**
@@ -586,6 +629,12 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 	 * without a primer should be kept or discarded
 	 */
 	protected static final String INPUT_REQUIRE_PRIMER = "trimPrimers.requirePrimer";
+
+	/**
+	 * {@link biolockj.Config} property {@value #MAX_MISMATCHES} is the max number of mismatched bases allowed when
+	 * matching a primer to a read, default 0
+	 */
+	protected static final String MAX_MISMATCHES = "trimPrimers.maxMismatches";
 	
 	private static Set<String> substitutions = new HashSet<>();
 	private static final List<String> summaryMsgs = new ArrayList<>();
@@ -12,8 +12,7 @@
 package biolockj.node;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.*;
 import org.apache.commons.lang.builder.EqualsBuilder;
 import biolockj.Log;
 
@@ -36,6 +35,15 @@ public class JsonNode implements Serializable, Comparable<JsonNode> {
 		this.level = level;
 	}
 
+	/**
+	 * Add a child node, one level below this node.
+	 * 
+	 * @param child Child node
+	 */
+	public void addChild( final JsonNode child ) {
+		this.children.add( child );
+	}
+
 	/**
 	 * Add taxa count
 	 * 
@@ -65,6 +73,15 @@ public class JsonNode implements Serializable, Comparable<JsonNode> {
 		return false;
 	}
 
+	/**
+	 * Getter method for children, ordered by taxa name
+	 * 
+	 * @return Child nodes
+	 */
+	public Set<JsonNode> getChildren() {
+		return this.children;
+	}
+
 	/**
 	 * Getter method for count
 	 * 
@@ -162,6 +179,7 @@ public class JsonNode implements Serializable, Comparable<JsonNode> {
 		this.stats.put( name, this.stats.get( name ) + val );
 	}
 
+	private final TreeSet<JsonNode> children = new TreeSet<>();
 	private Long count = 0L;
 	private String level;
 	private JsonNode parent;
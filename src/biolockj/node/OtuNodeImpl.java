@@ -42,7 +42,7 @@ public abstract class OtuNodeImpl implements OtuNode, Comparable<OtuNode> {
 	@Override
 	public void addTaxa( final String taxa, final String level ) throws Exception {
 		if( level == null || taxa == null || level.trim().isEmpty() || taxa.trim().isEmpty() ) {
-			Log.debug( getClass(), "ID=[ " + this.sampleId + " ] --> Taxa missing for: level=[ " + level +
+			Log.debug( getClass(), () -> "ID=[ " + this.sampleId + " ] --> Taxa missing for: level=[ " + level +
 				" ]; Taxa=[ " + taxa + " ]; Line =[ " + this.line + " ]" );
 			return;
 		}
@@ -73,7 +73,7 @@ public abstract class OtuNodeImpl implements OtuNode, Comparable<OtuNode> {
 			return;
 		}
 
-		if( this.taxaMap.get( level ) != null ) Log.debug( getClass(), this.sampleId + " overwriting OTU: " +
+		if( this.taxaMap.get( level ) != null ) Log.debug( getClass(), () -> this.sampleId + " overwriting OTU: " +
 			this.taxaMap.get( level ) + " with " + taxa + "  --> Line = " + this.line );
 
 		// Log.debug( getClass(), "taxaMap.put( level=" + level + ", taxa=" + taxa + " )" );
@@ -144,8 +144,8 @@ public abstract class OtuNodeImpl implements OtuNode, Comparable<OtuNode> {
 	@Override
 	public Map<String, String> getTaxaMap() throws ConfigFormatException {
 		if( !this.taxaMap.containsKey( TaxaUtil.topTaxaLevel() ) ) {
-			Log.debug( getClass(), "Omit incomplete [ " + this.sampleId + " ] OTU missing the top taxonomy level: " +
-				TaxaUtil.topTaxaLevel() + ( this.line.isEmpty() ? "": ", classifier output = " + this.line ) );
+			Log.debug( getClass(), () -> "Omit incomplete [ " + this.sampleId +
+				" ] OTU missing the top taxonomy level: " + TaxaUtil.topTaxaLevel() + ( this.line.isEmpty() ? "": ", classifier output = " + this.line ) );
 			return null;
 		}
 
@@ -216,20 +216,36 @@ public abstract class OtuNodeImpl implements OtuNode, Comparable<OtuNode> {
 	 * @return Map delim to level name
 	 */
 	public static Map<String, String> delimToLevelMap() {
-		if( delimToLevelMap.isEmpty() ) {
-			delimToLevelMap.put( DOMAIN_DELIM, Constants.DOMAIN );
-			delimToLevelMap.put( PHYLUM_DELIM, Constants.PHYLUM );
-			delimToLevelMap.put( CLASS_DELIM, Constants.CLASS );
-			delimToLevelMap.put( ORDER_DELIM, Constants.ORDER );
-			delimToLevelMap.put( FAMILY_DELIM, Constants.FAMILY );
-			delimToLevelMap.put( GENUS_DELIM, Constants.GENUS );
-			delimToLevelMap.put( SPECIES_DELIM, Constants.SPECIES );
+		Map<String, String> map = delimToLevelMap;
+		if( map == null || map.isEmpty() ) {
+			map = new HashMap<>();
+			map.put( DOMAIN_DELIM, Constants.DOMAIN );
+			map.put( PHYLUM_DELIM, Constants.PHYLUM );
+			map.put( CLASS_DELIM, Constants.CLASS );
+			map.put( ORDER_DELIM, Constants.ORDER );
+			map.put( FAMILY_DELIM, Constants.FAMILY );
+			map.put( GENUS_DELIM, Constants.GENUS );
+			map.put( SPECIES_DELIM, Constants.SPECIES );
+			delimToLevelMap = map;
 		}
-		return delimToLevelMap;
+		return map;
 	}
 	
 	protected static boolean reportUnclassifiedTaxa() throws ConfigFormatException {
-		return Config.getBoolean( Pipeline.exeModule(), Constants.REPORT_UNCLASSIFIED_TAXA );
+		final Boolean report = reportUnclassifiedOverride.get();
+		return report != null ? report: Config.getBoolean( Pipeline.exeModule(), Constants.REPORT_UNCLASSIFIED_TAXA );
+	}
+
+	/**
+	 * Override {@link biolockj.Config}.{@value biolockj.Constants#REPORT_UNCLASSIFIED_TAXA} for the OTUs built by the
+	 * current thread, so a parser can build the OTUs of 1 sample without unclassified taxa while other threads report
+	 * them.
+	 * 
+	 * @param report TRUE or FALSE, or null to use the Config value
+	 */
+	public static void setReportUnclassifiedTaxa( final Boolean report ) {
+		if( report == null ) reportUnclassifiedOverride.remove();
+		else reportUnclassifiedOverride.set( report );
 	}
 
 	private long count = 0;
@@ -274,5 +290,6 @@ public abstract class OtuNodeImpl implements OtuNode, Comparable<OtuNode> {
 	 */
 	protected static String SPECIES_DELIM = "s__";
 
-	private static final Map<String, String> delimToLevelMap = new HashMap<>();
+	private static volatile Map<String, String> delimToLevelMap = null;
+	private static final ThreadLocal<Boolean> reportUnclassifiedOverride = new ThreadLocal<>();
 }
@@ -15,6 +15,7 @@ import java.io.Serializable;
 import java.util.*;
 import biolockj.*;
 import biolockj.util.OtuUtil;
+import biolockj.util.TaxaTree;
 import biolockj.util.TaxaUtil;
 
 /**
@@ -34,19 +35,38 @@ public class ParsedSample implements Serializable, Comparable<ParsedSample> {
 		addNode( node );
 	}
 
+	/**
+	 * Construct a new ParsedSample without any OTUs.
+	 *
+	 * @param sampleId Sample ID
+	 */
+	public ParsedSample( final String sampleId ) {
+		this.sampleId = sampleId;
+	}
+
 	/**
 	 * Add the OtuNode to the ParsedSample.
 	 *
 	 * @param node OtuNode
 	 */
 	public void addNode( final OtuNode node ) {
-		final String name = node.getOtuName();
-		if( this.otuCounts.get( name ) == null ) {
-			Log.debug( getClass(), "Add new OtuNode: " + name + "=" + node.getCount() );
-			this.otuCounts.put( name, node.getCount() );
+		addOtu( node.getOtuName(), node.getCount() );
+	}
+
+	/**
+	 * Add the count to the OTU in the ParsedSample.
+	 *
+	 * @param name OTU name
+	 * @param otuCount OTU count
+	 */
+	public void addOtu( final String name, final long otuCount ) {
+		final Long prevCount = this.otuCounts.get( name );
+		if( prevCount == null ) {
+			Log.debug( getClass(), () -> "Add new OtuNode: " + name + "=" + otuCount );
+			this.otuCounts.put( name, otuCount );
 		} else {
-			final long count = this.otuCounts.get( name ) + node.getCount();
-			Log.debug( getClass(), "Update OtuNode: " + name + "=" + count );
+			final long count = prevCount + otuCount;
+			Log.debug( getClass(), () -> "Update OtuNode: " + name + "=" + count );
 			this.otuCounts.put( name, count );
 		}
 	}
@@ -87,30 +107,25 @@ public class ParsedSample implements Serializable, Comparable<ParsedSample> {
 		}
 
 		final TreeMap<String, Long> fullPathOtuCounts = new TreeMap<>();
-		for( String otu: this.otuCounts.keySet() ) {
+		final TaxaTree tree = new TaxaTree();
+		final boolean debug = Log.isDebugEnabled( getClass() );
+		for( String otu: new TreeSet<>( this.otuCounts.keySet() ) ) {
 			if( otu.isEmpty() ) continue;
-			final Set<String> kids = getChildren( fullPathOtuCounts, otu );
+			final TaxaTree.Node node = tree.get( otu );
 			final long otuCount = this.otuCounts.get( otu );
-			if( kids.isEmpty() ) {
-				Log.debug( getClass(), "Add [ " + this.sampleId + " ] OTU " + otu + "=" + otuCount );
+			if( node == null || node.getNumOtus() == 0 ) {
+				if( debug ) Log.debug( getClass(), "Add [ " + this.sampleId + " ] OTU " + otu + "=" + otuCount );
+				tree.put( otu, otuCount );
 				fullPathOtuCounts.put( otu, otuCount );
 			} else {
-				final long totalCount = totalCount( fullPathOtuCounts, kids );
+				final long totalCount = node.getTotalCount();
 				if( totalCount < otuCount ) {
-					String parentTaxa = null;
-					String parentLevel = null;
-					for( final String level: TaxaUtil.getTaxaLevelSpan() )
-						if( otu.contains( level ) ) {
-							parentTaxa = TaxaUtil.getTaxaName( otu, level );
-							parentLevel = level;
-						} else if( parentTaxa != null && OtuNodeImpl.reportUnclassifiedTaxa() )
-							otu += Constants.OTU_SEPARATOR +
-								OtuUtil.buildOtuTaxa( level, TaxaUtil.getUnclassifiedTaxa( parentTaxa, parentLevel ) );
-
+					if( OtuNodeImpl.reportUnclassifiedTaxa() ) otu = fillUnclassifiedLevels( otu, node );
 					final long diff = otuCount - totalCount;
+					tree.put( otu, diff );
 					fullPathOtuCounts.put( otu, diff );
-					Log.debug( getClass(), "Add [ " + this.sampleId + " ] Unclassified OTU: " + otu + "=" + diff );
-				} else if( otuCount >= totalCount )
+					if( debug ) Log.debug( getClass(), "Add [ " + this.sampleId + " ] Unclassified OTU: " + otu + "=" + diff );
+				} else if( debug )
 					Log.debug( getClass(), "Ignore [" + this.sampleId + " ] Parent OTU " + otu + "=" + otuCount );
 			}
 		}
@@ -143,21 +158,27 @@ public class ParsedSample implements Serializable, Comparable<ParsedSample> {
 		this.otuCounts = overrideOtuCounts;
 	}
 
-	private static Set<String> getChildren( final TreeMap<String, Long> otuCounts, final String otu ) {
-		final Set<String> kids = new HashSet<>();
-		for( final String key: otuCounts.keySet() )
-			if( key.contains( otu ) ) kids.add( key );
-		return kids;
-	}
-
-	private static long totalCount( final TreeMap<String, Long> otuCounts, final Set<String> otus ) {
-		long count = 0;
-		for( final String otu: otus )
-			count += otuCounts.get( otu );
-		return count;
+	/**
+	 * Extend the OTU of the parent node with an unclassified taxa for each level below its lowest classified level.
+	 */
+	private static String fillUnclassifiedLevels( final String parentOtu, final TaxaTree.Node node ) {
+		final Map<String, String> levelTaxa = new HashMap<>();
+		for( TaxaTree.Node n = node; n != null; n = n.getParent() )
+			if( n.getLevel() != null ) levelTaxa.put( n.getLevel(), n.getTaxa() );
+
+		String otu = parentOtu;
+		String parentTaxa = null;
+		String parentLevel = null;
+		for( final String level: TaxaUtil.getTaxaLevelSpan() )
+			if( levelTaxa.containsKey( level ) ) {
+				parentTaxa = levelTaxa.get( level );
+				parentLevel = level;
+			} else if( parentTaxa != null ) otu += Constants.OTU_SEPARATOR +
+				OtuUtil.buildOtuTaxa( level, TaxaUtil.getUnclassifiedTaxa( parentTaxa, parentLevel ) );
+		return otu;
 	}
 
-	private Map<String, Long> otuCounts = new TreeMap<>();
+	private Map<String, Long> otuCounts = new HashMap<>();
 	private final String sampleId;
 	private static final long serialVersionUID = 4882054401193953055L;
 }
@@ -12,6 +12,7 @@
 package biolockj.util;
 
 import java.io.*;
+import java.lang.management.ManagementFactory;
 import java.util.*;
 import java.util.regex.Matcher;
 import biolockj.*;
@@ -37,12 +38,14 @@ public class BashScriptBuilder {
 	 * Docker *non-R_Modules* include: 1 MAIN script, 1+ worker-scripts - MAIN.sh runs workers<br>
 	 * AWS Docker R_Modules include: 0 MAIN scripts, 0 worker-scripts - MAIN.R run by Nextflow<br>
 	 * AWS Docker *non-R_Modules* include: 0 MAIN scripts, 1+ worker-scripts MAIN.sh runs workers<br>
+	 * The worker script list and MAIN script options are held in static fields while the scripts are built, so modules
+	 * running at the same time build their scripts one at a time.
 	 * 
 	 * @param module ScriptModule
 	 * @param data Bash script lines
 	 * @throws PipelineScriptException if any errors occur writing module script
 	 */
-	public static void buildScripts( final ScriptModule module, final List<List<String>> data )
+	public static synchronized void buildScripts( final ScriptModule module, final List<List<String>> data )
 		throws PipelineScriptException {
 		if( data == null || data.size() < 1 )
 			throw new PipelineScriptException( module, "All worker scripts are empty" );
@@ -89,9 +92,18 @@ public class BashScriptBuilder {
 	protected static void buildMainScript( final ScriptModule module ) throws ConfigException, IOException, DockerVolCreationException {
 
 		final List<String> mainScriptLines = initMainScript( module );
-		for( final File worker: workerScripts )
+		if( runArrayJob ) {
+			createScript( module, getArrayTaskScriptPath( module ), buildArrayTaskScript( module ) );
+			mainScriptLines.add( FUNCTION_EXECUTE_LINE + " \"" + FUNCTION_RUN_ARRAY_JOB + "\" ${LINENO}" );
+			for( int i = 0; i < workerScripts.size(); i++ )
+				mainScriptLines.add( "echo \"" + workerScripts.get( i ).getName() + ":" + CLUSTER_KEY + ":${" +
+					ARRAY_JOB_ID + "}:" + ( i + 1 ) + "\" >> \"" + getMainScriptPath( module ) + "_" +
+					Constants.SCRIPT_STARTED + "\"" );
+		} else for( final File worker: workerScripts )
 			mainScriptLines.add( getMainScriptExecuteWorkerLine( worker.getAbsolutePath() ) );
 
+		if( runLocalJobs ) mainScriptLines.add( RETURN + "for job in ${" + LOCAL_JOBS + "[@]}; do " +
+			FUNCTION_EXECUTE_LINE + " \"wait ${job}\" ${LINENO}; done" );
 		mainScriptLines
 			.add( RETURN + "touch \"" + getMainScriptPath( module ) + "_" + Constants.SCRIPT_SUCCESS + "\"" );
 		final List<String> mainScriptLinesEasyReading = insertPathVars(module, mainScriptLines);
@@ -152,10 +164,35 @@ public class BashScriptBuilder {
 		final StringBuffer line = new StringBuffer();
 		if( DockerUtil.inDockerEnv() ) line.append( DockerUtil.SPAWN_DOCKER_CONTAINER + " " );
 		else if( Config.isOnCluster() ) line.append( FUNCTION_RUN_JOB + " " );
+		else if( runLocalJobs ) line.append( FUNCTION_RUN_LOCAL_JOB + " " );
 		line.append( workerScriptPath );
 		return FUNCTION_EXECUTE_LINE + " \"" + line.toString() + "\" ${LINENO}";
 	}
 
+	/**
+	 * Get the maximum number of worker scripts the MAIN script runs at the same time outside of cluster and Docker
+	 * environments. Each worker reserves {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} cores
+	 * and, if {@value #SCRIPT_WORKER_MEMORY} is set, that many GB of physical memory. The result is capped by
+	 * {@value #SCRIPT_MAX_LOCAL_JOBS} (if set) and the number of worker scripts.
+	 * 
+	 * @param module ScriptModule
+	 * @return Max number of concurrent worker scripts
+	 * @throws ConfigNotFoundException if {@value biolockj.Constants#SCRIPT_NUM_THREADS} is undefined
+	 * @throws ConfigFormatException if any of these properties is not a positive integer
+	 */
+	protected static int getMaxLocalJobs( final ScriptModule module )
+		throws ConfigNotFoundException, ConfigFormatException {
+		final int numThreads = Config.requirePositiveInteger( module, Constants.SCRIPT_NUM_THREADS );
+		long maxJobs = Math.max( 1, Runtime.getRuntime().availableProcessors() / numThreads );
+		final Integer workerMemory = Config.getPositiveInteger( module, SCRIPT_WORKER_MEMORY );
+		final long totalMemory = getPhysicalMemory();
+		if( workerMemory != null && totalMemory > 0 )
+			maxJobs = Math.min( maxJobs, Math.max( 1L, totalMemory / ( workerMemory * BYTES_PER_GB ) ) );
+		final Integer maxLocalJobs = Config.getPositiveInteger( module, SCRIPT_MAX_LOCAL_JOBS );
+		if( maxLocalJobs != null ) maxJobs = Math.min( maxJobs, maxLocalJobs );
+		return (int) Math.max( 1L, Math.min( maxJobs, workerNum() ) );
+	}
+
 	/**
 	 * Pass each line and the current line number to: executeLine
 	 *
@@ -201,6 +238,8 @@ public class BashScriptBuilder {
 		final String mainScriptPath = getMainScriptPath( module );
 		final String header = Config.getString( module, Constants.SCRIPT_DEFAULT_HEADER );
 		final String startedFlag = mainScriptPath + "_" + Constants.SCRIPT_STARTED;
+		runLocalJobs = false;
+		runArrayJob = false;
 		if( header != null ) lines.add( header + RETURN );
 		lines.add( "# BioLockJ " + BioLockJUtil.getVersion() + ": " + mainScriptPath + RETURN );
 		lines.addAll( passEnvironmentVarVals(module) );
@@ -212,7 +251,14 @@ public class BashScriptBuilder {
 		if( DockerUtil.inDockerEnv() ) {
 			lines.addAll( DockerUtil.buildSpawnDockerContainerFunction( module, startedFlag ) );
 		}else if( Config.isOnCluster() ) {
-			lines.addAll( buildRunClusterJobFunction( module ) );
+			runArrayJob = Config.getBoolean( module, CLUSTER_ARRAY_JOBS ) && workerNum() > 1;
+			lines.addAll( runArrayJob ? buildRunArrayJobFunction( module ): buildRunClusterJobFunction( module ) );
+		} else {
+			final int maxJobs = getMaxLocalJobs( module );
+			runLocalJobs = maxJobs > 1;
+			if( runLocalJobs ) lines.addAll( buildRunLocalJobFunction( maxJobs ) );
+			Log.info( BashScriptBuilder.class, "MAIN script runs up to " + maxJobs + " of " + workerNum() +
+				" worker scripts at a time" );
 		}
 		lines.addAll( buildScriptFailureFunction( mainScriptPath ) );
 		lines.addAll( buildExecuteFunction() );
@@ -238,6 +284,112 @@ public class BashScriptBuilder {
 		return(lines);
 	}
 	
+	/**
+	 * Create the script submitted as each task of the job array. The task runs the worker script at the array index
+	 * found in the {@value #CLUSTER_ARRAY_INDEX_VAR} environment variable (indexed from 1), so each worker script still
+	 * writes its own indicator files. If no worker script is found for the index, the failure is written to the MAIN
+	 * script failure indicator file so the pipeline stops.
+	 * 
+	 * @param module ScriptModule
+	 * @return Bash script lines
+	 * @throws ConfigException if required properties are undefined
+	 */
+	private static List<String> buildArrayTaskScript( final ScriptModule module ) throws ConfigException {
+		final List<String> lines = new ArrayList<>();
+		final String header = Config.getString( module, SCRIPT_JOB_HEADER );
+		final String defaultHeader = Config.getString( module, Constants.SCRIPT_DEFAULT_HEADER );
+		if( header != null ) lines.add( header );
+		else if( defaultHeader != null ) lines.add( defaultHeader );
+		lines.add( "" );
+		lines.add( "# BioLockJ." + BioLockJUtil.getVersion() + ": " + getArrayTaskScriptPath( module ) );
+		lines.add( "" );
+		lines.add( "workers=()" );
+		for( int i = 0; i < workerScripts.size(); i++ )
+			lines.add( "workers[" + ( i + 1 ) + "]=\"" + workerScripts.get( i ).getAbsolutePath() + "\"" );
+		lines.add( "taskId=${" + Config.requireString( module, CLUSTER_ARRAY_INDEX_VAR ) + "}" );
+		lines.add( "if [ ${#taskId} -eq 0 ] || [ ${#workers[${taskId}]} -eq 0 ]; then" );
+		lines.add( "echo \"No worker script found for array task index [ ${taskId} ]\" >> \"" +
+			getMainScriptPath( module ) + "_" + Constants.SCRIPT_FAILURES + "\"" );
+		lines.add( "exit 1" );
+		lines.add( "fi" );
+		lines.add( "exec \"${workers[${taskId}]}\"" );
+		return lines;
+	}
+
+	/**
+	 * Create bash MAIN script function: runArrayJob<br>
+	 * Submit every worker script as one job array with {@value #CLUSTER_BATCH_COMMAND}, and save the job ID in
+	 * ${arrayJobId}.
+	 * 
+	 * @param module ScriptModule
+	 * @return Bash script lines
+	 * @throws ConfigException if required properties are undefined
+	 */
+	private static List<String> buildRunArrayJobFunction( final ScriptModule module ) throws ConfigException {
+		final String batchCommand = Config.requireString( module, CLUSTER_BATCH_COMMAND );
+		final String arrayParam = Config.requireString( module, CLUSTER_ARRAY_PARAM );
+		final Integer maxRunning = Config.getPositiveInteger( module, CLUSTER_ARRAY_MAX_RUNNING );
+		final String range = "1-" + workerNum() + ( maxRunning == null ? "": "%" + maxRunning );
+		final List<String> lines = new ArrayList<>();
+		lines.add( "# Submit " + workerNum() + " worker scripts as one job array" );
+		lines.add( "function " + FUNCTION_RUN_ARRAY_JOB + "() {" );
+		lines.add( "id=$(" + batchCommand + " " + arrayParam + ( arrayParam.endsWith( "=" ) ? "": " " ) + range +
+			" " + getArrayTaskScriptPath( module ) + ")" );
+		lines.add( "local status=$?" );
+		if( Config.requireBoolean( module, CLUSTER_HAS_BATCH_IDS ) ) {
+			lines.add( "[ $status -eq 0 ] && [ ${#id} -eq 0 ] && status=1 && echo \"No job id was returned from " +
+				batchCommand + " command.\"" );
+		}
+		lines.add( "if [ $status -gt 0 ]; then echo $id; fi" );
+		lines.add( ARRAY_JOB_ID + "=$id" );
+		lines.add( "return $status" );
+		lines.add( "}" + RETURN );
+		return lines;
+	}
+
+	/**
+	 * Create bash MAIN script function: runLocalJob<br>
+	 * Start the worker script in the background once fewer than maxJobs workers are running, and save its process ID
+	 * so the MAIN script can wait for every worker to finish. Bash versions without "wait -n" check the running workers
+	 * once per second.
+	 * 
+	 * @param maxJobs Max number of worker scripts to run at the same time
+	 * @return Bash script lines
+	 */
+	private static List<String> buildRunLocalJobFunction( final int maxJobs ) {
+		final List<String> lines = new ArrayList<>();
+		lines.add( "# Run up to " + maxJobs + " worker scripts at a time" );
+		lines.add( LOCAL_JOBS + "=()" );
+		lines.add( "function " + FUNCTION_RUN_LOCAL_JOB + "() {" );
+		lines.add( "while [ $(jobs -rp | wc -l) -ge " + maxJobs + " ]; do" );
+		lines.add( "wait -n 2>/dev/null || sleep 1" );
+		lines.add( "done" );
+		lines.add( "$1 &" );
+		lines.add( LOCAL_JOBS + "+=($!)" );
+		lines.add( "}" + RETURN );
+		return lines;
+	}
+
+	/**
+	 * Get the physical memory size by reflection: getTotalMemorySize() replaces the deprecated
+	 * getTotalPhysicalMemorySize() since Java 14, so the older method is only called on older JVMs.
+	 */
+	private static long getPhysicalMemory() {
+		try {
+			final Class<?> bean = Class.forName( "com.sun.management.OperatingSystemMXBean" );
+			final Object os = ManagementFactory.getOperatingSystemMXBean();
+			if( bean.isInstance( os ) ) for( final String name: MEMORY_SIZE_METHODS )
+				try {
+					return (Long) bean.getMethod( name ).invoke( os );
+				} catch( final NoSuchMethodException ex ) {
+					Log.debug( BashScriptBuilder.class, "Method not found: " + name );
+				}
+		} catch( final Exception ex ) {
+			Log.warn( BashScriptBuilder.class, "Unable to read physical memory size: " + ex.getMessage() );
+		}
+		return 0L;
+	}
+
 	/**
 	 * Get the script lines to assign values to the common directories.
 	 * Using these variables in place of full file paths makes the script easier to read.
@@ -384,7 +536,10 @@ public class BashScriptBuilder {
 			final List<String> lines = it.next();
 			if( lines.isEmpty() )
 				throw new PipelineScriptException( module, true, " Worker script #" + workerNum() + " is empty." );
+			final String[] runtimeLines = BatchPlanner.getRuntimeLines( module, lines );
+			if( runtimeLines != null ) workerLines.add( runtimeLines[ 0 ] );
 			workerLines.addAll( getWorkerScriptLines( lines ) );
+			if( runtimeLines != null ) workerLines.add( runtimeLines[ 1 ] );
 			if( saveWorker( module, ++sampleCount, data.size() ) || !it.hasNext() ) {
 				if( !( module instanceof JavaModule ) )
 					workerLines.add( "touch \"" + workerScriptPath + "_" + Constants.SCRIPT_SUCCESS + "\"" );
@@ -405,6 +560,11 @@ public class BashScriptBuilder {
 		Log.info( BashScriptBuilder.class, Constants.LOG_SPACER );
 	}
 
+	private static String getArrayTaskScriptPath( final ScriptModule module ) {
+		return new File( module.getScriptDir().getAbsolutePath() + File.separator + BioModule.MAIN_SCRIPT_PREFIX +
+			module.getModuleDir().getName() + ARRAY_TASK_SUFFIX ).getAbsolutePath();
+	}
+
 	private static String getMainScriptPath( final ScriptModule module ) {
 		return new File( module.getScriptDir().getAbsolutePath() + File.separator + BioModule.MAIN_SCRIPT_PREFIX +
 			module.getModuleDir().getName() + Constants.SH_EXT ).getAbsolutePath();
@@ -446,17 +606,9 @@ public class BashScriptBuilder {
 	 */
 	private static boolean saveWorker( final BioModule module, final int sampleCount, final int count )
 		throws ConfigNotFoundException, ConfigFormatException {
-		// max Workers - number of workers that have to have the maximum (min + 1) number of samples per worker
 		final int maxWorkers = count - ModuleUtil.getNumWorkers( module );
 		final int minSamplesPerWorker = getMinSamplesPerWorker( module, count );
-		// worker num - number of workers that have already been saved (already added to the list of workers)
-		// we save the max workers before the min workers.  
-		// So, DO save the file (stop adding samples to it)
-		// IF we are still in the make-max-workers phase, only save this if it has the max number (min+1)
-		// OR IF the in the build-min-wokers phase, and this worker has the min number of samples.
-		// otherwise, don't save it yet, add more samples to it.
-		boolean bool = workerNum() < maxWorkers && sampleCount == minSamplesPerWorker + 1 ||
-			workerNum() >= maxWorkers && sampleCount == minSamplesPerWorker;
+		boolean bool = isBatchFull( workerNum(), sampleCount, count, ModuleUtil.getNumWorkers( module ) );
 		Log.debug( module.getClass(), "module: " + module );
 		Log.debug( module.getClass(), "sampleCount: " + sampleCount );
 		Log.debug( module.getClass(), "count: " + count );
@@ -468,6 +620,47 @@ public class BashScriptBuilder {
 		return bool;
 	}
 
+	/**
+	 * Get the number of samples in each worker script, in order, as assigned by {@link #buildScripts(ScriptModule, List)}.
+	 *
+	 * @param module BioModule
+	 * @param count Number of samples
+	 * @return Number of samples per worker script
+	 * @throws ConfigNotFoundException if {@value biolockj.Constants#SCRIPT_NUM_WORKERS} property is undefined
+	 * @throws ConfigFormatException if {@value biolockj.Constants#SCRIPT_NUM_WORKERS} property is not a positive
+	 * integer
+	 */
+	public static int[] getBatchSizes( final BioModule module, final int count )
+		throws ConfigNotFoundException, ConfigFormatException {
+		final int numWorkers = ModuleUtil.getNumWorkers( module );
+		final List<Integer> sizes = new ArrayList<>();
+		int sampleCount = 0;
+		for( int i = 0; i < count; i++ )
+			if( isBatchFull( sizes.size(), ++sampleCount, count, numWorkers ) || i == count - 1 ) {
+				sizes.add( sampleCount );
+				sampleCount = 0;
+			}
+		final int[] batchSizes = new int[ sizes.size() ];
+		for( int i = 0; i < batchSizes.length; i++ )
+			batchSizes[ i ] = sizes.get( i );
+		return batchSizes;
+	}
+
+	private static boolean isBatchFull( final int numSaved, final int sampleCount, final int count,
+		final int numWorkers ) {
+		// max Workers - number of workers that have to have the maximum (min + 1) number of samples per worker
+		final int maxWorkers = count - numWorkers;
+		final int minSamplesPerWorker = (int) Math.floor( (double) count / (double) numWorkers );
+		// worker num - number of workers that have already been saved (already added to the list of workers)
+		// we save the max workers before the min workers.  
+		// So, DO save the file (stop adding samples to it)
+		// IF we are still in the make-max-workers phase, only save this if it has the max number (min+1)
+		// OR IF the in the build-min-wokers phase, and this worker has the min number of samples.
+		// otherwise, don't save it yet, add more samples to it.
+		return numSaved < maxWorkers && sampleCount == minSamplesPerWorker + 1 ||
+			numSaved >= maxWorkers && sampleCount == minSamplesPerWorker;
+	}
+
 	private static int workerNum() {
 		return workerScripts.size();
 	}
@@ -483,6 +676,12 @@ public class BashScriptBuilder {
 		Properties.registerProp(CLUSTER_PROLOGUE, Properties.STRING_TYPE, CLUSTER_PROLOGUE_DESC);
 		Properties.registerProp(SCRIPT_JOB_HEADER, Properties.STRING_TYPE, SCRIPT_JOB_HEADER_DESC);
 		Properties.registerProp(CLUSTER_HAS_BATCH_IDS, Properties.BOOLEAN_TYPE, CLUSTER_HAS_BATCH_IDS_DESC);
+		Properties.registerProp(CLUSTER_ARRAY_JOBS, Properties.BOOLEAN_TYPE, CLUSTER_ARRAY_JOBS_DESC);
+		Properties.registerProp(CLUSTER_ARRAY_INDEX_VAR, Properties.STRING_TYPE, CLUSTER_ARRAY_INDEX_VAR_DESC);
+		Properties.registerProp(CLUSTER_ARRAY_MAX_RUNNING, Properties.INTEGER_TYPE, CLUSTER_ARRAY_MAX_RUNNING_DESC);
+		Properties.registerProp(CLUSTER_ARRAY_PARAM, Properties.STRING_TYPE, CLUSTER_ARRAY_PARAM_DESC);
+		Properties.registerProp(SCRIPT_MAX_LOCAL_JOBS, Properties.INTEGER_TYPE, SCRIPT_MAX_LOCAL_JOBS_DESC);
+		Properties.registerProp(SCRIPT_WORKER_MEMORY, Properties.INTEGER_TYPE, SCRIPT_WORKER_MEMORY_DESC);
 	}
 	/**
 	 * Let modules see property names.
@@ -494,6 +693,12 @@ public class BashScriptBuilder {
 		props.add( CLUSTER_MODULES );
 		props.add( CLUSTER_PROLOGUE );
 		props.add( SCRIPT_JOB_HEADER );
+		props.add( CLUSTER_ARRAY_JOBS );
+		props.add( CLUSTER_ARRAY_INDEX_VAR );
+		props.add( CLUSTER_ARRAY_MAX_RUNNING );
+		props.add( CLUSTER_ARRAY_PARAM );
+		props.add( SCRIPT_MAX_LOCAL_JOBS );
+		props.add( SCRIPT_WORKER_MEMORY );
 		//props.add( CLUSTER_HAS_BATCH_IDS );
 		return props;
 	}
@@ -506,9 +711,45 @@ public class BashScriptBuilder {
 			Config.getList( module, CLUSTER_MODULES );
 			Config.getString(  module, CLUSTER_PROLOGUE );
 			Config.requireBoolean( module, CLUSTER_HAS_BATCH_IDS );
+			if( Config.getBoolean( module, CLUSTER_ARRAY_JOBS ) ) {
+				Config.requireString( module, CLUSTER_ARRAY_INDEX_VAR );
+				Config.getPositiveInteger( module, CLUSTER_ARRAY_MAX_RUNNING );
+				Config.requireString( module, CLUSTER_ARRAY_PARAM );
+			}
+		} else if( !DockerUtil.inDockerEnv() ) {
+			Config.getPositiveInteger( module, SCRIPT_MAX_LOCAL_JOBS );
+			Config.getPositiveInteger( module, SCRIPT_WORKER_MEMORY );
 		}
 	}
 	
+	/**
+	 * {@link biolockj.Config} String property: {@value #CLUSTER_ARRAY_INDEX_VAR}<br>
+	 * {@value #CLUSTER_ARRAY_INDEX_VAR_DESC}
+	 */
+	protected static final String CLUSTER_ARRAY_INDEX_VAR = "cluster.arrayIndexVar";
+	private static final String CLUSTER_ARRAY_INDEX_VAR_DESC = "Environment variable set by the cluster to the array index of each job array task (ex: PBS_ARRAYID, SLURM_ARRAY_TASK_ID)";
+
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #CLUSTER_ARRAY_JOBS}<br>
+	 * {@value #CLUSTER_ARRAY_JOBS_DESC}
+	 */
+	protected static final String CLUSTER_ARRAY_JOBS = "cluster.arrayJobs";
+	private static final String CLUSTER_ARRAY_JOBS_DESC = "Options Y/N.  If Y, submit all worker scripts of a module with a single cluster.batchCommand call as one job array, instead of one job per worker script.";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #CLUSTER_ARRAY_MAX_RUNNING}<br>
+	 * {@value #CLUSTER_ARRAY_MAX_RUNNING_DESC}
+	 */
+	protected static final String CLUSTER_ARRAY_MAX_RUNNING = "cluster.arrayMaxRunning";
+	private static final String CLUSTER_ARRAY_MAX_RUNNING_DESC = "Max number of job array tasks the cluster runs at the same time, appended to the array range as %N.  If undefined, no limit is set.";
+
+	/**
+	 * {@link biolockj.Config} String property: {@value #CLUSTER_ARRAY_PARAM}<br>
+	 * {@value #CLUSTER_ARRAY_PARAM_DESC}
+	 */
+	protected static final String CLUSTER_ARRAY_PARAM = "cluster.arrayParam";
+	private static final String CLUSTER_ARRAY_PARAM_DESC = "cluster.batchCommand parameter that sets the job array range (ex: -t, --array=).  The range (ex: 1-20%5) follows a space, or follows directly if the parameter ends with =";
+
 	/**
 	 * {@link biolockj.Config} String property: {@value #CLUSTER_BATCH_COMMAND}<br>
 	 * {@value #CLUSTER_BATCH_COMMAND_DESC}
@@ -556,8 +797,29 @@ public class BashScriptBuilder {
 	protected static final String SCRIPT_JOB_HEADER = "cluster.jobHeader";
 	private static final String SCRIPT_JOB_HEADER_DESC = "Header written at top of worker scripts";
 
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #SCRIPT_MAX_LOCAL_JOBS}<br>
+	 * {@value #SCRIPT_MAX_LOCAL_JOBS_DESC}
+	 */
+	protected static final String SCRIPT_MAX_LOCAL_JOBS = "script.maxLocalJobs";
+	private static final String SCRIPT_MAX_LOCAL_JOBS_DESC = "Max number of worker scripts run at the same time when not on a cluster or in Docker. By default, the number of cores divided by script.numThreads (also limited by script.workerMemory if set).";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #SCRIPT_WORKER_MEMORY}<br>
+	 * {@value #SCRIPT_WORKER_MEMORY_DESC}
+	 */
+	protected static final String SCRIPT_WORKER_MEMORY = "script.workerMemory";
+	private static final String SCRIPT_WORKER_MEMORY_DESC = "GB of memory used by each worker script. If set, worker scripts run at the same time when not on a cluster or in Docker are limited so they fit in physical memory.";
+
 	private static final String FUNCTION_EXECUTE_LINE = "executeLine";
 	private static final String FUNCTION_RUN_JOB = "runJob";
+	private static final String FUNCTION_RUN_ARRAY_JOB = "runArrayJob";
+	private static final String ARRAY_JOB_ID = "arrayJobId";
+	private static final String ARRAY_TASK_SUFFIX = "_arrayTask.bash";
+	private static final String FUNCTION_RUN_LOCAL_JOB = "runLocalJob";
+	private static final String LOCAL_JOBS = "localJobs";
+	private static final long BYTES_PER_GB = 1024L * 1024L * 1024L;
+	private static final String[] MEMORY_SIZE_METHODS = { "getTotalMemorySize", "getTotalPhysicalMemorySize" };
 	private static final String CLUSTER_KEY = "cluster";
 	private static final String FUNCTION_SCRIPT_FAILED = "scriptFailed";
 	private static final String MOD_DIR = "modDir";
@@ -574,5 +836,7 @@ public class BashScriptBuilder {
 	private static final String LOG_DIR_VAR = "${" + LOG_DIR + "}";
 	
 	private static final String RETURN = Constants.RETURN;
+	private static boolean runArrayJob = false;
+	private static boolean runLocalJobs = false;
 	private static final List<File> workerScripts = new ArrayList<>();
 }
@@ -0,0 +1,333 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import biolockj.*;
+import biolockj.module.BioModule;
+import biolockj.module.ScriptModule;
+import biolockj.module.implicit.RegisterNumReads;
+
+/**
+ * This utility orders the input sequence files of a module so the worker scripts built by
+ * {@link biolockj.util.BashScriptBuilder} finish at about the same time.<br>
+ * Each sample (a file, or a forward/reverse pair) is a unit of work. Worker scripts record the wall time of each
+ * sample with the path of its (forward read) file, and when the module completes the times are saved to a history file
+ * for the module class in the {@value #HISTORY_DIR} directory of the pipeline parent directory, so every pipeline that
+ * runs the module adds to its history. The history is keyed by file name: a file that runs again replaces its old
+ * runtime.<br>
+ * The cost of each sample is predicted with a linear model (seconds = overhead + rate * size) fit to the last
+ * {@value #MAX_HISTORY} samples of the module class. The number of reads from the
+ * {@link biolockj.module.implicit.RegisterNumReads} metadata column is used as the size if known for every sample,
+ * otherwise the file size. Without enough history the file size is used as the cost. Samples are then assigned, most
+ * expensive first, to the worker with the lowest predicted total that still has room (LPT greedy bin packing), keeping
+ * the number of samples per worker set by {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_WORKERS}.
+ */
+public class BatchPlanner {
+
+	// Prevent instantiation
+	private BatchPlanner() {}
+
+	/**
+	 * Get the command lines that record the wall time of the sample in the worker script. The sample is the planned
+	 * sample whose file path is found in the script lines.
+	 *
+	 * @param module ScriptModule
+	 * @param lines Worker script lines of 1 sample
+	 * @return Bash script lines {start, end}, or null if no planned sample is found in the lines
+	 */
+	public static String[] getRuntimeLines( final ScriptModule module, final List<String> lines ) {
+		final Sample sample = findSample( module, lines );
+		if( sample == null ) return null;
+		return new String[] { SAMPLE_START + "=${SECONDS}",
+			"printf \"%s\\t%s\\n\" \"" + sample.getPath() + "\" $(( SECONDS - ${" + SAMPLE_START + "} )) >> \"" +
+				getRuntimeFile( module ).getAbsolutePath() + "\"" };
+	}
+
+	/**
+	 * Order the module input files so the batches of samples built into each worker script have about the same
+	 * predicted cost. Paired reads are kept together, forward read first, and files without a mate are listed last.
+	 *
+	 * @param module BioModule
+	 * @param files Input sequence files
+	 * @return Ordered files
+	 * @throws Exception if unable to read the Config or pair the reads
+	 */
+	public static List<File> plan( final BioModule module, final List<File> files ) throws Exception {
+		final List<Sample> samples = new ArrayList<>();
+		final Set<File> unplanned = new LinkedHashSet<>( files );
+		if( SeqUtil.hasPairedReads() ) {
+			final Map<File, File> pairs = SeqUtil.getPairedReads( files );
+			for( final File fwRead: pairs.keySet() )
+				samples.add( new Sample( fwRead, pairs.get( fwRead ) ) );
+		} else for( final File file: files )
+			samples.add( new Sample( file, null ) );
+		for( final Sample sample: samples )
+			unplanned.removeAll( sample.files );
+
+		final int[] batchSizes = BashScriptBuilder.getBatchSizes( module, samples.size() );
+		if( batchSizes.length < 2 ) return files;
+
+		final String model = setCosts( module, samples );
+		final List<Sample> sorted = new ArrayList<>( samples );
+		Collections.sort( sorted, ( a, b ) -> Double.compare( b.cost, a.cost ) );
+		final List<List<Sample>> batches = new ArrayList<>();
+		final double[] loads = new double[ batchSizes.length ];
+		for( int i = 0; i < batchSizes.length; i++ )
+			batches.add( new ArrayList<>() );
+		for( final Sample sample: sorted ) {
+			int target = -1;
+			for( int i = 0; i < batchSizes.length; i++ )
+				if( batches.get( i ).size() < batchSizes[ i ] && ( target < 0 || loads[ i ] < loads[ target ] ) )
+					target = i;
+			batches.get( target ).add( sample );
+			loads[ target ] += sample.cost;
+		}
+
+		final List<Sample> planned = new ArrayList<>();
+		final List<File> ordered = new ArrayList<>();
+		for( final List<Sample> batch: batches ) {
+			planned.addAll( batch );
+			for( final Sample sample: batch )
+				ordered.addAll( sample.files );
+		}
+		ordered.addAll( unplanned );
+		plans.put( module.getID(), planned );
+
+		double maxLoad = 0.0;
+		for( final double load: loads )
+			maxLoad = Math.max( maxLoad, load );
+		Log.info( BatchPlanner.class, "Planned " + samples.size() + " samples in " + batchSizes.length +
+			" worker batches by " + model + ", max batch cost: " + String.format( "%.1f", maxLoad ) );
+		return ordered;
+	}
+
+	/**
+	 * Save the sample runtimes recorded by the worker scripts of the module to the history file of the module class.
+	 * Each runtime is matched to its planned sample by file path, and the history keeps the last {@value #MAX_HISTORY}
+	 * files, 1 row per file name.
+	 *
+	 * @param module BioModule
+	 */
+	public static void saveHistory( final BioModule module ) {
+		final List<Sample> samples = plans.get( module.getID() );
+		if( !( module instanceof ScriptModule ) || samples == null || !getRuntimeFile( module ).isFile() ) return;
+		try {
+			final Map<String, Sample> samplesByPath = new HashMap<>();
+			for( final Sample sample: samples )
+				samplesByPath.put( sample.getPath(), sample );
+
+			final Map<String, String> history = readHistory( module );
+			int numRows = 0;
+			final BufferedReader reader = BioLockJUtil.getFileReader( getRuntimeFile( module ) );
+			try {
+				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+					final String[] cells = line.split( Constants.TAB_DELIM, -1 );
+					final Sample sample = cells.length == 2 ? samplesByPath.get( cells[ 0 ] ): null;
+					if( sample == null ) continue;
+					final String name = sample.files.get( 0 ).getName();
+					history.remove( name );
+					history.put( name, sample.numBytes + Constants.TAB_DELIM +
+						( sample.numReads == null ? "": sample.numReads ) + Constants.TAB_DELIM + cells[ 1 ].trim() );
+					numRows++;
+				}
+			} finally {
+				reader.close();
+			}
+
+			final Iterator<String> it = history.keySet().iterator();
+			for( int i = history.size(); i > MAX_HISTORY; i-- ) {
+				it.next();
+				it.remove();
+			}
+
+			final File file = getHistoryFile( module );
+			if( !file.getParentFile().isDirectory() ) file.getParentFile().mkdirs();
+			final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+			try {
+				writer.write( HISTORY_HEADER + Constants.RETURN );
+				for( final String name: history.keySet() )
+					writer.write( name + Constants.TAB_DELIM + history.get( name ) + Constants.RETURN );
+			} finally {
+				writer.close();
+			}
+			Log.info( BatchPlanner.class,
+				"Saved " + numRows + " sample runtimes to batch history: " + file.getAbsolutePath() );
+		} catch( final Exception ex ) {
+			Log.warn( BatchPlanner.class, "Unable to save batch history for " + module.getClass().getSimpleName() +
+				": " + ex.getMessage() );
+		}
+	}
+
+	/**
+	 * Fit seconds = overhead + rate * x by least squares.
+	 *
+	 * @return {overhead, rate}, or null if the history does not show cost increasing with x
+	 */
+	private static double[] fitModel( final List<double[]> rows ) {
+		if( rows.size() < MIN_HISTORY ) return null;
+		double meanX = 0.0;
+		double meanY = 0.0;
+		for( final double[] row: rows ) {
+			meanX += row[ 0 ] / rows.size();
+			meanY += row[ 1 ] / rows.size();
+		}
+		double sxx = 0.0;
+		double sxy = 0.0;
+		for( final double[] row: rows ) {
+			sxx += ( row[ 0 ] - meanX ) * ( row[ 0 ] - meanX );
+			sxy += ( row[ 0 ] - meanX ) * ( row[ 1 ] - meanY );
+		}
+		if( sxx <= 0.0 || sxy <= 0.0 ) return null;
+		final double rate = sxy / sxx;
+		return new double[] { Math.max( 0.0, meanY - rate * meanX ), rate };
+	}
+
+	private static File getHistoryFile( final BioModule module ) {
+		return new File( new File( Config.pipelinePath() ).getParentFile(),
+			HISTORY_DIR + File.separator + module.getClass().getSimpleName() + Constants.TSV_EXT );
+	}
+
+	private static Long getNumReads( final File file ) {
+		try {
+			final String field = RegisterNumReads.getNumReadFieldName();
+			if( field == null || !MetaUtil.getFieldNames().contains( field ) ) return null;
+			final String count = MetaUtil.getField( SeqUtil.getSampleId( file ), field );
+			return count == null || count.trim().isEmpty() ? null: Long.valueOf( count.trim() );
+		} catch( final Exception ex ) {
+			return null;
+		}
+	}
+
+	/**
+	 * Find the planned sample whose file path is found in the worker script lines.
+	 */
+	private static Sample findSample( final BioModule module, final List<String> lines ) {
+		final List<Sample> samples = plans.get( module.getID() );
+		if( samples != null ) for( final Sample sample: samples )
+			for( final String line: lines )
+				if( line.contains( sample.getPath() ) ) return sample;
+		return null;
+	}
+
+	private static File getRuntimeFile( final BioModule module ) {
+		return new File( module.getTempDir(), RUNTIME_FILE );
+	}
+
+	/**
+	 * Read the history file as Map(file name, "num_bytes TAB num_reads TAB seconds"), oldest first. A history file
+	 * without the file name column, saved by an older version, is replaced.
+	 */
+	private static Map<String, String> readHistory( final BioModule module ) {
+		final Map<String, String> rows = new LinkedHashMap<>();
+		final File history = getHistoryFile( module );
+		if( !history.isFile() ) return rows;
+		try {
+			final BufferedReader reader = BioLockJUtil.getFileReader( history );
+			try {
+				if( !HISTORY_HEADER.equals( reader.readLine() ) ) {
+					Log.warn( BatchPlanner.class, "Replace batch history in old format: " + history.getAbsolutePath() );
+					return rows;
+				}
+				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+					final int index = line.indexOf( Constants.TAB_DELIM );
+					if( index > 0 ) {
+						rows.remove( line.substring( 0, index ) );
+						rows.put( line.substring( 0, index ), line.substring( index + 1 ) );
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch( final Exception ex ) {
+			Log.warn( BatchPlanner.class, "Unable to read batch history: " + ex.getMessage() );
+		}
+		return rows;
+	}
+
+	/**
+	 * Set the predicted cost of each sample.
+	 *
+	 * @return Description of the cost model used
+	 */
+	private static String setCosts( final BioModule module, final List<Sample> samples ) {
+		boolean useReads = true;
+		for( final Sample sample: samples )
+			useReads = useReads && sample.numReads != null;
+
+		final List<double[]> rows = new ArrayList<>();
+		for( final String row: readHistory( module ).values() ) {
+			final String[] cells = row.split( Constants.TAB_DELIM, -1 );
+			try {
+				if( cells.length == 3 && ( !useReads || !cells[ 1 ].isEmpty() ) ) rows.add( new double[] {
+					Double.parseDouble( useReads ? cells[ 1 ]: cells[ 0 ] ), Double.parseDouble( cells[ 2 ] ) } );
+			} catch( final NumberFormatException ex ) {
+				Log.debug( BatchPlanner.class, "Skip invalid batch history row: " + row );
+			}
+		}
+		final double[] fit = fitModel( rows );
+		for( final Sample sample: samples ) {
+			final double x = useReads ? sample.numReads: sample.numBytes;
+			sample.cost = fit == null ? sample.numBytes: fit[ 0 ] + fit[ 1 ] * x;
+		}
+		return fit == null ? "file size": "runtime history of " + rows.size() + " samples (" +
+			String.format( "%.1f", fit[ 0 ] ) + " sec + " + String.format( "%.3g", fit[ 1 ] ) + " sec per " +
+			( useReads ? "read": "byte" ) + ")";
+	}
+
+	/**
+	 * Unit of work processed by a worker script: a sequence file, or a forward/reverse read pair.
+	 */
+	private static final class Sample {
+
+		private Sample( final File file, final File pairedRead ) {
+			this.files.add( file );
+			if( pairedRead != null ) this.files.add( pairedRead );
+			long bytes = 0L;
+			for( final File f: this.files )
+				bytes += f.length();
+			this.numBytes = bytes;
+			this.numReads = getNumReads( file );
+		}
+
+		private String getPath() {
+			return this.files.get( 0 ).getAbsolutePath();
+		}
+
+		private double cost = 0.0;
+		private final List<File> files = new ArrayList<>();
+		private final long numBytes;
+		private final Long numReads;
+	}
+
+	/**
+	 * Name of the batch history directory in the pipeline parent directory: {@value #HISTORY_DIR}
+	 */
+	public static final String HISTORY_DIR = ".batchHistory";
+
+	/**
+	 * Number of sample runtimes of a module class used to predict sample cost: {@value #MAX_HISTORY}
+	 */
+	public static final int MAX_HISTORY = 1000;
+
+	/**
+	 * Name of the file in the module temp directory where worker scripts record sample runtimes: {@value #RUNTIME_FILE}
+	 */
+	public static final String RUNTIME_FILE = "sampleRuntimes" + Constants.TSV_EXT;
+
+	private static final String HISTORY_HEADER = "file" + Constants.TAB_DELIM + "num_bytes" + Constants.TAB_DELIM +
+		"num_reads" + Constants.TAB_DELIM + "seconds";
+	private static final int MIN_HISTORY = 3;
+	private static final Map<Integer, List<Sample>> plans = Collections.synchronizedMap( new HashMap<>() );
+	private static final String SAMPLE_START = "sampleStart";
+}
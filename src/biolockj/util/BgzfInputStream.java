@@ -0,0 +1,213 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Future;
+import java.util.zip.*;
+
+/**
+ * Block-parallel BGZF decompression.<br>
+ * Each BGZF block is a complete gzip member whose header records the compressed block size, so blocks are read from
+ * the file in order and inflated by the {@link biolockj.util.GzipUtil} thread pool while the caller consumes earlier
+ * blocks. At most {@link biolockj.util.GzipUtil#getMaxPendingBlocks()} blocks are queued ahead of the caller.
+ */
+public class BgzfInputStream extends InputStream {
+
+	/**
+	 * Construct a stream to decompress the BGZF input.
+	 *
+	 * @param in BGZF input
+	 */
+	public BgzfInputStream( final InputStream in ) {
+		this.in = in;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return this.block == null ? 0: this.block.length - this.pos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		for( final Future<byte[]> f: this.pending )
+			f.cancel( true );
+		this.pending.clear();
+		this.block = null;
+		this.in.close();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if( !nextBlock() ) return -1;
+		return this.block[ this.pos++ ] & 0xff;
+	}
+
+	@Override
+	public int read( final byte[] b, final int off, final int len ) throws IOException {
+		if( len == 0 ) return 0;
+		if( !nextBlock() ) return -1;
+		final int n = Math.min( len, this.block.length - this.pos );
+		System.arraycopy( this.block, this.pos, b, off, n );
+		this.pos += n;
+		return n;
+	}
+
+	/**
+	 * Ensure the current block has unread bytes, waiting for the next decompressed block if needed.
+	 *
+	 * @return false at the end of the input
+	 */
+	private boolean nextBlock() throws IOException {
+		while( this.block == null || this.pos == this.block.length ) {
+			while( !this.eof && this.pending.size() < GzipUtil.getMaxPendingBlocks() )
+				readBlock();
+			if( this.pending.isEmpty() ) return false;
+			this.block = GzipUtil.getBlock( this.pending.poll() );
+			this.pos = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Read the next compressed block and queue it to be inflated.
+	 */
+	private void readBlock() throws IOException {
+		final byte[] header = new byte[ HEADER_SIZE ];
+		final int n = readFully( this.in, header, 0, HEADER_SIZE );
+		if( n == 0 ) {
+			this.eof = true;
+			return;
+		}
+
+		final int blockSize = n == HEADER_SIZE ? getBlockSize( header ): -1;
+		if( blockSize < 0 ) throw new ZipException( "Invalid BGZF block header" );
+
+		final byte[] data = new byte[ blockSize ];
+		System.arraycopy( header, 0, data, 0, HEADER_SIZE );
+		if( readFully( this.in, data, HEADER_SIZE, blockSize - HEADER_SIZE ) != blockSize - HEADER_SIZE )
+			throw new EOFException( "Truncated BGZF block" );
+
+		this.pending.add( GzipUtil.submit( () -> inflate( data ) ) );
+	}
+
+	/**
+	 * Check if the buffered input starts with a BGZF block header, without consuming it.
+	 *
+	 * @param in InputStream that supports mark/reset
+	 * @return true if the input is BGZF
+	 * @throws IOException if unable to read the input
+	 */
+	static boolean isBgzf( final InputStream in ) throws IOException {
+		final byte[] header = new byte[ HEADER_SIZE ];
+		in.mark( HEADER_SIZE );
+		final int n = readFully( in, header, 0, HEADER_SIZE );
+		in.reset();
+		return n == HEADER_SIZE && getBlockSize( header ) > 0;
+	}
+
+	/**
+	 * Get the total size of the BGZF block, from the BC subfield of the gzip header.
+	 *
+	 * @param header 1st {@value #HEADER_SIZE} bytes of the block
+	 * @return Block size, or -1 if the header is not a BGZF header
+	 */
+	private static int getBlockSize( final byte[] header ) {
+		if( header[ 0 ] != GZIP_ID1 || header[ 1 ] != GZIP_ID2 || header[ 2 ] != Deflater.DEFLATED ||
+			( header[ 3 ] & FLAG_EXTRA ) == 0 || getShort( header, 10 ) != EXTRA_LENGTH || header[ 12 ] != 'B' ||
+			header[ 13 ] != 'C' || getShort( header, 14 ) != 2 ) return -1;
+		return getShort( header, 16 ) + 1;
+	}
+
+	private static int getInt( final byte[] b, final int off ) {
+		return getShort( b, off ) | getShort( b, off + 2 ) << 16;
+	}
+
+	private static int getShort( final byte[] b, final int off ) {
+		return b[ off ] & 0xff | ( b[ off + 1 ] & 0xff ) << 8;
+	}
+
+	private static byte[] inflate( final byte[] data ) throws IOException {
+		final int size = getInt( data, data.length - 4 );
+		final byte[] out = new byte[ size ];
+		final Inflater inflater = new Inflater( true );
+		try {
+			inflater.setInput( data, HEADER_SIZE, data.length - HEADER_SIZE - TRAILER_SIZE );
+			int n = 0;
+			while( n < size && !inflater.finished() ) {
+				final int count = inflater.inflate( out, n, size - n );
+				if( count == 0 && ( inflater.needsInput() || inflater.needsDictionary() ) ) break;
+				n += count;
+			}
+			if( n != size ) throw new ZipException( "Corrupt BGZF block: expected " + size + " bytes, found " + n );
+		} catch( final DataFormatException ex ) {
+			throw new ZipException( "Corrupt BGZF block: " + ex.getMessage() );
+		} finally {
+			inflater.end();
+		}
+
+		final CRC32 crc = new CRC32();
+		crc.update( out, 0, size );
+		if( (int) crc.getValue() != getInt( data, data.length - 8 ) )
+			throw new ZipException( "Corrupt BGZF block: CRC mismatch" );
+		return out;
+	}
+
+	private static int readFully( final InputStream in, final byte[] b, final int off, final int len )
+		throws IOException {
+		int n = 0;
+		while( n < len ) {
+			final int count = in.read( b, off + n, len - n );
+			if( count < 0 ) break;
+			n += count;
+		}
+		return n;
+	}
+
+	private byte[] block = null;
+	private boolean eof = false;
+	private final InputStream in;
+	private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+	private int pos = 0;
+
+	/**
+	 * BGZF extra field length: {@value #EXTRA_LENGTH}
+	 */
+	static final int EXTRA_LENGTH = 6;
+
+	/**
+	 * gzip FEXTRA header flag: {@value #FLAG_EXTRA}
+	 */
+	static final int FLAG_EXTRA = 4;
+
+	/**
+	 * gzip magic number, 1st byte
+	 */
+	static final byte GZIP_ID1 = (byte) 0x1f;
+
+	/**
+	 * gzip magic number, 2nd byte
+	 */
+	static final byte GZIP_ID2 = (byte) 0x8b;
+
+	/**
+	 * Size of a BGZF block header: {@value #HEADER_SIZE}
+	 */
+	static final int HEADER_SIZE = 18;
+
+	/**
+	 * Size of the gzip member trailer (CRC32 and uncompressed size): {@value #TRAILER_SIZE}
+	 */
+	static final int TRAILER_SIZE = 8;
+}
@@ -0,0 +1,167 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Block-parallel BGZF compression.<br>
+ * Bytes written to the stream are cut into blocks of {@value #BLOCK_SIZE} bytes, each compressed into an independent
+ * gzip member by the {@link biolockj.util.GzipUtil} thread pool, and written in order with the standard BGZF
+ * end-of-file block on {@link #close()}. The output is a valid multi-member gzip file, and
+ * {@link biolockj.util.BgzfInputStream} can decompress it block-parallel. At most
+ * {@link biolockj.util.GzipUtil#getMaxPendingBlocks()} blocks are queued ahead of the file.
+ */
+public class BgzfOutputStream extends OutputStream {
+
+	/**
+	 * Construct a stream that writes BGZF blocks to the output.
+	 *
+	 * @param out Compressed output
+	 */
+	public BgzfOutputStream( final OutputStream out ) {
+		this.out = out;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if( this.closed ) return;
+		this.closed = true;
+		try {
+			submitBlock();
+			drain( 0 );
+			this.out.write( EOF_BLOCK );
+		} finally {
+			for( final Future<byte[]> f: this.pending )
+				f.cancel( true );
+			this.out.close();
+		}
+	}
+
+	/**
+	 * Submit the buffered bytes as a block and write all completed blocks. Since each block is an independent gzip
+	 * member, flushing does not finish the file.
+	 */
+	@Override
+	public void flush() throws IOException {
+		submitBlock();
+		drain( 0 );
+		this.out.flush();
+	}
+
+	@Override
+	public void write( final byte[] b, int off, int len ) throws IOException {
+		while( len > 0 ) {
+			final int n = Math.min( len, BLOCK_SIZE - this.size );
+			System.arraycopy( b, off, this.buffer, this.size, n );
+			this.size += n;
+			off += n;
+			len -= n;
+			if( this.size == BLOCK_SIZE ) submitBlock();
+		}
+	}
+
+	@Override
+	public void write( final int b ) throws IOException {
+		this.buffer[ this.size++ ] = (byte) b;
+		if( this.size == BLOCK_SIZE ) submitBlock();
+	}
+
+	/**
+	 * Write completed blocks, in order, until no more than maxPending remain queued.
+	 */
+	private void drain( final int maxPending ) throws IOException {
+		while( this.pending.size() > maxPending )
+			this.out.write( GzipUtil.getBlock( this.pending.poll() ) );
+	}
+
+	private void submitBlock() throws IOException {
+		if( this.size == 0 ) return;
+		final byte[] data = this.buffer;
+		final int len = this.size;
+		this.pending.add( GzipUtil.submit( () -> deflate( data, len ) ) );
+		this.buffer = new byte[ BLOCK_SIZE ];
+		this.size = 0;
+		drain( GzipUtil.getMaxPendingBlocks() );
+	}
+
+	private static byte[] deflate( final byte[] data, final int len ) {
+		final byte[] block = new byte[ MAX_BLOCK_SIZE ];
+		int size = compress( data, len, block, Deflater.DEFAULT_COMPRESSION );
+		if( size < 0 ) size = compress( data, len, block, Deflater.NO_COMPRESSION );
+
+		final int total = BgzfInputStream.HEADER_SIZE + size + BgzfInputStream.TRAILER_SIZE;
+		final CRC32 crc = new CRC32();
+		crc.update( data, 0, len );
+
+		System.arraycopy( EOF_BLOCK, 0, block, 0, BgzfInputStream.HEADER_SIZE );
+		putShort( block, 16, total - 1 );
+		putInt( block, total - 8, (int) crc.getValue() );
+		putInt( block, total - 4, len );
+
+		final byte[] out = new byte[ total ];
+		System.arraycopy( block, 0, out, 0, total );
+		return out;
+	}
+
+	/**
+	 * Deflate the data into the block after the header.
+	 *
+	 * @return Compressed size, or -1 if the compressed data does not fit in a BGZF block
+	 */
+	private static int compress( final byte[] data, final int len, final byte[] block, final int level ) {
+		final Deflater deflater = new Deflater( level, true );
+		try {
+			deflater.setInput( data, 0, len );
+			deflater.finish();
+			final int max = MAX_BLOCK_SIZE - BgzfInputStream.HEADER_SIZE - BgzfInputStream.TRAILER_SIZE;
+			final int size = deflater.deflate( block, BgzfInputStream.HEADER_SIZE, max );
+			return deflater.finished() ? size: -1;
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static void putInt( final byte[] b, final int off, final int val ) {
+		putShort( b, off, val );
+		putShort( b, off + 2, val >>> 16 );
+	}
+
+	private static void putShort( final byte[] b, final int off, final int val ) {
+		b[ off ] = (byte) val;
+		b[ off + 1 ] = (byte) ( val >>> 8 );
+	}
+
+	private byte[] buffer = new byte[ BLOCK_SIZE ];
+	private boolean closed = false;
+	private final OutputStream out;
+	private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+	private int size = 0;
+
+	/**
+	 * Number of uncompressed bytes per BGZF block: {@value #BLOCK_SIZE}
+	 */
+	public static final int BLOCK_SIZE = 0xff00;
+
+	/**
+	 * Empty BGZF block that marks the end of the file, its header is also the template for each block header.
+	 */
+	private static final byte[] EOF_BLOCK = { 0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2,
+		0, 0x1b, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+	private static final int MAX_BLOCK_SIZE = 0x10000;
+}
@@ -17,7 +17,6 @@ import java.net.URL;
 import java.text.DecimalFormat;
 import java.util.*;
 import java.util.jar.Manifest;
-import java.util.zip.GZIPInputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.HiddenFileFilter;
 import biolockj.*;
@@ -248,19 +247,59 @@ public class BioLockJUtil {
 	}
 
 	/**
-	 * Get a {@link BufferedReader} for standard text file or {@link GZIPInputStream} for gzipped files ending in ".gz"
+	 * Get a buffered {@link InputStream} of the raw file bytes, decompressed by {@link biolockj.util.GzipUtil} for
+	 * gzipped files ending in ".gz" (block-parallel for BGZF files, otherwise inflated by a read-ahead thread)
 	 *
 	 * @param file to be read
-	 * @return {@link BufferedReader} or {@link GZIPInputStream} if file is gzipped
+	 * @return {@link InputStream}
+	 * @throws FileNotFoundException if file does not exist
+	 * @throws IOException if unable to read the file
+	 */
+	public static InputStream getFileInputStream( final File file ) throws FileNotFoundException, IOException {
+		return SeqUtil.isGzipped( file.getName() ) ? GzipUtil.getInputStream( file ):
+			new BufferedInputStream( new FileInputStream( file ), STREAM_BUFFER_SIZE );
+	}
+
+	/**
+	 * Get a buffered {@link OutputStream} for the file, compressed as BGZF by {@link biolockj.util.GzipUtil} if the
+	 * file name ends in ".gz"
+	 *
+	 * @param file to be written
+	 * @return {@link OutputStream}
+	 * @throws IOException if unable to create the file
+	 */
+	public static OutputStream getFileOutputStream( final File file ) throws IOException {
+		return SeqUtil.isGzipped( file.getName() ) ? GzipUtil.getOutputStream( file ):
+			new BufferedOutputStream( new FileOutputStream( file ), STREAM_BUFFER_SIZE );
+	}
+
+	/**
+	 * Get a {@link BufferedReader} for standard text file or a decompressing reader for gzipped files ending in ".gz"
+	 *
+	 * @param file to be read
+	 * @return {@link BufferedReader}
 	 * @throws FileNotFoundException if file does not exist
 	 * @throws IOException if unable to read or write the file
 	 */
 	public static BufferedReader getFileReader( final File file ) throws FileNotFoundException, IOException {
 		return SeqUtil.isGzipped( file.getName() ) ?
-			new BufferedReader( new InputStreamReader( new GZIPInputStream( new FileInputStream( file ) ) ) ):
+			new BufferedReader( new InputStreamReader( getFileInputStream( file ) ) ):
 			new BufferedReader( new FileReader( file ) );
 	}
 
+	/**
+	 * Get a {@link BufferedWriter} for the file, compressed as BGZF if the file name ends in ".gz"
+	 *
+	 * @param file to be written
+	 * @return {@link BufferedWriter}
+	 * @throws IOException if unable to create the file
+	 */
+	public static BufferedWriter getFileWriter( final File file ) throws IOException {
+		return SeqUtil.isGzipped( file.getName() ) ?
+			new BufferedWriter( new OutputStreamWriter( getFileOutputStream( file ) ) ):
+			new BufferedWriter( new FileWriter( file ) );
+	}
+
 	/**
 	 * Get the list of input directories for the pipeline.
 	 * 
@@ -447,6 +486,7 @@ public class BioLockJUtil {
 			inputFiles.addAll( files );
 		}
 		Log.info( BioLockJUtil.class, "# Initial input files after removing empty/ignored files: " + files.size() );
+		InputManifest.build( inputFiles );
 		setPipelineInputFileTypes();
 	}
 
@@ -914,5 +954,6 @@ public class BioLockJUtil {
 
 	private static List<File> inputFiles = new ArrayList<>();
 	private static File userProfile = null;
+	private static final int STREAM_BUFFER_SIZE = 64 * 1024;
 	private static final String VERSION_FILE = ".version";
 }
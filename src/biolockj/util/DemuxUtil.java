@@ -64,6 +64,7 @@ public class DemuxUtil {
 		Config.setConfigProperty( DemuxUtil.BARCODE_USE_REV_COMP, "" );
 		Config.setConfigProperty( DemuxUtil.DEMUX_STRATEGY, "" );
 		Config.setConfigProperty( DemuxUtil.MAPPING_FILE, "" );
+		resetSampleIdLookup();
 	}
 
 	/**
@@ -108,14 +109,60 @@ public class DemuxUtil {
 	 * @throws Exception if propagated from {@link biolockj.util.SeqUtil} or {@link biolockj.Config}
 	 */
 	public static String getSampleId( final List<String> seqLines ) throws Exception {
-		if( demuxWithBarcode() ) {
-			final Map<String, String> map = getIdMap();
-			if( map != null ) for( final String barCodeId: map.keySet() )
-				if( ( barcodeInHeader() || barcodeInMapping() ) && seqLines.get( 0 ).contains( barCodeId ) ||
-					barcodeInSeq() && seqLines.get( 1 ).startsWith( barCodeId ) ) return map.get( barCodeId );
+		return getSampleId( seqLines.get( 0 ), seqLines.get( 1 ) );
+	}
+
+	/**
+	 * Determine Sample Id from the header and sequence line of a single read, as described in
+	 * {@link #getSampleId(List)}.<br>
+	 * The demultiplex strategy and barcode lengths are resolved once (on the 1st call) so this method can be called
+	 * for every read of a multiplexed file without repeated {@link biolockj.Config} or
+	 * {@link biolockj.util.MetaUtil} lookups. Sequence barcodes are matched with a hash lookup of each distinct
+	 * barcode-length prefix of the sequence.
+	 * 
+	 * @param header Sequence header line
+	 * @param seq Sequence line
+	 * @return Sample ID or null
+	 * @throws Exception if propagated from {@link biolockj.util.SeqUtil} or {@link biolockj.Config}
+	 */
+	public static String getSampleId( final String header, final String seq ) throws Exception {
+		if( useBarcodeLookup == null ) initSampleIdLookup();
+		if( !useBarcodeLookup ) return SeqUtil.getSampleIdFromString( header );
+		if( matchSeqBarcodes ) {
+			for( final int len: barcodeLengths )
+				if( seq.length() >= len ) {
+					final String id = idMap.get( seq.substring( 0, len ) );
+					if( id != null ) return id;
+				}
 			return null;
 		}
-		return SeqUtil.getSampleIdFromString( seqLines.get( 0 ) );
+
+		for( final Map.Entry<String, String> entry: idMap.entrySet() )
+			if( header.contains( entry.getKey() ) ) return entry.getValue();
+		return null;
+	}
+
+	/**
+	 * Determine Sample Id of a read returned by a {@link biolockj.util.SeqRecordReader}, as described in
+	 * {@link #getSampleId(String, String)}. Only the barcode-length prefixes of the sequence are decoded when matching
+	 * sequence barcodes, otherwise only the header is decoded.
+	 * 
+	 * @param read Sequence read
+	 * @return Sample ID or null
+	 * @throws Exception if propagated from {@link biolockj.util.SeqUtil} or {@link biolockj.Config}
+	 */
+	public static String getSampleId( final SeqRecord read ) throws Exception {
+		if( useBarcodeLookup == null ) initSampleIdLookup();
+		if( useBarcodeLookup && matchSeqBarcodes ) {
+			for( final int len: barcodeLengths )
+				if( read.getSeqLength() >= len ) {
+					final String id = idMap.get( read.getString( SeqRecord.SEQ, 0, len ) );
+					if( id != null ) return id;
+				}
+			return null;
+		}
+
+		return getSampleId( read.getHeader(), null );
 	}
 
 	/**
@@ -224,6 +271,26 @@ public class DemuxUtil {
 		return idMap;
 	}
 	
+	/**
+	 * Clear the cached strategy used by {@link #getSampleId(String, String)}, so it is re-read from
+	 * {@link biolockj.Config} on the next call.
+	 */
+	public static void resetSampleIdLookup() {
+		useBarcodeLookup = null;
+		matchSeqBarcodes = false;
+		barcodeLengths.clear();
+		idMap.clear();
+	}
+
+	private static void initSampleIdLookup() throws Exception {
+		final boolean withBarcode = demuxWithBarcode() && getIdMap() != null;
+		matchSeqBarcodes = withBarcode && barcodeInSeq();
+		barcodeLengths.clear();
+		if( withBarcode ) for( final String barcode: idMap.keySet() )
+			barcodeLengths.add( barcode.length() );
+		useBarcodeLookup = withBarcode;
+	}
+
 	public static void registerProps() throws API_Exception {
 		Properties.registerProp( BARCODE_CUTOFF, Properties.NUMERTIC_TYPE, "Options: (0.0 - 1.0); if defined, pipeline will fail if the percentage of reads with a barcode is less than this cutoff." );
 		Properties.registerProp( BARCODE_USE_REV_COMP, Properties.BOOLEAN_TYPE, "Options: Y/N. Use reverse compliment of metadata.barcodeColumn if demultimplexer.strategy = barcode_in_header or barcode_in_seq." );
@@ -290,6 +357,9 @@ public class DemuxUtil {
 	 */
 	protected static final String SAMPLE_ID_SUFFIX_TRIM_DEFAULT = "_";
 
+	private static final Set<Integer> barcodeLengths = new TreeSet<>();
 	private static final Map<String, String> idMap = new HashMap<>();
+	private static boolean matchSeqBarcodes = false;
+	private static Boolean useBarcodeLookup = null;
 
 }
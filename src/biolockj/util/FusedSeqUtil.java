@@ -0,0 +1,239 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import biolockj.*;
+import biolockj.module.BioModule;
+import biolockj.module.StreamingSeqModule;
+
+/**
+ * This utility runs consecutive {@link biolockj.module.StreamingSeqModule}s as a fused chain if
+ * {@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_FUSE_SEQ_MODULES}={@value biolockj.Constants#TRUE}.<br>
+ * Each input file of the 1st module in the chain is read once, each read is passed through the read filter of every
+ * module in order, and the reads that pass every filter are saved to the output directory of the last module. The other
+ * modules do not save sequence files; each module in the chain gets a {@value #FUSED_MANIFEST} file in its module
+ * directory listing the number of reads in and out of the module for each input file.<br>
+ * The chain runs when the pipeline executes its 1st incomplete module. The other modules still run their clean up,
+ * validation, and summary steps and are marked complete one at a time, so restarts and reports work as if the modules
+ * had run separately.
+ */
+public class FusedSeqUtil {
+
+	// Prevent instantiation
+	private FusedSeqUtil() {}
+
+	/**
+	 * Get the chain of consecutive {@link biolockj.module.StreamingSeqModule}s that includes the module.
+	 *
+	 * @param module BioModule
+	 * @return Modules in the chain, or null if the module does not run in a chain of at least 2 modules
+	 * @throws Exception if unable to read the Config
+	 */
+	public static List<StreamingSeqModule> getChain( final BioModule module ) throws Exception {
+		if( !Config.getBoolean( null, Constants.PIPELINE_FUSE_SEQ_MODULES ) || !canStream( module ) ) return null;
+		final LinkedList<StreamingSeqModule> chain = new LinkedList<>();
+		chain.add( (StreamingSeqModule) module );
+		for( BioModule prev = ModuleUtil.getPreviousModule( module ); canStream( prev ); prev =
+			ModuleUtil.getPreviousModule( prev ) )
+			chain.addFirst( (StreamingSeqModule) prev );
+		for( BioModule next = ModuleUtil.getNextModule( module ); canStream( next ); next =
+			ModuleUtil.getNextModule( next ) )
+			chain.addLast( (StreamingSeqModule) next );
+		return chain.size() > 1 ? chain: null;
+	}
+
+	/**
+	 * Get the file listing the reads in and out of the module for each input file of the chain.
+	 *
+	 * @param module BioModule
+	 * @return Manifest file
+	 */
+	public static File getManifest( final BioModule module ) {
+		return new File( module.getModuleDir(), FUSED_MANIFEST );
+	}
+
+	/**
+	 * Check if the module runs in a fused chain.
+	 *
+	 * @param module BioModule
+	 * @return TRUE if the module runs in a chain of at least 2 modules
+	 * @throws Exception if unable to read the Config
+	 */
+	public static boolean isFused( final BioModule module ) throws Exception {
+		return getChain( module ) != null;
+	}
+
+	/**
+	 * Run the chain that includes the module, unless it has already run in this application instance. If the pipeline
+	 * is restarted after the chain has run, the chain runs again from its 1st module because the sequence files of the
+	 * last module are deleted with the rest of its incomplete output.<br>
+	 * Files are streamed in parallel on up to {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS}
+	 * threads.
+	 *
+	 * @param module BioModule
+	 * @throws Exception if any read filter fails
+	 */
+	public static synchronized void runChain( final BioModule module ) throws Exception {
+		final List<StreamingSeqModule> chain = getChain( module );
+		final StreamingSeqModule head = chain.get( 0 );
+		final StreamingSeqModule tail = chain.get( chain.size() - 1 );
+		if( ranChains.contains( head.getID() ) ) {
+			Log.info( FusedSeqUtil.class, module.getClass().getSimpleName() + " reads were processed by the chain: " +
+				getNames( chain ) + " --> sequence files saved in: " + tail.getOutputDir().getAbsolutePath() );
+			return;
+		}
+
+		final List<File> files = head.getInputFiles();
+		final int numThreads =
+			Math.max( 1, Math.min( files.size(), Config.requirePositiveInteger( head, Constants.SCRIPT_NUM_THREADS ) ) );
+		Log.info( FusedSeqUtil.class, "Stream " + files.size() + " files on " + numThreads + " threads through: " +
+			getNames( chain ) );
+
+		final List<Future<StreamResult>> futures = new ArrayList<>();
+		final ExecutorService pool = Executors.newFixedThreadPool( numThreads );
+		final List<StreamResult> results = new ArrayList<>();
+		try {
+			for( final File file: files )
+				futures.add( pool.submit( () -> streamFile( module, chain, file ) ) );
+			for( final Future<StreamResult> future: futures ) {
+				final StreamResult result;
+				try {
+					result = future.get();
+				} catch( final ExecutionException ex ) {
+					if( ex.getCause() instanceof Exception ) throw (Exception) ex.getCause();
+					throw ex;
+				}
+				Log.logMsgs( result.msgs );
+				if( result.error != null ) throw result.error;
+				results.add( result );
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		for( int i = 0; i < chain.size(); i++ ) {
+			writeManifest( chain.get( i ), i, results );
+			chain.get( i ).streamComplete();
+		}
+		ranChains.add( head.getID() );
+	}
+
+	private static boolean canStream( final BioModule module ) throws Exception {
+		return module instanceof StreamingSeqModule && ( (StreamingSeqModule) module ).isRecordLocal();
+	}
+
+	private static String getNames( final List<StreamingSeqModule> chain ) {
+		final StringBuilder names = new StringBuilder();
+		for( final StreamingSeqModule module: chain )
+			names.append( ( names.length() == 0 ? "": " --> " ) + module.getClass().getSimpleName() );
+		return names.toString();
+	}
+
+	private static File getOutputFile( final StreamingSeqModule tail, final File file, final SeqRecord read )
+		throws Exception {
+		return new File( tail.getOutputDir().getAbsolutePath() + File.separator + SeqUtil.getSampleId( file ) +
+			SeqUtil.getReadDirectionSuffix( file ) + "." +
+			( read.getNumLines() > SeqRecord.QUAL ? Constants.FASTQ: Constants.FASTA ) );
+	}
+
+	/**
+	 * Pass each read of the file through the read filter of each module in the chain, and save the reads that pass
+	 * every filter. The output file is only created once a read passes every filter.
+	 */
+	private static StreamResult streamFile( final BioModule module, final List<StreamingSeqModule> chain,
+		final File file ) {
+		final StreamResult result = new StreamResult( file, chain.size() );
+		Pipeline.setThreadModule( module );
+		Log.bufferThreadMsgs();
+		try {
+			final StreamingSeqModule.ReadFilter[] filters = new StreamingSeqModule.ReadFilter[ chain.size() ];
+			for( int i = 0; i < filters.length; i++ )
+				filters[ i ] = chain.get( i ).getReadFilter( file );
+
+			OutputStream writer = null;
+			final SeqRecordReader reader = new SeqRecordReader( file );
+			try {
+				for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+					for( int i = 0; i < filters.length && read != null; i++ ) {
+						result.numReads[ i ]++;
+						read = filters[ i ].filter( read );
+					}
+					if( read == null ) continue;
+					result.numReads[ filters.length ]++;
+					if( writer == null ) {
+						result.output = getOutputFile( chain.get( filters.length - 1 ), file, read );
+						writer = new BufferedOutputStream( new FileOutputStream( result.output ),
+							SeqRecordReader.BUFFER_SIZE );
+					}
+					read.write( writer );
+				}
+			} finally {
+				reader.close();
+				if( writer != null ) writer.close();
+			}
+
+			for( final StreamingSeqModule.ReadFilter filter: filters )
+				filter.close();
+			Log.info( FusedSeqUtil.class, "Streamed " + result.numReads[ 0 ] + " reads from " + file.getName() +
+				" --> saved " + result.numReads[ filters.length ] + " reads" );
+		} catch( final Exception ex ) {
+			result.error = ex;
+		} finally {
+			result.msgs = Log.releaseThreadMsgs();
+			Pipeline.setThreadModule( null );
+		}
+		return result;
+	}
+
+	private static void writeManifest( final StreamingSeqModule module, final int index,
+		final List<StreamResult> results ) throws IOException {
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( getManifest( module ) ) );
+		try {
+			writer.write( "input_file" + Constants.TAB_DELIM + "num_reads_in" + Constants.TAB_DELIM +
+				"num_reads_out" + Constants.TAB_DELIM + "output_file" + Constants.RETURN );
+			for( final StreamResult result: results )
+				writer.write( result.input.getAbsolutePath() + Constants.TAB_DELIM + result.numReads[ index ] +
+					Constants.TAB_DELIM + result.numReads[ index + 1 ] + Constants.TAB_DELIM +
+					( result.output == null ? "": result.output.getAbsolutePath() ) + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Reads counted for 1 input file: numReads[i] reads entered module i of the chain, and the last count is the number
+	 * of reads saved.
+	 */
+	private static final class StreamResult {
+
+		private StreamResult( final File input, final int numModules ) {
+			this.input = input;
+			this.numReads = new long[ numModules + 1 ];
+		}
+
+		private Exception error = null;
+		private final File input;
+		private List<String[]> msgs = new ArrayList<>();
+		private final long[] numReads;
+		private File output = null;
+	}
+
+	/**
+	 * Name of the file saved in the module directory of each module in a fused chain: {@value #FUSED_MANIFEST}
+	 */
+	public static final String FUSED_MANIFEST = "fusedReads" + Constants.TSV_EXT;
+
+	private static final Set<Integer> ranChains = new HashSet<>();
+}
@@ -0,0 +1,167 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import biolockj.*;
+import biolockj.Properties;
+import biolockj.api.API_Exception;
+
+/**
+ * Multithreaded gzip codec used by {@link biolockj.util.BioLockJUtil#getFileInputStream(File)} and
+ * {@link biolockj.util.BioLockJUtil#getFileOutputStream(File)}.<br>
+ * BGZF files (gzip files made of independent members of at most 64KB, each recording its compressed size, as written
+ * by bgzip, samtools, and {@link biolockj.util.BgzfOutputStream}) are decompressed block-parallel with
+ * {@link biolockj.util.BgzfInputStream}. Other gzip files must be inflated serially, so they are decompressed by a
+ * background thread with a {@link biolockj.util.ReadAheadInputStream}, overlapping decompression with the work of the
+ * caller. All output is written as BGZF, which any gzip tool can read.<br>
+ * Block tasks from every open stream share one daemon thread pool of {@value #GZIP_THREADS} threads.
+ */
+public class GzipUtil {
+
+	// Prevent instantiation
+	private GzipUtil() {}
+
+	/**
+	 * Get a decompressed {@link InputStream} for a gzipped file, block-parallel if the file is BGZF.
+	 *
+	 * @param file Gzipped file
+	 * @return InputStream of decompressed bytes
+	 * @throws IOException if unable to read the file
+	 */
+	public static InputStream getInputStream( final File file ) throws IOException {
+		final InputStream in = new BufferedInputStream( new FileInputStream( file ), STREAM_BUFFER_SIZE );
+		try {
+			if( BgzfInputStream.isBgzf( in ) ) return new BgzfInputStream( in );
+			return new ReadAheadInputStream( new GZIPInputStream( in, STREAM_BUFFER_SIZE ) );
+		} catch( final IOException ex ) {
+			in.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Get an {@link OutputStream} that compresses bytes written to the file as BGZF, block-parallel.
+	 *
+	 * @param file Output file
+	 * @return OutputStream that compresses its input
+	 * @throws IOException if unable to create the file
+	 */
+	public static OutputStream getOutputStream( final File file ) throws IOException {
+		return new BgzfOutputStream( new FileOutputStream( file ) );
+	}
+
+	/**
+	 * Get the number of threads used to compress and decompress gzip blocks.
+	 *
+	 * @return Number of threads
+	 */
+	public static int getNumThreads() {
+		return getPool().getMaximumPoolSize();
+	}
+
+	/**
+	 * Register properties with the Properties class for API access.
+	 *
+	 * @throws API_Exception if a property is already registered
+	 */
+	public static void registerProps() throws API_Exception {
+		Properties.registerProp( GZIP_THREADS, Properties.INTEGER_TYPE, GZIP_THREADS_DESC );
+	}
+
+	/**
+	 * Get the max number of block tasks a single stream keeps queued, bounding the memory used per stream.
+	 *
+	 * @return Max pending blocks
+	 */
+	static int getMaxPendingBlocks() {
+		return 2 * getNumThreads();
+	}
+
+	/**
+	 * Submit a block task to the shared pool.
+	 *
+	 * @param task Compress or decompress task
+	 * @return Future result
+	 */
+	static Future<byte[]> submit( final Callable<byte[]> task ) {
+		return getPool().submit( task );
+	}
+
+	/**
+	 * Wait for a block task to complete, reporting any failure as an IOException.
+	 *
+	 * @param block Future block result
+	 * @return Result bytes
+	 * @throws IOException if the task failed or the thread was interrupted
+	 */
+	static byte[] getBlock( final Future<byte[]> block ) throws IOException {
+		try {
+			return block.get();
+		} catch( final ExecutionException ex ) {
+			if( ex.getCause() instanceof IOException ) throw (IOException) ex.getCause();
+			throw new IOException( "Gzip block task failed: " + ex.getCause(), ex.getCause() );
+		} catch( final InterruptedException ex ) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException( "Interrupted waiting for gzip block" );
+		}
+	}
+
+	private static synchronized ThreadPoolExecutor getPool() {
+		if( pool == null ) {
+			final int numThreads = initNumThreads();
+			pool = new ThreadPoolExecutor( numThreads, numThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				r -> {
+					final Thread t = new Thread( r, "gzip-" + threadCount.incrementAndGet() );
+					t.setDaemon( true );
+					return t;
+				} );
+			pool.allowCoreThreadTimeOut( true );
+		}
+		return pool;
+	}
+
+	private static int initNumThreads() {
+		try {
+			Integer numThreads = Config.getPositiveInteger( null, GZIP_THREADS );
+			if( numThreads == null ) numThreads = Config.getPositiveInteger( null, Constants.SCRIPT_NUM_THREADS );
+			if( numThreads != null ) return numThreads;
+		} catch( final Exception ex ) {
+			// Config not yet initialized - size the pool by the available processors
+		}
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #GZIP_THREADS}<br>
+	 * {@value #GZIP_THREADS_DESC}
+	 */
+	public static final String GZIP_THREADS = "pipeline.gzipThreads";
+
+	/**
+	 * Description of {@value #GZIP_THREADS}
+	 */
+	public static final String GZIP_THREADS_DESC =
+		"Number of threads BioLockJ uses to compress and decompress gzipped files. If undefined, " +
+			Constants.SCRIPT_NUM_THREADS + " is used.";
+
+	/**
+	 * Size of the buffers between the gzip codec and the file: {@value #STREAM_BUFFER_SIZE}
+	 */
+	static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+	private static ThreadPoolExecutor pool = null;
+	private static final AtomicInteger threadCount = new AtomicInteger( 0 );
+}
@@ -0,0 +1,154 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws random samples without replacement directly from a vector of counts, so the cost depends on the number of
+ * categories rather than the number of counted items.<br>
+ * Drawing n items from a count vector is a multivariate hypergeometric sample, generated one category at a time as a
+ * sequence of univariate hypergeometric samples. Univariate samples use the inversion algorithm HYP for small samples
+ * and the ratio-of-uniforms algorithm HRUA (Stadlober, 1989) otherwise.
+ */
+public class HypergeometricSampler {
+
+	// Prevent instantiation
+	private HypergeometricSampler() {}
+
+	/**
+	 * Get the number of "good" items in a sample drawn without replacement from a population of good and bad items.
+	 *
+	 * @param random Random number generator
+	 * @param good Number of good items in the population
+	 * @param bad Number of bad items in the population
+	 * @param sample Number of items drawn
+	 * @return Number of good items drawn
+	 */
+	public static long sample( final SplittableRandom random, final long good, final long bad, final long sample ) {
+		if( good < 0 || bad < 0 || sample < 0 || sample > good + bad ) throw new IllegalArgumentException(
+			"Invalid hypergeometric parameters [good=" + good + ", bad=" + bad + ", sample=" + sample + "]" );
+		if( sample == 0 || good == 0 ) return 0L;
+		if( bad == 0 ) return sample;
+		if( sample == good + bad ) return good;
+		return sample > HYP_MAX_SAMPLE ? hrua( random, good, bad, sample ): hyp( random, good, bad, sample );
+	}
+
+	/**
+	 * Draw a sample without replacement from the count vector.
+	 *
+	 * @param random Random number generator
+	 * @param counts Number of items in each category
+	 * @param total Sum of the counts
+	 * @param sample Number of items drawn, no greater than total
+	 * @param drawn Array filled with the number of items drawn from each category
+	 */
+	public static void sample( final SplittableRandom random, final long[] counts, final long total, final long sample,
+		final long[] drawn ) {
+		long remainingPop = total;
+		long remainingSample = sample;
+		for( int i = 0; i < counts.length; i++ ) {
+			remainingPop -= counts[ i ];
+			drawn[ i ] = remainingSample == 0 ? 0L: sample( random, counts[ i ], remainingPop, remainingSample );
+			remainingSample -= drawn[ i ];
+		}
+	}
+
+	/**
+	 * HRUA: ratio-of-uniforms rejection, O(1) expected time.
+	 */
+	private static long hrua( final SplittableRandom random, final long good, final long bad, final long sample ) {
+		final long minGoodBad = Math.min( good, bad );
+		final long maxGoodBad = Math.max( good, bad );
+		final long popSize = good + bad;
+		final long m = Math.min( sample, popSize - sample );
+		final double d4 = (double) minGoodBad / popSize;
+		final double d5 = 1.0 - d4;
+		final double d6 = m * d4 + 0.5;
+		final double d7 = Math.sqrt( (double) ( popSize - m ) * sample * d4 * d5 / ( popSize - 1 ) + 0.5 );
+		final double d8 = D1 * d7 + D2;
+		final long d9 = (long) Math.floor( (double) ( m + 1 ) * ( minGoodBad + 1 ) / ( popSize + 2 ) );
+		final double d10 = logGamma( d9 + 1 ) + logGamma( minGoodBad - d9 + 1 ) + logGamma( m - d9 + 1 ) +
+			logGamma( maxGoodBad - m + d9 + 1 );
+		final double d11 = Math.min( Math.min( m, minGoodBad ) + 1.0, Math.floor( d6 + 16 * d7 ) );
+
+		long z;
+		while( true ) {
+			final double x = random.nextDouble();
+			final double y = random.nextDouble();
+			if( x == 0.0 ) continue;
+			final double w = d6 + d8 * ( y - 0.5 ) / x;
+			if( w < 0.0 || w >= d11 ) continue;
+
+			z = (long) Math.floor( w );
+			final double t = d10 - ( logGamma( z + 1 ) + logGamma( minGoodBad - z + 1 ) + logGamma( m - z + 1 ) +
+				logGamma( maxGoodBad - m + z + 1 ) );
+			if( x * ( 4.0 - x ) - 3.0 <= t ) break;
+			if( x * ( x - t ) >= 1 ) continue;
+			if( 2.0 * Math.log( x ) <= t ) break;
+		}
+
+		if( good > bad ) z = m - z;
+		if( m < sample ) z = good - z;
+		return z;
+	}
+
+	/**
+	 * HYP: inversion, O(sample) time.
+	 */
+	private static long hyp( final SplittableRandom random, final long good, final long bad, final long sample ) {
+		final long d1 = bad + good - sample;
+		final double d2 = Math.min( bad, good );
+		double y = d2;
+		long k = sample;
+		while( y > 0.0 ) {
+			y -= (long) Math.floor( random.nextDouble() + y / ( d1 + k ) );
+			k--;
+			if( k == 0 ) break;
+		}
+		final long z = (long) ( d2 - y );
+		return good > bad ? sample - z: z;
+	}
+
+	/**
+	 * Log of the gamma function, by the Stirling series with recursion for small arguments.
+	 */
+	private static double logGamma( final double x ) {
+		if( x == 1.0 || x == 2.0 ) return 0.0;
+		double x0 = x;
+		int n = 0;
+		if( x <= 7.0 ) {
+			n = (int) ( 7 - x );
+			x0 = x + n;
+		}
+
+		final double x2 = 1.0 / ( x0 * x0 );
+		double gl0 = LOG_GAMMA_COEFS[ 9 ];
+		for( int k = 8; k >= 0; k-- )
+			gl0 = gl0 * x2 + LOG_GAMMA_COEFS[ k ];
+
+		double gl = gl0 / x0 + 0.5 * LOG_2PI + ( x0 - 0.5 ) * Math.log( x0 ) - x0;
+		for( int k = 1; k <= n; k++ ) {
+			gl -= Math.log( x0 - 1.0 );
+			x0 -= 1.0;
+		}
+		return gl;
+	}
+
+	private static final double D1 = 1.7155277699214135;
+	private static final double D2 = 0.8989161620588988;
+	private static final int HYP_MAX_SAMPLE = 10;
+	private static final double LOG_2PI = 1.8378770664093453;
+	private static final double[] LOG_GAMMA_COEFS = { 8.333333333333333e-02, -2.777777777777778e-03,
+		7.936507936507937e-04, -5.952380952380952e-04, 8.417508417508418e-04, -1.917526917526918e-03,
+		6.410256410256410e-03, -2.955065359477124e-02, 1.796443723688307e-01, -1.39243221690590e+00 };
+}
@@ -0,0 +1,157 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import biolockj.*;
+
+/**
+ * Manifest of the pipeline input files, saved in the pipeline root directory as {@value #MANIFEST_FILE}.<br>
+ * Each input file is listed with its size, last modified time, and whether it is a sequence file. Checking if a file
+ * is a sequence file requires opening (and often decompressing) it, so files are checked in parallel on up to
+ * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} threads. When the pipeline is restarted, or a
+ * module is run in direct mode, the saved manifest is read and only files with a new size or last modified time are
+ * checked again.<br>
+ * Sample IDs and paired reads depend on the current Config and metadata, so they are not cached here: they are found
+ * by {@link biolockj.util.SeqUtil}, which pairs reads with a single hash join on Sample ID.
+ */
+public class InputManifest {
+
+	private InputManifest() {}
+
+	/**
+	 * Build the manifest for the pipeline input files and save it to the pipeline root directory. Files found in the
+	 * saved manifest with the same size and last modified time are not checked again.
+	 *
+	 * @param files Pipeline input files
+	 * @throws Exception if unable to check the files or save the manifest
+	 */
+	public static synchronized void build( final Collection<File> files ) throws Exception {
+		final Map<String, Entry> saved = read( getManifestFile() );
+		final Map<String, Entry> built = new LinkedHashMap<>();
+		final Map<String, Future<Boolean>> tasks = new LinkedHashMap<>();
+		final Integer configThreads = Config.getPositiveInteger( null, Constants.SCRIPT_NUM_THREADS );
+		final int numThreads = Math.max( 1, Math.min( files.size(),
+			configThreads == null ? Runtime.getRuntime().availableProcessors(): configThreads ) );
+		final ExecutorService pool = Executors.newFixedThreadPool( numThreads );
+		try {
+			for( final File file: files ) {
+				final Entry entry = saved.get( file.getAbsolutePath() );
+				if( entry != null && entry.size == file.length() && entry.lastModified == file.lastModified() )
+					built.put( file.getAbsolutePath(), entry );
+				else {
+					built.put( file.getAbsolutePath(), new Entry( file ) );
+					tasks.put( file.getAbsolutePath(), pool.submit( () -> SeqUtil.isSeqFile( file ) ) );
+				}
+			}
+
+			Log.info( InputManifest.class, "Check " + tasks.size() + " input file types on " + numThreads +
+				" threads, " + ( built.size() - tasks.size() ) + " found in input manifest" );
+			for( final String path: tasks.keySet() )
+				try {
+					built.get( path ).isSeq = tasks.get( path ).get();
+				} catch( final ExecutionException ex ) {
+					if( ex.getCause() instanceof Exception ) throw (Exception) ex.getCause();
+					throw ex;
+				}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		entries = built;
+		write( getManifestFile(), built );
+	}
+
+	/**
+	 * Check the manifest to determine if the file is a sequence file.
+	 *
+	 * @param file File
+	 * @return TRUE or FALSE, or null if the file is not in the manifest or has changed since the manifest was built
+	 */
+	public static Boolean isSeqFile( final File file ) {
+		final Entry entry = entries.get( file.getAbsolutePath() );
+		if( entry == null || entry.isSeq == null || entry.size != file.length() ||
+			entry.lastModified != file.lastModified() ) return null;
+		return entry.isSeq;
+	}
+
+	private static File getManifestFile() {
+		return new File( BioLockJ.getPipelineDir(), MANIFEST_FILE );
+	}
+
+	private static Map<String, Entry> read( final File manifest ) {
+		final Map<String, Entry> saved = new HashMap<>();
+		if( !manifest.isFile() ) return saved;
+		try {
+			final BufferedReader reader = BioLockJUtil.getFileReader( manifest );
+			try {
+				reader.readLine();
+				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+					final String[] cells = line.split( Constants.TAB_DELIM, -1 );
+					if( cells.length < 4 ) continue;
+					final Entry entry = new Entry( new File( cells[ 0 ] ) );
+					entry.size = Long.parseLong( cells[ 1 ] );
+					entry.lastModified = Long.parseLong( cells[ 2 ] );
+					entry.isSeq = Boolean.valueOf( cells[ 3 ] );
+					saved.put( cells[ 0 ], entry );
+				}
+			} finally {
+				reader.close();
+			}
+			Log.info( InputManifest.class, "Read " + saved.size() + " files from: " + manifest.getAbsolutePath() );
+		} catch( final Exception ex ) {
+			Log.warn( InputManifest.class,
+				"Unable to read input manifest, check every input file: " + ex.getMessage() );
+			saved.clear();
+		}
+		return saved;
+	}
+
+	private static void write( final File manifest, final Map<String, Entry> built ) throws IOException {
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( manifest ) );
+		try {
+			writer.write( "path" + Constants.TAB_DELIM + "size" + Constants.TAB_DELIM + "last_modified" +
+				Constants.TAB_DELIM + "is_seq" + Constants.RETURN );
+			for( final Entry entry: built.values() )
+				writer.write( entry.file.getAbsolutePath() + Constants.TAB_DELIM + entry.size + Constants.TAB_DELIM +
+					entry.lastModified + Constants.TAB_DELIM + entry.isSeq + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * One input file.
+	 */
+	private static final class Entry {
+
+		private Entry( final File file ) {
+			this.file = file;
+			this.size = file.length();
+			this.lastModified = file.lastModified();
+		}
+
+		private final File file;
+		private Boolean isSeq = null;
+		private long lastModified;
+		private long size;
+	}
+
+	private static volatile Map<String, Entry> entries = new HashMap<>();
+
+	/**
+	 * Name of the input manifest file saved in the pipeline root directory: {@value #MANIFEST_FILE}
+	 */
+	public static final String MANIFEST_FILE = "input_manifest.txt";
+}
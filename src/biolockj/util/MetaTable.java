@@ -0,0 +1,369 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.*;
+import org.apache.commons.lang.math.NumberUtils;
+import biolockj.Constants;
+
+/**
+ * Column store used by {@link biolockj.util.MetaUtil} to cache the metadata file.<br>
+ * Field names and Sample IDs are each mapped to an index, and every field is held as its own column of cell values, so
+ * a cell lookup is 2 hash lookups and a column can be added or removed without copying the other columns. If a field
+ * name is repeated in the header, lookups by name return the 1st column with that name. The type of each column, and
+ * its set of unique values, is computed on first use and kept until the column changes.<br>
+ * Once cached by {@link biolockj.util.MetaUtil}, a table is never changed: updates are made to a {@link #copy()} that
+ * replaces the cached table, so readers never see a table change under them.
+ */
+class MetaTable {
+
+	/**
+	 * Construct an empty table.
+	 *
+	 * @param idCol ID column name (1st column header)
+	 * @param fields Field names (remaining column headers)
+	 * @param nullValue Value used for empty cells
+	 */
+	MetaTable( final String idCol, final List<String> fields, final String nullValue ) {
+		this.idCol = idCol;
+		this.nullValue = nullValue;
+		for( final String field: fields )
+			addField( field, new ArrayList<>() );
+	}
+
+	private MetaTable( final MetaTable table ) {
+		this.idCol = table.idCol;
+		this.nullValue = table.nullValue;
+		this.fieldIndex.putAll( table.fieldIndex );
+		this.fields.addAll( table.fields );
+		for( final Column col: table.columns )
+			this.columns.add( new Column( new ArrayList<>( col.cells ) ) );
+		this.sampleIndex.putAll( table.sampleIndex );
+		this.sampleIds.addAll( table.sampleIds );
+		this.sortedIds = table.sortedIds;
+	}
+
+	/**
+	 * Add a new column. Samples missing from the map get the null value.
+	 *
+	 * @param field Field name
+	 * @param values Map(Sample ID, value)
+	 */
+	void addColumn( final String field, final Map<String, String> values ) {
+		final List<String> cells = new ArrayList<>( this.sampleIds.size() );
+		for( final String id: this.sampleIds )
+			cells.add( toCell( values.get( id ) ) );
+		addField( field, cells );
+	}
+
+	/**
+	 * Add or replace the row for the Sample ID. Missing cells are set to the null value, extra cells are ignored.
+	 *
+	 * @param id Sample ID
+	 * @param cells Row values in field order
+	 */
+	void addRow( final String id, final List<String> cells ) {
+		Integer row = this.sampleIndex.get( id );
+		if( row == null ) {
+			row = this.sampleIds.size();
+			this.sampleIndex.put( id, row );
+			this.sampleIds.add( id );
+			for( final Column col: this.columns )
+				col.cells.add( null );
+			this.sortedIds = null;
+		}
+		for( int i = 0; i < this.columns.size(); i++ ) {
+			final Column col = this.columns.get( i );
+			col.cells.set( row, i < cells.size() ? toCell( cells.get( i ) ): this.nullValue );
+			col.reset();
+		}
+	}
+
+	/**
+	 * Copy the table, so it can be updated without changing this table.
+	 *
+	 * @return New table with the same fields and rows
+	 */
+	MetaTable copy() {
+		return new MetaTable( this );
+	}
+
+	/**
+	 * Get the cell value.
+	 *
+	 * @param id Sample ID
+	 * @param field Field name
+	 * @return Cell value, or null if the Sample ID or field is not found
+	 */
+	String get( final String id, final String field ) {
+		final Integer row = this.sampleIndex.get( id );
+		final Column col = getColumn( field );
+		return row == null || col == null ? null: col.cells.get( row );
+	}
+
+	/**
+	 * Get the column for the field.
+	 *
+	 * @param field Field name
+	 * @return Column, or null if not found
+	 */
+	Column getColumn( final String field ) {
+		final Integer index = this.fieldIndex.get( field );
+		return index == null ? null: this.columns.get( index );
+	}
+
+	/**
+	 * Get the field names in column order.
+	 *
+	 * @return Read-only list of field names
+	 */
+	List<String> getFieldNames() {
+		return this.fieldView;
+	}
+
+	/**
+	 * Get the ID column name.
+	 *
+	 * @return ID column name
+	 */
+	String getIdCol() {
+		return this.idCol;
+	}
+
+	/**
+	 * Get the row for the Sample ID.
+	 *
+	 * @param id Sample ID
+	 * @return New list of row values in field order, or null if not found
+	 */
+	List<String> getRecord( final String id ) {
+		final Integer row = this.sampleIndex.get( id );
+		if( row == null ) return null;
+		final List<String> record = new ArrayList<>( this.columns.size() );
+		for( final Column col: this.columns )
+			record.add( col.cells.get( row ) );
+		return record;
+	}
+
+	/**
+	 * Get the Sample IDs in sorted order.
+	 *
+	 * @return Read-only list of Sample IDs
+	 */
+	List<String> getSortedIds() {
+		if( this.sortedIds == null ) {
+			final List<String> ids = new ArrayList<>( this.sampleIds );
+			Collections.sort( ids );
+			this.sortedIds = Collections.unmodifiableList( ids );
+		}
+		return this.sortedIds;
+	}
+
+	/**
+	 * Check if the field is a column in the table.
+	 *
+	 * @param field Field name
+	 * @return TRUE if found
+	 */
+	boolean hasField( final String field ) {
+		return field != null && this.fieldIndex.containsKey( field );
+	}
+
+	/**
+	 * Check if the Sample ID is a row in the table.
+	 *
+	 * @param id Sample ID
+	 * @return TRUE if found
+	 */
+	boolean hasSample( final String id ) {
+		return id != null && this.sampleIndex.containsKey( id );
+	}
+
+	/**
+	 * Check if the cell value is the null value or empty.
+	 *
+	 * @param val Cell value
+	 * @return TRUE if null
+	 */
+	boolean isNull( final String val ) {
+		return val == null || val.trim().isEmpty() || val.equals( this.nullValue );
+	}
+
+	/**
+	 * Remove the column.
+	 *
+	 * @param field Field name
+	 */
+	void removeColumn( final String field ) {
+		final Integer index = this.fieldIndex.get( field );
+		if( index == null ) return;
+		this.fields.remove( index.intValue() );
+		this.columns.remove( index.intValue() );
+		this.fieldIndex.clear();
+		for( int i = 0; i < this.fields.size(); i++ )
+			this.fieldIndex.putIfAbsent( this.fields.get( i ), i );
+	}
+
+	/**
+	 * Keep only the rows of the given Sample IDs.
+	 *
+	 * @param ids Sample IDs to keep
+	 * @return Removed Sample IDs
+	 */
+	List<String> retainSamples( final Set<String> ids ) {
+		final List<String> removed = new ArrayList<>();
+		final List<Integer> keep = new ArrayList<>();
+		for( int i = 0; i < this.sampleIds.size(); i++ )
+			if( ids.contains( this.sampleIds.get( i ) ) ) keep.add( i );
+			else removed.add( this.sampleIds.get( i ) );
+
+		if( removed.isEmpty() ) return removed;
+
+		final List<String> keptIds = new ArrayList<>( keep.size() );
+		for( final int row: keep )
+			keptIds.add( this.sampleIds.get( row ) );
+		for( final Column col: this.columns ) {
+			final List<String> cells = new ArrayList<>( keep.size() );
+			for( final int row: keep )
+				cells.add( col.cells.get( row ) );
+			col.cells.clear();
+			col.cells.addAll( cells );
+			col.reset();
+		}
+		this.sampleIds.clear();
+		this.sampleIndex.clear();
+		for( final String id: keptIds ) {
+			this.sampleIndex.put( id, this.sampleIds.size() );
+			this.sampleIds.add( id );
+		}
+		this.sortedIds = null;
+		return removed;
+	}
+
+	/**
+	 * Write the table as a tab delimited file, rows in the order they were added.
+	 *
+	 * @param file Output file
+	 * @throws IOException if unable to write the file
+	 */
+	void write( final File file ) throws IOException {
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			writer.write( this.idCol );
+			for( final String field: this.fields )
+				writer.write( MetaUtil.getColumnDelim() + field );
+			writer.write( Constants.RETURN );
+			for( int row = 0; row < this.sampleIds.size(); row++ ) {
+				writer.write( this.sampleIds.get( row ) );
+				for( final Column col: this.columns )
+					writer.write( MetaUtil.getColumnDelim() + col.cells.get( row ) );
+				writer.write( Constants.RETURN );
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private void addField( final String field, final List<String> cells ) {
+		this.fieldIndex.putIfAbsent( field, this.fields.size() );
+		this.fields.add( field );
+		this.columns.add( new Column( cells ) );
+	}
+
+	private String toCell( final String val ) {
+		return val == null || val.trim().isEmpty() ? this.nullValue: val.trim();
+	}
+
+	/**
+	 * Column of cell values in row order. The unique non-null values and the column type are computed on first use.
+	 */
+	final class Column {
+
+		private Column( final List<String> cells ) {
+			this.cells = cells;
+		}
+
+		/**
+		 * Get the column type.
+		 *
+		 * @return {@link biolockj.util.MetaUtil.FieldType}
+		 */
+		MetaUtil.FieldType getType() {
+			if( this.type == null ) {
+				boolean foundNumeric = false;
+				boolean foundNominal = false;
+				for( final String val: getUniqueValues() )
+					if( NumberUtils.isNumber( val ) ) foundNumeric = true;
+					else foundNominal = true;
+
+				if( foundNumeric && foundNominal ) this.type = MetaUtil.FieldType.MIXED;
+				else if( foundNumeric ) this.type = MetaUtil.FieldType.NUMERIC;
+				else if( foundNominal ) this.type = MetaUtil.FieldType.NOMINAL;
+				else this.type = MetaUtil.FieldType.EMPTY;
+			}
+			return this.type;
+		}
+
+		/**
+		 * Get the unique non-null values.
+		 *
+		 * @return Read-only set of values
+		 */
+		Set<String> getUniqueValues() {
+			if( this.uniqueValues == null ) {
+				final Set<String> vals = new HashSet<>();
+				for( final String val: this.cells )
+					if( !isNull( val ) ) vals.add( val );
+				this.uniqueValues = Collections.unmodifiableSet( vals );
+			}
+			return this.uniqueValues;
+		}
+
+		/**
+		 * Get the cell values, ordered by Sample ID.
+		 *
+		 * @param ignoreNulls if TRUE skip null values
+		 * @return New list of values
+		 */
+		List<String> getValues( final boolean ignoreNulls ) {
+			final List<String> vals = new ArrayList<>( this.cells.size() );
+			for( final String id: getSortedIds() ) {
+				final String val = this.cells.get( MetaTable.this.sampleIndex.get( id ) );
+				if( !ignoreNulls || !isNull( val ) ) vals.add( val );
+			}
+			return vals;
+		}
+
+		private void reset() {
+			this.type = null;
+			this.uniqueValues = null;
+		}
+
+		private final List<String> cells;
+		private volatile MetaUtil.FieldType type = null;
+		private volatile Set<String> uniqueValues = null;
+	}
+
+	private final List<Column> columns = new ArrayList<>();
+	private final Map<String, Integer> fieldIndex = new HashMap<>();
+	private final List<String> fields = new ArrayList<>();
+	private final List<String> fieldView = Collections.unmodifiableList( this.fields );
+	private final String idCol;
+	private final String nullValue;
+	private final Map<String, Integer> sampleIndex = new HashMap<>();
+	private final List<String> sampleIds = new ArrayList<>();
+	private volatile List<String> sortedIds = null;
+}
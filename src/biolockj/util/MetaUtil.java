@@ -27,15 +27,18 @@ import biolockj.module.BioModule;
 /**
  * This utility is used to read, modify, or create a metadata file for the sequence data. The 1st row must hold the
  * Sample ID and column names must be unique. Metadata information is cached in this class for quick access throughout
- * the application.
+ * the application.<br>
+ * The cache is a column store with indexed Sample IDs and field names, so cell lookups do not scan the header, and
+ * columns added or removed by BioModules update the cache in place. The updated metadata file is written from the cache
+ * for R scripts and pipeline restarts, but is not parsed again.
  */
 public class MetaUtil {
 	// Prevent instantiation
 	private MetaUtil() {}
 
 	/**
-	 * Adds a column to the metadata file. The updated metadata file is output to the fileDir. Once the new file is
-	 * created, the new file is cached in memory and used as the new metadata.
+	 * Adds a column to the metadata file. The column is added to the cache and the updated metadata file is output to
+	 * the fileDir, which is then used as the new metadata.
 	 *
 	 * @param colName Name of new column
 	 * @param map Map relates Sample ID to a field value
@@ -46,37 +49,23 @@ public class MetaUtil {
 	 * @throws DockerVolCreationException 
 	 * @throws FileNotFoundException if metadata file not found
 	 */
-	public static void addColumn( final String colName, final Map<String, String> map, final File fileDir,
-		final boolean removeMissingIds ) throws MetadataException, IOException, DockerVolCreationException {
+	public static synchronized void addColumn( final String colName, final Map<String, String> map,
+		final File fileDir, final boolean removeMissingIds )
+		throws MetadataException, IOException, DockerVolCreationException {
 		final File newMeta = new File( fileDir.getAbsolutePath() + File.separator + getFileName() );
 		Log.info( MetaUtil.class, "Adding new field [" + colName + "] to metadata: " + newMeta.getAbsolutePath() );
 		Log.debug( MetaUtil.class, "Current metadata: " + getPath() );
-		if( getFieldNames().contains( colName ) ) {
+		if( hasField( colName ) ) {
 			Log.warn( MetaUtil.class, "Metadata column [" + colName + "] already exists in: " + getPath() );
 			return;
 		}
 
-		final Set<String> sampleIds = map.keySet();
-		final BufferedReader reader = BioLockJUtil.getFileReader( getMetadata() );
-		setFile( newMeta );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( getMetadata() ) );
-		try {
-			writer.write( reader.readLine() + METADATA_COL_DELIM + colName + Constants.RETURN );
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				final StringTokenizer st = new StringTokenizer( line, METADATA_COL_DELIM );
-				final String id = st.nextToken();
-				if( sampleIds.contains( id ) )
-					writer.write( line + METADATA_COL_DELIM + map.get( id ) + Constants.RETURN );
-				else if( !removeMissingIds )
-					writer.write( line + METADATA_COL_DELIM + getNullValue( null ) + Constants.RETURN );
-				else Log.warn( MetaUtil.class, getRemoveIdMsg( id ) );
+		final MetaTable table = getTable().copy();
+		if( removeMissingIds ) for( final String id: table.retainSamples( map.keySet() ) )
+			Log.warn( MetaUtil.class, getRemoveIdMsg( id ) );
 
-			}
-		} finally {
-			reader.close();
-			writer.close();
-			refreshCache();
-		}
+		table.addColumn( colName, map );
+		saveTable( table, newMeta );
 	}
 
 	/**
@@ -119,13 +108,13 @@ public class MetaUtil {
 	 * @throws MetadataException if field not found in the metadata for the given sample Id.
 	 */
 	public static String getField( final String sampleId, final String field ) throws MetadataException {
-		if( !getFieldNames().contains( field ) )
+		if( !hasField( field ) )
 			throw new MetadataException( "Invalid field [" + field + "] not found in Metadata = " + getPath() );
 
-		if( getRecord( sampleId ) == null )
+		if( !hasSampleId( sampleId ) )
 			throw new MetadataException( "Invalid Sample ID [" + sampleId + "] not found in Metadata = " + getPath() );
 
-		return getRecord( sampleId ).get( getFieldNames().indexOf( field ) );
+		return metaTable.get( sampleId, field );
 	}
 
 	/**
@@ -135,12 +124,21 @@ public class MetaUtil {
 	 * 
 	 */
 	public static List<String> getFieldNames() {
-		try {
-			return getRecord( metaId );
-		} catch( final MetadataException ex ) {
-			Log.error( MetaUtil.class, "Error occurred accessing Config property: " + META_FILE_PATH, ex );
-		}
-		return new ArrayList<>();
+		final MetaTable table = metaTable;
+		if( table == null ) return new ArrayList<>();
+		return table.getFieldNames();
+	}
+
+	/**
+	 * Get the type of data found in the metadata field, ignoring null values. The type is cached until the field is
+	 * updated.
+	 *
+	 * @param field Column name
+	 * @return {@link biolockj.util.MetaUtil.FieldType}
+	 * @throws MetadataException if field not found
+	 */
+	public static FieldType getFieldType( final String field ) throws MetadataException {
+		return getColumn( field ).getType();
 	}
 
 	/**
@@ -153,17 +151,7 @@ public class MetaUtil {
 	 */
 	public static List<String> getFieldValues( final String field, final boolean ignoreNulls )
 		throws MetadataException {
-		final List<String> vals = new ArrayList<>();
-		if( !getFieldNames().contains( field ) )
-			throw new MetadataException( "Invalid field [" + field + "] in Metadata = " + getPath() );
-
-		for( final String id: getSampleIds() ) {
-			final String val = getField( id, field );
-			if( val != null && val.trim().length() > 0 && !val.equals( getNullValue( null ) ) || !ignoreNulls )
-				vals.add( val );
-		}
-
-		return vals;
+		return getColumn( field ).getValues( ignoreNulls );
 	}
 
 	/**
@@ -196,7 +184,7 @@ public class MetaUtil {
 	public static String getForcedColumnName( final String name )
 		throws MetadataException, FileNotFoundException, IOException, DockerVolCreationException {
 		String suffix = "";
-		while( getFieldNames().contains( name + suffix ) ) {
+		while( hasField( name + suffix ) ) {
 			if( getFieldValues( name + suffix, true ).isEmpty() ) {
 				removeColumn( name + suffix, null );
 				break; // reuse the column
@@ -226,7 +214,7 @@ public class MetaUtil {
 		int suffix = 1;
 		String testName = name;
 		String foundName = null;
-		while( getFieldNames().contains( testName ) ) {
+		while( hasField( testName ) ) {
 			foundName = testName;
 			testName = name + "_" + suffix++;
 		}
@@ -297,9 +285,10 @@ public class MetaUtil {
 	 * @throws MetadataException if Sample ID not found or metadata file doesn't exist
 	 */
 	public static List<String> getRecord( final String sampleId ) throws MetadataException {
-		if( metadataMap == null || !metadataMap.keySet().contains( sampleId ) )
-			throw new MetadataException( "Invalid Sample ID: " + sampleId );
-		return metadataMap.get( sampleId );
+		final MetaTable table = metaTable;
+		if( table != null && table.hasSample( sampleId ) ) return table.getRecord( sampleId );
+		if( table != null && table.getIdCol().equals( sampleId ) ) return new ArrayList<>( table.getFieldNames() );
+		throw new MetadataException( "Invalid Sample ID: " + sampleId );
 	}
 
 	/**
@@ -308,11 +297,9 @@ public class MetaUtil {
 	 * @return Sample IDs found in metadata file
 	 */
 	public static List<String> getSampleIds() {
-		final List<String> ids = new ArrayList<>();
-		for( final String key: metadataMap.keySet() )
-			if( !key.equals( metaId ) ) ids.add( key );
-		Collections.sort( ids );
-		return ids;
+		final MetaTable table = metaTable;
+		if( table == null ) return new ArrayList<>();
+		return new ArrayList<>( table.getSortedIds() );
 	}
 
 	/**
@@ -347,6 +334,7 @@ public class MetaUtil {
 	 */
 	public static Set<String> getUniqueFieldValues( final String field, final boolean ignoreNulls )
 		throws MetadataException {
+		if( ignoreNulls ) return new HashSet<>( getColumn( field ).getUniqueValues() );
 		return new HashSet<>( getFieldValues( field, ignoreNulls ) );
 	}
 
@@ -357,7 +345,18 @@ public class MetaUtil {
 	 * @return TRUE if columnName exists in hearder row of metadata file
 	 */
 	public static boolean hasColumn( final String columnName ) {
-		return exists() && columnName != null && getFieldNames().contains( columnName );
+		return exists() && hasField( columnName );
+	}
+
+	/**
+	 * Check if the Sample ID is found in the metadata.
+	 *
+	 * @param sampleId Sample ID
+	 * @return TRUE if sampleId is a row in the metadata
+	 */
+	public static boolean hasSampleId( final String sampleId ) {
+		final MetaTable table = metaTable;
+		return table != null && table.hasSample( sampleId );
 	}
 
 	/**
@@ -417,7 +416,7 @@ public class MetaUtil {
 		return useFileNameColumn;
 	}
 	
-	private static HashMap<String, String> getNameToSampleMap() throws ConfigViolationException, ConfigFormatException, MetadataException, IOException {
+	private static synchronized HashMap<String, String> getNameToSampleMap() throws ConfigViolationException, ConfigFormatException, MetadataException, IOException {
 		if (nameToSample == null) initNameToSampleMap();
 		return nameToSample;
 	}
@@ -483,12 +482,12 @@ public class MetaUtil {
 		return true;
 	}
 	
-	private static String getSampleIdFromFileName(String filename) throws ConfigViolationException, ConfigFormatException, MetadataException, IOException {
+	private static synchronized String getSampleIdFromFileName(String filename) throws ConfigViolationException, ConfigFormatException, MetadataException, IOException {
 		Log.debug(MetaUtil.class, "Checking metadata for file name: " + filename);
 		String id = getNameToSampleMap().get( filename );
-		Log.debug(MetaUtil.class, "Map has keys: " + BioLockJUtil.getCollectionAsString( getNameToSampleMap().keySet() ));
+		Log.debug(MetaUtil.class, () -> "Map has keys: " + BioLockJUtil.getCollectionAsString( nameToSample.keySet() ));
 		String msg = id == null ? "File is not given in the metadata." : "Linked " + filename + " to sample [" + id + "].";
-		if (getNameToSampleMap().size() > 0 && id==null ) Log.debug( MetaUtil.class, "Files in metadata include: " + BioLockJUtil.printLongFormList( getNameToSampleMap().keySet() ) );
+		if (getNameToSampleMap().size() > 0 && id==null ) Log.debug( MetaUtil.class, () -> "Files in metadata include: " + BioLockJUtil.printLongFormList( nameToSample.keySet() ) );
 		Log.debug(MetaUtil.class, msg);
 		return id;
 	}
@@ -509,9 +508,9 @@ public class MetaUtil {
 	 * @throws MetadataException if methods attempts to assign an existing file name to a different sample
 	 * @throws IOException
 	 */
-	public static boolean setSampleId(String filename, String sampleId) throws ConfigViolationException, ConfigFormatException, MetadataException, IOException {
+	public static synchronized boolean setSampleId(String filename, String sampleId) throws ConfigViolationException, ConfigFormatException, MetadataException, IOException {
 		//TODO add mechanism to permit adding samples to metadata.
-		if (!getSampleIds().contains( sampleId )) {
+		if (!hasSampleId( sampleId )) {
 			Log.debug(MetaUtil.class, "No such sample [" + sampleId + "] in metadata.");
 			return false; 
 		}
@@ -532,11 +531,10 @@ public class MetaUtil {
 	 *
 	 * @throws MetadataException if unable to refresh cache
 	 */
-	public static void refreshCache() throws MetadataException {
+	public static synchronized void refreshCache() throws MetadataException {
 		if( isUpdated() ) {
 			Log.info( MetaUtil.class, "Update metadata cache: " + getPath() );
-			metadataMap.clear();
-			cacheMetadata( parseMetadataFile() );
+			metaTable = cacheMetadata( parseMetadataFile() );
 
 			if( !BioLockJUtil.isDirectMode() ) report();
 
@@ -555,7 +553,7 @@ public class MetaUtil {
 	 * @throws FileNotFoundException if metadata file path not found
 	 * @throws DockerVolCreationException 
 	 */
-	public static void removeColumn( final String colName, final File fileDir )
+	public static synchronized void removeColumn( final String colName, final File fileDir )
 		throws FileNotFoundException, IOException, MetadataException, DockerVolCreationException {
 		File myDir = fileDir;
 		if( fileDir == null ) {
@@ -563,34 +561,17 @@ public class MetaUtil {
 			if( !myDir.isDirectory() ) myDir.mkdirs();
 		}
 
-		if( !getFieldNames().contains( colName ) ) {
+		if( !hasField( colName ) ) {
 			Log.warn( MetaUtil.class,
 				"Metadata column [" + colName + "] cannot be removed, because it does not exists in: " + getPath() );
 			return;
 		}
 
 		Log.info( MetaUtil.class, "Removing field [" + colName + "] from metadata: " + getPath() );
-		final int index = getFieldNames().indexOf( colName );
 		final File newMeta = new File( myDir.getAbsolutePath() + File.separator + getFileName() );
-		final BufferedReader reader = BioLockJUtil.getFileReader( getMetadata() );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( newMeta ) );
-		try {
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				int i = 1;
-				final StringTokenizer st = new StringTokenizer( line, METADATA_COL_DELIM );
-				writer.write( st.nextToken() );
-				while( st.hasMoreTokens() ) {
-					final String token = st.nextToken();
-					if( i++ != index ) writer.write( METADATA_COL_DELIM + token );
-				}
-				writer.write( Constants.RETURN );
-			}
-		} finally {
-			reader.close();
-			writer.close();
-			setFile( newMeta );
-			refreshCache();
-		}
+		final MetaTable table = getTable().copy();
+		table.removeColumn( colName );
+		saveTable( table, newMeta );
 	}
 
 	/**
@@ -608,7 +589,8 @@ public class MetaUtil {
 		metadataFile = file;
 	}
 
-	private static void cacheMetadata( final List<List<String>> data ) {
+	private static MetaTable cacheMetadata( final List<List<String>> data ) {
+		MetaTable table = null;
 		int rowNum = 0;
 		final Iterator<List<String>> rows = data.iterator();
 		while( rows.hasNext() ) {
@@ -619,15 +601,25 @@ public class MetaUtil {
 			if( rowNum == 0 ) {
 				metaId = id;
 				if( isUpdated() ) Log.debug( MetaUtil.class, "Metadata Headers: " + row );
-			} else if( rowNum == 1 && isUpdated() ) Log.debug( MetaUtil.class, "Metadata Record (1st Row): " + row );
-
-			if( id != null && !id.equals( getNullValue( null ) ) ) {
-				row.remove( 0 );
-				if( isUpdated() ) Log.debug( MetaUtil.class, "metadataMap add: " + id + " = " + row );
-				metadataMap.put( id, row );
+				table = new MetaTable( id, row.subList( 1, row.size() ), getNullValue( null ) );
+			} else {
+				if( rowNum == 1 && isUpdated() ) Log.debug( MetaUtil.class, "Metadata Record (1st Row): " + row );
+				if( id != null && !id.equals( getNullValue( null ) ) ) {
+					final List<String> record = row.subList( 1, row.size() );
+					if( isUpdated() ) Log.debug( MetaUtil.class, "Metadata add: " + id + " = " + record );
+					table.addRow( id, record );
+				}
 			}
 			rowNum++;
 		}
+		return table;
+	}
+
+	private static MetaTable.Column getColumn( final String field ) throws MetadataException {
+		final MetaTable table = metaTable;
+		final MetaTable.Column col = table == null ? null: table.getColumn( field );
+		if( col == null ) throw new MetadataException( "Invalid field [" + field + "] in Metadata = " + getPath() );
+		return col;
 	}
 
 	private static String getRemoveIdMsg( final String id ) {
@@ -649,6 +641,16 @@ public class MetaUtil {
 		return msg;
 	}
 
+	private static MetaTable getTable() throws MetadataException {
+		if( metaTable == null ) throw new MetadataException( "Metadata not found: " + getPath() );
+		return metaTable;
+	}
+
+	private static boolean hasField( final String field ) {
+		final MetaTable table = metaTable;
+		return table != null && table.hasField( field );
+	}
+
 	private static boolean isUpdated() {
 		try {
 			final boolean foundNewReport = getMetadata() != null && reportedMetadata != null &&
@@ -693,6 +695,16 @@ public class MetaUtil {
 		return data;
 	}
 
+	private static void saveTable( final MetaTable table, final File file )
+		throws MetadataException, IOException, DockerVolCreationException {
+		table.write( file );
+		setFile( file );
+		metaTable = table;
+		reportedMetadata = file;
+		Log.info( MetaUtil.class, "Update metadata cache: " + getPath() );
+		if( !BioLockJUtil.isDirectMode() ) report();
+	}
+
 	private static void report() {
 		try {
 			final String exId = getSampleIds().get( 0 );
@@ -758,6 +770,28 @@ public class MetaUtil {
 	}
 	
 	private static final String SAMPLE_ASSIGN_FILE = "sample_map.txt";
+
+	/**
+	 * Type of data found in a metadata field, ignoring null values.
+	 */
+	public static enum FieldType {
+		/**
+		 * Field has only null values
+		 */
+		EMPTY,
+		/**
+		 * Field has both numeric and non-numeric values
+		 */
+		MIXED,
+		/**
+		 * Field has only non-numeric values
+		 */
+		NOMINAL,
+		/**
+		 * Field has only numeric values
+		 */
+		NUMERIC
+	}
 	
 	public static void registerProps() throws API_Exception {
 		Properties.registerProp( META_BARCODE_COLUMN, Properties.STRING_TYPE, META_BARCODE_COLUMN_DESC );
@@ -848,8 +882,8 @@ public class MetaUtil {
 
 	private static String META_SPACER = "************************************************************************";
 	private static File metadataFile = null;
-	private static final Map<String, List<String>> metadataMap = new HashMap<>();
 	private static String metaId = "SAMPLE_ID";
+	private static volatile MetaTable metaTable = null;
 	private static String metaNullVal = null;
 	private static File reportedMetadata = null;
 }
@@ -0,0 +1,266 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import biolockj.Constants;
+import biolockj.Log;
+import biolockj.exception.OtuFileException;
+
+/**
+ * Streams the OTU counts of many OTU count files in OTU order, summing the counts of each OTU across the files.<br>
+ * Each OTU count file is read as a sorted run and the runs are combined by a k-way merge, so only the current line of
+ * each file is held in memory. BioLockJ modules write OTU count files in OTU order; before the merge, the OTU column of
+ * each file is scanned, and any file that is not sorted is sorted in memory (one file at a time) into a temporary file
+ * in the temp directory. Repeated OTUs are summed. If there are more than {@value #MAX_OPEN_RUNS} files, groups of
+ * files are first merged into temporary files in the temp directory, so the number of open files stays bounded.
+ */
+public class OtuCountMerge implements Closeable {
+
+	/**
+	 * Open the OTU count files for merging.
+	 *
+	 * @param files OTU count files
+	 * @param tempDir Directory for intermediate merge files
+	 * @throws OtuFileException if an OTU count file is not formatted as an OTU count file
+	 * @throws IOException if unable to read or write the files
+	 */
+	public OtuCountMerge( final Collection<File> files, final File tempDir ) throws OtuFileException, IOException {
+		this( new ArrayList<>( files ), true );
+		try {
+			sortRuns( tempDir );
+			for( int pass = 0; this.runFiles.size() > MAX_OPEN_RUNS; pass++ )
+				mergeGroups( pass, tempDir );
+			open();
+		} catch( OtuFileException | IOException | RuntimeException ex ) {
+			close();
+			throw ex;
+		}
+	}
+
+	private OtuCountMerge( final List<File> runFiles, final boolean sampleRuns ) {
+		this.runFiles = runFiles;
+		this.sampleRuns = sampleRuns;
+	}
+
+	@Override
+	public void close() {
+		for( final Run run: this.queue )
+			run.close();
+		this.queue.clear();
+		for( final File file: this.tempFiles )
+			file.delete();
+		this.tempFiles.clear();
+	}
+
+	/**
+	 * Get the summed count of the current OTU.
+	 *
+	 * @return OTU count
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Get the current OTU.
+	 *
+	 * @return OTU name, or null if {@link #next()} has not been called or returned FALSE
+	 */
+	public String getOtu() {
+		return this.otu;
+	}
+
+	/**
+	 * Get the number of unique OTUs in each OTU count file read so far. The map is complete once {@link #next()}
+	 * returns FALSE.
+	 *
+	 * @return Map(Sample ID, number of unique OTUs)
+	 */
+	public Map<String, Long> getSampleOtuCounts() {
+		return this.sampleOtuCounts;
+	}
+
+	/**
+	 * Advance to the next OTU.
+	 *
+	 * @return TRUE if there is another OTU, FALSE if every file has been read
+	 * @throws OtuFileException if an OTU count line is not formatted properly
+	 * @throws IOException if unable to read the files
+	 */
+	public boolean next() throws OtuFileException, IOException {
+		if( this.queue.isEmpty() ) {
+			this.otu = null;
+			this.count = 0L;
+			return false;
+		}
+
+		Run run = this.queue.poll();
+		this.otu = run.otu;
+		this.count = run.count;
+		advance( run );
+		while( !this.queue.isEmpty() && this.queue.peek().otu.equals( this.otu ) ) {
+			run = this.queue.poll();
+			this.count += run.count;
+			advance( run );
+		}
+		return true;
+	}
+
+	/**
+	 * Write the remaining merged OTU counts as an OTU count file.
+	 *
+	 * @param file Output file
+	 * @throws OtuFileException if an OTU count line is not formatted properly
+	 * @throws IOException if unable to read or write the files
+	 */
+	public void write( final File file ) throws OtuFileException, IOException {
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			while( next() )
+				writer.write( this.otu + Constants.TAB_DELIM + this.count + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+	}
+
+	private void advance( final Run run ) throws OtuFileException, IOException {
+		if( run.next() ) this.queue.add( run );
+		else if( run.sampleId != null ) this.sampleOtuCounts.put( run.sampleId, run.numOtus );
+	}
+
+	private void mergeGroups( final int pass, final File tempDir ) throws OtuFileException, IOException {
+		Log.info( getClass(), "Merge " + this.runFiles.size() + " OTU count files in groups of " + MAX_OPEN_RUNS );
+		final List<File> merged = new ArrayList<>();
+		for( int i = 0; i < this.runFiles.size(); i += MAX_OPEN_RUNS ) {
+			final File out = new File( tempDir, MERGE_PREFIX + pass + "_" + merged.size() + Constants.TSV_EXT );
+			this.tempFiles.add( out );
+			final OtuCountMerge group = new OtuCountMerge(
+				this.runFiles.subList( i, Math.min( i + MAX_OPEN_RUNS, this.runFiles.size() ) ), this.sampleRuns );
+			try {
+				group.open();
+				group.write( out );
+			} finally {
+				group.close();
+			}
+			this.sampleOtuCounts.putAll( group.sampleOtuCounts );
+			merged.add( out );
+		}
+		if( !this.sampleRuns ) for( final File file: this.runFiles ) {
+			file.delete();
+			this.tempFiles.remove( file );
+		}
+		this.runFiles = merged;
+		this.sampleRuns = false;
+	}
+
+	private void open() throws OtuFileException, IOException {
+		for( final File file: this.runFiles )
+			advance( new Run( file, this.sampleRuns ? OtuUtil.getSampleId( file ): null ) );
+	}
+
+	/**
+	 * Replace each OTU count file that is not sorted by a sorted temporary file. The temporary file name ends with the
+	 * input file name, so it has the same Sample ID.
+	 */
+	private void sortRuns( final File tempDir ) throws OtuFileException, IOException {
+		for( int i = 0; i < this.runFiles.size(); i++ ) {
+			final File file = this.runFiles.get( i );
+			if( isSorted( file ) ) continue;
+			Log.info( getClass(), "Sort OTU count file in memory: " + file.getAbsolutePath() );
+			final File sorted = new File( tempDir, MERGE_PREFIX + SORTED + file.getName() );
+			this.tempFiles.add( sorted );
+			final BufferedWriter writer = new BufferedWriter( new FileWriter( sorted ) );
+			try {
+				for( final Map.Entry<String, Long> entry: OtuUtil.compileSampleOtuCounts( file ).entrySet() )
+					writer.write( entry.getKey() + Constants.TAB_DELIM + entry.getValue() + Constants.RETURN );
+			} finally {
+				writer.close();
+			}
+			this.runFiles.set( i, sorted );
+		}
+	}
+
+	/**
+	 * Scan the OTU column of the file, stopping at the 1st OTU out of order. Repeated OTUs are in order.
+	 */
+	private static boolean isSorted( final File file ) throws IOException {
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		try {
+			String prev = null;
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final int index = line.indexOf( Constants.TAB_DELIM );
+				final String otu = index < 0 ? line: line.substring( 0, index );
+				if( prev != null && prev.compareTo( otu ) > 0 ) return false;
+				prev = otu;
+			}
+		} finally {
+			reader.close();
+		}
+		return true;
+	}
+
+	/**
+	 * One OTU count file, read in OTU order.
+	 */
+	private static final class Run {
+
+		private Run( final File file, final String sampleId ) throws IOException {
+			this.reader = BioLockJUtil.getFileReader( file );
+			this.sampleId = sampleId;
+		}
+
+		private void close() {
+			try {
+				if( this.reader != null ) this.reader.close();
+			} catch( final IOException ex ) {
+				Log.error( OtuCountMerge.class, "Failed to close file reader", ex );
+			}
+		}
+
+		private boolean next() throws OtuFileException, IOException {
+			final String line = this.reader.readLine();
+			if( line == null ) {
+				close();
+				return false;
+			}
+			final OtuUtil.OtuCountLine otuLine = new OtuUtil.OtuCountLine( line );
+			if( !otuLine.getOtu().equals( this.otu ) ) this.numOtus++;
+			this.otu = otuLine.getOtu();
+			this.count = otuLine.getCount();
+			return true;
+		}
+
+		private long count = 0L;
+		private long numOtus = 0L;
+		private String otu = null;
+		private final BufferedReader reader;
+		private final String sampleId;
+	}
+
+	private long count = 0L;
+	private String otu = null;
+	private final PriorityQueue<Run> queue = new PriorityQueue<>( ( a, b ) -> a.otu.compareTo( b.otu ) );
+	private List<File> runFiles;
+	private final Map<String, Long> sampleOtuCounts = new HashMap<>();
+	private boolean sampleRuns;
+	private final List<File> tempFiles = new ArrayList<>();
+
+	/**
+	 * Max number of OTU count files read at the same time: {@value #MAX_OPEN_RUNS}
+	 */
+	public static final int MAX_OPEN_RUNS = 256;
+
+	private static final String MERGE_PREFIX = "otuCountMerge_";
+	private static final String SORTED = "sorted_";
+}
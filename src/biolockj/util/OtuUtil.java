@@ -190,7 +190,8 @@ public class OtuUtil {
 			if( name.contains( "_" + Constants.OTU_COUNT + "_" ) && name.endsWith( Constants.TSV_EXT ) ) {
 				reader = BioLockJUtil.getFileReader( file );
 				final OtuCountLine otuCountLine = new OtuCountLine( reader.readLine() );
-				Log.debug( OtuUtil.class, "Found OTU file " + otuCountLine.getOtu() + " : " + otuCountLine.getCount() );
+				Log.debug( OtuUtil.class,
+					() -> "Found OTU file " + otuCountLine.getOtu() + " : " + otuCountLine.getCount() );
 				return true;
 			}
 		} catch( final Exception ex ) {
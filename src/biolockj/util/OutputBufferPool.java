@@ -0,0 +1,182 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import biolockj.Constants;
+
+/**
+ * Pool of bounded in-memory write buffers, one per output file path.<br>
+ * Lines or reads are appended to the buffer for their target file, and each buffer is flushed (appended) to disk once
+ * it reaches {@link #getBufferSize()} bytes, or when the combined size of all buffers exceeds
+ * {@link #getMaxPoolSize()}. Output files are only held open while a buffer is being flushed, so the number of
+ * distinct output files is not limited by the number of available file handles.<br>
+ * Peak memory is bounded by the pool size, not by the size of the data routed through the pool.
+ */
+public class OutputBufferPool implements Closeable {
+
+	/**
+	 * Construct a pool using the default buffer sizes.
+	 */
+	public OutputBufferPool() {
+		this( DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOL_SIZE );
+	}
+
+	/**
+	 * Construct a pool with the given per-file buffer size and total pool size (both in bytes).
+	 *
+	 * @param bufferSize Max bytes buffered per output file
+	 * @param maxPoolSize Max bytes buffered across all output files
+	 */
+	public OutputBufferPool( final int bufferSize, final long maxPoolSize ) {
+		this.bufferSize = bufferSize;
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	/**
+	 * Flush all remaining buffers to disk.
+	 */
+	@Override
+	public void close() throws IOException {
+		flushAll();
+	}
+
+	/**
+	 * Flush all buffers to disk.
+	 *
+	 * @throws IOException if unable to write an output file
+	 */
+	public void flushAll() throws IOException {
+		for( final String path: this.buffers.keySet() )
+			flush( path );
+		this.poolSize = 0L;
+	}
+
+	/**
+	 * Get the max number of bytes buffered per output file.
+	 *
+	 * @return Buffer size
+	 */
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	/**
+	 * Get the max number of bytes buffered across all output files.
+	 *
+	 * @return Pool size
+	 */
+	public long getMaxPoolSize() {
+		return this.maxPoolSize;
+	}
+
+	/**
+	 * Get the set of output file paths written by this pool.
+	 *
+	 * @return Set of file paths
+	 */
+	public Set<String> getPaths() {
+		return this.buffers.keySet();
+	}
+
+	/**
+	 * Append the line (followed by {@value biolockj.Constants#RETURN}) to the buffer for the output file path.
+	 *
+	 * @param path Output file path
+	 * @param line Line of text
+	 * @throws IOException if unable to flush the buffer to disk
+	 */
+	public void writeLine( final String path, final String line ) throws IOException {
+		final ByteArrayOutputStream buffer = getBuffer( path );
+		final byte[] bytes = ( line + Constants.RETURN ).getBytes( StandardCharsets.ISO_8859_1 );
+		buffer.write( bytes, 0, bytes.length );
+		this.poolSize += bytes.length;
+		checkSize( path, buffer );
+	}
+
+	/**
+	 * Append each of the lines to the buffer for the output file path.
+	 *
+	 * @param path Output file path
+	 * @param lines Lines of text
+	 * @throws IOException if unable to flush the buffer to disk
+	 */
+	public void writeLines( final String path, final List<String> lines ) throws IOException {
+		for( final String line: lines )
+			writeLine( path, line );
+	}
+
+	/**
+	 * Append the read to the buffer for the output file path, without decoding it.
+	 *
+	 * @param path Output file path
+	 * @param read Sequence read
+	 * @throws IOException if unable to flush the buffer to disk
+	 */
+	public void writeRead( final String path, final SeqRecord read ) throws IOException {
+		final ByteArrayOutputStream buffer = getBuffer( path );
+		final int size = buffer.size();
+		read.write( buffer );
+		this.poolSize += buffer.size() - size;
+		checkSize( path, buffer );
+	}
+
+	private void checkSize( final String path, final ByteArrayOutputStream buffer ) throws IOException {
+		if( buffer.size() >= this.bufferSize ) {
+			this.poolSize -= buffer.size();
+			flush( path );
+		}
+
+		if( this.poolSize >= this.maxPoolSize ) flushAll();
+	}
+
+	private void flush( final String path ) throws IOException {
+		final ByteArrayOutputStream buffer = this.buffers.get( path );
+		if( buffer == null || buffer.size() == 0 && this.created.contains( path ) ) return;
+		final boolean append = this.created.contains( path );
+		final OutputStream out = new FileOutputStream( path, append );
+		try {
+			buffer.writeTo( out );
+		} finally {
+			out.close();
+		}
+		this.created.add( path );
+		buffer.reset();
+	}
+
+	private ByteArrayOutputStream getBuffer( final String path ) {
+		ByteArrayOutputStream buffer = this.buffers.get( path );
+		if( buffer == null ) {
+			buffer = new ByteArrayOutputStream();
+			this.buffers.put( path, buffer );
+		}
+		return buffer;
+	}
+
+	private final Map<String, ByteArrayOutputStream> buffers = new HashMap<>();
+	private final int bufferSize;
+	private final Set<String> created = new HashSet<>();
+	private final long maxPoolSize;
+	private long poolSize = 0L;
+
+	/**
+	 * Default number of bytes buffered per output file: {@value #DEFAULT_BUFFER_SIZE}
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+	/**
+	 * Default number of bytes buffered across all output files: {@value #DEFAULT_MAX_POOL_SIZE}
+	 */
+	public static final long DEFAULT_MAX_POOL_SIZE = 64L * 1024 * 1024;
+}
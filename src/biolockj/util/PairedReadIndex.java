@@ -0,0 +1,311 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import biolockj.Log;
+import biolockj.exception.SequnceFormatException;
+
+/**
+ * Index of paired read headers, held as sorted 64-bit fingerprints (see {@link SeqUtil#getHeaderFingerprint(String)})
+ * in a primitive array, so forward and reverse reads can be matched with 8 bytes per read instead of a full header
+ * String.<br>
+ * {@link #countUnpairedReads(File, File, File)} checks that every read of a forward file has a mate in the reverse file
+ * without building an index: files written in the same read order are compared in lockstep, and other files fall back
+ * to an external sort-merge of their fingerprints, sorted in runs of {@value #RUN_SIZE} fingerprints spilled to the temp
+ * directory, so the memory used does not grow with the number of reads.
+ */
+public class PairedReadIndex {
+
+	private PairedReadIndex( final long[] fingerprints, final int size ) {
+		this.fingerprints = fingerprints;
+		this.size = size;
+	}
+
+	/**
+	 * Check if the read header is in the index.
+	 *
+	 * @param header Read header line
+	 * @return TRUE if found
+	 */
+	public boolean contains( final String header ) {
+		return Arrays.binarySearch( this.fingerprints, 0, this.size, getFingerprint( header ) ) >= 0;
+	}
+
+	/**
+	 * Keep only the reads also found in the other index.
+	 *
+	 * @param index Read index of the paired file
+	 * @return this index
+	 */
+	public PairedReadIndex retainAll( final PairedReadIndex index ) {
+		int n = 0;
+		for( int i = 0, j = 0; i < this.size && j < index.size; ) {
+			final long a = this.fingerprints[ i ];
+			final long b = index.fingerprints[ j ];
+			if( a < b ) i++;
+			else if( a > b ) j++;
+			else {
+				this.fingerprints[ n++ ] = a;
+				i++;
+				j++;
+			}
+		}
+		this.size = n;
+		return this;
+	}
+
+	/**
+	 * Get the number of reads in the index.
+	 *
+	 * @return Number of reads
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Index the header of each read in the sequence file accepted by the filter.
+	 *
+	 * @param seq Fasta or Fastq file
+	 * @param filter Read filter, or null to index every read
+	 * @return Read index
+	 * @throws SequnceFormatException if a read header is repeated in the file
+	 * @throws Exception if unable to parse the seq file
+	 */
+	public static PairedReadIndex build( final File seq, final ReadFilter filter ) throws Exception {
+		long[] fingerprints = new long[ INIT_INDEX_SIZE ];
+		int size = 0;
+		final SeqRecordReader reader = new SeqRecordReader( seq );
+		try {
+			for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+				if( filter != null && !filter.accept( read ) ) continue;
+				if( size == fingerprints.length ) fingerprints = Arrays.copyOf( fingerprints, size * 2 );
+				fingerprints[ size++ ] = getFingerprint( read.getHeader() );
+			}
+		} finally {
+			reader.close();
+		}
+
+		Arrays.sort( fingerprints, 0, size );
+		for( int i = 1; i < size; i++ )
+			if( fingerprints[ i ] == fingerprints[ i - 1 ] ) throw new SequnceFormatException( seq,
+				"Duplicate read header found" );
+		return new PairedReadIndex( fingerprints, size );
+	}
+
+	/**
+	 * Count the reads in each file without a mate in the other file. If the files list the reads in the same order,
+	 * they are compared in a single lockstep pass; otherwise the header fingerprints of each file are sorted with an
+	 * external sort-merge and the sorted fingerprints are compared.
+	 *
+	 * @param fwRead Forward read sequence file
+	 * @param rvRead Reverse read sequence file
+	 * @param tempDir Directory for the sorted fingerprint runs
+	 * @return Number of unpaired reads {forward, reverse}
+	 * @throws Exception if unable to parse the seq files
+	 */
+	public static long[] countUnpairedReads( final File fwRead, final File rvRead, final File tempDir )
+		throws Exception {
+		if( isLockstep( fwRead, rvRead ) ) return new long[] { 0L, 0L };
+
+		Log.info( PairedReadIndex.class, "Reads in " + fwRead.getName() + " and " + rvRead.getName() +
+			" are not in matching order, compare sorted header fingerprints" );
+		final SortedRuns fwRuns = new SortedRuns( fwRead, tempDir );
+		try {
+			final SortedRuns rvRuns = new SortedRuns( rvRead, tempDir );
+			try {
+				final long[] numUnpaired = new long[ 2 ];
+				boolean hasFw = fwRuns.next();
+				boolean hasRv = rvRuns.next();
+				while( hasFw || hasRv )
+					if( hasFw && ( !hasRv || fwRuns.value < rvRuns.value ) ) {
+						numUnpaired[ 0 ]++;
+						hasFw = fwRuns.next();
+					} else if( hasRv && ( !hasFw || rvRuns.value < fwRuns.value ) ) {
+						numUnpaired[ 1 ]++;
+						hasRv = rvRuns.next();
+					} else {
+						hasFw = fwRuns.next();
+						hasRv = rvRuns.next();
+					}
+				return numUnpaired;
+			} finally {
+				rvRuns.close();
+			}
+		} finally {
+			fwRuns.close();
+		}
+	}
+
+	private static long getFingerprint( final String header ) {
+		return SeqUtil.getHeaderFingerprint( SeqUtil.getHeader( header ) );
+	}
+
+	private static boolean isLockstep( final File fwRead, final File rvRead ) throws Exception {
+		final SeqRecordReader fwReader = new SeqRecordReader( fwRead );
+		final SeqRecordReader rvReader = new SeqRecordReader( rvRead );
+		try {
+			while( true ) {
+				final SeqRecord fw = fwReader.next();
+				final SeqRecord rv = rvReader.next();
+				if( fw == null || rv == null ) return fw == null && rv == null;
+				if( !SeqUtil.getHeader( fw.getHeader() ).equals( SeqUtil.getHeader( rv.getHeader() ) ) ) return false;
+			}
+		} finally {
+			fwReader.close();
+			rvReader.close();
+		}
+	}
+
+	/**
+	 * Filter used to select the reads added to the index.
+	 */
+	public interface ReadFilter {
+
+		/**
+		 * Check if the read should be indexed.
+		 *
+		 * @param read Sequence read
+		 * @return TRUE to index the read
+		 * @throws Exception if unable to check the read
+		 */
+		public boolean accept( SeqRecord read ) throws Exception;
+	}
+
+	/**
+	 * Header fingerprints of a sequence file, sorted in runs of {@value #RUN_SIZE} that are spilled to temp files and
+	 * read back in fingerprint order with a k-way merge.
+	 */
+	private static final class SortedRuns implements Closeable {
+
+		private SortedRuns( final File seq, final File tempDir ) throws Exception {
+			long[] buffer = new long[ INIT_INDEX_SIZE ];
+			int size = 0;
+			final SeqRecordReader reader = new SeqRecordReader( seq );
+			try {
+				for( SeqRecord read = reader.next(); read != null; read = reader.next() ) {
+					if( size == RUN_SIZE ) {
+						spill( buffer, size, tempDir );
+						size = 0;
+					} else if( size == buffer.length ) buffer = Arrays.copyOf( buffer, Math.min( size * 2, RUN_SIZE ) );
+					buffer[ size++ ] = getFingerprint( read.getHeader() );
+				}
+				if( !this.runFiles.isEmpty() && size > 0 ) {
+					spill( buffer, size, tempDir );
+					size = 0;
+				}
+			} catch( final Exception ex ) {
+				close();
+				throw ex;
+			} finally {
+				reader.close();
+			}
+
+			if( this.runFiles.isEmpty() ) {
+				Arrays.sort( buffer, 0, size );
+				this.memRun = Arrays.copyOf( buffer, size );
+			} else for( final File file: this.runFiles ) {
+				final Run run = new Run( file );
+				if( run.next() ) this.queue.add( run );
+				else run.close();
+			}
+		}
+
+		@Override
+		public void close() {
+			for( final Run run: this.queue )
+				run.close();
+			this.queue.clear();
+			for( final File file: this.runFiles )
+				file.delete();
+			this.runFiles.clear();
+		}
+
+		private boolean next() throws IOException {
+			if( this.memRun != null ) {
+				if( this.memIndex == this.memRun.length ) return false;
+				this.value = this.memRun[ this.memIndex++ ];
+				return true;
+			}
+			final Run run = this.queue.poll();
+			if( run == null ) return false;
+			this.value = run.value;
+			if( run.next() ) this.queue.add( run );
+			else run.close();
+			return true;
+		}
+
+		private void spill( final long[] buffer, final int size, final File tempDir ) throws IOException {
+			Arrays.sort( buffer, 0, size );
+			final File file = File.createTempFile( RUN_PREFIX, null, tempDir );
+			this.runFiles.add( file );
+			final DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream( new FileOutputStream( file ), SeqRecordReader.BUFFER_SIZE ) );
+			try {
+				for( int i = 0; i < size; i++ )
+					out.writeLong( buffer[ i ] );
+			} finally {
+				out.close();
+			}
+		}
+
+		private long[] memRun = null;
+		private int memIndex = 0;
+		private final PriorityQueue<Run> queue = new PriorityQueue<>( ( a, b ) -> Long.compare( a.value, b.value ) );
+		private final List<File> runFiles = new ArrayList<>();
+		private long value = 0L;
+	}
+
+	/**
+	 * One sorted run file.
+	 */
+	private static final class Run {
+
+		private Run( final File file ) throws IOException {
+			this.in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ), RUN_BUFFER_SIZE ) );
+		}
+
+		private void close() {
+			try {
+				this.in.close();
+			} catch( final IOException ex ) {
+				Log.error( PairedReadIndex.class, "Failed to close fingerprint run", ex );
+			}
+		}
+
+		private boolean next() throws IOException {
+			try {
+				this.value = this.in.readLong();
+				return true;
+			} catch( final EOFException ex ) {
+				return false;
+			}
+		}
+
+		private final DataInputStream in;
+		private long value = 0L;
+	}
+
+	private final long[] fingerprints;
+	private int size;
+
+	/**
+	 * Number of fingerprints sorted in memory before a run is spilled to disk: {@value #RUN_SIZE}
+	 */
+	public static final int RUN_SIZE = 1 << 22;
+
+	private static final int INIT_INDEX_SIZE = 1024;
+	private static final int RUN_BUFFER_SIZE = 1 << 16;
+	private static final String RUN_PREFIX = "pairedReadIndex_";
+}
@@ -0,0 +1,164 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import biolockj.Log;
+import biolockj.exception.SequnceFormatException;
+
+/**
+ * Compiled set of sequence primers, used to find the primers of each read without regular expressions.<br>
+ * Primers are given in the regular expression form built by {@link biolockj.module.seq.TrimPrimers}: a forward primer
+ * starts with "^" and must be found at the start of the read, a reverse primer ends with "$" and must be found at the
+ * end of the read. Since each primer is anchored, matching is a single pass over the primer length: each primer
+ * position is compiled to the set of bases it accepts, either a literal base or a bracket class such as the
+ * {@link biolockj.util.SeqUtil#getIupacBase(String)} expansion "[AG]", and compared directly to the read bytes. A read
+ * position outside the set is a mismatch, and up to the configured number of mismatches are allowed. If several primers
+ * match, the match with the fewest mismatches, and then the longest primer, is used.<br>
+ * Primers that use any other regular expression syntax are matched with a precompiled {@link java.util.regex.Pattern}
+ * instead, without mismatches.
+ */
+public class PrimerMatcher {
+
+	/**
+	 * Compile the primers.
+	 *
+	 * @param primers Primer regular expressions, each starting with "^" or ending with "$"
+	 * @param maxMismatches Max number of mismatched bases allowed in a primer match
+	 * @throws SequnceFormatException if a primer is not anchored to the start or the end of the read
+	 */
+	public PrimerMatcher( final Collection<String> primers, final int maxMismatches ) throws SequnceFormatException {
+		this.maxMismatches = maxMismatches;
+		for( final String primer: primers ) {
+			final boolean isFw = primer.startsWith( "^" );
+			if( !isFw && !primer.endsWith( "$" ) ) throw new SequnceFormatException(
+				"INVALID PRIMER!  Primers must start with \"^\" or end with \"$\": " + primer );
+			final boolean[][] positions =
+				compile( primer.substring( isFw ? 1: 0, primer.length() - ( isFw ? 0: 1 ) ) );
+			if( positions == null ) {
+				Log.info( getClass(), "Match primer with regular expression: " + primer );
+				( isFw ? this.fwPatterns: this.rvPatterns ).add( Pattern.compile( primer ) );
+			} else ( isFw ? this.fwPrimers: this.rvPrimers ).add( positions );
+		}
+	}
+
+	/**
+	 * Get the length of the forward primer found at the start of the sequence.
+	 *
+	 * @param seq Byte buffer
+	 * @param start Offset of the 1st base
+	 * @param len Number of bases
+	 * @return Length of the best forward primer match, or 0 if no forward primer is found
+	 */
+	public int findFwPrimer( final byte[] seq, final int start, final int len ) {
+		final Match best = new Match();
+		for( final boolean[][] primer: this.fwPrimers )
+			best.update( primer.length, countMismatches( primer, seq, start, len ) );
+		for( final Pattern pattern: this.fwPatterns )
+			best.update( findPattern( pattern, seq, start, len ), 0 );
+		return best.length;
+	}
+
+	/**
+	 * Get the length of the reverse primer found at the end of the sequence.
+	 *
+	 * @param seq Byte buffer
+	 * @param start Offset of the 1st base
+	 * @param len Number of bases
+	 * @return Length of the best reverse primer match, or 0 if no reverse primer is found
+	 */
+	public int findRvPrimer( final byte[] seq, final int start, final int len ) {
+		final Match best = new Match();
+		for( final boolean[][] primer: this.rvPrimers )
+			if( primer.length <= len )
+				best.update( primer.length, countMismatches( primer, seq, start + len - primer.length, len ) );
+		for( final Pattern pattern: this.rvPatterns )
+			best.update( findPattern( pattern, seq, start, len ), 0 );
+		return best.length;
+	}
+
+	/**
+	 * Count the mismatched bases of the primer.
+	 *
+	 * @return Number of mismatches, or -1 if the primer does not match
+	 */
+	private int countMismatches( final boolean[][] primer, final byte[] seq, final int offset, final int len ) {
+		if( primer.length > len ) return -1;
+		int mismatches = 0;
+		for( int i = 0; i < primer.length; i++ ) {
+			final int base = seq[ offset + i ];
+			if( base < 0 || !primer[ i ][ base ] ) if( ++mismatches > this.maxMismatches ) return -1;
+		}
+		return mismatches;
+	}
+
+	/**
+	 * Compile the primer to the set of bases accepted at each position.
+	 *
+	 * @param primer Primer without anchors
+	 * @return Accepted bases indexed by position and then by ASCII code, or null if the primer uses other syntax
+	 */
+	private static boolean[][] compile( final String primer ) {
+		final List<boolean[]> positions = new ArrayList<>();
+		for( int i = 0; i < primer.length(); i++ ) {
+			final boolean[] bases = new boolean[ 128 ];
+			final char c = primer.charAt( i );
+			if( c == '[' ) {
+				final int end = primer.indexOf( ']', i );
+				if( end < i + 2 ) return null;
+				for( int j = i + 1; j < end; j++ )
+					if( !isBase( primer.charAt( j ) ) ) return null;
+					else bases[ primer.charAt( j ) ] = true;
+				i = end;
+			} else if( isBase( c ) ) bases[ c ] = true;
+			else return null;
+			positions.add( bases );
+		}
+		return positions.isEmpty() ? null: positions.toArray( new boolean[ positions.size() ][] );
+	}
+
+	private static int findPattern( final Pattern pattern, final byte[] seq, final int start, final int len ) {
+		final Matcher matcher = pattern.matcher( new String( seq, start, len, StandardCharsets.ISO_8859_1 ) );
+		return matcher.find() ? matcher.end() - matcher.start(): 0;
+	}
+
+	private static boolean isBase( final char c ) {
+		return c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z';
+	}
+
+	/**
+	 * Best primer match of a read: fewest mismatches, then the longest primer.
+	 */
+	private static final class Match {
+
+		private void update( final int primerLength, final int primerMismatches ) {
+			if( primerLength < 1 || primerMismatches < 0 ) return;
+			if( this.length == 0 || primerMismatches < this.mismatches ||
+				primerMismatches == this.mismatches && primerLength > this.length ) {
+				this.length = primerLength;
+				this.mismatches = primerMismatches;
+			}
+		}
+
+		private int length = 0;
+		private int mismatches = 0;
+	}
+
+	private final List<Pattern> fwPatterns = new ArrayList<>();
+	private final List<boolean[][]> fwPrimers = new ArrayList<>();
+	private final int maxMismatches;
+	private final List<Pattern> rvPatterns = new ArrayList<>();
+	private final List<boolean[][]> rvPrimers = new ArrayList<>();
+}
@@ -156,12 +156,9 @@ public final class RMetaUtil {
 				numericFields.remove( field );
 				nominalFields.remove( field );
 			} else if( !nominalFields.contains( field ) ) {
-				boolean foundNumeric = false;
-				boolean foundNominal = false;
-
-				for( final String val: data )
-					if( NumberUtils.isNumber( val ) ) foundNumeric = true;
-					else foundNominal = true;
+				final MetaUtil.FieldType type = MetaUtil.getFieldType( field );
+				final boolean foundNumeric = type == MetaUtil.FieldType.NUMERIC || type == MetaUtil.FieldType.MIXED;
+				final boolean foundNominal = type == MetaUtil.FieldType.NOMINAL || type == MetaUtil.FieldType.MIXED;
 
 				if( foundNominal && !foundNumeric ) { // all nominal
 					nominalFields.add( field );
@@ -0,0 +1,157 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the source stream on a background thread, {@value #QUEUE_SIZE} chunks ahead of the caller.<br>
+ * Used for gzip files that are not BGZF, which can only be inflated serially: the inflater runs on its own thread
+ * while the caller parses the previous chunk.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+	/**
+	 * Construct the stream and start the background reader thread.
+	 *
+	 * @param source Source stream, closed by this stream
+	 */
+	public ReadAheadInputStream( final InputStream source ) {
+		this.source = source;
+		this.reader = new Thread( this::readSource, "gzip-read-ahead" );
+		this.reader.setDaemon( true );
+		this.reader.start();
+	}
+
+	@Override
+	public int available() throws IOException {
+		return this.chunk == null ? 0: this.chunkSize - this.pos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if( this.closed ) return;
+		this.closed = true;
+		this.reader.interrupt();
+		try {
+			this.reader.join();
+		} catch( final InterruptedException ex ) {
+			Thread.currentThread().interrupt();
+		}
+		this.queue.clear();
+		this.source.close();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if( !nextChunk() ) return -1;
+		return this.chunk[ this.pos++ ] & 0xff;
+	}
+
+	@Override
+	public int read( final byte[] b, final int off, final int len ) throws IOException {
+		if( len == 0 ) return 0;
+		if( !nextChunk() ) return -1;
+		final int n = Math.min( len, this.chunkSize - this.pos );
+		System.arraycopy( this.chunk, this.pos, b, off, n );
+		this.pos += n;
+		return n;
+	}
+
+	private boolean nextChunk() throws IOException {
+		while( this.chunk == null || this.pos == this.chunkSize ) {
+			if( this.eof ) return false;
+			final byte[] next;
+			try {
+				next = this.queue.take();
+			} catch( final InterruptedException ex ) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException( "Interrupted waiting for decompressed data" );
+			}
+
+			if( next == END ) {
+				this.eof = true;
+				if( this.error != null ) throw this.error;
+				return false;
+			}
+
+			this.chunk = next;
+			this.chunkSize = next.length;
+			this.pos = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Background thread: fill chunks from the source until the end of the stream, an error, or close.
+	 */
+	private void readSource() {
+		try {
+			while( !this.closed ) {
+				final byte[] buf = new byte[ CHUNK_SIZE ];
+				int n = 0;
+				while( n < CHUNK_SIZE ) {
+					final int count = this.source.read( buf, n, CHUNK_SIZE - n );
+					if( count < 0 ) break;
+					n += count;
+				}
+
+				if( n > 0 ) put( n == CHUNK_SIZE ? buf: Arrays.copyOf( buf, n ) );
+				if( n < CHUNK_SIZE ) break;
+			}
+		} catch( final IOException ex ) {
+			this.error = ex;
+		} catch( final RuntimeException ex ) {
+			this.error = new IOException( "Failed to read ahead: " + ex.getMessage(), ex );
+		} catch( final InterruptedException ex ) {
+			return;
+		}
+
+		try {
+			put( END );
+		} catch( final InterruptedException ex ) {
+			// closed by the caller
+		}
+	}
+
+	private void put( final byte[] chunk ) throws InterruptedException {
+		while( !this.closed )
+			if( this.queue.offer( chunk, 100, TimeUnit.MILLISECONDS ) ) return;
+		throw new InterruptedException();
+	}
+
+	private byte[] chunk = null;
+	private int chunkSize = 0;
+	private volatile boolean closed = false;
+	private boolean eof = false;
+	private volatile IOException error = null;
+	private int pos = 0;
+	private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>( QUEUE_SIZE );
+	private final Thread reader;
+	private final InputStream source;
+
+	/**
+	 * Number of bytes per chunk read ahead: {@value #CHUNK_SIZE}
+	 */
+	public static final int CHUNK_SIZE = 1024 * 1024;
+
+	/**
+	 * Max number of chunks read ahead of the caller: {@value #QUEUE_SIZE}
+	 */
+	public static final int QUEUE_SIZE = 4;
+
+	private static final byte[] END = new byte[ 0 ];
+}
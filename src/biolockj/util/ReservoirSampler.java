@@ -0,0 +1,82 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.Random;
+
+/**
+ * Single-pass reservoir sampling of a stream of unknown length (Li, 1994, "Reservoir-Sampling Algorithms of Time
+ * Complexity O(n(1 + log(N/n)))", Algorithm L).<br>
+ * The caller offers each item in order and stores it in the reservoir slot returned by {@link #offer()}. Random
+ * numbers are only generated when an item enters the reservoir, so items that are skipped cost a single comparison.
+ * <br>
+ * The same {@link java.util.Random} seed always produces the same sample.
+ */
+public class ReservoirSampler {
+
+	/**
+	 * Construct a sampler for a reservoir of the given size.
+	 *
+	 * @param size Reservoir size, if 0 every item is skipped
+	 * @param random Random number generator
+	 */
+	public ReservoirSampler( final int size, final Random random ) {
+		if( size < 0 ) throw new IllegalArgumentException( "Reservoir size must not be negative: " + size );
+		this.size = size;
+		this.random = random;
+		this.w = size == 0 ? 0.0: Math.exp( Math.log( uniform() ) / size );
+		this.nextReplace = size == 0 ? Long.MAX_VALUE: size + skip();
+	}
+
+	/**
+	 * Get the number of items offered so far.
+	 *
+	 * @return Number of items
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Offer the next item of the stream.
+	 *
+	 * @return Reservoir slot the item must be stored in (replacing any item in that slot), or -1 to skip the item
+	 */
+	public int offer() {
+		final long i = this.count++;
+		if( i < this.size ) return (int) i;
+		if( i < this.nextReplace ) return -1;
+
+		final int slot = this.random.nextInt( this.size );
+		this.w *= Math.exp( Math.log( uniform() ) / this.size );
+		this.nextReplace = i + 1 + skip();
+		return slot;
+	}
+
+	private long skip() {
+		final double skip = Math.floor( Math.log( uniform() ) / Math.log( 1.0 - this.w ) );
+		return skip < Long.MAX_VALUE / 2 ? (long) skip: Long.MAX_VALUE / 2;
+	}
+
+	/**
+	 * Uniform random value in (0, 1], so its log is always finite.
+	 */
+	private double uniform() {
+		return 1.0 - this.random.nextDouble();
+	}
+
+	private long count = 0L;
+	private long nextReplace;
+	private final Random random;
+	private final int size;
+	private double w;
+}
@@ -0,0 +1,115 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import biolockj.Constants;
+import biolockj.Log;
+
+/**
+ * Watches a {@link biolockj.module.ScriptModule#getScriptDir()} for new script indicator files, so the
+ * {@link biolockj.Pipeline} can check script status as soon as a worker script starts, succeeds, or fails instead of
+ * waiting out a fixed poll interval.<br>
+ * Events are only a hint: file systems such as NFS may not report changes made by other hosts, so the caller must still
+ * poll the indicator files once the wait times out.
+ */
+public class ScriptWatcher implements Closeable {
+
+	private ScriptWatcher( final WatchService watchService ) {
+		this.watchService = watchService;
+	}
+
+	/**
+	 * Wait until an indicator file is created or updated, or the timeout expires. Events that arrive within
+	 * {@value #SETTLE_MILLIS} ms of the first event are combined, so a batch of scripts that finish together causes a
+	 * single status check.
+	 *
+	 * @param maxMillis Max number of milliseconds to wait
+	 * @return TRUE if an indicator file changed, FALSE if the timeout expired
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean await( final long maxMillis ) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + maxMillis;
+		boolean found = false;
+		for( long wait = maxMillis; wait > 0; wait = deadline - System.currentTimeMillis() ) {
+			final WatchKey key = this.watchService.poll( wait, TimeUnit.MILLISECONDS );
+			if( key == null ) break;
+			if( hasIndicatorEvent( key ) && !found ) {
+				found = true;
+				deadline = Math.min( deadline, System.currentTimeMillis() + SETTLE_MILLIS );
+			}
+			if( !key.reset() ) {
+				Log.warn( getClass(), "Script directory is no longer watched - fall back to polling" );
+				if( !found ) Thread.sleep( Math.max( 0L, deadline - System.currentTimeMillis() ) );
+				break;
+			}
+		}
+		return found;
+	}
+
+	@Override
+	public void close() {
+		try {
+			this.watchService.close();
+		} catch( final IOException ex ) {
+			Log.warn( getClass(), "Failed to close script watcher: " + ex.getMessage() );
+		}
+	}
+
+	/**
+	 * Start watching the script directory.
+	 *
+	 * @param scriptDir Script directory
+	 * @return ScriptWatcher, or null if the file system does not support watching the directory
+	 */
+	public static ScriptWatcher watch( final File scriptDir ) {
+		try {
+			final WatchService watchService = FileSystems.getDefault().newWatchService();
+			try {
+				scriptDir.toPath().register( watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY );
+			} catch( IOException | RuntimeException ex ) {
+				watchService.close();
+				throw ex;
+			}
+			return new ScriptWatcher( watchService );
+		} catch( IOException | RuntimeException ex ) {
+			Log.warn( ScriptWatcher.class, "Unable to watch " + scriptDir.getAbsolutePath() +
+				" for script status changes - fall back to polling: " + ex.getMessage() );
+			return null;
+		}
+	}
+
+	private static boolean hasIndicatorEvent( final WatchKey key ) {
+		boolean found = false;
+		for( final WatchEvent<?> event: key.pollEvents() ) {
+			if( event.kind() == StandardWatchEventKinds.OVERFLOW ) found = true;
+			else if( event.context() instanceof Path ) {
+				final String name = event.context().toString();
+				if( name.endsWith( "_" + Constants.SCRIPT_STARTED ) || name.endsWith( "_" + Constants.SCRIPT_SUCCESS ) ||
+					name.endsWith( "_" + Constants.SCRIPT_FAILURES ) ) found = true;
+			}
+		}
+		return found;
+	}
+
+	private final WatchService watchService;
+
+	/**
+	 * Milliseconds to keep collecting events after the first indicator file event: {@value #SETTLE_MILLIS}
+	 */
+	public static final long SETTLE_MILLIS = 50L;
+}
@@ -0,0 +1,263 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import biolockj.Constants;
+
+/**
+ * Quality statistics of the reads in a sequence file, collected one {@link biolockj.util.SeqRecord} at a time into
+ * fixed-size primitive histograms: read lengths up to {@value #MAX_TRACKED_LEN} bases, and the Phred quality scores
+ * (offset {@value #PHRED_OFFSET}) at each of the first {@value #MAX_TRACKED_LEN} positions of fastq reads. Longer reads
+ * are counted in the last bin. GC and N bases are counted over the full read.<br>
+ * {@link #write(File, Map)} exports 1 row of summary statistics per file, so downstream modules can read sequence
+ * quality without parsing the sequence files again.
+ */
+public class SeqQualityStats {
+
+	/**
+	 * Add the read to the statistics.
+	 *
+	 * @param read Sequence read
+	 */
+	public void add( final SeqRecord read ) {
+		final byte[] buf = read.getBuffer();
+		final int start = read.getStart( SeqRecord.SEQ );
+		final int len = read.getSeqLength();
+		for( int i = start; i < start + len; i++ )
+			switch( buf[ i ] ) {
+				case 'C':
+				case 'c':
+				case 'G':
+				case 'g':
+					this.numGcBases++;
+					break;
+				case 'N':
+				case 'n':
+					this.numNBases++;
+					break;
+				default:
+					break;
+			}
+
+		this.numReads++;
+		this.numBases += len;
+		this.lengths[ Math.min( len, MAX_TRACKED_LEN ) ]++;
+		if( this.numReads == 1 || len < this.minLen ) this.minLen = len;
+		if( len > this.maxLen ) this.maxLen = len;
+
+		if( read.getNumLines() > SeqRecord.QUAL ) {
+			final int qualStart = read.getStart( SeqRecord.QUAL );
+			final int qualLen = Math.min( len, read.getLength( SeqRecord.QUAL ) );
+			for( int i = 0; i < qualLen; i++ ) {
+				final int q = Math.max( 0, Math.min( NUM_QUAL_BINS - 1, buf[ qualStart + i ] - PHRED_OFFSET ) );
+				final int pos = Math.min( i, MAX_TRACKED_LEN - 1 );
+				if( this.qualities[ pos ] == null ) this.qualities[ pos ] = new long[ NUM_QUAL_BINS ];
+				this.qualities[ pos ][ q ]++;
+				this.qualSum += q;
+				if( q >= Q30 ) this.numQ30Bases++;
+			}
+			this.numQualBases += qualLen;
+		}
+	}
+
+	/**
+	 * Add the statistics of another file, such as the paired read file of the same sample.
+	 *
+	 * @param stats Statistics to add
+	 */
+	public void add( final SeqQualityStats stats ) {
+		if( stats.numReads == 0 ) return;
+		if( this.numReads == 0 || stats.minLen < this.minLen ) this.minLen = stats.minLen;
+		this.maxLen = Math.max( this.maxLen, stats.maxLen );
+		this.numReads += stats.numReads;
+		this.numBases += stats.numBases;
+		this.numGcBases += stats.numGcBases;
+		this.numNBases += stats.numNBases;
+		this.numQualBases += stats.numQualBases;
+		this.numQ30Bases += stats.numQ30Bases;
+		this.qualSum += stats.qualSum;
+		for( int i = 0; i < this.lengths.length; i++ )
+			this.lengths[ i ] += stats.lengths[ i ];
+		for( int pos = 0; pos < MAX_TRACKED_LEN; pos++ )
+			if( stats.qualities[ pos ] != null ) {
+				if( this.qualities[ pos ] == null ) this.qualities[ pos ] = new long[ NUM_QUAL_BINS ];
+				for( int q = 0; q < NUM_QUAL_BINS; q++ )
+					this.qualities[ pos ][ q ] += stats.qualities[ pos ][ q ];
+			}
+	}
+
+	/**
+	 * Get the percentage of bases that are G or C.
+	 *
+	 * @return GC percentage
+	 */
+	public double getGcPercent() {
+		return percent( this.numGcBases, this.numBases );
+	}
+
+	/**
+	 * Get the mean quality score of all bases.
+	 *
+	 * @return Mean quality score, or 0 if no quality scores were found
+	 */
+	public double getMeanQuality() {
+		return this.numQualBases == 0 ? 0.0: (double) this.qualSum / this.numQualBases;
+	}
+
+	/**
+	 * Get the mean quality score at each read position.
+	 *
+	 * @return Mean quality scores, indexed by position
+	 */
+	public double[] getMeanQualityByPosition() {
+		int numPos = 0;
+		while( numPos < MAX_TRACKED_LEN && this.qualities[ numPos ] != null )
+			numPos++;
+		final double[] means = new double[ numPos ];
+		for( int pos = 0; pos < numPos; pos++ ) {
+			long n = 0L;
+			long sum = 0L;
+			for( int q = 0; q < NUM_QUAL_BINS; q++ ) {
+				n += this.qualities[ pos ][ q ];
+				sum += (long) q * this.qualities[ pos ][ q ];
+			}
+			means[ pos ] = n == 0 ? 0.0: (double) sum / n;
+		}
+		return means;
+	}
+
+	/**
+	 * Get the median read length. Reads longer than {@value #MAX_TRACKED_LEN} are counted as
+	 * {@value #MAX_TRACKED_LEN}.
+	 *
+	 * @return Median read length
+	 */
+	public int getMedianLength() {
+		long n = 0L;
+		for( int len = 0; len < this.lengths.length; len++ ) {
+			n += this.lengths[ len ];
+			if( 2 * n >= this.numReads ) return len;
+		}
+		return 0;
+	}
+
+	/**
+	 * Get the percentage of bases that are N.
+	 *
+	 * @return N percentage
+	 */
+	public double getNPercent() {
+		return percent( this.numNBases, this.numBases );
+	}
+
+	/**
+	 * Get the number of reads.
+	 *
+	 * @return Number of reads
+	 */
+	public long getNumReads() {
+		return this.numReads;
+	}
+
+	/**
+	 * Get the percentage of quality scores of at least {@value #Q30}.
+	 *
+	 * @return Q30 percentage
+	 */
+	public double getQ30Percent() {
+		return percent( this.numQ30Bases, this.numQualBases );
+	}
+
+	/**
+	 * Write the statistics as a tab delimited file with 1 row per sequence file, sorted by Sample ID and read direction.
+	 * The 1st column is the Sample ID and the 2nd column is the read direction suffix of paired reads (or the metadata
+	 * null value if reads are not paired). The mean quality at each position is written as a single comma separated
+	 * column.
+	 *
+	 * @param file Output file
+	 * @param stats Map(sequence file, statistics)
+	 * @throws Exception if unable to write the file
+	 */
+	public static void write( final File file, final Map<File, SeqQualityStats> stats ) throws Exception {
+		final Map<String, SeqQualityStats> rows = new TreeMap<>();
+		for( final File seqFile: stats.keySet() ) {
+			final String direction = SeqUtil.getReadDirectionSuffix( seqFile );
+			rows.put( SeqUtil.getSampleId( seqFile ) + Constants.TAB_DELIM +
+				( direction.isEmpty() ? MetaUtil.getNullValue( null ): direction ), stats.get( seqFile ) );
+		}
+
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			writer.write( MetaUtil.getID() + Constants.TAB_DELIM + READ_DIRECTION );
+			for( final String col: COLUMNS )
+				writer.write( Constants.TAB_DELIM + col );
+			writer.write( Constants.RETURN );
+			for( final String key: rows.keySet() ) {
+				final SeqQualityStats s = rows.get( key );
+				writer.write( key + Constants.TAB_DELIM + s.numReads + Constants.TAB_DELIM + s.numBases +
+					Constants.TAB_DELIM + s.minLen + Constants.TAB_DELIM + s.maxLen + Constants.TAB_DELIM +
+					format( s.numReads == 0 ? 0.0: (double) s.numBases / s.numReads ) + Constants.TAB_DELIM +
+					s.getMedianLength() + Constants.TAB_DELIM + format( s.getGcPercent() ) + Constants.TAB_DELIM +
+					format( s.getNPercent() ) + Constants.TAB_DELIM + format( s.getMeanQuality() ) +
+					Constants.TAB_DELIM + format( s.getQ30Percent() ) + Constants.TAB_DELIM );
+				final double[] means = s.getMeanQualityByPosition();
+				for( int pos = 0; pos < means.length; pos++ )
+					writer.write( ( pos == 0 ? "": "," ) + format( means[ pos ] ) );
+				writer.write( Constants.RETURN );
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static String format( final double val ) {
+		return String.format( Locale.ROOT, "%.2f", val );
+	}
+
+	private static double percent( final long n, final long total ) {
+		return total == 0 ? 0.0: 100.0 * n / total;
+	}
+
+	private final long[] lengths = new long[ MAX_TRACKED_LEN + 1 ];
+	private int maxLen = 0;
+	private int minLen = 0;
+	private long numBases = 0L;
+	private long numGcBases = 0L;
+	private long numNBases = 0L;
+	private long numQ30Bases = 0L;
+	private long numQualBases = 0L;
+	private long numReads = 0L;
+	private final long[][] qualities = new long[ MAX_TRACKED_LEN ][];
+	private long qualSum = 0L;
+
+	/**
+	 * Number of read positions and read lengths tracked in the histograms: {@value #MAX_TRACKED_LEN}
+	 */
+	public static final int MAX_TRACKED_LEN = 1024;
+
+	/**
+	 * Offset of the fastq quality score characters: {@value #PHRED_OFFSET}
+	 */
+	public static final int PHRED_OFFSET = 33;
+
+	/**
+	 * Quality score threshold reported as the Q30 percentage: {@value #Q30}
+	 */
+	public static final int Q30 = 30;
+
+	private static final String[] COLUMNS = { "Num_Reads", "Num_Bases", "Min_Len", "Max_Len", "Mean_Len", "Median_Len",
+		"GC_Pct", "N_Pct", "Mean_Qual", "Q30_Pct", "Mean_Qual_By_Position" };
+	private static final int NUM_QUAL_BINS = 64;
+	private static final String READ_DIRECTION = "Read_Direction";
+}
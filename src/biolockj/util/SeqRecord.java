@@ -0,0 +1,248 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable view of the current fasta or fastq read returned by {@link biolockj.util.SeqRecordReader#next()}.<br>
+ * Each line (header, sequence, and for fastq the "+" line and quality scores) is a slice of the reader's byte buffer,
+ * identified by a start offset and length, without the line terminator. The view is overwritten by the next call to
+ * {@link biolockj.util.SeqRecordReader#next()}, so callers must copy any values they need to keep.<br>
+ * Line bounds may be narrowed with {@link #trim()} and {@link #subLine(int, int, int)} before the record is written.
+ */
+public class SeqRecord {
+
+	/**
+	 * Construct an empty record view with the given number of lines per read.
+	 *
+	 * @param numLines Number of lines per read (2 for fasta, 4 for fastq)
+	 */
+	SeqRecord( final int numLines ) {
+		this.starts = new int[ numLines ];
+		this.lengths = new int[ numLines ];
+	}
+
+	/**
+	 * Get the buffer that holds the bytes of each line of this record.
+	 *
+	 * @return Byte buffer
+	 */
+	public byte[] getBuffer() {
+		return this.buffer;
+	}
+
+	/**
+	 * Get the byte at the given position of the line.
+	 *
+	 * @param line Line index
+	 * @param pos Position in the line
+	 * @return Byte value
+	 */
+	public byte getByte( final int line, final int pos ) {
+		return this.buffer[ this.starts[ line ] + pos ];
+	}
+
+	/**
+	 * Get the header line as a String, this is the only line most modules need to decode.
+	 *
+	 * @return Header line
+	 */
+	public String getHeader() {
+		return getLine( HEADER );
+	}
+
+	/**
+	 * Get the 0-based index of this record in the file.
+	 *
+	 * @return Record index
+	 */
+	public long getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * Get the number of bytes in the line.
+	 *
+	 * @param line Line index
+	 * @return Line length
+	 */
+	public int getLength( final int line ) {
+		return this.lengths[ line ];
+	}
+
+	/**
+	 * Decode the line as a String.
+	 *
+	 * @param line Line index
+	 * @return Line value
+	 */
+	public String getLine( final int line ) {
+		return getString( line, 0, this.lengths[ line ] );
+	}
+
+	/**
+	 * Get the number of lines per read.
+	 *
+	 * @return 2 for fasta, 4 for fastq
+	 */
+	public int getNumLines() {
+		return this.starts.length;
+	}
+
+	/**
+	 * Get the number of bases in the sequence line.
+	 *
+	 * @return Sequence length
+	 */
+	public int getSeqLength() {
+		return this.lengths[ SEQ ];
+	}
+
+	/**
+	 * Get the buffer offset of the 1st byte of the line.
+	 *
+	 * @param line Line index
+	 * @return Start offset
+	 */
+	public int getStart( final int line ) {
+		return this.starts[ line ];
+	}
+
+	/**
+	 * Decode part of the line as a String.
+	 *
+	 * @param line Line index
+	 * @param pos Position of the 1st byte in the line
+	 * @param len Number of bytes
+	 * @return Decoded value
+	 */
+	public String getString( final int line, final int pos, final int len ) {
+		return new String( this.buffer, this.starts[ line ] + pos, len, StandardCharsets.ISO_8859_1 );
+	}
+
+	/**
+	 * Narrow the line to the bytes from beginIndex (inclusive) to endIndex (exclusive), as
+	 * {@link String#substring(int, int)} would.
+	 *
+	 * @param line Line index
+	 * @param beginIndex Begin index
+	 * @param endIndex End index
+	 */
+	public void subLine( final int line, final int beginIndex, final int endIndex ) {
+		if( beginIndex < 0 || endIndex > this.lengths[ line ] || beginIndex > endIndex )
+			throw new IndexOutOfBoundsException( "Invalid range [" + beginIndex + ", " + endIndex +
+				"] for line length " + this.lengths[ line ] );
+		this.starts[ line ] += beginIndex;
+		this.lengths[ line ] = endIndex - beginIndex;
+	}
+
+	/**
+	 * Get a fasta view of this record: the header and sequence lines, with the fastq header character replaced by
+	 * "&gt;" in the shared buffer. Fasta records are returned as is.
+	 *
+	 * @return Fasta record view, reused for each read
+	 */
+	public SeqRecord toFastA() {
+		if( this.starts.length <= QUAL ) return this;
+		if( this.fastA == null ) this.fastA = new SeqRecord( 2 );
+		this.fastA.buffer = this.buffer;
+		this.fastA.index = this.index;
+		for( int i = HEADER; i <= SEQ; i++ ) {
+			this.fastA.starts[ i ] = this.starts[ i ];
+			this.fastA.lengths[ i ] = this.lengths[ i ];
+		}
+		if( this.lengths[ HEADER ] > 0 ) this.buffer[ this.starts[ HEADER ] ] = '>';
+		return this.fastA;
+	}
+
+	/**
+	 * Remove leading and trailing whitespace from every line, as {@link String#trim()} would.
+	 */
+	public void trim() {
+		for( int i = 0; i < this.starts.length; i++ ) {
+			int start = this.starts[ i ];
+			int end = start + this.lengths[ i ];
+			while( start < end && ( this.buffer[ start ] & 0xff ) <= ' ' )
+				start++;
+			while( end > start && ( this.buffer[ end - 1 ] & 0xff ) <= ' ' )
+				end--;
+			this.starts[ i ] = start;
+			this.lengths[ i ] = end - start;
+		}
+	}
+
+	/**
+	 * Write every line of the record, each followed by a newline.
+	 *
+	 * @param out OutputStream
+	 * @throws IOException if unable to write
+	 */
+	public void write( final OutputStream out ) throws IOException {
+		writeLines( out, HEADER );
+	}
+
+	/**
+	 * Write the line followed by a newline.
+	 *
+	 * @param out OutputStream
+	 * @param line Line index
+	 * @throws IOException if unable to write
+	 */
+	public void writeLine( final OutputStream out, final int line ) throws IOException {
+		out.write( this.buffer, this.starts[ line ], this.lengths[ line ] );
+		out.write( NEW_LINE );
+	}
+
+	/**
+	 * Write the lines from the given line to the end of the record, each followed by a newline. Used to write a read
+	 * with a modified header.
+	 *
+	 * @param out OutputStream
+	 * @param fromLine 1st line index to write
+	 * @throws IOException if unable to write
+	 */
+	public void writeLines( final OutputStream out, final int fromLine ) throws IOException {
+		for( int i = fromLine; i < this.starts.length; i++ )
+			writeLine( out, i );
+	}
+
+	byte[] buffer = null;
+	private SeqRecord fastA = null;
+	long index = -1L;
+	final int[] lengths;
+	final int[] starts;
+
+	/**
+	 * Line index of the read header: {@value #HEADER}
+	 */
+	public static final int HEADER = 0;
+
+	/**
+	 * Line index of the fastq "+" line: {@value #PLUS}
+	 */
+	public static final int PLUS = 2;
+
+	/**
+	 * Line index of the fastq quality scores: {@value #QUAL}
+	 */
+	public static final int QUAL = 3;
+
+	/**
+	 * Line index of the read sequence: {@value #SEQ}
+	 */
+	public static final int SEQ = 1;
+
+	private static final int NEW_LINE = '\n';
+}
@@ -0,0 +1,203 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Byte-level fasta/fastq reader that returns one read at a time as a reusable {@link biolockj.util.SeqRecord} view.
+ * <br>
+ * Lines are never decoded to Strings by the reader: each record is a set of line offsets into a large byte buffer
+ * that is refilled in place, so reading a file allocates no objects per read. Uncompressed files are read through
+ * memory-mapped windows of a {@link java.nio.channels.FileChannel}; gzipped files are read through
+ * {@link biolockj.util.BioLockJUtil#getFileInputStream(File)}.<br>
+ * Reads are expected to span {@link biolockj.util.SeqUtil#getNumLinesPerRead()} lines. Empty lines found where a read
+ * header is expected are skipped, and an incomplete read at the end of the file is ignored. Line terminators ("\n" or
+ * "\r\n") are not included in the record lines. {@link #isNormalized()} reports whether any of these were found, so
+ * callers can tell whether writing the records would reproduce the file byte for byte.
+ */
+public class SeqRecordReader implements Closeable {
+
+	/**
+	 * Open a reader on the sequence file with {@link biolockj.util.SeqUtil#getNumLinesPerRead()} lines per read.
+	 *
+	 * @param file Sequence file (may be gzipped)
+	 * @throws Exception if unable to open the file or determine the sequence format
+	 */
+	public SeqRecordReader( final File file ) throws Exception {
+		this( file, SeqUtil.getNumLinesPerRead() );
+	}
+
+	/**
+	 * Open a reader on the sequence file.
+	 *
+	 * @param file Sequence file (may be gzipped)
+	 * @param numLinesPerRead Number of lines per read
+	 * @throws IOException if unable to open the file
+	 */
+	public SeqRecordReader( final File file, final int numLinesPerRead ) throws IOException {
+		this.record = new SeqRecord( numLinesPerRead );
+		if( SeqUtil.isGzipped( file.getName() ) ) {
+			this.channel = null;
+			this.stream = BioLockJUtil.getFileInputStream( file );
+		} else {
+			this.channel = FileChannel.open( file.toPath(), StandardOpenOption.READ );
+			this.stream = null;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.window = null;
+		if( this.channel != null ) this.channel.close();
+		if( this.stream != null ) this.stream.close();
+	}
+
+	/**
+	 * Get the number of reads returned so far.
+	 *
+	 * @return Number of reads
+	 */
+	public long getNumReads() {
+		return this.record.index + 1;
+	}
+
+	/**
+	 * Check if the reads returned so far (and the end of the file, once {@link #next()} has returned null) differ from
+	 * the file bytes: a "\r\n" line terminator, an empty line skipped, a last line without a newline, or an incomplete
+	 * read ignored at the end of the file.
+	 *
+	 * @return TRUE if writing the records read so far would not reproduce the file
+	 */
+	public boolean isNormalized() {
+		return this.normalized;
+	}
+
+	/**
+	 * Advance to the next read.
+	 *
+	 * @return The reusable record view for the next read, or null at the end of the file
+	 * @throws IOException if unable to read the file
+	 */
+	public SeqRecord next() throws IOException {
+		final int numLines = this.record.starts.length;
+		int line = 0;
+		int pos = this.pos;
+		while( line < numLines ) {
+			int end = pos;
+			while( end < this.limit && this.buffer[ end ] != '\n' )
+				end++;
+
+			final boolean foundEol = end < this.limit;
+			if( !foundEol && !this.eof ) {
+				final int shift = this.pos;
+				fill();
+				pos -= shift;
+				for( int i = 0; i < line; i++ )
+					this.record.starts[ i ] -= shift;
+				continue;
+			}
+
+			if( !foundEol && pos == end ) {
+				if( line > 0 ) this.normalized = true;
+				this.pos = this.limit;
+				return null;
+			}
+
+			int len = end - pos;
+			if( len > 0 && this.buffer[ end - 1 ] == '\r' ) {
+				len--;
+				this.normalized = true;
+			}
+			if( line == SeqRecord.HEADER && len == 0 ) {
+				this.normalized = true;
+				this.pos = pos = end + 1;
+				continue;
+			}
+			if( !foundEol ) this.normalized = true;
+
+			this.record.starts[ line ] = pos;
+			this.record.lengths[ line++ ] = len;
+			pos = foundEol ? end + 1: end;
+		}
+
+		this.pos = pos;
+		this.record.buffer = this.buffer;
+		this.record.index++;
+		return this.record;
+	}
+
+	/**
+	 * Shift the unread bytes (starting at the current read) to the front of the buffer, growing the buffer if the
+	 * current read does not fit, then read more bytes from the file.
+	 */
+	private void fill() throws IOException {
+		if( this.pos > 0 ) {
+			System.arraycopy( this.buffer, this.pos, this.buffer, 0, this.limit - this.pos );
+			this.limit -= this.pos;
+			this.pos = 0;
+		} else if( this.limit == this.buffer.length ) {
+			final byte[] larger = new byte[ this.buffer.length * 2 ];
+			System.arraycopy( this.buffer, 0, larger, 0, this.limit );
+			this.buffer = larger;
+		}
+
+		final int numRead = this.channel == null ? readStream(): readChannel();
+		if( numRead < 0 ) this.eof = true;
+		else this.limit += numRead;
+	}
+
+	private int readChannel() throws IOException {
+		if( this.window == null || !this.window.hasRemaining() ) {
+			final long size = this.channel.size();
+			if( this.mapPos >= size ) return -1;
+			final long len = Math.min( MAP_WINDOW_SIZE, size - this.mapPos );
+			this.window = this.channel.map( FileChannel.MapMode.READ_ONLY, this.mapPos, len );
+			this.mapPos += len;
+		}
+
+		final int len = Math.min( this.window.remaining(), this.buffer.length - this.limit );
+		this.window.get( this.buffer, this.limit, len );
+		return len;
+	}
+
+	private int readStream() throws IOException {
+		int total = 0;
+		while( this.limit + total < this.buffer.length ) {
+			final int numRead = this.stream.read( this.buffer, this.limit + total, this.buffer.length - this.limit - total );
+			if( numRead < 0 ) return total == 0 ? -1: total;
+			total += numRead;
+		}
+		return total;
+	}
+
+	private byte[] buffer = new byte[ BUFFER_SIZE ];
+	private final FileChannel channel;
+	private boolean eof = false;
+	private int limit = 0;
+	private long mapPos = 0L;
+	private boolean normalized = false;
+	private int pos = 0;
+	private final SeqRecord record;
+	private final InputStream stream;
+	private MappedByteBuffer window = null;
+
+	/**
+	 * Size of the read buffer in bytes, also used for output streams of sequence data: {@value #BUFFER_SIZE}
+	 */
+	public static final int BUFFER_SIZE = 1024 * 1024;
+
+	private static final long MAP_WINDOW_SIZE = 64L * 1024 * 1024;
+}
@@ -14,6 +14,7 @@ package biolockj.util;
 import java.io.BufferedReader;
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.HiddenFileFilter;
 import biolockj.*;
@@ -29,21 +30,21 @@ public class SeqUtil {
 	private SeqUtil() {}
 
 	/**
-	 * Method counts number of reads in the given sequence file by counting the number of lines and dividing by the
-	 * number of lines/sample (fasta=2, fastq=4)
+	 * Method counts number of reads in the given sequence file by scanning the reads with a
+	 * {@link biolockj.util.SeqRecordReader} (fasta=2 lines/read, fastq=4 lines/read)
 	 * 
 	 * @param seqFile Sequence file
 	 * @return Number of reads in seqFile
 	 * @throws Exception if errors occur
 	 */
 	public static long countNumReads( final File seqFile ) throws Exception {
-		long count = 0;
-		final BufferedReader r = BioLockJUtil.getFileReader( seqFile );
-		for( String line = r.readLine(); line != null; line = r.readLine() )
-			count++;
-		r.close();
-
-		return count / getNumLinesPerRead();
+		final SeqRecordReader reader = new SeqRecordReader( seqFile );
+		try {
+			while( reader.next() != null ) {}
+			return reader.getNumReads();
+		} finally {
+			reader.close();
+		}
 	}
 
 	/**
@@ -65,6 +66,25 @@ public class SeqUtil {
 
 	}
 
+	/**
+	 * Return a 64-bit fingerprint of the read header returned by {@link #getHeader(String)}, so forward and reverse
+	 * reads can be matched without holding every header String in memory. Uses FNV-1a with a final avalanche mix.
+	 *
+	 * @param header Sequence header
+	 * @return 64-bit header fingerprint
+	 */
+	public static long getHeaderFingerprint( final String header ) {
+		long hash = FNV_OFFSET_BASIS;
+		for( int i = 0; i < header.length(); i++ ) {
+			hash ^= header.charAt( i );
+			hash *= FNV_PRIME;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
 	/**
 	 * Return the header of each read in the sequence file.
 	 * 
@@ -93,7 +113,9 @@ public class SeqUtil {
 	 * @param rvRead Reverse read sequence file
 	 * @return Sequence headers found in both files
 	 * @throws Exception if I/O errors occur
+	 * @deprecated Holds every header String in memory, use {@link biolockj.util.PairedReadIndex} instead
 	 */
+	@Deprecated
 	public static Set<String> getHeaders( final File fwRead, final File rvRead ) throws Exception {
 		final Set<String> headers = getHeaders( fwRead );
 		headers.retainAll( getHeaders( rvRead ) );
@@ -141,49 +163,47 @@ public class SeqUtil {
 
 	/**
 	 * Paired reads must have a unique file suffix to identify forward and reverse reads. Parameter files read and a map
-	 * with forward read file names as keys and matching reverse reads as the map return value
+	 * with forward read file names as keys and matching reverse reads as the map return value. Forward reads are
+	 * listed in the same order as the files.
 	 *
 	 * @param files List of paired read files
 	 * @return Map with key=fwRead and val=rvRead
-	 * @throws Exception 
+	 * @throws SequnceFormatException if 2 forward reads or 2 reverse reads have the same Sample ID
+	 * @throws Exception if other errors occur
 	 */
 	public static Map<File, File> getPairedReads( final Collection<File> files )
 		throws Exception {
 		Log.debug( SeqUtil.class, "Looking for paired reads in " + ( files == null ? 0: files.size() ) + " files " );
-		final Map<File, File> map = new HashMap<>();
+		final Map<File, File> map = new LinkedHashMap<>();
 		final Set<String> rvReads = new HashSet<>();
 		final Set<File> unpairedFwReads = new HashSet<>();
 		
 		if( files == null || files.isEmpty() ) { return map; }
-		
-		for( final File fwRead: files ) {
-			final String name = fwRead.getName();
-			if( !isForwardRead( name ) ) {
-				rvReads.add( name );
-				continue;
-			}
 
-			File rvRead = null;
-			final String sampleID = getSampleId( fwRead );
-			Log.debug( SeqUtil.class,
-				"Search for paired read to match forward read ( " + name + " ) with sample ID: " + sampleID );
-			for( final File searchFile: files )
-				if( sampleID.equals( getSampleId( searchFile ) ) && !isForwardRead( searchFile.getName() ) ) {
-					Log.debug( SeqUtil.class, "Matching reverse read: " + searchFile.getName() );
-					rvRead = searchFile;
-					break;
-				}
+		final List<File> fwReads = new ArrayList<>();
+		final Map<String, File> fwReadsBySample = new HashMap<>();
+		final Map<String, File> rvReadsBySample = new HashMap<>();
+		for( final File file: files ) {
+			final boolean isFw = isForwardRead( file.getName() );
+			final File dup = ( isFw ? fwReadsBySample: rvReadsBySample ).putIfAbsent( getSampleId( file ), file );
+			if( dup != null ) throw new SequnceFormatException( "Sample ID [ " + getSampleId( file ) + " ] has 2 " +
+				( isFw ? "forward": "reverse" ) + " read files: " + dup.getAbsolutePath() + " & " +
+				file.getAbsolutePath() );
+			if( isFw ) fwReads.add( file );
+			else rvReads.add( file.getName() );
+		}
 
+		for( final File fwRead: fwReads ) {
+			final String sampleID = getSampleId( fwRead );
+			final File rvRead = rvReadsBySample.get( sampleID );
+			Log.debug( SeqUtil.class, () -> "Forward read ( " + fwRead.getName() + " ) with sample ID: " + sampleID +
+				" --> matching reverse read: " + ( rvRead == null ? null: rvRead.getName() ) );
 			if( rvRead != null ) map.put( fwRead, rvRead );
 			else unpairedFwReads.add( fwRead );
 		}
 
 		for( final File f: map.values() )
-			for( final String rv: rvReads )
-				if( rv.equals( f.getName() ) ) {
-					rvReads.remove( rv );
-					break;
-				}
+			rvReads.remove( f.getName() );
 
 		final String msg = ( unpairedFwReads.isEmpty() ? "":
 			"Unpaired FW Reads:" + BioLockJUtil.printLongFormList( unpairedFwReads ) ) +
@@ -300,7 +320,7 @@ public class SeqUtil {
 			for( final File file: files )
 				try {
 					if( isSeqFile( file ) && !isMultiplexed() && MetaUtil.exists() &&
-						!MetaUtil.getSampleIds().contains( getSampleId( file ) ) ) {
+						!MetaUtil.hasSampleId( getSampleId( file ) ) ) {
 						seqsWithoutMetaId.add( file );
 						Log.info( SeqUtil.class, "The file \"" + file.getName() + "\" -> sample id [" +
 							getSampleId( file ) + "] is not in the metadata." );
@@ -337,6 +357,16 @@ public class SeqUtil {
 		else throw new Exception( "Sequence type undefined!" );
 	}
 
+	/**
+	 * Get the valid header characters of fasta or fastq reads.
+	 *
+	 * @param isFastQ TRUE for fastq reads, FALSE for fasta reads
+	 * @return List of valid header characters
+	 */
+	public static final List<String> getSeqHeaderChars( final boolean isFastQ ) {
+		return isFastQ ? Arrays.asList( FASTQ_HEADER_DELIM ): FASTA_HEADER_DELIMS;
+	}
+
 	/**
 	 * Get sequence type
 	 * 
@@ -446,7 +476,10 @@ public class SeqUtil {
 	public static boolean isSeqFile( final File file ) {
 		info( "Check if input file is a SEQ file: " + file.getAbsolutePath() );
 		boolean isSeq = false;
-		if( fileSeqMap.keySet().contains( file.getName() ) ) {
+		final Boolean inManifest = InputManifest.isSeqFile( file );
+		if( inManifest != null ) {
+			isSeq = inManifest;
+		} else if( fileSeqMap.keySet().contains( file.getName() ) ) {
 			isSeq = fileSeqMap.get( file.getName() );
 		} else {
 			BufferedReader reader = null;
@@ -807,7 +840,9 @@ public class SeqUtil {
 
 	private static final List<String> FASTA_HEADER_DELIMS = Arrays.asList( ">", ";" );
 	private static final String FASTQ_HEADER_DELIM = "@";
-	private static final Map<String, Boolean> fileSeqMap = new HashMap<>();
+	private static final Map<String, Boolean> fileSeqMap = new ConcurrentHashMap<>();
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
 	private static final Integer MAX_DISPLAY_LEN = 200;
 	private static Integer numMultiSeqLines = 0;
 	static {
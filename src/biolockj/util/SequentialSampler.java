@@ -0,0 +1,168 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.Random;
+
+/**
+ * Sequential random sampling without replacement (Vitter, 1987, "An Efficient Algorithm for Sequential Random
+ * Sampling", Method D).<br>
+ * Selects sampleSize indexes uniformly at random from [0, populationSize), returned one at a time in ascending order,
+ * so a file can be sampled in a single pass with one cursor. Each call to {@link #next()} generates the number of
+ * indexes to skip in O(1) expected time, so sampling costs O(sampleSize) time and O(1) memory, independent of the
+ * population size. Method A is used once the remaining sample is a large fraction of the remaining population.<br>
+ * The same {@link java.util.Random} seed always produces the same indexes.
+ */
+public class SequentialSampler {
+
+	/**
+	 * Construct a sampler to select sampleSize of populationSize indexes.
+	 *
+	 * @param populationSize Number of indexes to select from
+	 * @param sampleSize Number of indexes to select
+	 * @param random Random number generator
+	 */
+	public SequentialSampler( final long populationSize, final long sampleSize, final Random random ) {
+		if( sampleSize < 0 || sampleSize > populationSize ) throw new IllegalArgumentException(
+			"Sample size [" + sampleSize + "] must be between 0 and population size [" + populationSize + "]" );
+		this.random = random;
+		this.N = populationSize;
+		this.Nreal = populationSize;
+		this.n = sampleSize;
+		this.nreal = sampleSize;
+		if( sampleSize > 0 ) {
+			this.ninv = 1.0 / sampleSize;
+			this.vprime = Math.exp( Math.log( uniform() ) * this.ninv );
+		}
+		this.qu1 = populationSize - sampleSize + 1;
+		this.qu1real = this.qu1;
+		this.threshold = ALPHA_INV * sampleSize;
+	}
+
+	/**
+	 * Get the next selected index.
+	 *
+	 * @return Next index in ascending order, or -1 once all sampleSize indexes have been returned
+	 */
+	public long next() {
+		if( this.n == 0 ) return -1L;
+		final long skip;
+		if( this.n == 1 ) skip = (long) ( this.N * ( 1.0 - uniform() ) );
+		else if( this.threshold < this.N ) skip = skipD();
+		else skip = skipA();
+
+		this.N -= skip + 1;
+		this.n--;
+		this.current += skip + 1;
+		return this.current;
+	}
+
+	/**
+	 * Method A: generate the skip by sequential search, used while the remaining sample is large relative to the
+	 * remaining population.
+	 */
+	private long skipA() {
+		final double v = uniform();
+		long skip = 0;
+		double top = this.N - this.n;
+		double nr = this.N;
+		double quot = top / nr;
+		while( quot > v ) {
+			skip++;
+			top--;
+			nr--;
+			quot = quot * top / nr;
+		}
+		return skip;
+	}
+
+	/**
+	 * Method D: generate the skip by rejection sampling from a continuous approximation of its distribution.
+	 */
+	private long skipD() {
+		final double nmin1inv = 1.0 / ( this.nreal - 1.0 );
+		long skip;
+		while( true ) {
+			double x;
+			while( true ) {
+				x = this.Nreal * ( 1.0 - this.vprime );
+				skip = (long) x;
+				if( skip < this.qu1 ) break;
+				this.vprime = Math.exp( Math.log( uniform() ) * this.ninv );
+			}
+
+			final double u = uniform();
+			final double negSreal = -skip;
+			final double y1 = Math.exp( Math.log( u * this.Nreal / this.qu1real ) * nmin1inv );
+			this.vprime = y1 * ( 1.0 - x / this.Nreal ) * ( this.qu1real / ( negSreal + this.qu1real ) );
+			if( this.vprime <= 1.0 ) break;
+
+			double y2 = 1.0;
+			double top = this.Nreal - 1.0;
+			double bottom;
+			long limit;
+			if( this.n - 1 > skip ) {
+				bottom = this.Nreal - this.nreal;
+				limit = this.N - skip;
+			} else {
+				bottom = this.Nreal + negSreal - 1.0;
+				limit = this.qu1;
+			}
+
+			for( long t = this.N - 1; t >= limit; t-- ) {
+				y2 = y2 * top / bottom;
+				top--;
+				bottom--;
+			}
+
+			if( this.Nreal / ( this.Nreal - x ) >= y1 * Math.exp( Math.log( y2 ) * nmin1inv ) ) {
+				this.vprime = Math.exp( Math.log( uniform() ) * nmin1inv );
+				break;
+			}
+
+			this.vprime = Math.exp( Math.log( uniform() ) * this.ninv );
+		}
+
+		this.Nreal -= skip + 1;
+		this.nreal--;
+		this.ninv = nmin1inv;
+		this.qu1 -= skip;
+		this.qu1real -= skip;
+		this.threshold -= ALPHA_INV;
+		return skip;
+	}
+
+	/**
+	 * Uniform random value in (0, 1], so its log is always finite.
+	 */
+	private double uniform() {
+		return 1.0 - this.random.nextDouble();
+	}
+
+	private long current = -1L;
+	private long n;
+	private long N;
+	private double ninv = 0.0;
+	private double nreal;
+	private double Nreal;
+	private long qu1;
+	private double qu1real;
+	private final Random random;
+	private long threshold;
+	private double vprime = 0.0;
+
+	/**
+	 * Method D switches to Method A once the remaining population is less than this multiple of the remaining sample:
+	 * {@value #ALPHA_INV}
+	 */
+	private static final long ALPHA_INV = 13L;
+}
@@ -0,0 +1,316 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import biolockj.Constants;
+
+/**
+ * Prefix tree (trie) of OTU taxonomy paths.<br>
+ * Each OTU, such as "domain__Bacteria|phylum__Bacteroidetes|class__Bacteroidia", is split on
+ * {@value biolockj.Constants#OTU_SEPARATOR} into level taxa, and each level taxa is a node whose parent is the level
+ * taxa before it. Level taxa Strings are interned in a pool shared by every tree, so the trees built for many samples
+ * share one copy of each taxonomy name.<br>
+ * Child, parent, and per-level lookups are tree walks bounded by the number of taxonomy levels, instead of substring
+ * scans over every OTU. Nodes also hold an optional count: {@link #put(String, long)} sets the count of an OTU and
+ * keeps the total count and number of OTUs below every node up to date.
+ */
+public class TaxaTree {
+
+	/**
+	 * Construct an empty tree.
+	 */
+	public TaxaTree() {}
+
+	/**
+	 * Construct a tree of the given OTUs, without counts.
+	 *
+	 * @param otus OTU names
+	 */
+	public TaxaTree( final Collection<String> otus ) {
+		for( final String otu: otus )
+			add( otu );
+	}
+
+	/**
+	 * Add the OTU path to the tree, if not already included.
+	 *
+	 * @param otu OTU name
+	 * @return Node of the last level taxa in the OTU
+	 */
+	public Node add( final String otu ) {
+		Node node = this.otuIndex.get( otu );
+		if( node != null ) return node;
+
+		node = this.root;
+		int start = 0;
+		while( start < otu.length() ) {
+			int end = otu.indexOf( Constants.OTU_SEPARATOR, start );
+			if( end < 0 ) end = otu.length();
+			if( end > start ) node = node.getOrAddChild( otu.substring( start, end ) );
+			start = end + Constants.OTU_SEPARATOR.length();
+		}
+
+		this.otuIndex.put( otu, node );
+		return node;
+	}
+
+	/**
+	 * Get the node for the OTU.
+	 *
+	 * @param otu OTU name
+	 * @return Node of the last level taxa in the OTU, or null if the OTU is not in the tree
+	 */
+	public Node get( final String otu ) {
+		Node node = this.otuIndex.get( otu );
+		if( node != null ) return node;
+
+		node = this.root;
+		int start = 0;
+		while( start < otu.length() && node != null ) {
+			int end = otu.indexOf( Constants.OTU_SEPARATOR, start );
+			if( end < 0 ) end = otu.length();
+			if( end > start ) node = node.children == null ? null: node.children.get( otu.substring( start, end ) );
+			start = end + Constants.OTU_SEPARATOR.length();
+		}
+		return node == this.root ? null: node;
+	}
+
+	/**
+	 * Sum the given OTU counts by their taxa at the given level. OTUs without the level are ignored.
+	 *
+	 * @param otuCounts TreeMap(OTU, count)
+	 * @param level Taxonomy level
+	 * @return TreeMap(taxa, count)
+	 */
+	public TreeMap<String, Long> getLevelCounts( final Map<String, Long> otuCounts, final String level ) {
+		final TreeMap<String, Long> taxaCounts = new TreeMap<>();
+		for( final Map.Entry<String, Long> entry: otuCounts.entrySet() ) {
+			Node node = get( entry.getKey() );
+			if( node == null ) node = add( entry.getKey() );
+			final String taxa = node.getTaxa( level );
+			if( taxa != null ) {
+				final Long count = taxaCounts.get( taxa );
+				taxaCounts.put( taxa, count == null ? entry.getValue(): count + entry.getValue() );
+			}
+		}
+		return taxaCounts;
+	}
+
+	/**
+	 * Get the number of OTUs with a count in the tree.
+	 *
+	 * @return Number of OTUs
+	 */
+	public int getNumOtus() {
+		return this.root.numOtus;
+	}
+
+	/**
+	 * Get the root node, which has no taxa.
+	 *
+	 * @return Root node
+	 */
+	public Node getRoot() {
+		return this.root;
+	}
+
+	/**
+	 * Get the unique taxa names found at the given level.
+	 *
+	 * @param level Taxonomy level
+	 * @return Ordered set of taxa names
+	 */
+	public TreeSet<String> getTaxa( final String level ) {
+		final TreeSet<String> taxa = new TreeSet<>();
+		final Deque<Node> stack = new ArrayDeque<>();
+		stack.push( this.root );
+		while( !stack.isEmpty() ) {
+			final Node node = stack.pop();
+			if( level.equals( node.level ) ) taxa.add( node.taxa );
+			else if( node.children != null ) for( final Node child: node.children.values() )
+				stack.push( child );
+		}
+		return taxa;
+	}
+
+	/**
+	 * Set the count of the OTU, adding the OTU to the tree if needed. The total count and number of OTUs of each
+	 * ancestor node are updated.
+	 *
+	 * @param otu OTU name
+	 * @param count OTU count
+	 * @return Node of the OTU
+	 */
+	public Node put( final String otu, final long count ) {
+		final Node node = add( otu );
+		final long diff = node.isOtu ? count - node.count: count;
+		final int newOtu = node.isOtu ? 0: 1;
+		node.count = count;
+		node.isOtu = true;
+		for( Node n = node; n != null; n = n.parent ) {
+			n.total += diff;
+			n.numOtus += newOtu;
+		}
+		return node;
+	}
+
+	private static String intern( final String value ) {
+		final String pooled = TAXA_POOL.putIfAbsent( value, value );
+		return pooled == null ? value: pooled;
+	}
+
+	/**
+	 * Node of a {@link biolockj.util.TaxaTree}, representing one level taxa, such as "genus__Bacteroides".
+	 */
+	public static final class Node {
+
+		private Node( final Node parent, final String levelTaxa ) {
+			this.parent = parent;
+			this.levelTaxa = levelTaxa;
+			final int index = levelTaxa == null ? -1: levelTaxa.indexOf( Constants.DELIM_SEP );
+			this.level = index < 0 ? null: intern( levelTaxa.substring( 0, index ) );
+			this.taxa = index < 0 ? levelTaxa: intern( levelTaxa.substring( index + Constants.DELIM_SEP.length() ) );
+		}
+
+		/**
+		 * Get the child nodes.
+		 *
+		 * @return Child nodes (empty if none)
+		 */
+		public Collection<Node> getChildren() {
+			return this.children == null ? Collections.emptyList(): this.children.values();
+		}
+
+		/**
+		 * Get the count set by {@link biolockj.util.TaxaTree#put(String, long)}.
+		 *
+		 * @return OTU count
+		 */
+		public long getCount() {
+			return this.count;
+		}
+
+		/**
+		 * Get the taxonomy level of this node.
+		 *
+		 * @return Taxonomy level, or null if the node has no level prefix
+		 */
+		public String getLevel() {
+			return this.level;
+		}
+
+		/**
+		 * Get the level taxa of this node, as found in the OTU name.
+		 *
+		 * @return Level taxa, such as "genus__Bacteroides"
+		 */
+		public String getLevelTaxa() {
+			return this.levelTaxa;
+		}
+
+		/**
+		 * Get the number of OTUs with a count in this subtree, including this node.
+		 *
+		 * @return Number of OTUs
+		 */
+		public int getNumOtus() {
+			return this.numOtus;
+		}
+
+		/**
+		 * Get the OTU name of the path from the root to this node.
+		 *
+		 * @return OTU name
+		 */
+		public String getOtu() {
+			if( this.parent == null || this.parent.levelTaxa == null ) return this.levelTaxa;
+			return this.parent.getOtu() + Constants.OTU_SEPARATOR + this.levelTaxa;
+		}
+
+		/**
+		 * Get the parent node.
+		 *
+		 * @return Parent node, or null for the root
+		 */
+		public Node getParent() {
+			return this.parent;
+		}
+
+		/**
+		 * Get the taxa name of this node.
+		 *
+		 * @return Taxa name
+		 */
+		public String getTaxa() {
+			return this.taxa;
+		}
+
+		/**
+		 * Get the taxa name at the given level on the path from the root to this node, as
+		 * {@link biolockj.util.TaxaUtil#getTaxaName(String, String)} would return for the OTU of this node.
+		 *
+		 * @param level Taxonomy level
+		 * @return Taxa name, or null if the path does not include the level
+		 */
+		public String getTaxa( final String level ) {
+			String found = null;
+			for( Node n = this; n != null; n = n.parent )
+				if( level.equals( n.level ) ) found = n.taxa;
+			return found;
+		}
+
+		/**
+		 * Get the sum of the counts in this subtree, including this node.
+		 *
+		 * @return Total count
+		 */
+		public long getTotalCount() {
+			return this.total;
+		}
+
+		/**
+		 * Check if a count has been set for this node by {@link biolockj.util.TaxaTree#put(String, long)}.
+		 *
+		 * @return TRUE if the node is an OTU
+		 */
+		public boolean isOtu() {
+			return this.isOtu;
+		}
+
+		private Node getOrAddChild( final String levelTaxa ) {
+			if( this.children == null ) this.children = new HashMap<>();
+			Node child = this.children.get( levelTaxa );
+			if( child == null ) {
+				final String key = intern( levelTaxa );
+				child = new Node( this, key );
+				this.children.put( key, child );
+			}
+			return child;
+		}
+
+		private Map<String, Node> children = null;
+		private long count = 0L;
+		private boolean isOtu = false;
+		private final String level;
+		private final String levelTaxa;
+		private int numOtus = 0;
+		private final Node parent;
+		private final String taxa;
+		private long total = 0L;
+	}
+
+	private final Map<String, Node> otuIndex = new HashMap<>();
+	private final Node root = new Node( null, null );
+	private static final Map<String, String> TAXA_POOL = new ConcurrentHashMap<>();
+}
@@ -63,12 +63,7 @@ public class TaxaUtil {
 	 * @return Ordered TreeSet of unique taxonomy names
 	 */
 	public static TreeSet<String> findUniqueTaxa( final TreeSet<String> otus, final String level ) {
-		final TreeSet<String> uniqueTaxa = new TreeSet<>();
-		for( final String otu: otus ) {
-			final String taxa = getTaxaName( otu, level );
-			if( taxa != null ) uniqueTaxa.add( taxa );
-		}
-		return uniqueTaxa;
+		return new TaxaTree( otus ).getTaxa( level );
 	}
 
 	/**
@@ -127,21 +122,26 @@ public class TaxaUtil {
 	 */
 	public static TreeMap<String, TreeMap<String, Long>>
 		getLevelTaxaCounts( final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts, final String level ) {
-		final TreeMap<String, TreeMap<String, Long>> taxaCounts = new TreeMap<>();
+		return getLevelTaxaCounts( new TaxaTree(), sampleOtuCounts, level );
+	}
 
+	/**
+	 * Return TreeMap keyed on Sample ID, each sample maps to an inner map(taxa, count), as
+	 * {@link #getLevelTaxaCounts(TreeMap, String)} but looking up each OTU in a {@link biolockj.util.TaxaTree} shared
+	 * across levels, so each OTU path is only split once. OTUs missing from the tree are added.
+	 * 
+	 * @param tree TaxaTree of the OTUs in sampleOtuCounts
+	 * @param sampleOtuCounts TreeMap(sampleId, TreeMap(OTU, count)) OTU counts for every sample
+	 * @param level {@link biolockj.Config}.{@value biolockj.Constants#REPORT_TAXONOMY_LEVELS}
+	 * @return TreeMap(sampleId, TreeMap(taxa, count))
+	 */
+	public static TreeMap<String, TreeMap<String, Long>> getLevelTaxaCounts( final TaxaTree tree,
+		final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts, final String level ) {
+		final TreeMap<String, TreeMap<String, Long>> taxaCounts = new TreeMap<>();
 		for( final String sampleId: sampleOtuCounts.keySet() ) {
-			final TreeMap<String, Long> otuCounts = sampleOtuCounts.get( sampleId );
-			for( final String otu: otuCounts.keySet() ) {
-				final String taxa = getTaxaName( otu, level );
-				if( taxa != null ) {
-					if( taxaCounts.get( sampleId ) == null ) taxaCounts.put( sampleId, new TreeMap<>() );
-					if( taxaCounts.get( sampleId ).get( taxa ) == null ) taxaCounts.get( sampleId ).put( taxa, 0L );
-					taxaCounts.get( sampleId ).put( taxa,
-						taxaCounts.get( sampleId ).get( taxa ) + otuCounts.get( otu ) );
-				}
-			}
+			final TreeMap<String, Long> counts = tree.getLevelCounts( sampleOtuCounts.get( sampleId ), level );
+			if( !counts.isEmpty() ) taxaCounts.put( sampleId, counts );
 		}
-
 		return taxaCounts;
 	}
 
@@ -177,12 +177,13 @@ public class TaxaUtil {
 	 */
 	public static List<String> getTaxaLevelSpan() {
 		if( levelSpan != null ) return levelSpan;
-		levelSpan = new ArrayList<>();
+		final List<String> span = new ArrayList<>();
 		for( final String level: allTaxonomyLevels() ) {
-			if( !levelSpan.isEmpty() || level.equals( topTaxaLevel() ) ) levelSpan.add( level );
+			if( !span.isEmpty() || level.equals( topTaxaLevel() ) ) span.add( level );
 			if( level.equals( bottomTaxaLevel() ) ) break;
 		}
-		return levelSpan;
+		levelSpan = span;
+		return span;
 	}
 
 	/**
@@ -366,31 +367,33 @@ public class TaxaUtil {
 	 */
 	public static TaxaLevelTable readTaxaTable(final File taxaTable) throws FileNotFoundException, IOException, BioLockJException{
 		TaxaLevelTable data = new TaxaLevelTable(TaxaUtil.getTaxonomyTableLevel( taxaTable ));
-		final List<String> otuNames = new ArrayList<>();
 		boolean foundBigValues = false;
 		
 		final BufferedReader reader = BioLockJUtil.getFileReader( taxaTable );
 		try {
-			otuNames.addAll( getOtuNames( reader.readLine() ) );
+			final List<String> otuNames = getOtuNames( reader.readLine() );
+			final int[] taxaIndexes = new int[ otuNames.size() ];
+			for( int i = 0; i < taxaIndexes.length; i++ )
+				taxaIndexes[ i ] = data.addTaxon( otuNames.get( i ) );
 			String nextLine = reader.readLine();
 
 			while( nextLine != null ) {
 				final StringTokenizer st = new StringTokenizer( nextLine, DELIM );
 				final String sampleID = st.nextToken();
-				final HashMap<String, Double> rowValues = data.newSampleRow( sampleID );
+				final int sampleIndex = data.addSample( sampleID );
 				int i = 0;
 				while( st.hasMoreTokens() ) {
 					final String nextToken = st.nextToken();
-					if( nextToken.length() > 0 ) {
-						Double cellValue = new Double( nextToken );
-						if ( (cellValue + 1) <= cellValue ) foundBigValues = true;
-						rowValues.put( otuNames.get( i ), cellValue);
-					}
-					i++;
+					if( i >= taxaIndexes.length ) throw new BioLockJException( "Header included [" + otuNames.size() +
+						"] taxa, but the row for sample [" + sampleID + "] has more values." );
+					final double cellValue = Double.parseDouble( nextToken );
+					if ( (cellValue + 1) <= cellValue ) foundBigValues = true;
+					data.setValue( sampleIndex, taxaIndexes[ i++ ], cellValue );
 				}
-				if ( rowValues.size() != otuNames.size() ) {
+				final int numValues = data.get( sampleID ).size();
+				if ( numValues != otuNames.size() ) {
 					throw new BioLockJException("Header included [" + otuNames.size() + "] taxa, but the row for sample [" + 
-				sampleID + "] has [" + rowValues.size() + "] values.");
+				sampleID + "] has [" + numValues + "] values.");
 				}
 
 				nextLine = reader.readLine();
@@ -435,12 +438,15 @@ public class TaxaUtil {
 
 		for( final String s: taxaNames ) writer.write( DELIM + s );
 
+		final int[] taxaIndexes = taxaCounts.getTaxonIndexes( taxaNames );
 		for( String sampleID : sampleNames ) {
+			final int s = taxaCounts.getSampleIndex( sampleID );
 			writer.write( Constants.RETURN );
 			writer.write( sampleID );
-			for( String taxaID : taxaNames ) {
-				writer.write( DELIM + taxaCounts.get( sampleID ).get( taxaID ) );
-			}	
+			for( final int t: taxaIndexes ) {
+				writer.write( DELIM );
+				writer.write( t < 0 || !taxaCounts.hasValue( s, t ) ? "null": Double.toString( taxaCounts.getValue( s, t ) ) );
+			}
 		}
 
 		writer.close();
@@ -463,7 +469,7 @@ public class TaxaUtil {
 
 	private static String bottomLevel = null;
 	private static List<String> configLevels = null;
-	private static List<String> levelSpan = null;
+	private static volatile List<String> levelSpan = null;
 	private static final List<String> TAXA_LEVELS = Arrays.asList( Constants.DOMAIN, Constants.PHYLUM, Constants.CLASS,
 		Constants.ORDER, Constants.FAMILY, Constants.GENUS, Constants.SPECIES );
 	private static String topLevel = null;
@@ -17,6 +17,7 @@ import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.zip.GZIPInputStream;
 import org.apache.commons.io.FilenameUtils;
 import biolockj.*;
@@ -42,6 +43,10 @@ import biolockj.module.BioModule;
  * are reported, use {@link biolockj.Config} property {@value #REPORT_ON}. To specify which file attributes are used for
  * the comparison, use use {@link biolockj.Config} property {@value #COMPARE_ON}.
  * 
+ * File digests ({@value #MD5} or the faster, non-cryptographic {@value #CRC32}) are calculated in parallel and saved in
+ * a digest cache file in the {@value #VALIDATION_FOLDER} folder, keyed by file path, size, and last-modified time, so
+ * output files that have not changed are not read again when the module is validated on restart or in precheck mode.
+ * 
  * @author Ivory
  *
  */
@@ -109,30 +114,6 @@ public class ValidationUtil {
 				", validationStatus=" + ValidationUtil.statusStrings[ this.validationStatus ] + "]";
 		}
 
-		protected void calcMd5() throws IOException, NoSuchAlgorithmException, SpecialPropertiesException, InterruptedException {
-			final MessageDigest md = MessageDigest.getInstance( "MD5" );
-			InputStream isFile= new FileInputStream( this.file.getAbsoluteFile() );
-			InputStream is;
-			if (this.file.getName().endsWith( ".gz" ) ) {
-				is = new GZIPInputStream(isFile);
-			}else {
-				is = isFile;
-			}
-			final byte[] bytes = new byte[ 1024 ];
-			int numRead;
-			do {
-				numRead = is.read( bytes );
-				if( numRead > 0 ) md.update( bytes, 0, numRead );
-			} while( numRead != -1 );
-			is.close();
-			final byte[] digest = md.digest();
-
-			String md5sum = "";
-			for( final byte element: digest )
-				md5sum += Integer.toString( ( element & 0xff ) + 0x100, 16 ).substring( 1 );
-			this.md5 = md5sum;
-		}
-
 		protected String getAtt( final String col ) throws DockerVolCreationException  {
 			switch( col ) {
 				case NAME:
@@ -141,6 +122,8 @@ public class ValidationUtil {
 					return String.valueOf( this.size );
 				case MD5:
 					return this.md5;
+				case CRC32:
+					return this.crc32;
 			}
 			if( col.equals( ValidationUtil.MATCHED_EXPECTATION ) )
 				return ValidationUtil.statusStrings[ this.validationStatus ];
@@ -156,6 +139,9 @@ public class ValidationUtil {
 				case MD5:
 					this.md5 = val;
 					break;
+				case CRC32:
+					this.crc32 = val;
+					break;
 			}
 		}
 
@@ -183,6 +169,8 @@ public class ValidationUtil {
 			return false;
 		}
 
+		private String crc32 = null;
+
 		private File file = null;
 
 		private String md5 = null;
@@ -248,11 +236,12 @@ public class ValidationUtil {
 								.forEach( p -> outputs.add( p.toFile() ) );
 				Log.debug( ValidationUtil.class, "Found [" + outputs.size() + "] files in output dir of module [" +
 					module.getModuleDir().getName() + "]." );
+				final Map<String, Map<File, String>> digests = calcDigests( module, outputs );
 				int passingFiles = 0;
 				for( final File f: outputs ) {
 					final FileSummary fs = new FileSummary( f, module.getOutputDir() );
-					if( getReportSet( module ).contains( MD5 ) ||
-						hasExp( module ) && getCompareSet( module ).contains( MD5 ) ) fs.calcMd5();
+					for( final String type: digests.keySet() )
+						fs.setAtt( type, digests.get( type ).get( f ) );
 					if( hasExp( module ) ) {
 						final String ekey = fileNameToKey( fs.getAtt( NAME ) );
 						final FileSummary expected = prevOutput.get( ekey );
@@ -289,7 +278,104 @@ public class ValidationUtil {
 	}
 
 	protected static List<String> getValidationAttributes() {
-		return new ArrayList<>( Arrays.asList( NAME, SIZE, MD5 ) );
+		return new ArrayList<>( Arrays.asList( NAME, SIZE, MD5, CRC32 ) );
+	}
+
+	/**
+	 * Calculate the digest of each output file for each digest attribute ({@value #MD5}, {@value #CRC32}) that is
+	 * reported or compared. Digests found in the digest cache for a file with the same path, size, and last-modified
+	 * time are reused. The remaining files are read in parallel, using up to
+	 * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} threads, and the cache is saved.
+	 * 
+	 * @param module BioModule being validated
+	 * @param files Output files
+	 * @return Map(digest attribute, Map(file, digest))
+	 * @throws Exception if unable to read the files or save the cache
+	 */
+	private static Map<String, Map<File, String>> calcDigests( final BioModule module, final List<File> files )
+		throws Exception {
+		final Map<String, Map<File, String>> digests = new LinkedHashMap<>();
+		for( final String type: Arrays.asList( MD5, CRC32 ) )
+			if( getReportSet( module ).contains( type ) || hasExp( module ) && getCompareSet( module ).contains( type ) )
+				digests.put( type, new HashMap<>() );
+		if( digests.isEmpty() || files.isEmpty() ) return digests;
+
+		final File cacheFile = getDigestCacheFile( module );
+		final Map<String, String[]> cache = readDigestCache( cacheFile );
+		final Map<String, String[]> newCache = new LinkedHashMap<>();
+		final Map<String, Future<String>> tasks = new LinkedHashMap<>();
+		final Integer configThreads = Config.getPositiveInteger( module, Constants.SCRIPT_NUM_THREADS );
+		final int numThreads = Math.min( files.size(),
+			configThreads == null ? Runtime.getRuntime().availableProcessors(): configThreads );
+		final ExecutorService pool = Executors.newFixedThreadPool( Math.max( 1, numThreads ) );
+		try {
+			for( final String type: digests.keySet() )
+				for( final File file: files ) {
+					final String key = type + Constants.TAB_DELIM + file.getAbsolutePath();
+					final String[] entry = cache.get( key );
+					if( entry != null && entry[ 0 ].equals( String.valueOf( file.length() ) ) &&
+						entry[ 1 ].equals( String.valueOf( file.lastModified() ) ) ) {
+						digests.get( type ).put( file, entry[ 2 ] );
+						newCache.put( key, entry );
+					} else tasks.put( key, pool.submit( () -> calcDigest( file, type ) ) );
+				}
+
+			Log.info( ValidationUtil.class, "Calculate " + tasks.size() + " file digests on " + numThreads +
+				" threads, " + newCache.size() + " found in digest cache" );
+			for( final String type: digests.keySet() )
+				for( final File file: files ) {
+					final String key = type + Constants.TAB_DELIM + file.getAbsolutePath();
+					final Future<String> task = tasks.get( key );
+					if( task == null ) continue;
+					final String digest;
+					try {
+						digest = task.get();
+					} catch( final ExecutionException ex ) {
+						if( ex.getCause() instanceof Exception ) throw (Exception) ex.getCause();
+						throw ex;
+					}
+					digests.get( type ).put( file, digest );
+					newCache.put( key, new String[] { String.valueOf( file.length() ),
+						String.valueOf( file.lastModified() ), digest } );
+				}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		writeDigestCache( cacheFile, newCache );
+		return digests;
+	}
+
+	/**
+	 * Calculate the digest of the file contents. Gzipped files are decompressed first, so the digest does not depend
+	 * on the compression settings.
+	 * 
+	 * @param file File
+	 * @param type Digest attribute: {@value #MD5} or {@value #CRC32}
+	 * @return Lower case hex digest
+	 * @throws IOException if unable to read the file
+	 * @throws NoSuchAlgorithmException if MD5 is not available
+	 */
+	private static String calcDigest( final File file, final String type )
+		throws IOException, NoSuchAlgorithmException {
+		final MessageDigest md = type.equals( MD5 ) ? MessageDigest.getInstance( "MD5" ): null;
+		final java.util.zip.CRC32 crc = md == null ? new java.util.zip.CRC32(): null;
+		final byte[] bytes = new byte[ DIGEST_BUFFER_SIZE ];
+		InputStream is = Files.newInputStream( file.toPath() );
+		try {
+			if( file.getName().endsWith( Constants.GZIP_EXT ) ) is = new GZIPInputStream( is, DIGEST_BUFFER_SIZE );
+			for( int numRead = is.read( bytes ); numRead != -1; numRead = is.read( bytes ) )
+				if( md != null ) md.update( bytes, 0, numRead );
+				else crc.update( bytes, 0, numRead );
+		} finally {
+			is.close();
+		}
+
+		if( md == null ) return String.format( "%08x", crc.getValue() );
+		final StringBuilder sb = new StringBuilder();
+		for( final byte element: md.digest() )
+			sb.append( Integer.toString( ( element & 0xff ) + 0x100, 16 ).substring( 1 ) );
+		return sb.toString();
 	}
 
 	private static boolean canHaltPipeline( final BioModule module ) throws ConfigFormatException {
@@ -340,6 +426,10 @@ public class ValidationUtil {
 		return compareFeatures;
 	}
 
+	private static File getDigestCacheFile( final BioModule module ) {
+		return new File( getValidationDir(), ModuleUtil.displaySignature( module ) + DIGEST_CACHE_SUFFIX );
+	}
+
 	private static File getExpectationFile( final BioModule module ) throws ConfigException, DockerVolCreationException {
 		File expectationFileObj = Config.getExistingFileObject( module, EXPECTATION_FILE );
 		File expectationFile = null;
@@ -411,7 +501,7 @@ public class ValidationUtil {
 
 	private static ArrayList<String> getReportSet( final BioModule module ) throws ConfigViolationException  {
 		final ArrayList<String> reportFeatures = new ArrayList<>( Config.getSet( module, REPORT_ON ) );
-		if( reportFeatures.isEmpty() ) reportFeatures.addAll( getValidationAttributes() );
+		if( reportFeatures.isEmpty() ) reportFeatures.addAll( Arrays.asList( NAME, SIZE, MD5 ) );
 		else if( !getValidationAttributes().containsAll( reportFeatures ) ) {
 			reportFeatures.removeAll( getValidationAttributes() );
 			throw new ConfigViolationException( REPORT_ON, "Cannot report on: " + reportFeatures + "." +
@@ -472,6 +562,46 @@ public class ValidationUtil {
 		return data;
 	}
 
+	/**
+	 * Read the digest cache file. Each line holds: digest attribute, file path, size, last-modified time, digest.
+	 * 
+	 * @param cacheFile Digest cache file
+	 * @return Map(digest attribute + tab + file path, [size, last-modified time, digest])
+	 */
+	private static Map<String, String[]> readDigestCache( final File cacheFile ) {
+		final Map<String, String[]> cache = new HashMap<>();
+		if( !cacheFile.isFile() ) return cache;
+		try {
+			final BufferedReader reader = BioLockJUtil.getFileReader( cacheFile );
+			try {
+				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+					final String[] cells = line.split( Constants.TAB_DELIM );
+					if( cells.length == 5 ) cache.put( cells[ 0 ] + Constants.TAB_DELIM + cells[ 1 ],
+						new String[] { cells[ 2 ], cells[ 3 ], cells[ 4 ] } );
+				}
+			} finally {
+				reader.close();
+			}
+		} catch( final IOException ex ) {
+			Log.warn( ValidationUtil.class,
+				"Unable to read digest cache, all digests will be recalculated: " + cacheFile.getAbsolutePath() );
+			cache.clear();
+		}
+		return cache;
+	}
+
+	private static void writeDigestCache( final File cacheFile, final Map<String, String[]> cache )
+		throws IOException {
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( cacheFile ) );
+		try {
+			for( final String key: cache.keySet() )
+				writer.write( key + Constants.TAB_DELIM + String.join( Constants.TAB_DELIM, cache.get( key ) ) +
+					Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+	}
+
 	private static void writeRow( final BufferedWriter writer, final ArrayList<String> row ) throws IOException {
 		try {
 			writer.write( String.join( Constants.TAB_DELIM, row ) + Constants.RETURN );
@@ -505,8 +635,8 @@ public class ValidationUtil {
 	
 	public static void registerProps() throws API_Exception{
 		Properties.registerProp( EXPECTATION_FILE, Properties.FILE_PATH, "file path that gives the expected values for file metrics (probably generated by a previous run of the same pipeline)" );
-		Properties.registerProp( COMPARE_ON, Properties.LIST_TYPE, "Which columns in the expectation file should be used for the comparison. Options: name, size, md5. Default: use all columns in the expectation file." );
-		Properties.registerProp( REPORT_ON, Properties.LIST_TYPE, "Which attributes of the file should be included in the validation report file. Options: name, size, md5" );
+		Properties.registerProp( COMPARE_ON, Properties.LIST_TYPE, "Which columns in the expectation file should be used for the comparison. Options: name, size, md5, crc32. Default: use all columns in the expectation file." );
+		Properties.registerProp( REPORT_ON, Properties.LIST_TYPE, "Which attributes of the file should be included in the validation report file. Options: name, size, md5, crc32. The crc32 checksum is much faster to calculate than md5. Default: name, size, md5" );
 		Properties.registerProp( SIZE_WITHIN_PERCENT, Properties.NUMERTIC_TYPE, "What percentage difference is permitted between an output file and its expectation. Options: any positive number" );
 		Properties.registerProp( DISABLE_VALIDATION, Properties.BOOLEAN_TYPE, "Turn off validation. No validation file output is produced. Options: Y/N. default: N" );
 		Properties.registerProp( HALT_PIPELINE, Properties.BOOLEAN_TYPE, "If enabled, the validation utlility will stop the pipeline if any module fails validation. Options: Y/N" );
@@ -524,6 +654,11 @@ public class ValidationUtil {
 	 */
 	protected static final String COMPARE_ON = "validation.compareOn";
 
+	/**
+	 * Non-cryptographic file checksum attribute, much faster to calculate than {@value #MD5}: {@value #CRC32}
+	 */
+	protected static final String CRC32 = "crc32";
+
 	protected static final int FAIL = 0;
 
 	/**
@@ -580,4 +715,8 @@ public class ValidationUtil {
 	 */
 	private static final String DISABLE_VALIDATION = "validation.disableValidation";
 
+	private static final String DIGEST_CACHE_SUFFIX = "_digestCache.txt";
+
+	private static final int DIGEST_BUFFER_SIZE = 1024 * 1024;
+
 }
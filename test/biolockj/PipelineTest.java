@@ -0,0 +1,252 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj;
+
+import static biolockj.TestRunner.assertEquals;
+import static biolockj.TestRunner.assertThrows;
+import static biolockj.TestRunner.assertTrue;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import biolockj.module.BioModule;
+import biolockj.module.BioModuleImpl;
+import biolockj.util.ModuleUtil;
+
+/**
+ * Tests for the module scheduler {@link biolockj.Pipeline#executeModulesConcurrently(int, Function)}, run with stub
+ * modules that mark themselves complete.
+ */
+public class PipelineTest {
+
+	/**
+	 * Modules that only check the type of their input module run at the same time once their input module is
+	 * complete, and a module that may update metadata waits for every earlier module.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testIndependentModules() throws Exception {
+		final List<TestModule> modules = new ArrayList<>();
+		final TestModule input = addModule( modules, false, true, null );
+		final TestModule a = addModule( modules, true, false, input );
+		final TestModule b = addModule( modules, true, false, input );
+		final TestModule last = addModule( modules, false, true, null );
+		final Runner runner = new Runner( null, null );
+		Pipeline.executeModulesConcurrently( 4, runner );
+
+		assertEquals( "Modules run", 4, runner.events.size() / 2 );
+		assertTrue( "Input module finishes 1st", runner.isBefore( "end", input, "start", a ) &&
+			runner.isBefore( "end", input, "start", b ) );
+		assertTrue( "Independent modules overlap", runner.isBefore( "start", a, "end", b ) &&
+			runner.isBefore( "start", b, "end", a ) );
+		assertTrue( "Last module waits for all", runner.isBefore( "end", a, "start", last ) &&
+			runner.isBefore( "end", b, "start", last ) );
+		assertEquals( "Max modules running", 2, runner.maxRunning.get() );
+	}
+
+	/**
+	 * Modules that check the type of their input module still wait for earlier modules that may update metadata, and
+	 * the number of modules running at once is limited by the number of slots.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testMetadataAndSlots() throws Exception {
+		final List<TestModule> modules = new ArrayList<>();
+		final TestModule input = addModule( modules, false, true, null );
+		final TestModule meta = addModule( modules, true, true, input );
+		final TestModule a = addModule( modules, true, false, input );
+		final TestModule b = addModule( modules, true, false, input );
+		final TestModule c = addModule( modules, true, false, input );
+		final Runner runner = new Runner( null, null );
+		Pipeline.executeModulesConcurrently( 2, runner );
+
+		for( final TestModule module: Arrays.asList( a, b, c ) )
+			assertTrue( "Module waits for metadata update", runner.isBefore( "end", meta, "start", module ) );
+		assertTrue( "Metadata module waits for input", runner.isBefore( "end", input, "start", meta ) );
+		assertEquals( "Max modules running", 2, runner.maxRunning.get() );
+	}
+
+	/**
+	 * Completed modules are skipped.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testSkipComplete() throws Exception {
+		final List<TestModule> modules = new ArrayList<>();
+		final TestModule done = addModule( modules, false, true, null );
+		final TestModule next = addModule( modules, false, true, null );
+		markComplete( done );
+		final Runner runner = new Runner( null, null );
+		Pipeline.executeModulesConcurrently( 2, runner );
+		assertEquals( "Modules run", Arrays.asList( "start " + next.getID(), "end " + next.getID() ), runner.events );
+	}
+
+	/**
+	 * If a module fails, later modules do not start, the module error is thrown, and the failed module is set as the
+	 * module of the calling thread.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testFailure() throws Exception {
+		final List<TestModule> modules = new ArrayList<>();
+		addModule( modules, false, true, null );
+		final TestModule failed = addModule( modules, false, true, null );
+		final TestModule after = addModule( modules, false, true, null );
+		final Runner runner = new Runner( failed, null );
+		final Exception ex = assertThrows( "Module failure", Exception.class,
+			() -> Pipeline.executeModulesConcurrently( 2, runner ) );
+		assertEquals( "Module error", FAILED, ex.getMessage() );
+		assertEquals( "Failed module", failed, Pipeline.exeModule() );
+		assertTrue( "Later module not started", !runner.events.contains( "start " + after.getID() ) );
+	}
+
+	/**
+	 * If pending modules can never start, an error names them and the modules they wait for.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testPendingModules() throws Exception {
+		final List<TestModule> modules = new ArrayList<>();
+		final TestModule incomplete = addModule( modules, false, true, null );
+		final TestModule stuck = addModule( modules, false, true, null );
+		final Runner runner = new Runner( null, incomplete );
+		final Exception ex = assertThrows( "Pending modules", Exception.class,
+			() -> Pipeline.executeModulesConcurrently( 2, runner ) );
+		assertTrue( "Error names the modules: " + ex.getMessage(),
+			ex.getMessage().contains( ModuleUtil.displaySignature( stuck ) + " waits for: " +
+				ModuleUtil.displaySignature( incomplete ) ) );
+		assertEquals( "Pending module", stuck, Pipeline.exeModule() );
+	}
+
+	private static TestModule addModule( final List<TestModule> modules, final boolean checksType,
+		final boolean updatesMetadata, final BioModule input ) throws Exception {
+		if( modules.isEmpty() ) setModules( modules );
+		final TestModule module = new TestModule( modules.size(), TestRunner.getTempDir( "module" ), checksType,
+			updatesMetadata, input );
+		modules.add( module );
+		return module;
+	}
+
+	private static void markComplete( final BioModule module ) throws Exception {
+		new File( module.getModuleDir(), Constants.BLJ_COMPLETE ).createNewFile();
+		module.getModuleDir().deleteOnExit();
+		new File( module.getModuleDir(), Constants.BLJ_COMPLETE ).deleteOnExit();
+	}
+
+	private static void setModules( final List<? extends BioModule> modules ) throws Exception {
+		final Field field = Pipeline.class.getDeclaredField( "bioModules" );
+		field.setAccessible( true );
+		field.set( null, modules );
+	}
+
+	/**
+	 * Runs each module by recording its start and end, and marks it complete unless it fails or is left incomplete.
+	 */
+	private static final class Runner implements Function<BioModule, Exception> {
+
+		private Runner( final BioModule failed, final BioModule incomplete ) {
+			this.failed = failed;
+			this.incomplete = incomplete;
+		}
+
+		@Override
+		public Exception apply( final BioModule module ) {
+			this.maxRunning.accumulateAndGet( this.running.incrementAndGet(), Math::max );
+			this.events.add( "start " + module.getID() );
+			try {
+				Thread.sleep( MODULE_RUNTIME );
+				if( module == this.failed ) return new Exception( FAILED );
+				if( module != this.incomplete ) markComplete( module );
+				return null;
+			} catch( final Exception ex ) {
+				return ex;
+			} finally {
+				this.running.decrementAndGet();
+				this.events.add( "end " + module.getID() );
+			}
+		}
+
+		private boolean isBefore( final String event1, final BioModule module1, final String event2,
+			final BioModule module2 ) {
+			final int i = this.events.indexOf( event1 + " " + module1.getID() );
+			final int j = this.events.indexOf( event2 + " " + module2.getID() );
+			return i >= 0 && j >= 0 && i < j;
+		}
+
+		private final List<String> events = Collections.synchronizedList( new ArrayList<>() );
+		private final BioModule failed;
+		private final BioModule incomplete;
+		private final AtomicInteger maxRunning = new AtomicInteger();
+		private final AtomicInteger running = new AtomicInteger();
+	}
+
+	/**
+	 * Stub module with a fixed ID and module directory.
+	 */
+	private static final class TestModule extends BioModuleImpl {
+
+		private TestModule( final int id, final File dir, final boolean checksType, final boolean updatesMetadata,
+			final BioModule input ) {
+			this.id = id;
+			this.dir = dir;
+			this.checksType = checksType;
+			this.updatesMetadata = updatesMetadata;
+			this.input = input;
+		}
+
+		@Override
+		public void checkDependencies() {}
+
+		@Override
+		public boolean checksInputModuleType() {
+			return this.checksType;
+		}
+
+		@Override
+		public void executeTask() {}
+
+		@Override
+		public String getDockerImageName() {
+			return null;
+		}
+
+		@Override
+		public Integer getID() {
+			return this.id;
+		}
+
+		@Override
+		public File getModuleDir() {
+			return this.dir;
+		}
+
+		@Override
+		public boolean isValidInputModule( final BioModule module ) {
+			return module == this.input;
+		}
+
+		@Override
+		public boolean mayUpdateMetadata() {
+			return this.updatesMetadata;
+		}
+
+		private final boolean checksType;
+		private final File dir;
+		private final int id;
+		private final BioModule input;
+		private final boolean updatesMetadata;
+	}
+
+	private static final String FAILED = "Module failed";
+	private static final long MODULE_RUNTIME = 200L;
+}
@@ -0,0 +1,144 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj;
+
+import java.io.File;
+import java.lang.reflect.*;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Runs the BioLockJ unit tests without a test framework dependency.<br>
+ * Every class named *Test under the test class directory is loaded, and each of its public static no-arg methods
+ * whose name starts with "test" is run in name order. A test fails if it throws. The exit status is 1 if any test
+ * fails.
+ */
+public class TestRunner {
+
+	// Prevent instantiation
+	private TestRunner() {}
+
+	/**
+	 * Assert a condition.
+	 *
+	 * @param msg Failure message
+	 * @param condition Condition that must hold
+	 */
+	public static void assertTrue( final String msg, final boolean condition ) {
+		if( !condition ) throw new AssertionError( msg );
+	}
+
+	/**
+	 * Assert two values are equal.
+	 *
+	 * @param msg Failure message
+	 * @param expected Expected value
+	 * @param actual Actual value
+	 */
+	public static void assertEquals( final String msg, final Object expected, final Object actual ) {
+		if( !Objects.equals( expected, actual ) )
+			throw new AssertionError( msg + ": expected [" + expected + "] but was [" + actual + "]" );
+	}
+
+	/**
+	 * Assert the task throws an exception of the expected type.
+	 *
+	 * @param msg Failure message
+	 * @param type Expected exception type
+	 * @param task Task to run
+	 * @return The exception thrown
+	 */
+	public static <T extends Throwable> T assertThrows( final String msg, final Class<T> type, final Task task ) {
+		try {
+			task.run();
+		} catch( final Throwable ex ) {
+			if( type.isInstance( ex ) ) return type.cast( ex );
+			throw new AssertionError( msg + ": expected " + type.getSimpleName() + " but was " + ex, ex );
+		}
+		throw new AssertionError( msg + ": expected " + type.getSimpleName() );
+	}
+
+	/**
+	 * Create an empty temporary directory for a test.
+	 *
+	 * @param name Directory name prefix
+	 * @return Directory
+	 * @throws Exception if unable to create the directory
+	 */
+	public static File getTempDir( final String name ) throws Exception {
+		final File dir = Files.createTempDirectory( "bljTest_" + name + "_" ).toFile();
+		dir.deleteOnExit();
+		return dir;
+	}
+
+	/**
+	 * Run the tests.
+	 *
+	 * @param args Test class directory
+	 * @throws Exception if unable to load the test classes
+	 */
+	public static void main( final String[] args ) throws Exception {
+		final File dir = new File( args.length > 0 ? args[ 0 ]: "test-bin" );
+		final List<String> classNames = new ArrayList<>();
+		findTests( dir, "", classNames );
+		Collections.sort( classNames );
+
+		int numRun = 0;
+		final List<String> failures = new ArrayList<>();
+		for( final String className: classNames ) {
+			final List<Method> tests = new ArrayList<>();
+			for( final Method method: Class.forName( className ).getMethods() )
+				if( method.getName().startsWith( "test" ) && method.getParameterCount() == 0 &&
+					Modifier.isStatic( method.getModifiers() ) ) tests.add( method );
+			Collections.sort( tests, ( a, b ) -> a.getName().compareTo( b.getName() ) );
+
+			for( final Method test: tests ) {
+				final String name = className + "." + test.getName();
+				numRun++;
+				try {
+					test.invoke( null );
+					System.out.println( "PASS " + name );
+				} catch( final InvocationTargetException ex ) {
+					failures.add( name );
+					System.out.println( "FAIL " + name );
+					ex.getCause().printStackTrace( System.out );
+				}
+			}
+		}
+
+		System.out.println( "Tests run: " + numRun + ", failures: " + failures.size() );
+		for( final String name: failures )
+			System.out.println( "FAILED: " + name );
+		System.exit( failures.isEmpty() ? 0: 1 );
+	}
+
+	private static void findTests( final File dir, final String pkg, final List<String> classNames ) {
+		final File[] files = dir.listFiles();
+		if( files != null ) for( final File file: files )
+			if( file.isDirectory() ) findTests( file, pkg + file.getName() + ".", classNames );
+			else if( file.getName().endsWith( "Test.class" ) )
+				classNames.add( pkg + file.getName().substring( 0, file.getName().length() - ".class".length() ) );
+	}
+
+	/**
+	 * Test code expected to throw.
+	 */
+	public interface Task {
+
+		/**
+		 * Run the code.
+		 *
+		 * @throws Exception if the code fails
+		 */
+		public void run() throws Exception;
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import static biolockj.TestRunner.assertEquals;
+import static biolockj.TestRunner.assertTrue;
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import biolockj.TestRunner;
+
+/**
+ * Tests for the BGZF codec in {@link biolockj.util.GzipUtil}, {@link biolockj.util.BgzfOutputStream} and
+ * {@link biolockj.util.BgzfInputStream}.
+ */
+public class GzipUtilTest {
+
+	/**
+	 * BGZF output decompresses to the bytes written, for sizes around the block size.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testBgzfRoundTrip() throws Exception {
+		for( final int size: SIZES ) {
+			final byte[] data = getData( size );
+			assertTrue( "Round trip of " + size + " bytes", Arrays.equals( data, inflateBgzf( deflateBgzf( data ) ) ) );
+		}
+	}
+
+	/**
+	 * BGZF output is a valid multi-member gzip file.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testBgzfReadByGzip() throws Exception {
+		final byte[] data = getData( 3 * BgzfOutputStream.BLOCK_SIZE + 17 );
+		final InputStream in = new GZIPInputStream( new ByteArrayInputStream( deflateBgzf( data ) ) );
+		try {
+			assertTrue( "GZIPInputStream reads BGZF", Arrays.equals( data, readAll( in ) ) );
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Files written by GzipUtil are detected as BGZF, and plain gzip files are still read.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testGzipFiles() throws Exception {
+		final File dir = TestRunner.getTempDir( "gzip" );
+		final byte[] data = getData( 2 * BgzfOutputStream.BLOCK_SIZE + 5 );
+		final File bgzf = new File( dir, "bgzf.txt.gz" );
+		final File gzip = new File( dir, "gzip.txt.gz" );
+		try {
+			OutputStream out = GzipUtil.getOutputStream( bgzf );
+			out.write( data );
+			out.close();
+			out = new GZIPOutputStream( new FileOutputStream( gzip ) );
+			out.write( data );
+			out.close();
+
+			for( final File file: new File[] { bgzf, gzip } ) {
+				final InputStream in = new BufferedInputStream( new FileInputStream( file ) );
+				try {
+					assertEquals( "BGZF detected for " + file.getName(), file == bgzf, BgzfInputStream.isBgzf( in ) );
+				} finally {
+					in.close();
+				}
+				final InputStream gz = GzipUtil.getInputStream( file );
+				try {
+					assertTrue( "Read " + file.getName(), Arrays.equals( data, readAll( gz ) ) );
+				} finally {
+					gz.close();
+				}
+			}
+		} finally {
+			bgzf.delete();
+			gzip.delete();
+			dir.delete();
+		}
+	}
+
+	/**
+	 * Single byte writes and reads match bulk writes and reads.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testSingleBytes() throws Exception {
+		final byte[] data = getData( BgzfOutputStream.BLOCK_SIZE + 3 );
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final OutputStream out = new BgzfOutputStream( bytes );
+		for( final byte b: data )
+			out.write( b );
+		out.close();
+
+		final InputStream in = new BgzfInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+		try {
+			for( int i = 0; i < data.length; i++ )
+				assertEquals( "Byte " + i, data[ i ] & 0xff, in.read() );
+			assertEquals( "End of stream", -1, in.read() );
+		} finally {
+			in.close();
+		}
+	}
+
+	private static byte[] deflateBgzf( final byte[] data ) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final OutputStream out = new BgzfOutputStream( bytes );
+		out.write( data );
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Get compressible test data: random bases with a few random bytes.
+	 */
+	private static byte[] getData( final int size ) {
+		final Random random = new Random( size );
+		final byte[] data = new byte[ size ];
+		for( int i = 0; i < size; i++ )
+			data[ i ] = i % 100 == 0 ? (byte) random.nextInt( 256 ): (byte) "ACGT\n".charAt( random.nextInt( 5 ) );
+		return data;
+	}
+
+	private static byte[] inflateBgzf( final byte[] data ) throws IOException {
+		final InputStream in = new BgzfInputStream( new ByteArrayInputStream( data ) );
+		try {
+			return readAll( in );
+		} finally {
+			in.close();
+		}
+	}
+
+	private static byte[] readAll( final InputStream in ) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[ 8192 ];
+		for( int n = in.read( buffer ); n >= 0; n = in.read( buffer ) )
+			out.write( buffer, 0, n );
+		return out.toByteArray();
+	}
+
+	private static final int[] SIZES = { 0, 1, BgzfOutputStream.BLOCK_SIZE - 1, BgzfOutputStream.BLOCK_SIZE,
+		BgzfOutputStream.BLOCK_SIZE + 1, 5 * BgzfOutputStream.BLOCK_SIZE + 123 };
+}
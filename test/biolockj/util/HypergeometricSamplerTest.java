@@ -0,0 +1,85 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import static biolockj.TestRunner.assertEquals;
+import static biolockj.TestRunner.assertThrows;
+import static biolockj.TestRunner.assertTrue;
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link biolockj.util.HypergeometricSampler}.
+ */
+public class HypergeometricSamplerTest {
+
+	/**
+	 * Samples that do not need a random draw.
+	 */
+	public static void testEdgeCases() {
+		final SplittableRandom random = new SplittableRandom( 1 );
+		assertEquals( "Empty sample", 0L, HypergeometricSampler.sample( random, 10, 10, 0 ) );
+		assertEquals( "No good items", 0L, HypergeometricSampler.sample( random, 0, 10, 5 ) );
+		assertEquals( "No bad items", 5L, HypergeometricSampler.sample( random, 10, 0, 5 ) );
+		assertEquals( "Whole population", 10L, HypergeometricSampler.sample( random, 10, 7, 17 ) );
+		assertThrows( "Sample larger than population", IllegalArgumentException.class,
+			() -> HypergeometricSampler.sample( random, 10, 7, 18 ) );
+	}
+
+	/**
+	 * Samples are in the valid range and have the expected mean, for small samples (HYP) and large samples (HRUA).
+	 */
+	public static void testMean() {
+		final long[][] cases = { { 30, 70, 5 }, { 3, 997, 10 }, { 300, 700, 50 }, { 400000, 600000, 250000 },
+			{ 50, 1000000, 20000 } };
+		final SplittableRandom random = new SplittableRandom( 9 );
+		final int numTrials = 20000;
+		for( final long[] c: cases ) {
+			final long good = c[ 0 ];
+			final long bad = c[ 1 ];
+			final long sample = c[ 2 ];
+			final long total = good + bad;
+			final double mean = (double) sample * good / total;
+			final double var = mean * bad / total * ( total - sample ) / ( total - 1 );
+			double sum = 0.0;
+			for( int t = 0; t < numTrials; t++ ) {
+				final long x = HypergeometricSampler.sample( random, good, bad, sample );
+				assertTrue( "Sample " + x + " in range for " + good + "/" + bad + "/" + sample,
+					x >= Math.max( 0, sample - bad ) && x <= Math.min( sample, good ) );
+				sum += x;
+			}
+			final double error = Math.abs( sum / numTrials - mean );
+			assertTrue( "Mean " + sum / numTrials + " expected " + mean,
+				error <= 6 * Math.sqrt( var / numTrials ) + 1e-9 );
+		}
+	}
+
+	/**
+	 * A count vector sample draws the sample size in total, and no more than the count of any category.
+	 */
+	public static void testCountVector() {
+		final long[] counts = { 0, 1, 5, 1000, 3, 250000, 17 };
+		long total = 0L;
+		for( final long count: counts )
+			total += count;
+		final SplittableRandom random = new SplittableRandom( 2 );
+		final long[] drawn = new long[ counts.length ];
+		for( final long sample: new long[] { 0, 1, 10, 1000, total / 2, total } ) {
+			HypergeometricSampler.sample( random, counts, total, sample, drawn );
+			long sum = 0L;
+			for( int i = 0; i < counts.length; i++ ) {
+				assertTrue( "Category " + i + " drew " + drawn[ i ], drawn[ i ] >= 0 && drawn[ i ] <= counts[ i ] );
+				sum += drawn[ i ];
+			}
+			assertEquals( "Sample size", sample, sum );
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import static biolockj.TestRunner.assertEquals;
+import java.io.*;
+import java.util.*;
+import biolockj.Constants;
+import biolockj.TestRunner;
+
+/**
+ * Tests for {@link biolockj.util.OtuCountMerge}.
+ */
+public class OtuCountMergeTest {
+
+	/**
+	 * Unsorted files and repeated OTUs are merged into one count per OTU, in OTU order, and each OTU is counted once per
+	 * sample.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testMerge() throws Exception {
+		final File dir = TestRunner.getTempDir( "otuMerge" );
+		final File tempDir = new File( dir, "temp" );
+		tempDir.mkdir();
+		final List<File> files = new ArrayList<>();
+		files.add( writeOtuCounts( dir, "s1", "a\t1", "b\t2", "d\t4" ) );
+		files.add( writeOtuCounts( dir, "s2", "b\t10", "c\t3", "a\t5", "e\t1" ) );
+		files.add( writeOtuCounts( dir, "s3", "c\t7", "c\t2" ) );
+
+		final OtuCountMerge merge = new OtuCountMerge( files, tempDir );
+		final Map<String, Long> counts = new LinkedHashMap<>();
+		try {
+			while( merge.next() )
+				counts.put( merge.getOtu(), merge.getCount() );
+		} finally {
+			merge.close();
+		}
+
+		assertEquals( "OTU order", Arrays.asList( "a", "b", "c", "d", "e" ), new ArrayList<>( counts.keySet() ) );
+		assertEquals( "OTU counts", Arrays.asList( 6L, 12L, 12L, 4L, 1L ), new ArrayList<>( counts.values() ) );
+		final Map<String, Long> numOtus = merge.getSampleOtuCounts();
+		assertEquals( "s1 OTUs", 3L, numOtus.get( "s1" ) );
+		assertEquals( "s2 OTUs", 4L, numOtus.get( "s2" ) );
+		assertEquals( "s3 OTUs", 1L, numOtus.get( "s3" ) );
+		assertEquals( "Temp files removed", 0, tempDir.list().length );
+		delete( dir );
+	}
+
+	/**
+	 * More files than {@value biolockj.util.OtuCountMerge#MAX_OPEN_RUNS} are merged through temp files, and the
+	 * merged file matches the sum of the counts.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testManyFiles() throws Exception {
+		final File dir = TestRunner.getTempDir( "otuMergeMany" );
+		final File tempDir = new File( dir, "temp" );
+		tempDir.mkdir();
+		final Random random = new Random( 1 );
+		final List<File> files = new ArrayList<>();
+		final TreeMap<String, Long> expected = new TreeMap<>();
+		for( int i = 0; i < 2 * OtuCountMerge.MAX_OPEN_RUNS + 10; i++ ) {
+			final List<String> lines = new ArrayList<>();
+			for( final String otu: getOtus( random ) ) {
+				final long count = 1 + random.nextInt( 50 );
+				lines.add( otu + Constants.TAB_DELIM + count );
+				expected.merge( otu, count, Long::sum );
+			}
+			if( i % 100 == 5 ) Collections.reverse( lines );
+			files.add( writeOtuCounts( dir, "s" + i, lines.toArray( new String[ 0 ] ) ) );
+		}
+
+		final File merged = new File( dir, "merged" + Constants.TSV_EXT );
+		final OtuCountMerge merge = new OtuCountMerge( files, tempDir );
+		try {
+			merge.write( merged );
+		} finally {
+			merge.close();
+		}
+
+		assertEquals( "Merged OTU counts", expected, OtuUtil.compileSampleOtuCounts( merged ) );
+		assertEquals( "Samples", files.size(), merge.getSampleOtuCounts().size() );
+		assertEquals( "Temp files removed", 0, tempDir.list().length );
+		delete( dir );
+	}
+
+	private static void delete( final File dir ) {
+		for( final File file: dir.listFiles() )
+			if( file.isDirectory() ) delete( file );
+			else file.delete();
+		dir.delete();
+	}
+
+	private static Set<String> getOtus( final Random random ) {
+		final Set<String> otus = new TreeSet<>();
+		for( int i = 0; i < 20; i++ )
+			otus.add( "d__Bacteria|g__genus" + random.nextInt( 100 ) );
+		return otus;
+	}
+
+	/**
+	 * Write an OTU count file named as in ParserModule output.
+	 */
+	private static File writeOtuCounts( final File dir, final String sampleId, final String... lines )
+		throws IOException {
+		final File file = new File( dir, "test_" + Constants.OTU_COUNT + "_" + sampleId + Constants.TSV_EXT );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			for( final String line: lines )
+				writer.write( line + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+}
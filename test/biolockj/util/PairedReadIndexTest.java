@@ -0,0 +1,152 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import static biolockj.TestRunner.assertEquals;
+import static biolockj.TestRunner.assertThrows;
+import static biolockj.TestRunner.assertTrue;
+import java.io.*;
+import java.util.*;
+import biolockj.Config;
+import biolockj.Constants;
+import biolockj.TestRunner;
+import biolockj.exception.SequnceFormatException;
+
+/**
+ * Tests for {@link biolockj.util.PairedReadIndex} on fastq files.
+ */
+public class PairedReadIndexTest {
+
+	/**
+	 * Headers are found by their read name, ignoring the Illumina read direction, and the filter selects the reads
+	 * indexed.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testBuild() throws Exception {
+		final File dir = init();
+		final File fw = writeReads( dir, "fw.fastq", Arrays.asList( 3, 1, 2, 5 ), FW_IND );
+		final PairedReadIndex index = PairedReadIndex.build( fw, null );
+		assertEquals( "Index size", 4, index.size() );
+		assertTrue( "Found forward header", index.contains( getHeader( 2, FW_IND ) ) );
+		assertTrue( "Found reverse header", index.contains( getHeader( 5, RV_IND ) ) );
+		assertTrue( "Missing header", !index.contains( getHeader( 4, FW_IND ) ) );
+
+		final PairedReadIndex filtered = PairedReadIndex.build( fw, read -> !read.getHeader().startsWith( "@read1 " ) );
+		assertEquals( "Filtered index size", 3, filtered.size() );
+		assertTrue( "Filtered header", !filtered.contains( getHeader( 1, FW_IND ) ) );
+		delete( dir );
+	}
+
+	/**
+	 * A repeated header is rejected.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testDuplicateHeader() throws Exception {
+		final File dir = init();
+		final File fw = writeReads( dir, "fw.fastq", Arrays.asList( 1, 2, 1 ), FW_IND );
+		assertThrows( "Duplicate header", SequnceFormatException.class, () -> PairedReadIndex.build( fw, null ) );
+		delete( dir );
+	}
+
+	/**
+	 * retainAll keeps the reads found in both indexes.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testRetainAll() throws Exception {
+		final File dir = init();
+		final PairedReadIndex fw =
+			PairedReadIndex.build( writeReads( dir, "fw.fastq", Arrays.asList( 1, 2, 3, 4, 6 ), FW_IND ), null );
+		final PairedReadIndex rv =
+			PairedReadIndex.build( writeReads( dir, "rv.fastq", Arrays.asList( 6, 4, 2, 5 ), RV_IND ), null );
+		fw.retainAll( rv );
+		assertEquals( "Paired reads", 3, fw.size() );
+		for( int i = 1; i <= 6; i++ )
+			assertEquals( "Read " + i + " paired", i % 2 == 0, fw.contains( getHeader( i, FW_IND ) ) );
+		delete( dir );
+	}
+
+	/**
+	 * Unpaired reads are counted for files in matching order and in different orders.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public static void testCountUnpairedReads() throws Exception {
+		final File dir = init();
+		final List<Integer> ids = new ArrayList<>();
+		for( int i = 0; i < 1000; i++ )
+			ids.add( i );
+		final File fw = writeReads( dir, "fw.fastq", ids, FW_IND );
+		final File rv = writeReads( dir, "rv.fastq", ids, RV_IND );
+		assertEquals( "Lockstep", Arrays.asList( 0L, 0L ), toList( PairedReadIndex.countUnpairedReads( fw, rv, dir ) ) );
+
+		final List<Integer> rvIds = new ArrayList<>( ids.subList( 10, ids.size() ) );
+		rvIds.addAll( Arrays.asList( 2000, 2001, 2002 ) );
+		Collections.shuffle( rvIds, new Random( 1 ) );
+		final File shuffled = writeReads( dir, "shuffled.fastq", rvIds, RV_IND );
+		assertEquals( "Unpaired reads", Arrays.asList( 10L, 3L ),
+			toList( PairedReadIndex.countUnpairedReads( fw, shuffled, dir ) ) );
+		delete( dir );
+	}
+
+	private static void delete( final File dir ) {
+		for( final File file: dir.listFiles() )
+			file.delete();
+		dir.delete();
+	}
+
+	private static String getHeader( final int id, final String direction ) {
+		return "@read" + id + direction + "0:ACGT";
+	}
+
+	/**
+	 * Initialize the Config with fastq input, and get a temp directory for the test files.
+	 */
+	private static File init() throws Exception {
+		final File dir = TestRunner.getTempDir( "pairedReads" );
+		final File config = new File( dir, "test.properties" );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( config ) );
+		try {
+			writer.write( Constants.INTERNAL_SEQ_TYPE + "=" + Constants.FASTQ + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+		Config.partiallyInitialize( config );
+		return dir;
+	}
+
+	private static List<Long> toList( final long[] vals ) {
+		final List<Long> list = new ArrayList<>();
+		for( final long val: vals )
+			list.add( val );
+		return list;
+	}
+
+	private static File writeReads( final File dir, final String name, final List<Integer> ids, final String direction )
+		throws IOException {
+		final File file = new File( dir, name );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			for( final int id: ids )
+				writer.write( getHeader( id, direction ) + Constants.RETURN + "ACGT" + Constants.RETURN + "+" +
+					Constants.RETURN + "IIII" + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+
+	private static final String FW_IND = SeqUtil.ILLUMINA_FW_READ_IND;
+	private static final String RV_IND = SeqUtil.ILLUMINA_RV_READ_IND;
+}
@@ -0,0 +1,93 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import static biolockj.TestRunner.assertEquals;
+import static biolockj.TestRunner.assertThrows;
+import static biolockj.TestRunner.assertTrue;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests for {@link biolockj.util.ReservoirSampler}.
+ */
+public class ReservoirSamplerTest {
+
+	/**
+	 * The 1st items fill the reservoir in order, and later items replace a valid slot or are skipped.
+	 */
+	public static void testSlots() {
+		final ReservoirSampler sampler = new ReservoirSampler( 10, new Random( 1 ) );
+		for( int i = 0; i < 10; i++ )
+			assertEquals( "Fill slot", i, sampler.offer() );
+		for( int i = 10; i < 10000; i++ ) {
+			final int slot = sampler.offer();
+			assertTrue( "Slot in range: " + slot, slot >= -1 && slot < 10 );
+		}
+		assertEquals( "Count", 10000L, sampler.getCount() );
+	}
+
+	/**
+	 * Each item is kept with probability size / count.
+	 */
+	public static void testUniform() {
+		final int numItems = 100;
+		final int size = 10;
+		final int numTrials = 20000;
+		final int[] kept = new int[ numItems ];
+		final Random random = new Random( 7 );
+		for( int t = 0; t < numTrials; t++ ) {
+			final int[] reservoir = new int[ size ];
+			final ReservoirSampler sampler = new ReservoirSampler( size, random );
+			for( int i = 0; i < numItems; i++ ) {
+				final int slot = sampler.offer();
+				if( slot >= 0 ) reservoir[ slot ] = i;
+			}
+			for( final int item: reservoir )
+				kept[ item ]++;
+		}
+		for( int i = 0; i < numItems; i++ ) {
+			final double p = (double) kept[ i ] / numTrials;
+			assertTrue( "Item " + i + " kept with probability " + p, Math.abs( p - 0.1 ) < 0.015 );
+		}
+	}
+
+	/**
+	 * The same seed gives the same sample.
+	 */
+	public static void testSeed() {
+		assertTrue( "Same seed", Arrays.equals( sample( 42 ), sample( 42 ) ) );
+		assertTrue( "Different seed", !Arrays.equals( sample( 42 ), sample( 43 ) ) );
+	}
+
+	/**
+	 * A reservoir of size 0 skips every item, and a negative size is rejected.
+	 */
+	public static void testSize() {
+		final ReservoirSampler sampler = new ReservoirSampler( 0, new Random( 1 ) );
+		for( int i = 0; i < 1000; i++ )
+			assertEquals( "Skip item", -1, sampler.offer() );
+		assertEquals( "Count", 1000L, sampler.getCount() );
+		assertThrows( "Negative size", IllegalArgumentException.class,
+			() -> new ReservoirSampler( -1, new Random( 1 ) ) );
+	}
+
+	private static int[] sample( final long seed ) {
+		final int[] reservoir = new int[ 20 ];
+		final ReservoirSampler sampler = new ReservoirSampler( reservoir.length, new Random( seed ) );
+		for( int i = 0; i < 100000; i++ ) {
+			final int slot = sampler.offer();
+			if( slot >= 0 ) reservoir[ slot ] = i;
+		}
+		return reservoir;
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 18, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import static biolockj.TestRunner.assertEquals;
+import static biolockj.TestRunner.assertThrows;
+import static biolockj.TestRunner.assertTrue;
+import java.util.Random;
+
+/**
+ * Tests for {@link biolockj.util.SequentialSampler}.
+ */
+public class SequentialSamplerTest {
+
+	/**
+	 * Exactly sampleSize distinct indexes are returned in ascending order, for small and large populations (method A
+	 * and method D).
+	 */
+	public static void testIndexes() {
+		final long[][] cases = { { 10, 0 }, { 10, 1 }, { 10, 10 }, { 1000, 999 }, { 1000000, 100 }, { 5000000, 20000 } };
+		final Random random = new Random( 3 );
+		for( final long[] c: cases ) {
+			final SequentialSampler sampler = new SequentialSampler( c[ 0 ], c[ 1 ], random );
+			long prev = -1L;
+			for( long i = 0; i < c[ 1 ]; i++ ) {
+				final long index = sampler.next();
+				assertTrue( "Ascending index " + index + " after " + prev + " in " + c[ 0 ], index > prev );
+				assertTrue( "Index " + index + " < " + c[ 0 ], index < c[ 0 ] );
+				prev = index;
+			}
+			assertEquals( "End of sample", -1L, sampler.next() );
+		}
+	}
+
+	/**
+	 * Each index is selected with probability sampleSize / populationSize.
+	 */
+	public static void testUniform() {
+		final int populationSize = 200;
+		final int sampleSize = 10;
+		final int numTrials = 40000;
+		final int[] selected = new int[ populationSize ];
+		final Random random = new Random( 11 );
+		for( int t = 0; t < numTrials; t++ ) {
+			final SequentialSampler sampler = new SequentialSampler( populationSize, sampleSize, random );
+			for( long index = sampler.next(); index >= 0; index = sampler.next() )
+				selected[ (int) index ]++;
+		}
+		for( int i = 0; i < populationSize; i++ ) {
+			final double p = (double) selected[ i ] / numTrials;
+			assertTrue( "Index " + i + " selected with probability " + p, Math.abs( p - 0.05 ) < 0.01 );
+		}
+	}
+
+	/**
+	 * The same seed gives the same indexes.
+	 */
+	public static void testSeed() {
+		final SequentialSampler a = new SequentialSampler( 100000, 50, new Random( 5 ) );
+		final SequentialSampler b = new SequentialSampler( 100000, 50, new Random( 5 ) );
+		for( int i = 0; i <= 50; i++ )
+			assertEquals( "Index " + i, a.next(), b.next() );
+	}
+
+	/**
+	 * Sample sizes outside [0, populationSize] are rejected.
+	 */
+	public static void testInvalidSize() {
+		assertThrows( "Sample too large", IllegalArgumentException.class,
+			() -> new SequentialSampler( 10, 11, new Random( 1 ) ) );
+		assertThrows( "Negative sample", IllegalArgumentException.class,
+			() -> new SequentialSampler( 10, -1, new Random( 1 ) ) );
+	}
+}